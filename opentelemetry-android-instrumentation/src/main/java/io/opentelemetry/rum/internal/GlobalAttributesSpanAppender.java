@@ -26,6 +26,7 @@ import io.opentelemetry.sdk.trace.ReadableSpan;
 import io.opentelemetry.sdk.trace.SpanProcessor;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * A {@link SpanProcessor} implementation that appends a set of {@linkplain Attributes attributes}
@@ -35,7 +36,7 @@ import java.util.function.Consumer;
  * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
  * at any time.
  */
-public final class GlobalAttributesSpanAppender implements SpanProcessor {
+public final class GlobalAttributesSpanAppender implements SpanProcessor, Supplier<Attributes> {
 
     /**
      * Returns a new {@link GlobalAttributesSpanAppender} with a given initial attributes.
@@ -70,6 +71,15 @@ public final class GlobalAttributesSpanAppender implements SpanProcessor {
         return false;
     }
 
+    /**
+     * Returns the current global set of attributes. A new {@link Attributes} instance is returned
+     * only after the attributes have been {@linkplain #update(Consumer) updated}.
+     */
+    @Override
+    public Attributes get() {
+        return attributes.get();
+    }
+
     /**
      * Update the global set of attributes that will be appended to every span.
      *
@@ -20,20 +20,24 @@ import android.app.Application;
 import io.opentelemetry.rum.internal.instrumentation.ApplicationStateListener;
 import io.opentelemetry.rum.internal.instrumentation.InstrumentedApplication;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
+import java.util.concurrent.ScheduledExecutorService;
 
 final class InstrumentedApplicationImpl implements InstrumentedApplication {
 
     private final Application application;
     private final OpenTelemetrySdk openTelemetrySdk;
     private final ApplicationStateWatcher applicationStateWatcher;
+    private final ScheduledExecutorService scheduler;
 
     InstrumentedApplicationImpl(
             Application application,
             OpenTelemetrySdk openTelemetrySdk,
-            ApplicationStateWatcher applicationStateWatcher) {
+            ApplicationStateWatcher applicationStateWatcher,
+            ScheduledExecutorService scheduler) {
         this.application = application;
         this.openTelemetrySdk = openTelemetrySdk;
         this.applicationStateWatcher = applicationStateWatcher;
+        this.scheduler = scheduler;
     }
 
     @Override
@@ -46,6 +50,11 @@ final class InstrumentedApplicationImpl implements InstrumentedApplication {
         return openTelemetrySdk;
     }
 
+    @Override
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
     @Override
     public void registerApplicationStateListener(ApplicationStateListener listener) {
         applicationStateWatcher.registerListener(listener);
@@ -17,6 +17,7 @@
 package io.opentelemetry.rum.internal;
 
 import android.app.Application;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.rum.internal.instrumentation.InstrumentedApplication;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
@@ -29,8 +30,10 @@ import io.opentelemetry.sdk.trace.SdkTracerProvider;
 import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * A builder of {@link OpenTelemetryRum}. It enabled configuring the OpenTelemetry SDK and disabling
@@ -42,6 +45,7 @@ import java.util.function.Consumer;
 public final class OpenTelemetryRumBuilder {
 
     private final SessionId sessionId;
+    private final ScheduledExecutorService scheduler = RumScheduler.create();
     private final Application application;
     private final List<BiFunction<SdkTracerProviderBuilder, Application, SdkTracerProviderBuilder>>
             tracerProviderCustomizers = new ArrayList<>();
@@ -51,6 +55,7 @@ public final class OpenTelemetryRumBuilder {
             loggerProviderCustomizers = new ArrayList<>();
     private final List<Consumer<InstrumentedApplication>> instrumentationInstallers =
             new ArrayList<>();
+    private final List<Supplier<Attributes>> spanAttributesSuppliers = new ArrayList<>();
     private Resource resource;
 
     OpenTelemetryRumBuilder(Application application) {
@@ -142,6 +147,22 @@ public final class OpenTelemetryRumBuilder {
         return this;
     }
 
+    /**
+     * Adds a {@link Supplier} of {@link Attributes} that will be appended to every span, right
+     * after the session id. The attributes of all suppliers are merged once and cached; the
+     * supplier should return the very same {@link Attributes} instance for as long as its
+     * attributes don't change, and a new one when they do.
+     *
+     * <p>Multiple calls will append the attributes in order.
+     *
+     * @return {@code this}
+     */
+    public OpenTelemetryRumBuilder addSpanAttributesSupplier(
+            Supplier<Attributes> attributesSupplier) {
+        spanAttributesSuppliers.add(attributesSupplier);
+        return this;
+    }
+
     /**
      * Adds an instrumentation installer function that will be run on an {@link
      * InstrumentedApplication} instance as a part of the {@link #build()} method call.
@@ -158,6 +179,14 @@ public final class OpenTelemetryRumBuilder {
         return sessionId;
     }
 
+    /**
+     * Returns the low priority scheduler shared by all the instrumentations; the same one that
+     * {@link InstrumentedApplication#getScheduler()} returns.
+     */
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
     /**
      * Creates a new instance of {@link OpenTelemetryRum} with the settings of this {@link
      * OpenTelemetryRumBuilder}.
@@ -183,11 +212,11 @@ public final class OpenTelemetryRumBuilder {
                         .build();
 
         Tracer tracer = openTelemetrySdk.getTracer(OpenTelemetryRum.class.getSimpleName());
-        sessionId.setSessionIdChangeListener(new SessionIdChangeTracer(tracer));
+        sessionId.addSessionIdChangeListener(new SessionIdChangeTracer(tracer));
 
         InstrumentedApplication instrumentedApplication =
                 new InstrumentedApplicationImpl(
-                        application, openTelemetrySdk, applicationStateWatcher);
+                        application, openTelemetrySdk, applicationStateWatcher, scheduler);
         for (Consumer<InstrumentedApplication> installer : instrumentationInstallers) {
             installer.accept(instrumentedApplication);
         }
@@ -199,7 +228,8 @@ public final class OpenTelemetryRumBuilder {
         SdkTracerProviderBuilder tracerProviderBuilder =
                 SdkTracerProvider.builder()
                         .setResource(resource)
-                        .addSpanProcessor(new SessionIdSpanAppender(sessionId));
+                        .addSpanProcessor(
+                                new RumAttributesSpanAppender(sessionId, spanAttributesSuppliers));
         for (BiFunction<SdkTracerProviderBuilder, Application, SdkTracerProviderBuilder>
                 customizer : tracerProviderCustomizers) {
             tracerProviderBuilder = customizer.apply(tracerProviderBuilder, application);
@@ -0,0 +1,116 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal;
+
+import static io.opentelemetry.rum.internal.RumConstants.SESSION_ID_KEY;
+
+import androidx.annotation.Nullable;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Appends the session id and all attributes provided by the registered suppliers (global, network,
+ * screen, ...) to every started span with a single {@link
+ * ReadWriteSpan#setAllAttributes(Attributes)} call.
+ *
+ * <p>The merged attributes are kept in a snapshot that is only rebuilt when the session id or any
+ * of the supplied {@link Attributes} change. Suppliers are expected to keep returning the same
+ * {@link Attributes} instance for as long as their attributes stay the same; a new instance is
+ * treated as a change.
+ */
+final class RumAttributesSpanAppender implements SpanProcessor {
+
+    private final SessionId sessionId;
+    private final List<Supplier<Attributes>> attributesSuppliers;
+    private final SdkOverhead overhead = SdkOverhead.getInstance();
+
+    @Nullable private volatile Snapshot snapshot;
+
+    RumAttributesSpanAppender(SessionId sessionId, List<Supplier<Attributes>> attributesSuppliers) {
+        this.sessionId = sessionId;
+        this.attributesSuppliers = new ArrayList<>(attributesSuppliers);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        long start = overhead.startMainThreadWork();
+        String currentSessionId = sessionId.getSessionId();
+        Snapshot current = snapshot;
+        if (current == null || !current.isUpToDate(currentSessionId, attributesSuppliers)) {
+            // concurrent rebuilds are harmless, both threads compute equal snapshots
+            current = Snapshot.create(currentSessionId, attributesSuppliers);
+            snapshot = current;
+        }
+        span.setAllAttributes(current.attributes);
+        overhead.endMainThreadWork(SdkOverhead.SPAN_START, start);
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return true;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {}
+
+    @Override
+    public boolean isEndRequired() {
+        return false;
+    }
+
+    private static final class Snapshot {
+
+        private final String sessionId;
+        private final Attributes[] inputs;
+        private final Attributes attributes;
+
+        private Snapshot(String sessionId, Attributes[] inputs, Attributes attributes) {
+            this.sessionId = sessionId;
+            this.inputs = inputs;
+            this.attributes = attributes;
+        }
+
+        static Snapshot create(String sessionId, List<Supplier<Attributes>> suppliers) {
+            Attributes[] inputs = new Attributes[suppliers.size()];
+            AttributesBuilder builder = Attributes.builder().put(SESSION_ID_KEY, sessionId);
+            for (int i = 0; i < inputs.length; i++) {
+                inputs[i] = suppliers.get(i).get();
+                builder.putAll(inputs[i]);
+            }
+            return new Snapshot(sessionId, inputs, builder.build());
+        }
+
+        boolean isUpToDate(String currentSessionId, List<Supplier<Attributes>> suppliers) {
+            if (!sessionId.equals(currentSessionId)) {
+                return false;
+            }
+            for (int i = 0; i < inputs.length; i++) {
+                if (inputs[i] != suppliers.get(i).get()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
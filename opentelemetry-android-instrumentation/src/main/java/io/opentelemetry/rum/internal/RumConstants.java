@@ -37,6 +37,9 @@ public class RumConstants {
     public static final AttributeKey<String> PREVIOUS_SESSION_ID_KEY =
             stringKey("rum.session.previous_id");
 
+    public static final AttributeKey<String> EXCEPTION_FINGERPRINT_KEY =
+            stringKey("exception.fingerprint");
+
     public static final String APP_START_SPAN_NAME = "AppStart";
 
     private RumConstants() {}
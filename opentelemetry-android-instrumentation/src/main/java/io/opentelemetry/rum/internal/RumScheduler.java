@@ -0,0 +1,76 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal;
+
+import android.os.Process;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the scheduler that runs the periodic and deferred work of all the instrumentations, so
+ * that the library doesn't keep a thread (and its stack, and its wakeups) per feature.
+ *
+ * <p>The scheduler has a single worker thread, a daemon with {@linkplain
+ * Process#THREAD_PRIORITY_BACKGROUND background priority} so that it never competes with the UI.
+ * The worker exits after being idle for {@value #KEEP_ALIVE_SECONDS} seconds, and is started again
+ * on demand: once the instrumentations cancel their periodic tasks in the background, the scheduler
+ * doesn't cost anything. Cancelled tasks are removed from the queue right away.
+ *
+ * <p>The scheduler is shared: users must cancel the futures of their own tasks, and never shut the
+ * scheduler down. Since the worker thread is shared, it isn't attributed to any component by {@link
+ * SdkOverhead}; the tasks should be wrapped with {@link SdkOverhead#measureCpuTime(String,
+ * Runnable)} instead.
+ */
+final class RumScheduler {
+
+    static final String WORKER_THREAD_NAME = "otel-rum-worker";
+    static final long KEEP_ALIVE_SECONDS = 30;
+
+    static ScheduledExecutorService create() {
+        return create(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // visible for testing
+    static ScheduledExecutorService create(long keepAlive, TimeUnit unit) {
+        ScheduledThreadPoolExecutor executor =
+                new ScheduledThreadPoolExecutor(1, new WorkerThreadFactory());
+        executor.setKeepAliveTime(keepAlive, unit);
+        executor.allowCoreThreadTimeOut(true);
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private RumScheduler() {}
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread =
+                    new Thread(
+                            () -> {
+                                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                                runnable.run();
+                            },
+                            WORKER_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal;
+
+import android.os.Debug;
+import android.os.Looper;
+import android.os.Process;
+import android.system.Os;
+import android.system.OsConstants;
+import android.util.Log;
+import androidx.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Measures the cost of the RUM library itself: the CPU time of the background threads that the
+ * library owns, and the wall time spent inside its callbacks on the main thread.
+ *
+ * <p>The library threads register themselves once, when they start; their CPU time is only read
+ * from {@code /proc/self/task/<tid>/stat} when the totals are read, so there's no cost at all on
+ * their hot paths. Tasks that run on threads shared by several components, like the ones of {@link
+ * RumScheduler}, are timed with {@link Debug#threadCpuTimeNanos()} instead. Main thread callbacks
+ * are timed with two {@link System#nanoTime()} calls each. Nothing is measured until {@link
+ * #enable()} is called. The measurements are running totals, so that they can be consumed
+ * independently by several readers.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class SdkOverhead {
+
+    // library components that own threads or run tasks on shared ones
+    public static final String ANR_WATCHDOG = "anr_watchdog";
+    public static final String SLOW_RENDERING = "slow_rendering";
+    public static final String FRAME_METRICS = "frame_metrics";
+
+    // kinds of main thread work
+    public static final String ACTIVITY_LIFECYCLE = "activity_lifecycle";
+    public static final String FRAGMENT_LIFECYCLE = "fragment_lifecycle";
+    public static final String SPAN_START = "span_start";
+    public static final String ANR_DETECTOR = "anr_detector";
+    public static final String NETWORK_MONITOR = "network_monitor";
+
+    private static final SdkOverhead INSTANCE =
+            new SdkOverhead(
+                    Process::myTid,
+                    SdkOverhead::readThreadCpuTimeMillis,
+                    Debug::threadCpuTimeNanos);
+    private static final long UNKNOWN_CPU_TIME = -1;
+
+    private final IntSupplier tidSupplier;
+    private final IntToLongFunction cpuTimeReader;
+    private final LongSupplier threadCpuTimeNanos;
+    // tid -> the component that owns the thread
+    private final Map<Integer, String> threads = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> taskCpuNanos = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> mainThreadNanos = new ConcurrentHashMap<>();
+    // guarded by this
+    private final Map<Integer, Long> lastCpuTimes = new HashMap<>();
+    private final Map<String, Long> exitedThreadCpuTimes = new HashMap<>();
+
+    private volatile boolean enabled = false;
+    @Nullable private volatile Thread mainThread;
+
+    // visible for testing
+    SdkOverhead(
+            IntSupplier tidSupplier,
+            IntToLongFunction cpuTimeReader,
+            LongSupplier threadCpuTimeNanos) {
+        this.tidSupplier = tidSupplier;
+        this.cpuTimeReader = cpuTimeReader;
+        this.threadCpuTimeNanos = threadCpuTimeNanos;
+    }
+
+    public static SdkOverhead getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts measuring. Needs to be called before the library threads are started, otherwise they
+     * won't be accounted for.
+     */
+    public void enable() {
+        enable(Looper.getMainLooper().getThread());
+    }
+
+    // visible for testing
+    void enable(Thread mainThread) {
+        this.mainThread = mainThread;
+        enabled = true;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Attributes the CPU time of the calling thread to the given library component. */
+    public void registerCurrentThread(String component) {
+        if (enabled) {
+            threads.put(tidSupplier.getAsInt(), component);
+        }
+    }
+
+    /**
+     * Returns a {@link ThreadFactory} that creates the same threads as {@link
+     * Executors#defaultThreadFactory()}, with their CPU time attributed to the given component.
+     */
+    public ThreadFactory threadFactory(String component) {
+        ThreadFactory delegate = Executors.defaultThreadFactory();
+        return runnable ->
+                delegate.newThread(
+                        () -> {
+                            registerCurrentThread(component);
+                            runnable.run();
+                        });
+    }
+
+    /**
+     * Returns a task that attributes the CPU time it uses to the given component, for tasks that
+     * run on a thread shared by several components.
+     */
+    public Runnable measureCpuTime(String component, Runnable task) {
+        return () -> {
+            long startNanos = enabled ? threadCpuTimeNanos.getAsLong() : -1;
+            try {
+                task.run();
+            } finally {
+                // threadCpuTimeNanos() returns -1 when not supported
+                if (startNanos >= 0) {
+                    add(taskCpuNanos, component, threadCpuTimeNanos.getAsLong() - startNanos);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the start timestamp to pass to {@link #endMainThreadWork(String, long)}, or 0 when
+     * there's nothing to measure: when disabled, or when not called on the main thread.
+     */
+    public long startMainThreadWork() {
+        if (!enabled || Thread.currentThread() != mainThread) {
+            return 0;
+        }
+        return System.nanoTime();
+    }
+
+    public void endMainThreadWork(String kind, long startNanos) {
+        if (startNanos == 0) {
+            return;
+        }
+        add(mainThreadNanos, kind, System.nanoTime() - startNanos);
+    }
+
+    private static void add(Map<String, AtomicLong> totals, String key, long nanos) {
+        AtomicLong total = totals.get(key);
+        if (total == null) {
+            total = totals.computeIfAbsent(key, k -> new AtomicLong());
+        }
+        total.addAndGet(nanos);
+    }
+
+    /**
+     * Returns the CPU time, in milliseconds, that the library threads and the measured tasks have
+     * used since measuring was enabled, by component. The CPU time a thread used after the previous
+     * call is lost if the thread dies in the meantime. Use {@link Deltas} to turn the totals into
+     * the amounts since the previous call.
+     */
+    public synchronized Map<String, Long> getThreadCpuTimeMillis() {
+        Map<String, Long> result = new HashMap<>(exitedThreadCpuTimes);
+        for (Map.Entry<String, AtomicLong> entry : taskCpuNanos.entrySet()) {
+            result.merge(
+                    entry.getKey(),
+                    TimeUnit.NANOSECONDS.toMillis(entry.getValue().get()),
+                    Long::sum);
+        }
+        Iterator<Map.Entry<Integer, String>> it = threads.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, String> thread = it.next();
+            int tid = thread.getKey();
+            String component = thread.getValue();
+            long cpuTime = cpuTimeReader.applyAsLong(tid);
+            if (cpuTime == UNKNOWN_CPU_TIME) {
+                it.remove();
+                // the tid might get reused by a thread that is not ours
+                Long lastCpuTime = lastCpuTimes.remove(tid);
+                if (lastCpuTime != null) {
+                    exitedThreadCpuTimes.merge(component, lastCpuTime, Long::sum);
+                    result.merge(component, lastCpuTime, Long::sum);
+                }
+                continue;
+            }
+            lastCpuTimes.put(tid, cpuTime);
+            result.merge(component, cpuTime, Long::sum);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the wall time, in nanoseconds, spent inside library callbacks on the main thread
+     * since measuring was enabled, by kind of callback.
+     */
+    public Map<String, Long> getMainThreadNanos() {
+        Map<String, Long> result = new HashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : mainThreadNanos.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        return result;
+    }
+
+    private static long readThreadCpuTimeMillis(int tid) {
+        try (BufferedReader reader =
+                new BufferedReader(new FileReader("/proc/self/task/" + tid + "/stat"))) {
+            String stat = reader.readLine();
+            if (stat == null) {
+                return UNKNOWN_CPU_TIME;
+            }
+            return parseCpuTimeMillis(stat, ClockTicks.PER_SECOND);
+        } catch (IOException | RuntimeException e) {
+            // the thread has most likely died
+            Log.d(RumConstants.OTEL_RUM_LOG_TAG, "Could not read the CPU time of thread " + tid);
+            return UNKNOWN_CPU_TIME;
+        }
+    }
+
+    // visible for testing
+    static long parseCpuTimeMillis(String stat, long clockTicksPerSecond) {
+        // the thread name can contain spaces and parentheses; the fields after it can't
+        String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+        // utime and stime are the 14th and 15th fields, the state (3rd) is the first one here
+        long ticks = Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+        return ticks * 1000 / clockTicksPerSecond;
+    }
+
+    /**
+     * Turns the running totals of {@link #getThreadCpuTimeMillis()} or {@link
+     * #getMainThreadNanos()} into the amounts since the previous call. Every consumer of the totals
+     * needs its own instance.
+     */
+    public static final class Deltas {
+
+        private final Map<String, Long> previousTotals = new HashMap<>();
+
+        /** Returns the non-zero differences between the given totals and the previous ones. */
+        public Map<String, Long> next(Map<String, Long> totals) {
+            Map<String, Long> result = new HashMap<>();
+            for (Map.Entry<String, Long> entry : totals.entrySet()) {
+                Long previous = previousTotals.put(entry.getKey(), entry.getValue());
+                long delta = entry.getValue() - (previous == null ? 0 : previous);
+                if (delta > 0) {
+                    result.put(entry.getKey(), delta);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class ClockTicks {
+        // resolved lazily, only when the CPU time is actually read
+        static final long PER_SECOND = Os.sysconf(OsConstants._SC_CLK_TCK);
+    }
+}
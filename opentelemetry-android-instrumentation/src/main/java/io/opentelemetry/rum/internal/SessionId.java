@@ -18,22 +18,27 @@ package io.opentelemetry.rum.internal;
 
 import static java.util.Objects.requireNonNull;
 
-import androidx.annotation.Nullable;
-import io.opentelemetry.api.trace.TraceId;
 import io.opentelemetry.sdk.common.Clock;
-import java.util.Random;
+import io.opentelemetry.sdk.trace.IdGenerator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 class SessionId {
 
     private static final long SESSION_LIFETIME_NANOS = TimeUnit.HOURS.toNanos(4);
+    // The OTel TraceId has exactly the same format as a RUM SessionId, so let's re-use its
+    // generator here, rather than re-inventing the wheel. It is backed by ThreadLocalRandom, so it
+    // doesn't need to allocate a new random source for every new session.
+    private static final IdGenerator ID_GENERATOR = IdGenerator.random();
 
     private final Clock clock;
     private final AtomicReference<String> value = new AtomicReference<>();
     private final SessionIdTimeoutHandler timeoutHandler;
     private volatile long createTimeNanos;
-    @Nullable private volatile SessionIdChangeListener sessionIdChangeListener;
+    private final List<SessionIdChangeListener> sessionIdChangeListeners =
+            new CopyOnWriteArrayList<>();
 
     SessionId(SessionIdTimeoutHandler timeoutHandler) {
         this(Clock.getDefault(), timeoutHandler);
@@ -44,14 +49,11 @@ class SessionId {
         this.clock = clock;
         this.timeoutHandler = timeoutHandler;
         value.set(createNewId());
-        createTimeNanos = clock.now();
+        createTimeNanos = clock.nanoTime();
     }
 
     private static String createNewId() {
-        Random random = new Random();
-        // The OTel TraceId has exactly the same format as a RUM SessionId, so let's re-use it here,
-        // rather than re-inventing the wheel.
-        return TraceId.fromLongs(random.nextLong(), random.nextLong());
+        return ID_GENERATOR.generateTraceId();
     }
 
     SessionIdTimeoutHandler getTimeoutHandler() {
@@ -63,36 +65,40 @@ class SessionId {
         String oldValue = requireNonNull(value.get());
         String currentValue = oldValue;
         boolean sessionIdChanged = false;
+        // this is called at least once for every span, read the clock only once
+        long nowNanos = clock.nanoTime();
 
-        if (sessionExpired() || timeoutHandler.hasTimedOut()) {
+        if (sessionExpired(nowNanos) || timeoutHandler.hasTimedOut(nowNanos)) {
             String newId = createNewId();
             // if this returns false, then another thread updated the value already.
             sessionIdChanged = value.compareAndSet(oldValue, newId);
             if (sessionIdChanged) {
-                createTimeNanos = clock.nanoTime();
+                createTimeNanos = nowNanos;
             }
             // value will never be null
             currentValue = requireNonNull(value.get());
         }
 
-        timeoutHandler.bump();
-        // sessionId change listener needs to be called after bumping the timer because it may
+        timeoutHandler.bump(nowNanos);
+        // sessionId change listeners need to be called after bumping the timer because they may
         // create a new span
-        SessionIdChangeListener sessionIdChangeListener = this.sessionIdChangeListener;
-        if (sessionIdChanged && sessionIdChangeListener != null) {
-            sessionIdChangeListener.onChange(oldValue, currentValue);
+        if (sessionIdChanged) {
+            for (SessionIdChangeListener listener : sessionIdChangeListeners) {
+                listener.onChange(oldValue, currentValue);
+            }
         }
 
         return currentValue;
     }
 
-    private boolean sessionExpired() {
-        long elapsedTime = clock.nanoTime() - createTimeNanos;
+    private boolean sessionExpired(long nowNanos) {
+        long elapsedTime = nowNanos - createTimeNanos;
         return elapsedTime >= SESSION_LIFETIME_NANOS;
     }
 
-    void setSessionIdChangeListener(SessionIdChangeListener sessionIdChangeListener) {
-        this.sessionIdChangeListener = sessionIdChangeListener;
+    /** Listeners are notified in the order they were added. */
+    void addSessionIdChangeListener(SessionIdChangeListener sessionIdChangeListener) {
+        sessionIdChangeListeners.add(sessionIdChangeListener);
     }
 
     @Override
@@ -16,12 +16,15 @@
 
 package io.opentelemetry.rum.internal;
 
+import androidx.annotation.Nullable;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.sdk.trace.data.LinkData;
 import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
 import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -30,15 +33,23 @@ import java.util.List;
  * same ratio logic but on sessionId instead. This is valid as sessionId uses {@link
  * io.opentelemetry.api.trace.TraceId#fromLongs(long, long)} internally to generate random session
  * IDs.
+ *
+ * <p>The decision is the same for every span in a session, so it is computed only once, when the
+ * session id changes, and every span gets the same cached {@link SamplingResult}. Spans of a
+ * sampled out session are not recording, so none of the span processors are called for them.
  */
 public class SessionIdRatioBasedSampler implements Sampler {
     private final Sampler ratioBasedSampler;
     private final SessionId sessionid;
 
+    @Nullable private volatile CachedDecision cachedDecision;
+
     public SessionIdRatioBasedSampler(double ratio, SessionId sessionId) {
         this.sessionid = sessionId;
         // SessionId uses the same format as TraceId, so we can reuse trace ID ratio sampler.
         this.ratioBasedSampler = Sampler.traceIdRatioBased(ratio);
+        sessionId.addSessionIdChangeListener(
+                (oldSessionId, newSessionId) -> cachedDecision = decide(newSessionId));
     }
 
     @Override
@@ -49,9 +60,34 @@ public class SessionIdRatioBasedSampler implements Sampler {
             SpanKind spanKind,
             Attributes attributes,
             List<LinkData> parentLinks) {
-        // Replace traceId with sessionId
-        return ratioBasedSampler.shouldSample(
-                parentContext, sessionid.getSessionId(), name, spanKind, attributes, parentLinks);
+        String currentSessionId = sessionid.getSessionId();
+        CachedDecision decision = cachedDecision;
+        // the session change listener normally takes care of this, unless this is the first
+        // session or another thread has raced us
+        if (decision == null || !decision.sessionId.equals(currentSessionId)) {
+            decision = decide(currentSessionId);
+            cachedDecision = decision;
+        }
+        return decision.result;
+    }
+
+    private CachedDecision decide(String sessionId) {
+        // Replace traceId with sessionId; the trace id ratio based sampler looks only at the id
+        SamplingDecision decision =
+                ratioBasedSampler
+                        .shouldSample(
+                                Context.root(),
+                                sessionId,
+                                "",
+                                SpanKind.INTERNAL,
+                                Attributes.empty(),
+                                Collections.emptyList())
+                        .getDecision();
+        SamplingResult result =
+                decision == SamplingDecision.RECORD_AND_SAMPLE
+                        ? SamplingResult.recordAndSample()
+                        : SamplingResult.drop();
+        return new CachedDecision(sessionId, result);
     }
 
     @Override
@@ -60,4 +96,14 @@ public class SessionIdRatioBasedSampler implements Sampler {
                 "SessionIdRatioBased{traceIdRatioBased:%s}",
                 this.ratioBasedSampler.getDescription());
     }
+
+    private static final class CachedDecision {
+        private final String sessionId;
+        private final SamplingResult result;
+
+        private CachedDecision(String sessionId, SamplingResult result) {
+            this.sessionId = sessionId;
+            this.result = result;
+        }
+    }
 }
@@ -17,7 +17,6 @@
 package io.opentelemetry.rum.internal;
 
 import io.opentelemetry.rum.internal.instrumentation.ApplicationStateListener;
-import io.opentelemetry.sdk.common.Clock;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -33,24 +32,21 @@ import java.util.concurrent.TimeUnit;
  *
  * <p>Consequently, when the app spent >15 minutes without any activity (spans) in the background,
  * after moving to the foreground the first span should trigger the sessionId timeout.
+ *
+ * <p>{@link #bump(long)} is called for every span, so the timeout start is only moved forward when
+ * it's at least {@value #BUMP_GRANULARITY_MILLIS}ms old; compared to a 15 minute timeout, that
+ * precision is more than enough, and it saves a volatile write for almost all spans.
  */
 final class SessionIdTimeoutHandler implements ApplicationStateListener {
 
     private static final long SESSION_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(15);
+    private static final long BUMP_GRANULARITY_MILLIS = 1000;
+    private static final long BUMP_GRANULARITY_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(BUMP_GRANULARITY_MILLIS);
 
-    private final Clock clock;
     private volatile long timeoutStartNanos;
     private volatile State state = State.FOREGROUND;
 
-    SessionIdTimeoutHandler() {
-        this(Clock.getDefault());
-    }
-
-    // for testing
-    SessionIdTimeoutHandler(Clock clock) {
-        this.clock = clock;
-    }
-
     @Override
     public void onApplicationForegrounded() {
         state = State.TRANSITIONING_TO_FOREGROUND;
@@ -61,17 +57,19 @@ final class SessionIdTimeoutHandler implements ApplicationStateListener {
         state = State.BACKGROUND;
     }
 
-    boolean hasTimedOut() {
+    boolean hasTimedOut(long nowNanos) {
         // don't apply sessionId timeout to apps in the foreground
         if (state == State.FOREGROUND) {
             return false;
         }
-        long elapsedTime = clock.nanoTime() - timeoutStartNanos;
+        long elapsedTime = nowNanos - timeoutStartNanos;
         return elapsedTime >= SESSION_TIMEOUT_NANOS;
     }
 
-    void bump() {
-        timeoutStartNanos = clock.nanoTime();
+    void bump(long nowNanos) {
+        if (nowNanos - timeoutStartNanos >= BUMP_GRANULARITY_NANOS) {
+            timeoutStartNanos = nowNanos;
+        }
 
         // move from the temporary transition state to foreground after the first span
         if (state == State.TRANSITIONING_TO_FOREGROUND) {
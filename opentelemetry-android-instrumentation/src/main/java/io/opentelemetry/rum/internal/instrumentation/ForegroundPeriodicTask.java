@@ -0,0 +1,97 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation;
+
+import androidx.annotation.Nullable;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A task that runs at a fixed rate while the application is in the foreground, and not at all while
+ * it is in the background: the task is cancelled when the application is backgrounded, and
+ * scheduled again when it is foregrounded. It needs to be {@linkplain
+ * InstrumentedApplication#registerApplicationStateListener(ApplicationStateListener) registered} to
+ * get notified. Whatever needs to be flushed at the transition should be taken care of by the owner
+ * of the task.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class ForegroundPeriodicTask implements ApplicationStateListener {
+
+    public static ForegroundPeriodicTask create(
+            ScheduledExecutorService scheduler, Duration interval, Runnable task) {
+        return new ForegroundPeriodicTask(scheduler, interval, task);
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final long intervalMillis;
+    private final Runnable task;
+
+    // guarded by this
+    private boolean started = false;
+    private boolean foreground = true;
+    @Nullable private ScheduledFuture<?> future;
+
+    private ForegroundPeriodicTask(
+            ScheduledExecutorService scheduler, Duration interval, Runnable task) {
+        this.scheduler = scheduler;
+        this.intervalMillis = interval.toMillis();
+        this.task = task;
+    }
+
+    /** Starts running the task, once the interval has elapsed in the foreground. */
+    public synchronized void start() {
+        started = true;
+        schedule();
+    }
+
+    /** Stops running the task for good. */
+    public synchronized void stop() {
+        started = false;
+        cancel();
+    }
+
+    @Override
+    public synchronized void onApplicationForegrounded() {
+        foreground = true;
+        schedule();
+    }
+
+    @Override
+    public synchronized void onApplicationBackgrounded() {
+        foreground = false;
+        cancel();
+    }
+
+    private void schedule() {
+        if (started && foreground && future == null) {
+            future =
+                    scheduler.scheduleAtFixedRate(
+                            task, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void cancel() {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+    }
+}
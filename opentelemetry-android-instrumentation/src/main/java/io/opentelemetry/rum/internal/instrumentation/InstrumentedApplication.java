@@ -19,6 +19,8 @@ package io.opentelemetry.rum.internal.instrumentation;
 import android.app.Application;
 import io.opentelemetry.rum.internal.OpenTelemetryRum;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Provides access to the {@linkplain OpenTelemetrySdk OpenTelemetry SDK}, the instrumented {@link
@@ -38,6 +40,13 @@ public interface InstrumentedApplication {
      */
     OpenTelemetrySdk getOpenTelemetrySdk();
 
+    /**
+     * Returns the low priority scheduler that is shared by all the instrumentations, for their
+     * periodic and deferred work. Stop scheduled tasks by {@linkplain Future#cancel(boolean)
+     * cancelling} them; the scheduler must never be shut down.
+     */
+    ScheduledExecutorService getScheduler();
+
     /**
      * Registers the passed {@link ApplicationStateListener} - from now on it will be called
      * whenever the application is moved from background to foreground, and vice versa.
@@ -16,15 +16,17 @@
 
 package io.opentelemetry.rum.internal.instrumentation.anr;
 
-import android.os.Handler;
 import android.os.Looper;
+import androidx.annotation.Nullable;
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
 import io.opentelemetry.rum.internal.instrumentation.InstrumentedApplication;
+import java.time.Duration;
 import java.util.List;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
 
 /** Entrypoint for installing the ANR (application not responding) detection instrumentation. */
 public final class AnrDetector {
@@ -41,35 +43,77 @@ public final class AnrDetector {
 
     private final List<AttributesExtractor<StackTraceElement[], Void>> additionalExtractors;
     private final Looper mainLooper;
-    private final ScheduledExecutorService scheduler;
+    private final Duration anrThreshold;
+    @Nullable private final Duration longTaskThreshold;
+    private final Function<Tracer, Tracer> longTaskTracerCustomizer;
+    private final Duration stackSamplingThreshold;
+    private final Duration stackSamplingInterval;
+    private final boolean stackSamplingEnabled;
+    @Nullable private volatile LooperMonitor looperMonitor;
 
     AnrDetector(AnrDetectorBuilder builder) {
         this.additionalExtractors = builder.additionalExtractors;
         this.mainLooper = builder.mainLooper;
-        this.scheduler = builder.scheduler;
+        this.anrThreshold = builder.anrThreshold;
+        this.longTaskThreshold = builder.longTaskThreshold;
+        this.longTaskTracerCustomizer = builder.longTaskTracerCustomizer;
+        this.stackSamplingThreshold = builder.stackSamplingThreshold;
+        this.stackSamplingInterval = builder.stackSamplingInterval;
+        this.stackSamplingEnabled = builder.stackSamplingEnabled;
     }
 
     /**
      * Installs the ANR detection instrumentation on the given {@link InstrumentedApplication}.
      *
-     * <p>When the main thread is unresponsive for 5 seconds or more, an event including the main
-     * thread's stack trace will be reported to the RUM system.
+     * <p>When the main thread is unresponsive for 5 seconds (or the configured ANR threshold) or
+     * more, an event including the main thread's stack trace will be reported to the RUM system.
+     * Stacks sampled while the main thread was stuck are attached to it as folded stacks.
      */
     public void installOn(InstrumentedApplication instrumentedApplication) {
-        Handler uiHandler = new Handler(mainLooper);
-        AnrWatcher anrWatcher =
-                new AnrWatcher(
-                        uiHandler,
-                        mainLooper.getThread(),
-                        buildAnrInstrumenter(instrumentedApplication.getOpenTelemetrySdk()));
+        OpenTelemetry openTelemetry = instrumentedApplication.getOpenTelemetrySdk();
+        LooperMonitor looperMonitor =
+                new LooperMonitor(
+                        mainLooper,
+                        buildAnrInstrumenter(openTelemetry),
+                        longTaskThreshold == null
+                                ? null
+                                : longTaskTracerCustomizer.apply(
+                                        openTelemetry.getTracer("io.opentelemetry.anr")),
+                        anrThreshold.toNanos(),
+                        longTaskThreshold == null ? 0 : longTaskThreshold.toNanos(),
+                        stackSamplingThreshold.toNanos(),
+                        stackSamplingEnabled ? stackSamplingInterval.toNanos() : 0);
+        this.looperMonitor = looperMonitor;
 
-        AnrDetectorToggler listener = new AnrDetectorToggler(anrWatcher, scheduler);
+        AnrDetectorToggler listener = new AnrDetectorToggler(looperMonitor);
         // call it manually the first time to enable the ANR detection
         listener.onApplicationForegrounded();
 
         instrumentedApplication.registerApplicationStateListener(listener);
     }
 
+    /**
+     * Stops sampling the stack of the main thread while it is stuck, to reduce the overhead of the
+     * instrumentation. Has no effect if the instrumentation is not installed.
+     */
+    public void disableStackSampling() {
+        LooperMonitor looperMonitor = this.looperMonitor;
+        if (looperMonitor != null) {
+            looperMonitor.disableStackSampling();
+        }
+    }
+
+    /**
+     * Stops detecting ANRs and long tasks for good, to get rid of the overhead of the
+     * instrumentation. Has no effect if the instrumentation is not installed.
+     */
+    public void uninstall() {
+        LooperMonitor looperMonitor = this.looperMonitor;
+        if (looperMonitor != null) {
+            looperMonitor.disable();
+        }
+    }
+
     private Instrumenter<StackTraceElement[], Void> buildAnrInstrumenter(
             OpenTelemetry openTelemetry) {
         return Instrumenter.<StackTraceElement[], Void>builder(
@@ -78,7 +122,7 @@ public final class AnrDetector {
                 .setSpanStatusExtractor(
                         (spanStatusBuilder, stackTrace, unused, error) ->
                                 spanStatusBuilder.setStatus(StatusCode.ERROR))
-                .addAttributesExtractor(new StackTraceFormatter())
+                .addAttributesExtractor(new StackTraceAttributesExtractor())
                 .addAttributesExtractors(additionalExtractors)
                 .buildInstrumenter();
     }
@@ -17,11 +17,13 @@
 package io.opentelemetry.rum.internal.instrumentation.anr;
 
 import android.os.Looper;
+import androidx.annotation.Nullable;
+import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
 
 /** A builder of {@link AnrDetector}. */
 public final class AnrDetectorBuilder {
@@ -31,7 +33,13 @@ public final class AnrDetectorBuilder {
     final List<AttributesExtractor<StackTraceElement[], Void>> additionalExtractors =
             new ArrayList<>();
     Looper mainLooper = Looper.getMainLooper();
-    ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    Duration anrThreshold = Duration.ofSeconds(5);
+    @Nullable Duration longTaskThreshold = null;
+    Function<Tracer, Tracer> longTaskTracerCustomizer = Function.identity();
+    // matches the frozen frame threshold of the slow rendering detector
+    Duration stackSamplingThreshold = Duration.ofMillis(700);
+    Duration stackSamplingInterval = Duration.ofMillis(100);
+    boolean stackSamplingEnabled = true;
 
     /** Adds an {@link AttributesExtractor} that will extract additional attributes. */
     public AnrDetectorBuilder addAttributesExtractor(
@@ -46,9 +54,56 @@ public final class AnrDetectorBuilder {
         return this;
     }
 
-    // visible for tests
-    AnrDetectorBuilder setScheduler(ScheduledExecutorService scheduler) {
-        this.scheduler = scheduler;
+    /**
+     * Sets how long the main thread has to be stuck processing a single message before an ANR is
+     * reported. The default is 5 seconds.
+     */
+    public AnrDetectorBuilder setAnrThreshold(Duration anrThreshold) {
+        this.anrThreshold = anrThreshold;
+        return this;
+    }
+
+    /**
+     * Enables reporting of long tasks: main thread messages that take longer than the given
+     * threshold are reported as {@code LongTask} spans with their exact duration. Long task
+     * reporting is disabled by default.
+     */
+    public AnrDetectorBuilder setLongTaskThreshold(Duration longTaskThreshold) {
+        this.longTaskThreshold = longTaskThreshold;
+        return this;
+    }
+
+    /**
+     * Sets a customizer for the {@link Tracer} that creates the {@code LongTask} spans, e.g. to add
+     * attributes to every long task span.
+     */
+    public AnrDetectorBuilder setLongTaskTracerCustomizer(Function<Tracer, Tracer> customizer) {
+        this.longTaskTracerCustomizer = customizer;
+        return this;
+    }
+
+    /**
+     * Sets how long the main thread has to be stuck processing a single message before its stack
+     * starts being sampled. The sampled stacks are aggregated and attached to the ANR and long task
+     * spans of that message. The default is 700 milliseconds.
+     */
+    public AnrDetectorBuilder setStackSamplingThreshold(Duration stackSamplingThreshold) {
+        this.stackSamplingThreshold = stackSamplingThreshold;
+        return this;
+    }
+
+    /**
+     * Sets how often the main thread stack is sampled while the main thread is stuck. The default
+     * is 100 milliseconds.
+     */
+    public AnrDetectorBuilder setStackSamplingInterval(Duration stackSamplingInterval) {
+        this.stackSamplingInterval = stackSamplingInterval;
+        return this;
+    }
+
+    /** Disables sampling the main thread stack while the main thread is stuck. */
+    public AnrDetectorBuilder disableStackSampling() {
+        this.stackSamplingEnabled = false;
         return this;
     }
 
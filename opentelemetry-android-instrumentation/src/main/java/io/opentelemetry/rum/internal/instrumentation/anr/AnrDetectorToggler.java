@@ -16,36 +16,23 @@
 
 package io.opentelemetry.rum.internal.instrumentation.anr;
 
-import androidx.annotation.Nullable;
 import io.opentelemetry.rum.internal.instrumentation.ApplicationStateListener;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
 final class AnrDetectorToggler implements ApplicationStateListener {
 
-    private final Runnable anrWatcher;
-    private final ScheduledExecutorService anrScheduler;
+    private final LooperMonitor looperMonitor;
 
-    @Nullable private ScheduledFuture<?> future;
-
-    AnrDetectorToggler(Runnable anrWatcher, ScheduledExecutorService anrScheduler) {
-        this.anrWatcher = anrWatcher;
-        this.anrScheduler = anrScheduler;
+    AnrDetectorToggler(LooperMonitor looperMonitor) {
+        this.looperMonitor = looperMonitor;
     }
 
     @Override
     public void onApplicationForegrounded() {
-        if (future == null) {
-            future = anrScheduler.scheduleAtFixedRate(anrWatcher, 1, 1, TimeUnit.SECONDS);
-        }
+        looperMonitor.start();
     }
 
     @Override
     public void onApplicationBackgrounded() {
-        if (future != null) {
-            future.cancel(true);
-            future = null;
-        }
+        looperMonitor.stop();
     }
 }
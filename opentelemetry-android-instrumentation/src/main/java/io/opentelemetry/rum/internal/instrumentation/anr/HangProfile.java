@@ -0,0 +1,120 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.anr;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates the main thread stacks sampled during a single hang into folded stacks: one line per
+ * distinct stack, with its frames listed from the outermost to the innermost one, separated by
+ * {@code ;}, followed by the number of samples that hit it.
+ *
+ * <p>The number of samples, the number of distinct stacks, the depth of a single stack and the
+ * length of the folded output are all bounded.
+ */
+final class HangProfile {
+
+    static final int MAX_SAMPLES = 64;
+    static final int MAX_STACKS = 32;
+    static final int MAX_FRAMES = 48;
+    static final int MAX_LENGTH = 8192;
+
+    private static final String TRUNCATED_FRAMES = "...";
+    private static final String OTHER_STACKS = "(other)";
+
+    private final long dispatchId;
+    private final Map<String, Integer> sampleCounts = new HashMap<>();
+    private int sampleCount = 0;
+    private int otherSampleCount = 0;
+
+    HangProfile(long dispatchId) {
+        this.dispatchId = dispatchId;
+    }
+
+    long getDispatchId() {
+        return dispatchId;
+    }
+
+    synchronized boolean isFull() {
+        return sampleCount >= MAX_SAMPLES;
+    }
+
+    synchronized int getSampleCount() {
+        return sampleCount;
+    }
+
+    synchronized void addSample(StackTraceElement[] stackTrace) {
+        if (sampleCount >= MAX_SAMPLES || stackTrace.length == 0) {
+            return;
+        }
+        sampleCount++;
+        String stack = fold(stackTrace);
+        Integer count = sampleCounts.get(stack);
+        if (count != null) {
+            sampleCounts.put(stack, count + 1);
+        } else if (sampleCounts.size() < MAX_STACKS) {
+            sampleCounts.put(stack, 1);
+        } else {
+            otherSampleCount++;
+        }
+    }
+
+    private static String fold(StackTraceElement[] stackTrace) {
+        StringBuilder stack = new StringBuilder();
+        // the innermost frames are the most interesting ones, keep those if the stack is too deep
+        int outermostFrame = Math.min(stackTrace.length, MAX_FRAMES) - 1;
+        if (stackTrace.length > MAX_FRAMES) {
+            stack.append(TRUNCATED_FRAMES).append(';');
+        }
+        for (int i = outermostFrame; i >= 0; i--) {
+            StackTraceElement frame = stackTrace[i];
+            stack.append(frame.getClassName()).append('.').append(frame.getMethodName());
+            if (i > 0) {
+                stack.append(';');
+            }
+        }
+        return stack.toString();
+    }
+
+    /**
+     * Returns the folded stacks, the most frequently sampled ones first. Stacks that don't fit into
+     * the length limit are counted as {@code (other)}.
+     */
+    synchronized String toFoldedStacks() {
+        List<Map.Entry<String, Integer>> stacks = new ArrayList<>(sampleCounts.entrySet());
+        stacks.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+
+        StringBuilder folded = new StringBuilder();
+        int omittedSamples = otherSampleCount;
+        for (Map.Entry<String, Integer> stack : stacks) {
+            String line = stack.getKey() + ' ' + stack.getValue() + '\n';
+            // leave some room for the (other) line
+            if (folded.length() + line.length() > MAX_LENGTH - OTHER_STACKS.length() - 8) {
+                omittedSamples += stack.getValue();
+                continue;
+            }
+            folded.append(line);
+        }
+        if (omittedSamples > 0) {
+            folded.append(OTHER_STACKS).append(' ').append(omittedSamples).append('\n');
+        }
+        return folded.toString();
+    }
+}
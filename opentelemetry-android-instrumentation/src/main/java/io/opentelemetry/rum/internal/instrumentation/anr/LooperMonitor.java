@@ -0,0 +1,288 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.anr;
+
+import android.os.Looper;
+import android.util.Printer;
+import androidx.annotation.Nullable;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
+import io.opentelemetry.rum.internal.SdkOverhead;
+import java.time.Instant;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Times the messages dispatched by the main {@link Looper}, using the {@link Printer} that the
+ * looper calls right before and right after dispatching each message.
+ *
+ * <p>Messages that take longer than the long task threshold are reported as long task spans with
+ * their exact duration, once they finish. A watchdog thread reports an ANR when a single message
+ * takes longer than the ANR threshold, while the main thread is still stuck in it. The watchdog
+ * only wakes up at the ANR deadline of a message that is being dispatched, and parks indefinitely
+ * while the main thread is idle.
+ *
+ * <p>Once a message takes longer than the hang threshold, the watchdog also starts sampling the
+ * main thread stack at a fixed interval. The samples are aggregated into a {@link HangProfile} and
+ * attached to the ANR and long task spans of that message.
+ */
+final class LooperMonitor implements Printer, Runnable {
+
+    static final String LONG_TASK_SPAN_NAME = "LongTask";
+    static final AttributeKey<String> HANG_PROFILE_KEY = AttributeKey.stringKey("hang.profile");
+    static final AttributeKey<Long> HANG_PROFILE_SAMPLES_KEY =
+            AttributeKey.longKey("hang.profile.samples");
+    private static final String WATCHDOG_THREAD_NAME = "AnrWatchdog";
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final Looper mainLooper;
+    private final Thread mainThread;
+    private final Instrumenter<StackTraceElement[], Void> anrInstrumenter;
+    @Nullable private final Tracer longTaskTracer;
+    private final long anrThresholdNanos;
+    private final long longTaskThresholdNanos;
+    private final long hangThresholdNanos;
+    private final SdkOverhead overhead = SdkOverhead.getInstance();
+    private volatile long samplingIntervalNanos;
+    private volatile boolean disabled = false;
+
+    // written only by the main thread
+    private volatile long dispatchStartNanos;
+    private volatile long dispatchCount = 0;
+    private volatile boolean dispatching = false;
+
+    @Nullable private volatile Thread watchdogThread;
+    private volatile boolean watchdogIdle = false;
+    // written only by the watchdog thread
+    @Nullable private volatile HangProfile hangProfile;
+    // accessed only from the watchdog thread
+    private long reportedDispatchCount = -1;
+    private long nextSampleNanos;
+
+    LooperMonitor(
+            Looper mainLooper,
+            Instrumenter<StackTraceElement[], Void> anrInstrumenter,
+            @Nullable Tracer longTaskTracer,
+            long anrThresholdNanos,
+            long longTaskThresholdNanos,
+            long hangThresholdNanos,
+            long samplingIntervalNanos) {
+        this.mainLooper = mainLooper;
+        this.mainThread = mainLooper.getThread();
+        this.anrInstrumenter = anrInstrumenter;
+        this.longTaskTracer = longTaskTracer;
+        this.anrThresholdNanos = anrThresholdNanos;
+        this.longTaskThresholdNanos = longTaskThresholdNanos;
+        this.hangThresholdNanos = hangThresholdNanos;
+        this.samplingIntervalNanos = samplingIntervalNanos;
+    }
+
+    void start() {
+        if (disabled) {
+            return;
+        }
+        if (watchdogThread == null) {
+            Thread thread = new Thread(this, WATCHDOG_THREAD_NAME);
+            thread.setDaemon(true);
+            watchdogThread = thread;
+            thread.start();
+        }
+        mainLooper.setMessageLogging(this);
+    }
+
+    void stop() {
+        // the looper still calls this printer once more if a message is being dispatched now
+        mainLooper.setMessageLogging(null);
+    }
+
+    /** Stops monitoring the looper for good; {@link #start()} won't have any effect anymore. */
+    void disable() {
+        disabled = true;
+        stop();
+    }
+
+    void disableStackSampling() {
+        samplingIntervalNanos = 0;
+    }
+
+    @Override
+    public void println(String x) {
+        if (x.isEmpty()) {
+            return;
+        }
+        long overheadStartNanos = overhead.startMainThreadWork();
+        if (x.charAt(0) == '>') {
+            onDispatchStarted(System.nanoTime());
+        } else if (x.charAt(0) == '<') {
+            onDispatchFinished(System.nanoTime());
+        }
+        overhead.endMainThreadWork(SdkOverhead.ANR_DETECTOR, overheadStartNanos);
+    }
+
+    // visible for testing
+    void onDispatchStarted(long nowNanos) {
+        dispatchStartNanos = nowNanos;
+        // the main thread is the only writer
+        long count = dispatchCount;
+        dispatchCount = count + 1;
+        dispatching = true;
+        if (watchdogIdle) {
+            Thread watchdogThread = this.watchdogThread;
+            if (watchdogThread != null) {
+                LockSupport.unpark(watchdogThread);
+            }
+        }
+    }
+
+    // visible for testing
+    void onDispatchFinished(long nowNanos) {
+        if (!dispatching) {
+            return;
+        }
+        dispatching = false;
+        long durationNanos = nowNanos - dispatchStartNanos;
+        Tracer tracer = longTaskTracer;
+        if (tracer != null && durationNanos >= longTaskThresholdNanos) {
+            reportLongTask(tracer, durationNanos, getHangProfile(dispatchCount));
+        }
+    }
+
+    private static void reportLongTask(
+            Tracer tracer, long durationNanos, @Nullable HangProfile profile) {
+        Instant end = Instant.now();
+        Instant start = end.minusNanos(durationNanos);
+        SpanBuilder spanBuilder = tracer.spanBuilder(LONG_TASK_SPAN_NAME).setStartTimestamp(start);
+        if (profile != null) {
+            spanBuilder.setAttribute(HANG_PROFILE_KEY, profile.toFoldedStacks());
+            spanBuilder.setAttribute(HANG_PROFILE_SAMPLES_KEY, (long) profile.getSampleCount());
+        }
+        spanBuilder.startSpan().end(end);
+    }
+
+    @Nullable
+    private HangProfile getHangProfile(long count) {
+        HangProfile profile = hangProfile;
+        return profile != null && profile.getDispatchId() == count ? profile : null;
+    }
+
+    @Override
+    public void run() {
+        SdkOverhead.getInstance().registerCurrentThread(SdkOverhead.ANR_WATCHDOG);
+        while (true) {
+            long count = dispatchCount;
+            if (!dispatching) {
+                waitForNextDispatch(count, false);
+                continue;
+            }
+            long nowNanos = System.nanoTime();
+            long deadlineNanos = NO_DEADLINE;
+            if (count != reportedDispatchCount) {
+                long anrDeadlineNanos = dispatchStartNanos + anrThresholdNanos;
+                if (nowNanos - anrDeadlineNanos >= 0) {
+                    checkForAnr(count);
+                    continue;
+                }
+                deadlineNanos = anrDeadlineNanos;
+            }
+            long nextSampleNanos = sampleIfHanging(count, nowNanos);
+            if (nextSampleNanos != NO_DEADLINE
+                    && (deadlineNanos == NO_DEADLINE || nextSampleNanos - deadlineNanos < 0)) {
+                deadlineNanos = nextSampleNanos;
+            }
+            if (deadlineNanos == NO_DEADLINE) {
+                waitForNextDispatch(count, true);
+            } else {
+                LockSupport.parkNanos(this, deadlineNanos - nowNanos);
+            }
+        }
+    }
+
+    /**
+     * Samples the main thread stack if the current dispatch has been running for longer than the
+     * hang threshold, and returns when the next sample is due.
+     */
+    // visible for testing
+    long sampleIfHanging(long count, long nowNanos) {
+        if (samplingIntervalNanos <= 0) {
+            return NO_DEADLINE;
+        }
+        long hangStartNanos = dispatchStartNanos + hangThresholdNanos;
+        if (nowNanos - hangStartNanos < 0) {
+            return hangStartNanos;
+        }
+        HangProfile profile = getHangProfile(count);
+        if (profile == null) {
+            profile = new HangProfile(count);
+            hangProfile = profile;
+            nextSampleNanos = nowNanos;
+        }
+        if (profile.isFull()) {
+            return NO_DEADLINE;
+        }
+        if (nowNanos - nextSampleNanos >= 0) {
+            StackTraceElement[] stackTrace = mainThread.getStackTrace();
+            // don't mix in the stack of the next message if this one has finished in the meantime
+            if (dispatching && dispatchCount == count) {
+                profile.addSample(stackTrace);
+            }
+            nextSampleNanos = nowNanos + samplingIntervalNanos;
+        }
+        return nextSampleNanos;
+    }
+
+    /**
+     * Parks the watchdog until the main thread starts a dispatch, unless the dispatch count or the
+     * dispatching flag have changed since they were read.
+     */
+    // visible for testing
+    void waitForNextDispatch(long count, boolean wasDispatching) {
+        watchdogIdle = true;
+        // the main thread checks the idle flag after starting a dispatch; if it did so before
+        // the flag was set, we'll see the new dispatch count or the dispatching flag here. Both
+        // are checked: the count may have been read after the main thread incremented it, but the
+        // flag before it was set
+        if (dispatchCount == count && dispatching == wasDispatching) {
+            LockSupport.park(this);
+        }
+        watchdogIdle = false;
+    }
+
+    // visible for testing
+    void checkForAnr(long count) {
+        if (dispatching && dispatchCount == count && count != reportedDispatchCount) {
+            reportedDispatchCount = count;
+            StackTraceElement[] stackTrace = mainThread.getStackTrace();
+            Context context = anrInstrumenter.start(Context.current(), stackTrace);
+            HangProfile profile = getHangProfile(count);
+            if (profile != null) {
+                profile.addSample(stackTrace);
+                Span span = Span.fromContext(context);
+                span.setAttribute(HANG_PROFILE_KEY, profile.toFoldedStacks());
+                span.setAttribute(HANG_PROFILE_SAMPLES_KEY, profile.getSampleCount());
+            }
+            anrInstrumenter.end(context, stackTrace, null, null);
+        }
+    }
+
+    // visible for testing
+    long getDispatchCount() {
+        return dispatchCount;
+    }
+}
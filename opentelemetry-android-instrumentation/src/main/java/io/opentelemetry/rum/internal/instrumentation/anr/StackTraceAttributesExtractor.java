@@ -16,21 +16,24 @@
 
 package io.opentelemetry.rum.internal.instrumentation.anr;
 
+import static io.opentelemetry.rum.internal.RumConstants.EXCEPTION_FINGERPRINT_KEY;
+
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import io.opentelemetry.rum.internal.util.StackTraceFormatter;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 
-final class StackTraceFormatter implements AttributesExtractor<StackTraceElement[], Void> {
+final class StackTraceAttributesExtractor
+        implements AttributesExtractor<StackTraceElement[], Void> {
+
+    private final StackTraceFormatter formatter = new StackTraceFormatter();
 
     @Override
     public void onStart(
             AttributesBuilder attributes, Context parentContext, StackTraceElement[] stackTrace) {
-        StringBuilder stackTraceString = new StringBuilder();
-        for (StackTraceElement stackTraceElement : stackTrace) {
-            stackTraceString.append(stackTraceElement).append("\n");
-        }
-        attributes.put(SemanticAttributes.EXCEPTION_STACKTRACE, stackTraceString.toString());
+        attributes.put(SemanticAttributes.EXCEPTION_STACKTRACE, formatter.format(stackTrace));
+        attributes.put(EXCEPTION_FINGERPRINT_KEY, formatter.fingerprint(stackTrace));
     }
 
     @Override
@@ -16,19 +16,31 @@
 
 package io.opentelemetry.rum.internal.instrumentation.crash;
 
+import static io.opentelemetry.rum.internal.RumConstants.EXCEPTION_FINGERPRINT_KEY;
+
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import io.opentelemetry.rum.internal.util.StackTraceFormatter;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 
 final class CrashDetailsAttributesExtractor implements AttributesExtractor<CrashDetails, Void> {
 
+    private final StackTraceFormatter stackTraceFormatter;
+
+    CrashDetailsAttributesExtractor(StackTraceFormatter stackTraceFormatter) {
+        this.stackTraceFormatter = stackTraceFormatter;
+    }
+
     @Override
     public void onStart(
             AttributesBuilder attributes, Context parentContext, CrashDetails crashDetails) {
         attributes.put(SemanticAttributes.THREAD_ID, crashDetails.getThread().getId());
         attributes.put(SemanticAttributes.THREAD_NAME, crashDetails.getThread().getName());
         attributes.put(SemanticAttributes.EXCEPTION_ESCAPED, true);
+        attributes.put(
+                EXCEPTION_FINGERPRINT_KEY,
+                stackTraceFormatter.fingerprint(crashDetails.getCause()));
     }
 
     @Override
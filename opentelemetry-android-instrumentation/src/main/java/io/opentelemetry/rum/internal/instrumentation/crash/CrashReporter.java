@@ -17,9 +17,12 @@
 package io.opentelemetry.rum.internal.instrumentation.crash;
 
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
 import io.opentelemetry.rum.internal.instrumentation.InstrumentedApplication;
+import io.opentelemetry.rum.internal.util.StackTraceFormatter;
+import java.time.Duration;
 import java.util.List;
 
 /** Entrypoint for installing the crash reporting instrumentation. */
@@ -36,9 +39,11 @@ public final class CrashReporter {
     }
 
     private final List<AttributesExtractor<CrashDetails, Void>> additionalExtractors;
+    private final Duration flushTimeout;
 
     CrashReporter(CrashReporterBuilder builder) {
         this.additionalExtractors = builder.additionalExtractors;
+        this.flushTimeout = builder.flushTimeout;
     }
 
     /**
@@ -47,17 +52,26 @@ public final class CrashReporter {
     public void installOn(InstrumentedApplication instrumentedApplication) {
         Thread.UncaughtExceptionHandler existingHandler =
                 Thread.getDefaultUncaughtExceptionHandler();
+        StackTraceFormatter stackTraceFormatter = new StackTraceFormatter();
         Thread.setDefaultUncaughtExceptionHandler(
                 new CrashReportingExceptionHandler(
-                        buildInstrumenter(instrumentedApplication.getOpenTelemetrySdk()),
+                        buildInstrumenter(
+                                instrumentedApplication.getOpenTelemetrySdk(), stackTraceFormatter),
+                        stackTraceFormatter,
                         instrumentedApplication.getOpenTelemetrySdk().getSdkTracerProvider(),
-                        existingHandler));
+                        existingHandler,
+                        flushTimeout));
     }
 
-    private Instrumenter<CrashDetails, Void> buildInstrumenter(OpenTelemetry openTelemetry) {
+    private Instrumenter<CrashDetails, Void> buildInstrumenter(
+            OpenTelemetry openTelemetry, StackTraceFormatter stackTraceFormatter) {
         return Instrumenter.<CrashDetails, Void>builder(
                         openTelemetry, "io.opentelemetry.crash", CrashDetails::spanName)
-                .addAttributesExtractor(new CrashDetailsAttributesExtractor())
+                .addAttributesExtractor(new CrashDetailsAttributesExtractor(stackTraceFormatter))
+                // it's always an error
+                .setSpanStatusExtractor(
+                        (spanStatusBuilder, crashDetails, unused, error) ->
+                                spanStatusBuilder.setStatus(StatusCode.ERROR))
                 .addAttributesExtractors(additionalExtractors)
                 .buildInstrumenter();
     }
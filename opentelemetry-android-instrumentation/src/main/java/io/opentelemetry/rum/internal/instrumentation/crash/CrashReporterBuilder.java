@@ -17,6 +17,7 @@
 package io.opentelemetry.rum.internal.instrumentation.crash;
 
 import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,6 +27,7 @@ public final class CrashReporterBuilder {
     CrashReporterBuilder() {}
 
     final List<AttributesExtractor<CrashDetails, Void>> additionalExtractors = new ArrayList<>();
+    Duration flushTimeout = Duration.ofSeconds(10);
 
     /** Adds an {@link AttributesExtractor} that will extract additional attributes. */
     public CrashReporterBuilder addAttributesExtractor(
@@ -34,6 +36,17 @@ public final class CrashReporterBuilder {
         return this;
     }
 
+    /**
+     * Sets how long the crash handler waits for the spans to be flushed before handing the crash
+     * over to the previously installed handler. The default is 10 seconds, which is enough for a
+     * network export; span processors that persist the crash on the crashing thread can do with a
+     * lot less.
+     */
+    public CrashReporterBuilder setFlushTimeout(Duration flushTimeout) {
+        this.flushTimeout = flushTimeout;
+        return this;
+    }
+
     /**
      * Returns a new {@link CrashReporter} with the settings of this {@link CrashReporterBuilder}.
      */
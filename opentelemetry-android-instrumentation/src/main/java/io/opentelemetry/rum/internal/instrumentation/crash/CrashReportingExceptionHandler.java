@@ -17,25 +17,37 @@
 package io.opentelemetry.rum.internal.instrumentation.crash;
 
 import androidx.annotation.NonNull;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
+import io.opentelemetry.rum.internal.util.StackTraceFormatter;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 final class CrashReportingExceptionHandler implements Thread.UncaughtExceptionHandler {
 
     private final Instrumenter<CrashDetails, Void> instrumenter;
+    private final StackTraceFormatter stackTraceFormatter;
     private final SdkTracerProvider sdkTracerProvider;
     private final Thread.UncaughtExceptionHandler existingHandler;
+    private final long flushTimeoutMillis;
 
     CrashReportingExceptionHandler(
             Instrumenter<CrashDetails, Void> instrumenter,
+            StackTraceFormatter stackTraceFormatter,
             SdkTracerProvider sdkTracerProvider,
-            Thread.UncaughtExceptionHandler existingHandler) {
+            Thread.UncaughtExceptionHandler existingHandler,
+            Duration flushTimeout) {
         this.instrumenter = instrumenter;
+        this.stackTraceFormatter = stackTraceFormatter;
         this.sdkTracerProvider = sdkTracerProvider;
         this.existingHandler = existingHandler;
+        this.flushTimeoutMillis = flushTimeout.toMillis();
     }
 
     @Override
@@ -44,7 +56,7 @@ final class CrashReportingExceptionHandler implements Thread.UncaughtExceptionHa
 
         // do our best to make sure the crash makes it out of the VM
         CompletableResultCode flushResult = sdkTracerProvider.forceFlush();
-        flushResult.join(10, TimeUnit.SECONDS);
+        flushResult.join(flushTimeoutMillis, TimeUnit.MILLISECONDS);
 
         // preserve any existing behavior
         if (existingHandler != null) {
@@ -55,6 +67,28 @@ final class CrashReportingExceptionHandler implements Thread.UncaughtExceptionHa
     private void reportCrash(Thread t, Throwable e) {
         CrashDetails crashDetails = CrashDetails.create(t, e);
         Context context = instrumenter.start(Context.current(), crashDetails);
-        instrumenter.end(context, crashDetails, null, e);
+        // the error is not passed to the instrumenter, since it would record the full, uncapped
+        // stack trace; the span status is set by the instrumenter's span status extractor
+        Span.fromContext(context)
+                .addEvent(SemanticAttributes.EXCEPTION_EVENT_NAME, exceptionAttributes(e));
+        instrumenter.end(context, crashDetails, null, null);
+    }
+
+    // same as Span.recordException(), but with a size-limited stack trace
+    private Attributes exceptionAttributes(Throwable throwable) {
+        String type = throwable.getClass().getCanonicalName();
+        AttributesBuilder builder =
+                Attributes.builder()
+                        .put(
+                                SemanticAttributes.EXCEPTION_TYPE,
+                                type == null ? throwable.getClass().getName() : type)
+                        .put(
+                                SemanticAttributes.EXCEPTION_STACKTRACE,
+                                stackTraceFormatter.format(throwable));
+        String message = throwable.getMessage();
+        if (message != null) {
+            builder.put(SemanticAttributes.EXCEPTION_MESSAGE, message);
+        }
+        return builder.build();
     }
 }
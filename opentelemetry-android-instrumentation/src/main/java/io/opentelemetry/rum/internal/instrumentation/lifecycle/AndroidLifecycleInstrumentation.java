@@ -19,7 +19,10 @@ package io.opentelemetry.rum.internal.instrumentation.lifecycle;
 import android.app.Application;
 import android.os.Build;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.FragmentManager;
 import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.rum.internal.SdkOverhead;
 import io.opentelemetry.rum.internal.instrumentation.InstrumentedApplication;
 import io.opentelemetry.rum.internal.instrumentation.ScreenNameExtractor;
 import io.opentelemetry.rum.internal.instrumentation.activity.ActivityCallbacks;
@@ -49,6 +52,10 @@ public class AndroidLifecycleInstrumentation {
     private final Function<Tracer, Tracer> tracerCustomizer;
     private final ScreenNameExtractor screenNameExtractor;
 
+    @Nullable private volatile Application application;
+    @Nullable private volatile Application.ActivityLifecycleCallbacks activityEventsCallbacks;
+    @Nullable private volatile Application.ActivityLifecycleCallbacks fragmentRegisterer;
+
     AndroidLifecycleInstrumentation(AndroidLifecycleInstrumentationBuilder builder) {
         this.startupTimer = builder.startupTimer;
         this.visibleScreenTracker = builder.visibleScreenTracker;
@@ -61,20 +68,49 @@ public class AndroidLifecycleInstrumentation {
     }
 
     public void installOn(InstrumentedApplication app) {
+        application = app.getApplication();
         installStartupTimerInstrumentation(app);
         installActivityLifecycleEventsInstrumentation(app);
         installFragmentLifecycleInstrumentation(app);
         installScreenTrackingInstrumentation(app);
     }
 
+    /**
+     * Stops tracing the fragment lifecycle of the activities that are created from now on, to
+     * reduce the overhead of the instrumentation. Has no effect if the instrumentation is not
+     * installed.
+     */
+    public void disableFragmentTracing() {
+        Application application = this.application;
+        Application.ActivityLifecycleCallbacks callbacks = fragmentRegisterer;
+        if (application != null && callbacks != null) {
+            application.unregisterActivityLifecycleCallbacks(callbacks);
+        }
+    }
+
+    /**
+     * Stops tracing the activity lifecycle, to reduce the overhead of the instrumentation. The app
+     * startup and the visible screen are still tracked. Has no effect if the instrumentation is not
+     * installed.
+     */
+    public void disableActivityTracing() {
+        Application application = this.application;
+        Application.ActivityLifecycleCallbacks callbacks = activityEventsCallbacks;
+        if (application != null && callbacks != null) {
+            application.unregisterActivityLifecycleCallbacks(callbacks);
+        }
+    }
+
     private void installStartupTimerInstrumentation(InstrumentedApplication app) {
         app.getApplication()
-                .registerActivityLifecycleCallbacks(startupTimer.createLifecycleCallback());
+                .registerActivityLifecycleCallbacks(timed(startupTimer.createLifecycleCallback()));
     }
 
     private void installActivityLifecycleEventsInstrumentation(InstrumentedApplication app) {
-        Application.ActivityLifecycleCallbacks activityCallbacks = buildActivityEventsCallback(app);
+        Application.ActivityLifecycleCallbacks activityCallbacks =
+                timed(buildActivityEventsCallback(app));
         app.getApplication().registerActivityLifecycleCallbacks(activityCallbacks);
+        activityEventsCallbacks = activityCallbacks;
     }
 
     @NonNull
@@ -94,8 +130,10 @@ public class AndroidLifecycleInstrumentation {
     }
 
     private void installFragmentLifecycleInstrumentation(InstrumentedApplication app) {
-        Application.ActivityLifecycleCallbacks fragmentRegisterer = buildFragmentRegisterer(app);
+        Application.ActivityLifecycleCallbacks fragmentRegisterer =
+                timed(buildFragmentRegisterer(app));
         app.getApplication().registerActivityLifecycleCallbacks(fragmentRegisterer);
+        this.fragmentRegisterer = fragmentRegisterer;
     }
 
     @NonNull
@@ -104,9 +142,13 @@ public class AndroidLifecycleInstrumentation {
 
         Tracer delegateTracer = app.getOpenTelemetrySdk().getTracer(INSTRUMENTATION_SCOPE);
         Tracer tracer = tracerCustomizer.apply(delegateTracer);
-        RumFragmentLifecycleCallbacks fragmentLifecycle =
+        FragmentManager.FragmentLifecycleCallbacks fragmentLifecycle =
                 new RumFragmentLifecycleCallbacks(
                         tracer, visibleScreenTracker, screenNameExtractor);
+        SdkOverhead overhead = SdkOverhead.getInstance();
+        if (overhead.isEnabled()) {
+            fragmentLifecycle = new TimedFragmentLifecycleCallbacks(fragmentLifecycle, overhead);
+        }
         if (Build.VERSION.SDK_INT < 29) {
             return RumFragmentActivityRegisterer.createPre29(fragmentLifecycle);
         }
@@ -116,7 +158,16 @@ public class AndroidLifecycleInstrumentation {
     private void installScreenTrackingInstrumentation(InstrumentedApplication app) {
         Application.ActivityLifecycleCallbacks screenTrackingBinding =
                 buildScreenTrackingBinding(visibleScreenTracker);
-        app.getApplication().registerActivityLifecycleCallbacks(screenTrackingBinding);
+        app.getApplication().registerActivityLifecycleCallbacks(timed(screenTrackingBinding));
+    }
+
+    // the main thread time of the callbacks is only measured when the SDK overhead is measured
+    private static Application.ActivityLifecycleCallbacks timed(
+            Application.ActivityLifecycleCallbacks callbacks) {
+        SdkOverhead overhead = SdkOverhead.getInstance();
+        return overhead.isEnabled()
+                ? new TimedActivityLifecycleCallbacks(callbacks, overhead)
+                : callbacks;
     }
 
     @NonNull
@@ -0,0 +1,188 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.lifecycle;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.opentelemetry.rum.internal.SdkOverhead;
+
+/** Measures the main thread time spent in the wrapped activity lifecycle callbacks. */
+final class TimedActivityLifecycleCallbacks implements Application.ActivityLifecycleCallbacks {
+
+    private final Application.ActivityLifecycleCallbacks delegate;
+    private final SdkOverhead overhead;
+
+    TimedActivityLifecycleCallbacks(
+            Application.ActivityLifecycleCallbacks delegate, SdkOverhead overhead) {
+        this.delegate = delegate;
+        this.overhead = overhead;
+    }
+
+    @Override
+    public void onActivityPreCreated(
+            @NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityPreCreated(activity, savedInstanceState);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityCreated(activity, savedInstanceState);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityPostCreated(
+            @NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityPostCreated(activity, savedInstanceState);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityPreStarted(@NonNull Activity activity) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityPreStarted(activity);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityStarted(@NonNull Activity activity) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityStarted(activity);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityPostStarted(@NonNull Activity activity) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityPostStarted(activity);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityPreResumed(@NonNull Activity activity) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityPreResumed(activity);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityResumed(@NonNull Activity activity) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityResumed(activity);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityPostResumed(@NonNull Activity activity) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityPostResumed(activity);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityPrePaused(@NonNull Activity activity) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityPrePaused(activity);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityPaused(@NonNull Activity activity) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityPaused(activity);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityPostPaused(@NonNull Activity activity) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityPostPaused(activity);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityPreStopped(@NonNull Activity activity) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityPreStopped(activity);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityStopped(@NonNull Activity activity) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityStopped(activity);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityPostStopped(@NonNull Activity activity) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityPostStopped(activity);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityPreSaveInstanceState(
+            @NonNull Activity activity, @NonNull Bundle outState) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityPreSaveInstanceState(activity, outState);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivitySaveInstanceState(activity, outState);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityPostSaveInstanceState(
+            @NonNull Activity activity, @NonNull Bundle outState) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityPostSaveInstanceState(activity, outState);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityPreDestroyed(@NonNull Activity activity) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityPreDestroyed(activity);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityDestroyed(@NonNull Activity activity) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityDestroyed(activity);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onActivityPostDestroyed(@NonNull Activity activity) {
+        long start = overhead.startMainThreadWork();
+        delegate.onActivityPostDestroyed(activity);
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, start);
+    }
+}
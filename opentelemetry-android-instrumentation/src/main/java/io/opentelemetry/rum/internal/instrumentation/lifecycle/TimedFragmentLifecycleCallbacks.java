@@ -0,0 +1,148 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.lifecycle;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.view.View;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentManager;
+import io.opentelemetry.rum.internal.SdkOverhead;
+
+/** Measures the main thread time spent in the wrapped fragment lifecycle callbacks. */
+final class TimedFragmentLifecycleCallbacks extends FragmentManager.FragmentLifecycleCallbacks {
+
+    private final FragmentManager.FragmentLifecycleCallbacks delegate;
+    private final SdkOverhead overhead;
+
+    TimedFragmentLifecycleCallbacks(
+            FragmentManager.FragmentLifecycleCallbacks delegate, SdkOverhead overhead) {
+        this.delegate = delegate;
+        this.overhead = overhead;
+    }
+
+    @Override
+    public void onFragmentPreAttached(
+            @NonNull FragmentManager fm, @NonNull Fragment f, @NonNull Context context) {
+        long start = overhead.startMainThreadWork();
+        delegate.onFragmentPreAttached(fm, f, context);
+        overhead.endMainThreadWork(SdkOverhead.FRAGMENT_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onFragmentAttached(
+            @NonNull FragmentManager fm, @NonNull Fragment f, @NonNull Context context) {
+        long start = overhead.startMainThreadWork();
+        delegate.onFragmentAttached(fm, f, context);
+        overhead.endMainThreadWork(SdkOverhead.FRAGMENT_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onFragmentPreCreated(
+            @NonNull FragmentManager fm, @NonNull Fragment f, @Nullable Bundle savedInstanceState) {
+        long start = overhead.startMainThreadWork();
+        delegate.onFragmentPreCreated(fm, f, savedInstanceState);
+        overhead.endMainThreadWork(SdkOverhead.FRAGMENT_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onFragmentCreated(
+            @NonNull FragmentManager fm, @NonNull Fragment f, @Nullable Bundle savedInstanceState) {
+        long start = overhead.startMainThreadWork();
+        delegate.onFragmentCreated(fm, f, savedInstanceState);
+        overhead.endMainThreadWork(SdkOverhead.FRAGMENT_LIFECYCLE, start);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public void onFragmentActivityCreated(
+            @NonNull FragmentManager fm, @NonNull Fragment f, @Nullable Bundle savedInstanceState) {
+        long start = overhead.startMainThreadWork();
+        delegate.onFragmentActivityCreated(fm, f, savedInstanceState);
+        overhead.endMainThreadWork(SdkOverhead.FRAGMENT_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onFragmentViewCreated(
+            @NonNull FragmentManager fm,
+            @NonNull Fragment f,
+            @NonNull View v,
+            @Nullable Bundle savedInstanceState) {
+        long start = overhead.startMainThreadWork();
+        delegate.onFragmentViewCreated(fm, f, v, savedInstanceState);
+        overhead.endMainThreadWork(SdkOverhead.FRAGMENT_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onFragmentStarted(@NonNull FragmentManager fm, @NonNull Fragment f) {
+        long start = overhead.startMainThreadWork();
+        delegate.onFragmentStarted(fm, f);
+        overhead.endMainThreadWork(SdkOverhead.FRAGMENT_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onFragmentResumed(@NonNull FragmentManager fm, @NonNull Fragment f) {
+        long start = overhead.startMainThreadWork();
+        delegate.onFragmentResumed(fm, f);
+        overhead.endMainThreadWork(SdkOverhead.FRAGMENT_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onFragmentPaused(@NonNull FragmentManager fm, @NonNull Fragment f) {
+        long start = overhead.startMainThreadWork();
+        delegate.onFragmentPaused(fm, f);
+        overhead.endMainThreadWork(SdkOverhead.FRAGMENT_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onFragmentStopped(@NonNull FragmentManager fm, @NonNull Fragment f) {
+        long start = overhead.startMainThreadWork();
+        delegate.onFragmentStopped(fm, f);
+        overhead.endMainThreadWork(SdkOverhead.FRAGMENT_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onFragmentSaveInstanceState(
+            @NonNull FragmentManager fm, @NonNull Fragment f, @NonNull Bundle outState) {
+        long start = overhead.startMainThreadWork();
+        delegate.onFragmentSaveInstanceState(fm, f, outState);
+        overhead.endMainThreadWork(SdkOverhead.FRAGMENT_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onFragmentViewDestroyed(@NonNull FragmentManager fm, @NonNull Fragment f) {
+        long start = overhead.startMainThreadWork();
+        delegate.onFragmentViewDestroyed(fm, f);
+        overhead.endMainThreadWork(SdkOverhead.FRAGMENT_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onFragmentDestroyed(@NonNull FragmentManager fm, @NonNull Fragment f) {
+        long start = overhead.startMainThreadWork();
+        delegate.onFragmentDestroyed(fm, f);
+        overhead.endMainThreadWork(SdkOverhead.FRAGMENT_LIFECYCLE, start);
+    }
+
+    @Override
+    public void onFragmentDetached(@NonNull FragmentManager fm, @NonNull Fragment f) {
+        long start = overhead.startMainThreadWork();
+        delegate.onFragmentDetached(fm, f);
+        overhead.endMainThreadWork(SdkOverhead.FRAGMENT_LIFECYCLE, start);
+    }
+}
@@ -25,6 +25,7 @@ import android.net.NetworkRequest;
 import android.os.Build;
 import android.util.Log;
 import androidx.annotation.NonNull;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.rum.internal.RumConstants;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -59,8 +60,12 @@ public final class CurrentNetworkProvider {
     }
 
     private final NetworkDetector networkDetector;
+    private final CurrentNetworkAttributesExtractor networkAttributesExtractor =
+            new CurrentNetworkAttributesExtractor();
 
-    private volatile CurrentNetwork currentNetwork = UNKNOWN_NETWORK;
+    private volatile NetworkSnapshot current =
+            new NetworkSnapshot(
+                    UNKNOWN_NETWORK, networkAttributesExtractor.extract(UNKNOWN_NETWORK));
     private final List<NetworkChangeListener> listeners = new CopyOnWriteArrayList<>();
 
     // visible for tests
@@ -97,14 +102,26 @@ public final class CurrentNetworkProvider {
 
     /** Returns up-to-date {@linkplain CurrentNetwork current network information}. */
     public CurrentNetwork refreshNetworkStatus() {
+        CurrentNetwork detectedNetwork;
         try {
-            currentNetwork = networkDetector.detectCurrentNetwork();
+            detectedNetwork = networkDetector.detectCurrentNetwork();
         } catch (Exception e) {
             // guard against security issues/bugs when accessing the Android connectivityManager.
             // see: https://issuetracker.google.com/issues/175055271
-            currentNetwork = UNKNOWN_NETWORK;
+            detectedNetwork = UNKNOWN_NETWORK;
         }
-        return currentNetwork;
+        return updateCurrentNetwork(detectedNetwork);
+    }
+
+    private CurrentNetwork updateCurrentNetwork(CurrentNetwork network) {
+        NetworkSnapshot snapshot = current;
+        // the network is refreshed on every export, but it rarely changes; keep the existing
+        // instance (and its attributes) unless the network has actually been swapped
+        if (!snapshot.network.equals(network)) {
+            snapshot = new NetworkSnapshot(network, networkAttributesExtractor.extract(network));
+            current = snapshot;
+        }
+        return snapshot.network;
     }
 
     private static NetworkRequest createNetworkMonitoringRequest() {
@@ -119,7 +136,15 @@ public final class CurrentNetworkProvider {
     }
 
     CurrentNetwork getCurrentNetwork() {
-        return currentNetwork;
+        return current.network;
+    }
+
+    /**
+     * Returns the span attributes describing the current network. The same {@link Attributes}
+     * instance is returned until the current network changes.
+     */
+    Attributes getCurrentNetworkAttributes() {
+        return current.attributes;
     }
 
     void addNetworkChangeListener(NetworkChangeListener listener) {
@@ -148,11 +173,20 @@ public final class CurrentNetworkProvider {
             // this method, we'll force it to be NO_NETWORK, rather than relying on the
             // ConnectivityManager to have the right
             // state at the right time during this event.
-            CurrentNetwork currentNetwork = NO_NETWORK;
-            CurrentNetworkProvider.this.currentNetwork = currentNetwork;
+            CurrentNetwork currentNetwork = updateCurrentNetwork(NO_NETWORK);
             Log.d(RumConstants.OTEL_RUM_LOG_TAG, "  onLost: currentNetwork=" + currentNetwork);
 
             notifyListeners(currentNetwork);
         }
     }
+
+    private static final class NetworkSnapshot {
+        private final CurrentNetwork network;
+        private final Attributes attributes;
+
+        private NetworkSnapshot(CurrentNetwork network, Attributes attributes) {
+            this.network = network;
+            this.attributes = attributes;
+        }
+    }
 }
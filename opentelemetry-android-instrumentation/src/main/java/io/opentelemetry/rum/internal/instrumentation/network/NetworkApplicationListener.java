@@ -21,6 +21,7 @@ import static io.opentelemetry.api.common.AttributeKey.stringKey;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
+import io.opentelemetry.rum.internal.SdkOverhead;
 import io.opentelemetry.rum.internal.instrumentation.ApplicationStateListener;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -29,6 +30,7 @@ class NetworkApplicationListener implements ApplicationStateListener {
 
     private final CurrentNetworkProvider currentNetworkProvider;
     private final AtomicBoolean shouldEmitChangeEvents = new AtomicBoolean(true);
+    private volatile boolean stopped = false;
 
     NetworkApplicationListener(CurrentNetworkProvider currentNetworkProvider) {
         this.currentNetworkProvider = currentNetworkProvider;
@@ -39,9 +41,17 @@ class NetworkApplicationListener implements ApplicationStateListener {
                 new TracingNetworkChangeListener(instrumenter, shouldEmitChangeEvents));
     }
 
+    /** Stops emitting network change events for good. */
+    void stopMonitoring() {
+        stopped = true;
+        shouldEmitChangeEvents.set(false);
+    }
+
     @Override
     public void onApplicationForegrounded() {
-        shouldEmitChangeEvents.set(true);
+        if (!stopped) {
+            shouldEmitChangeEvents.set(true);
+        }
     }
 
     @Override
@@ -53,6 +63,7 @@ class NetworkApplicationListener implements ApplicationStateListener {
 
         private final Instrumenter<CurrentNetwork, Void> instrumenter;
         private final AtomicBoolean shouldEmitChangeEvents;
+        private final SdkOverhead overhead = SdkOverhead.getInstance();
 
         TracingNetworkChangeListener(
                 Instrumenter<CurrentNetwork, Void> instrumenter,
@@ -66,8 +77,10 @@ class NetworkApplicationListener implements ApplicationStateListener {
             if (!shouldEmitChangeEvents.get()) {
                 return;
             }
+            long overheadStartNanos = overhead.startMainThreadWork();
             Context context = instrumenter.start(Context.current(), currentNetwork);
             instrumenter.end(context, currentNetwork, null, null);
+            overhead.endMainThreadWork(SdkOverhead.NETWORK_MONITOR, overheadStartNanos);
         }
     }
 }
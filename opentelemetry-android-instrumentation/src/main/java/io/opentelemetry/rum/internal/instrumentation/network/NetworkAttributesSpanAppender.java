@@ -21,23 +21,26 @@ import io.opentelemetry.context.Context;
 import io.opentelemetry.sdk.trace.ReadWriteSpan;
 import io.opentelemetry.sdk.trace.ReadableSpan;
 import io.opentelemetry.sdk.trace.SpanProcessor;
+import java.util.function.Supplier;
 
 /**
  * A {@link SpanProcessor} implementation that appends a set of {@linkplain Attributes attributes}
  * describing the {@linkplain CurrentNetwork current network} to every span that is exported.
  *
+ * <p>It can also be used as a {@link Supplier} of the current network attributes; the attributes
+ * are extracted by the {@link CurrentNetworkProvider} once per network change, not once per span.
+ *
  * <p>This class is internal and not for public use. Its APIs are unstable and can change at any
  * time.
  */
-public final class NetworkAttributesSpanAppender implements SpanProcessor {
+public final class NetworkAttributesSpanAppender implements SpanProcessor, Supplier<Attributes> {
 
-    public static SpanProcessor create(CurrentNetworkProvider currentNetworkProvider) {
+    public static NetworkAttributesSpanAppender create(
+            CurrentNetworkProvider currentNetworkProvider) {
         return new NetworkAttributesSpanAppender(currentNetworkProvider);
     }
 
     private final CurrentNetworkProvider currentNetworkProvider;
-    private final CurrentNetworkAttributesExtractor networkAttributesExtractor =
-            new CurrentNetworkAttributesExtractor();
 
     NetworkAttributesSpanAppender(CurrentNetworkProvider currentNetworkProvider) {
         this.currentNetworkProvider = currentNetworkProvider;
@@ -45,8 +48,12 @@ public final class NetworkAttributesSpanAppender implements SpanProcessor {
 
     @Override
     public void onStart(Context parentContext, ReadWriteSpan span) {
-        CurrentNetwork currentNetwork = currentNetworkProvider.getCurrentNetwork();
-        span.setAllAttributes(networkAttributesExtractor.extract(currentNetwork));
+        span.setAllAttributes(get());
+    }
+
+    @Override
+    public Attributes get() {
+        return currentNetworkProvider.getCurrentNetworkAttributes();
     }
 
     @Override
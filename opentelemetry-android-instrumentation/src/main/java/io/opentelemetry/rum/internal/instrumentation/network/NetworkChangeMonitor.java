@@ -16,6 +16,7 @@
 
 package io.opentelemetry.rum.internal.instrumentation.network;
 
+import androidx.annotation.Nullable;
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
@@ -42,6 +43,7 @@ public final class NetworkChangeMonitor {
 
     private final CurrentNetworkProvider currentNetworkProvider;
     private final List<AttributesExtractor<CurrentNetwork, Void>> additionalExtractors;
+    @Nullable private volatile NetworkApplicationListener networkApplicationListener;
 
     NetworkChangeMonitor(NetworkChangeMonitorBuilder builder) {
         this.currentNetworkProvider = builder.currentNetworkProvider;
@@ -58,6 +60,18 @@ public final class NetworkChangeMonitor {
         networkApplicationListener.startMonitoring(
                 buildInstrumenter(instrumentedApplication.getOpenTelemetrySdk()));
         instrumentedApplication.registerApplicationStateListener(networkApplicationListener);
+        this.networkApplicationListener = networkApplicationListener;
+    }
+
+    /**
+     * Stops emitting network change events for good, to get rid of the overhead of the
+     * instrumentation. Has no effect if the instrumentation is not installed.
+     */
+    public void uninstall() {
+        NetworkApplicationListener networkApplicationListener = this.networkApplicationListener;
+        if (networkApplicationListener != null) {
+            networkApplicationListener.stopMonitoring();
+        }
     }
 
     private Instrumenter<CurrentNetwork, Void> buildInstrumenter(OpenTelemetry openTelemetry) {
@@ -0,0 +1,53 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.overhead;
+
+/**
+ * A single step that reduces the overhead of an instrumentation, taken by the {@link
+ * OverheadGovernor} when the library is over its overhead budget.
+ *
+ * <p>This class is internal and not for public use. Its APIs are unstable and can change at any
+ * time.
+ */
+public final class DegradationStep {
+
+    /**
+     * Returns a new step; the action will be run on the main thread.
+     *
+     * @param name The name of the step, reported in the {@code sdk.degradation.step} attribute.
+     * @param action Reduces the overhead of the instrumentation.
+     */
+    public static DegradationStep create(String name, Runnable action) {
+        return new DegradationStep(name, action);
+    }
+
+    private final String name;
+    private final Runnable action;
+
+    private DegradationStep(String name, Runnable action) {
+        this.name = name;
+        this.action = action;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void apply() {
+        action.run();
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.overhead;
+
+import static io.opentelemetry.api.common.AttributeKey.doubleKey;
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.Nullable;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.rum.internal.RumConstants;
+import io.opentelemetry.rum.internal.SdkOverhead;
+import io.opentelemetry.rum.internal.instrumentation.ApplicationStateListener;
+import io.opentelemetry.rum.internal.instrumentation.ForegroundPeriodicTask;
+import io.opentelemetry.rum.internal.instrumentation.InstrumentedApplication;
+import io.opentelemetry.sdk.common.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the overhead of the RUM library within a budget. The overhead measured by {@link
+ * SdkOverhead} is checked periodically while the application is in the foreground; when the CPU
+ * time of the library threads or the time spent in library callbacks on the main thread exceeds the
+ * budget, the instrumentation that costs the most in the exceeded dimension is degraded by one
+ * step: for example sampled less, or uninstalled. Each step is reported as an {@code
+ * sdkOverheadDegradation} span. Steps are never undone; a new application process starts afresh.
+ *
+ * <p>Overhead that can't be attributed to any of the governed instrumentations (e.g. the span
+ * export) counts towards the budget, but doesn't trigger any degradation by itself.
+ *
+ * <p>This class is internal and not for public use. Its APIs are unstable and can change at any
+ * time.
+ */
+public final class OverheadGovernor implements ApplicationStateListener {
+
+    public static OverheadGovernorBuilder builder() {
+        return new OverheadGovernorBuilder();
+    }
+
+    static final String SPAN_NAME = "sdkOverheadDegradation";
+    static final AttributeKey<String> INSTRUMENTATION_KEY = stringKey("sdk.instrumentation");
+    static final AttributeKey<String> STEP_KEY = stringKey("sdk.degradation.step");
+    static final AttributeKey<Long> LEVEL_KEY = longKey("sdk.degradation.level");
+    static final AttributeKey<Double> CPU_TIME_KEY = doubleKey("sdk.cpu_time_per_minute");
+    static final AttributeKey<Double> MAIN_THREAD_TIME_KEY =
+            doubleKey("sdk.main_thread_time_per_minute");
+
+    private static final String INSTRUMENTATION_SCOPE = "io.opentelemetry.sdk-overhead";
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final long cpuTimeBudgetNanos;
+    private final long mainThreadTimeBudgetNanos;
+    private final Duration checkInterval;
+    private final List<GovernedInstrumentation> instrumentations;
+    private final SdkOverhead overhead;
+    private final Executor mainThreadExecutor;
+    private final Clock clock;
+
+    @Nullable private volatile Tracer tracer;
+    // the shared scheduler, unless given in the constructor
+    @Nullable private volatile ScheduledExecutorService executorService;
+    // accessed only from the executor thread
+    private final SdkOverhead.Deltas cpuTimeDeltas = new SdkOverhead.Deltas();
+    private final SdkOverhead.Deltas mainThreadDeltas = new SdkOverhead.Deltas();
+    private long lastCheckNanos;
+
+    OverheadGovernor(OverheadGovernorBuilder builder) {
+        this(
+                builder,
+                SdkOverhead.getInstance(),
+                null,
+                new Handler(Looper.getMainLooper())::post,
+                Clock.getDefault());
+    }
+
+    // Exists for testing
+    OverheadGovernor(
+            OverheadGovernorBuilder builder,
+            SdkOverhead overhead,
+            @Nullable ScheduledExecutorService executorService,
+            Executor mainThreadExecutor,
+            Clock clock) {
+        this.cpuTimeBudgetNanos = builder.cpuTimeBudget.toNanos();
+        this.mainThreadTimeBudgetNanos = builder.mainThreadTimeBudget.toNanos();
+        this.checkInterval = builder.checkInterval;
+        this.instrumentations = new ArrayList<>(builder.instrumentations);
+        this.overhead = overhead;
+        this.executorService = executorService;
+        this.mainThreadExecutor = mainThreadExecutor;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts governing the overhead of the instrumentations. {@link SdkOverhead#enable()} has to be
+     * called separately, as early as possible.
+     */
+    public void installOn(InstrumentedApplication instrumentedApplication) {
+        tracer = instrumentedApplication.getOpenTelemetrySdk().getTracer(INSTRUMENTATION_SCOPE);
+        ScheduledExecutorService executorService = this.executorService;
+        if (executorService == null) {
+            executorService = instrumentedApplication.getScheduler();
+            this.executorService = executorService;
+        }
+        ForegroundPeriodicTask checks =
+                ForegroundPeriodicTask.create(
+                        executorService,
+                        checkInterval,
+                        overhead.measureCpuTime("overhead_governor", this::checkSafely));
+        // the first check only counts the overhead from now on
+        executorService.execute(this::reset);
+        instrumentedApplication.registerApplicationStateListener(this);
+        instrumentedApplication.registerApplicationStateListener(checks);
+        checks.start();
+    }
+
+    @Override
+    public void onApplicationForegrounded() {
+        ScheduledExecutorService executorService = this.executorService;
+        if (executorService != null) {
+            // the time spent in the background doesn't count
+            executorService.execute(this::reset);
+        }
+    }
+
+    @Override
+    public void onApplicationBackgrounded() {}
+
+    // visible for testing
+    void reset() {
+        lastCheckNanos = clock.nanoTime();
+        cpuTimeDeltas.next(overhead.getThreadCpuTimeMillis());
+        mainThreadDeltas.next(overhead.getMainThreadNanos());
+    }
+
+    private void checkSafely() {
+        try {
+            check();
+        } catch (RuntimeException e) {
+            // an exception would cancel all further checks
+            Log.w(RumConstants.OTEL_RUM_LOG_TAG, "Exception while checking the SDK overhead", e);
+        }
+    }
+
+    // visible for testing
+    void check() {
+        long nowNanos = clock.nanoTime();
+        long elapsedNanos = nowNanos - lastCheckNanos;
+        lastCheckNanos = nowNanos;
+        Map<String, Long> cpuTimeMillis = cpuTimeDeltas.next(overhead.getThreadCpuTimeMillis());
+        Map<String, Long> mainThreadNanos = mainThreadDeltas.next(overhead.getMainThreadNanos());
+        if (elapsedNanos <= 0) {
+            return;
+        }
+
+        double minutes = elapsedNanos / (double) MINUTE_NANOS;
+        double cpuNanosPerMinute =
+                TimeUnit.MILLISECONDS.toNanos(sum(cpuTimeMillis, null)) / minutes;
+        double mainThreadNanosPerMinute = sum(mainThreadNanos, null) / minutes;
+        boolean cpuOverBudget = cpuNanosPerMinute > cpuTimeBudgetNanos;
+        boolean mainThreadOverBudget = mainThreadNanosPerMinute > mainThreadTimeBudgetNanos;
+        if (!cpuOverBudget && !mainThreadOverBudget) {
+            return;
+        }
+
+        GovernedInstrumentation costliest = null;
+        long costliestNanos = 0;
+        for (GovernedInstrumentation instrumentation : instrumentations) {
+            if (!instrumentation.canDegrade()) {
+                continue;
+            }
+            long costNanos = 0;
+            if (cpuOverBudget) {
+                costNanos +=
+                        TimeUnit.MILLISECONDS.toNanos(sum(cpuTimeMillis, instrumentation.costKeys));
+            }
+            if (mainThreadOverBudget) {
+                costNanos += sum(mainThreadNanos, instrumentation.costKeys);
+            }
+            if (costNanos > costliestNanos) {
+                costliest = instrumentation;
+                costliestNanos = costNanos;
+            }
+        }
+        if (costliest == null) {
+            return;
+        }
+
+        DegradationStep step = costliest.nextStep();
+        mainThreadExecutor.execute(step::apply);
+        Log.i(
+                RumConstants.OTEL_RUM_LOG_TAG,
+                "SDK overhead over budget, degrading " + costliest.name + ": " + step.getName());
+        reportDegradation(
+                costliest,
+                step,
+                cpuNanosPerMinute / TimeUnit.MILLISECONDS.toNanos(1),
+                mainThreadNanosPerMinute / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private void reportDegradation(
+            GovernedInstrumentation instrumentation,
+            DegradationStep step,
+            double cpuMillisPerMinute,
+            double mainThreadMillisPerMinute) {
+        Tracer tracer = this.tracer;
+        if (tracer == null) {
+            return;
+        }
+        tracer.spanBuilder(SPAN_NAME)
+                .setAttribute(INSTRUMENTATION_KEY, instrumentation.name)
+                .setAttribute(STEP_KEY, step.getName())
+                .setAttribute(LEVEL_KEY, (long) instrumentation.level)
+                .setAttribute(CPU_TIME_KEY, cpuMillisPerMinute)
+                .setAttribute(MAIN_THREAD_TIME_KEY, mainThreadMillisPerMinute)
+                .startSpan()
+                .end();
+    }
+
+    private static long sum(Map<String, Long> values, @Nullable Set<String> keys) {
+        long sum = 0;
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            if (keys == null || keys.contains(entry.getKey())) {
+                sum += entry.getValue();
+            }
+        }
+        return sum;
+    }
+
+    static final class GovernedInstrumentation {
+
+        final String name;
+        final Set<String> costKeys;
+        private final List<DegradationStep> steps;
+        // the number of steps taken; accessed only from the executor thread
+        private int level = 0;
+
+        GovernedInstrumentation(String name, Set<String> costKeys, List<DegradationStep> steps) {
+            this.name = name;
+            this.costKeys = costKeys;
+            this.steps = steps;
+        }
+
+        boolean canDegrade() {
+            return level < steps.size();
+        }
+
+        DegradationStep nextStep() {
+            return steps.get(level++);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.overhead;
+
+import io.opentelemetry.rum.internal.SdkOverhead;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * A builder of {@link OverheadGovernor}.
+ *
+ * <p>This class is internal and not for public use. Its APIs are unstable and can change at any
+ * time.
+ */
+public final class OverheadGovernorBuilder {
+
+    OverheadGovernorBuilder() {}
+
+    // about 2% of a CPU core
+    Duration cpuTimeBudget = Duration.ofMillis(1200);
+    // a few frames per minute
+    Duration mainThreadTimeBudget = Duration.ofMillis(300);
+    Duration checkInterval = Duration.ofSeconds(30);
+    final List<OverheadGovernor.GovernedInstrumentation> instrumentations = new ArrayList<>();
+
+    /**
+     * Sets the CPU time that the library threads may use per minute spent in the foreground. The
+     * default is 1.2 seconds.
+     */
+    public OverheadGovernorBuilder setCpuTimeBudget(Duration cpuTimePerMinute) {
+        this.cpuTimeBudget = cpuTimePerMinute;
+        return this;
+    }
+
+    /**
+     * Sets the time that the library callbacks may take on the main thread per minute spent in the
+     * foreground. The default is 300 milliseconds.
+     */
+    public OverheadGovernorBuilder setMainThreadTimeBudget(Duration mainThreadTimePerMinute) {
+        this.mainThreadTimeBudget = mainThreadTimePerMinute;
+        return this;
+    }
+
+    /**
+     * Sets how often the overhead is checked against the budget; at most one degradation step is
+     * taken per check. The default is 30 seconds.
+     */
+    public OverheadGovernorBuilder setCheckInterval(Duration checkInterval) {
+        this.checkInterval = checkInterval;
+        return this;
+    }
+
+    /**
+     * Adds an instrumentation that can be degraded when the library is over its budget.
+     *
+     * @param name The name of the instrumentation, reported in the {@code sdk.instrumentation}
+     *     attribute.
+     * @param costKeys The components and kinds of callbacks measured by {@link SdkOverhead} that
+     *     the overhead of the instrumentation is made of.
+     * @param steps The degradation steps, from the least to the most drastic one.
+     */
+    public OverheadGovernorBuilder addInstrumentation(
+            String name, Collection<String> costKeys, DegradationStep... steps) {
+        instrumentations.add(
+                new OverheadGovernor.GovernedInstrumentation(
+                        name, new HashSet<>(costKeys), Arrays.asList(steps)));
+        return this;
+    }
+
+    public OverheadGovernor build() {
+        return new OverheadGovernor(this);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.overhead;
+
+import static io.opentelemetry.api.common.AttributeKey.doubleKey;
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.rum.internal.SdkOverhead;
+import io.opentelemetry.rum.internal.instrumentation.ApplicationStateListener;
+import io.opentelemetry.rum.internal.instrumentation.InstrumentedApplication;
+import io.opentelemetry.sdk.common.Clock;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the cost of the RUM library measured by {@link SdkOverhead} as an {@code sdkOverhead}
+ * span, every time the application goes to the background. Each span covers the time since the
+ * previous one, and carries the CPU time of the library threads per component ({@code
+ * sdk.cpu_time.<component>}, in milliseconds) and the time spent in library callbacks on the main
+ * thread per kind of callback ({@code sdk.main_thread_time.<kind>}, in milliseconds). The spans
+ * carry the session id like any other span, so they add up to the overhead per session.
+ *
+ * <p>This class is internal and not for public use. Its APIs are unstable and can change at any
+ * time.
+ */
+public final class SdkOverheadReporter implements ApplicationStateListener {
+
+    static final String SPAN_NAME = "sdkOverhead";
+    private static final String INSTRUMENTATION_SCOPE = "io.opentelemetry.sdk-overhead";
+
+    private final Tracer tracer;
+    private final SdkOverhead overhead;
+    private final Clock clock;
+    // accessed only from the main thread
+    private final SdkOverhead.Deltas cpuTimeDeltas = new SdkOverhead.Deltas();
+    private final SdkOverhead.Deltas mainThreadDeltas = new SdkOverhead.Deltas();
+    private long lastReportEpochNanos;
+
+    // visible for testing
+    SdkOverheadReporter(Tracer tracer, SdkOverhead overhead, Clock clock) {
+        this.tracer = tracer;
+        this.overhead = overhead;
+        this.clock = clock;
+        this.lastReportEpochNanos = clock.now();
+    }
+
+    /**
+     * Installs the reporter on the given {@link InstrumentedApplication}. {@link
+     * SdkOverhead#enable()} has to be called separately, as early as possible.
+     */
+    public static void installOn(InstrumentedApplication instrumentedApplication) {
+        instrumentedApplication.registerApplicationStateListener(
+                new SdkOverheadReporter(
+                        instrumentedApplication
+                                .getOpenTelemetrySdk()
+                                .getTracer(INSTRUMENTATION_SCOPE),
+                        SdkOverhead.getInstance(),
+                        Clock.getDefault()));
+    }
+
+    @Override
+    public void onApplicationForegrounded() {}
+
+    @Override
+    public void onApplicationBackgrounded() {
+        report();
+    }
+
+    // visible for testing
+    void report() {
+        long startEpochNanos = lastReportEpochNanos;
+        long nowEpochNanos = clock.now();
+        lastReportEpochNanos = nowEpochNanos;
+
+        Map<String, Long> cpuTimeMillis = cpuTimeDeltas.next(overhead.getThreadCpuTimeMillis());
+        Map<String, Long> mainThreadNanos = mainThreadDeltas.next(overhead.getMainThreadNanos());
+        if (cpuTimeMillis.isEmpty() && mainThreadNanos.isEmpty()) {
+            return;
+        }
+
+        AttributesBuilder attributes = Attributes.builder();
+        for (Map.Entry<String, Long> entry : cpuTimeMillis.entrySet()) {
+            attributes.put(longKey("sdk.cpu_time." + entry.getKey()), entry.getValue());
+        }
+        for (Map.Entry<String, Long> entry : mainThreadNanos.entrySet()) {
+            attributes.put(
+                    doubleKey("sdk.main_thread_time." + entry.getKey()),
+                    entry.getValue() / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        tracer.spanBuilder(SPAN_NAME)
+                .setAllAttributes(attributes.build())
+                .setStartTimestamp(startEpochNanos, TimeUnit.NANOSECONDS)
+                .startSpan()
+                .end(nowEpochNanos, TimeUnit.NANOSECONDS);
+    }
+}
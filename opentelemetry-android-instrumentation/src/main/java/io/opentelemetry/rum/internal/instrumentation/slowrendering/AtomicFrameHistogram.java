@@ -0,0 +1,108 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.slowrendering;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Counts the slow and frozen frames of an activity and, optionally, all frames in the buckets of
+ * {@link FrameHistogram}.
+ *
+ * <p>The histogram is double-buffered: the frame thread increments the counters of the active
+ * buffer without locking or allocating, and the reporter {@linkplain #swap() swaps} the buffers and
+ * drains the inactive one. A frame that is recorded into a buffer right after it was swapped out is
+ * not lost; it is drained together with the next swap.
+ */
+final class AtomicFrameHistogram {
+
+    /** Receives the drained buckets of the histogram. */
+    interface BucketConsumer {
+
+        /**
+         * @param upperBoundMillis the inclusive upper bound of the bucket, or -1 for the last one.
+         */
+        void accept(long upperBoundMillis, int count);
+    }
+
+    static final int BUCKET_COUNT = FrameHistogram.BUCKET_BOUNDS_MS.length + 1;
+
+    private static final long NANOS_PER_MS = TimeUnit.MILLISECONDS.toNanos(1);
+    // the slow and frozen counters come after the buckets
+    private static final int SLOW_INDEX = BUCKET_COUNT;
+    private static final int FROZEN_INDEX = BUCKET_COUNT + 1;
+
+    private final AtomicIntegerArray[] buffers = {
+        new AtomicIntegerArray(BUCKET_COUNT + 2), new AtomicIntegerArray(BUCKET_COUNT + 2)
+    };
+    private final boolean trackDurations;
+    private volatile int activeBuffer = 0;
+
+    AtomicFrameHistogram(boolean trackDurations) {
+        this.trackDurations = trackDurations;
+    }
+
+    /** Records a frame; called from the frame thread. */
+    void record(long totalDurationNanos, boolean slow) {
+        AtomicIntegerArray buffer = buffers[activeBuffer];
+        if (trackDurations) {
+            // round up, the same way as FrameHistogram does
+            long durationMs = (totalDurationNanos + NANOS_PER_MS - 1) / NANOS_PER_MS;
+            buffer.incrementAndGet(FrameHistogram.bucketIndex(durationMs));
+        }
+        if (FrameDeadlines.isFrozen(totalDurationNanos)) {
+            buffer.incrementAndGet(FROZEN_INDEX);
+        } else if (slow) {
+            buffer.incrementAndGet(SLOW_INDEX);
+        }
+    }
+
+    /** Makes the inactive buffer active, so that the previously active one can be drained. */
+    void swap() {
+        activeBuffer ^= 1;
+    }
+
+    /** Drains and returns the number of slow (but not frozen) frames of the inactive buffer. */
+    int takeSlowCount() {
+        return inactiveBuffer().getAndSet(SLOW_INDEX, 0);
+    }
+
+    /** Drains and returns the number of frozen frames of the inactive buffer. */
+    int takeFrozenCount() {
+        return inactiveBuffer().getAndSet(FROZEN_INDEX, 0);
+    }
+
+    /** Drains the non-empty buckets of the inactive buffer into the consumer. */
+    void takeBuckets(BucketConsumer consumer) {
+        AtomicIntegerArray buffer = inactiveBuffer();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (buffer.get(i) == 0) {
+                continue;
+            }
+            int count = buffer.getAndSet(i, 0);
+            consumer.accept(
+                    i < FrameHistogram.BUCKET_BOUNDS_MS.length
+                            ? FrameHistogram.BUCKET_BOUNDS_MS[i]
+                            : -1,
+                    count);
+        }
+    }
+
+    private AtomicIntegerArray inactiveBuffer() {
+        return buffers[activeBuffer ^ 1];
+    }
+}
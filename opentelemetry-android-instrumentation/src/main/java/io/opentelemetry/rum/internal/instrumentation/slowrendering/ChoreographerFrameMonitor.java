@@ -0,0 +1,206 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.slowrendering;
+
+import android.app.Activity;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.ViewTreeObserver;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.rum.internal.DefaultingActivityLifecycleCallbacks;
+import io.opentelemetry.rum.internal.RumConstants;
+import io.opentelemetry.rum.internal.SdkOverhead;
+import io.opentelemetry.rum.internal.instrumentation.ApplicationStateListener;
+import io.opentelemetry.rum.internal.instrumentation.ForegroundPeriodicTask;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Detects slow and frozen frames on devices that do not have {@link android.view.FrameMetrics} (API
+ * 21-23), and reports them as the same {@code slowRenders} and {@code frozenRenders} spans as
+ * {@link SlowRenderListener}.
+ *
+ * <p>Frames are timed with {@link Choreographer.FrameCallback}s: the interval between the vsync
+ * timestamps of two consecutive frames is the time the main thread took to produce a frame, and an
+ * interval that spans more than one frame budget means that vsyncs were skipped. Frame callbacks
+ * are posted only while an activity is resumed and its views are being drawn; an idle UI doesn't
+ * request any vsync signals.
+ */
+class ChoreographerFrameMonitor
+        implements DefaultingActivityLifecycleCallbacks,
+                ApplicationStateListener,
+                Choreographer.FrameCallback,
+                ViewTreeObserver.OnPreDrawListener {
+
+    private final SlowRenderReporter reporter;
+    private final ForegroundPeriodicTask reports;
+    private final Supplier<Choreographer> choreographerSupplier;
+    private final AtomicFrameHistogram frames;
+    // the name of the resumed activity; null while the app is in the background
+    @Nullable private volatile String activityName;
+    private volatile boolean stopped = false;
+
+    // accessed only from the main thread
+    @Nullable private Activity resumedActivity;
+    private long frameBudgetNanos =
+            FrameDeadlines.frameBudgetNanos(FrameDeadlines.DEFAULT_REFRESH_RATE);
+    private boolean frameCallbackPosted = false;
+    private boolean drawnSinceLastFrame = false;
+    private long lastFrameTimeNanos = 0;
+
+    ChoreographerFrameMonitor(
+            Tracer tracer,
+            @Nullable SlowRenderMetrics metrics,
+            ScheduledExecutorService executorService,
+            Duration pollInterval) {
+        this(tracer, metrics, executorService, Choreographer::getInstance, pollInterval);
+    }
+
+    // Exists for testing
+    ChoreographerFrameMonitor(
+            Tracer tracer,
+            @Nullable SlowRenderMetrics metrics,
+            ScheduledExecutorService executorService,
+            Supplier<Choreographer> choreographerSupplier,
+            Duration pollInterval) {
+        this.reporter = new SlowRenderReporter(tracer, metrics);
+        this.frames = new AtomicFrameHistogram(metrics != null);
+        this.choreographerSupplier = choreographerSupplier;
+        this.reports =
+                ForegroundPeriodicTask.create(
+                        executorService,
+                        pollInterval,
+                        SdkOverhead.getInstance()
+                                .measureCpuTime(
+                                        SdkOverhead.SLOW_RENDERING, this::reportSlowRenders));
+    }
+
+    void start() {
+        reports.start();
+    }
+
+    @Override
+    public void onApplicationForegrounded() {
+        reports.onApplicationForegrounded();
+    }
+
+    @Override
+    public void onApplicationBackgrounded() {
+        // whatever was collected has been reported when the activities were paused
+        reports.onApplicationBackgrounded();
+    }
+
+    /**
+     * Stops timing frames for good, after reporting what has been collected so far. Must be called
+     * from the main thread.
+     */
+    void stop() {
+        stopped = true;
+        Activity activity = resumedActivity;
+        if (activity != null) {
+            onActivityPaused(activity);
+        }
+        reports.stop();
+    }
+
+    @Override
+    public void onActivityResumed(@NonNull Activity activity) {
+        if (stopped) {
+            return;
+        }
+        resumedActivity = activity;
+        activityName = activity.getComponentName().flattenToShortString();
+        Display display = activity.getWindowManager().getDefaultDisplay();
+        frameBudgetNanos =
+                FrameDeadlines.frameBudgetNanos(
+                        display == null
+                                ? FrameDeadlines.DEFAULT_REFRESH_RATE
+                                : display.getRefreshRate());
+        activity.getWindow().getDecorView().getViewTreeObserver().addOnPreDrawListener(this);
+    }
+
+    @Override
+    public void onActivityPaused(@NonNull Activity activity) {
+        if (activity != resumedActivity) {
+            return;
+        }
+        // the observer that the listener was added to might have been merged into the one of the
+        // attached window since then
+        ViewTreeObserver observer = activity.getWindow().getDecorView().getViewTreeObserver();
+        if (observer.isAlive()) {
+            observer.removeOnPreDrawListener(this);
+        }
+        if (frameCallbackPosted) {
+            choreographerSupplier.get().removeFrameCallback(this);
+            frameCallbackPosted = false;
+        }
+        resumedActivity = null;
+        reportSlowRenders();
+        activityName = null;
+    }
+
+    @Override
+    public boolean onPreDraw() {
+        drawnSinceLastFrame = true;
+        if (!frameCallbackPosted && resumedActivity != null) {
+            // the UI was idle until now; the time since the last frame is not a frame interval
+            lastFrameTimeNanos = 0;
+            frameCallbackPosted = true;
+            choreographerSupplier.get().postFrameCallback(this);
+        }
+        return true;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (lastFrameTimeNanos > 0) {
+            long frameIntervalNanos = frameTimeNanos - lastFrameTimeNanos;
+            frames.record(
+                    frameIntervalNanos,
+                    FrameDeadlines.skippedFrames(frameIntervalNanos, frameBudgetNanos) > 0);
+        }
+        lastFrameTimeNanos = frameTimeNanos;
+
+        // keep timing frames only for as long as something is drawn
+        if (drawnSinceLastFrame && resumedActivity != null) {
+            drawnSinceLastFrame = false;
+            choreographerSupplier.get().postFrameCallback(this);
+        } else {
+            frameCallbackPosted = false;
+        }
+    }
+
+    private void reportSlowRenders() {
+        String activityName = this.activityName;
+        if (activityName == null) {
+            return;
+        }
+        try {
+            reporter.report(
+                    frames,
+                    activityName,
+                    TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()));
+        } catch (Exception e) {
+            Log.w(RumConstants.OTEL_RUM_LOG_TAG, "Exception while processing frame timings", e);
+        }
+    }
+}
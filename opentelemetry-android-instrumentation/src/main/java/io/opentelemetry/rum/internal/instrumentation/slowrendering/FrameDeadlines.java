@@ -0,0 +1,62 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.slowrendering;
+
+import java.util.concurrent.TimeUnit;
+
+/** Derives the slow frame threshold from the refresh rate of the display. */
+final class FrameDeadlines {
+
+    static final float DEFAULT_REFRESH_RATE = 60f;
+    static final long FROZEN_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(700);
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    // anything below this (e.g. 0 for an unknown display) falls back to the default
+    private static final float MIN_REFRESH_RATE = 1f;
+
+    /** Returns the time a frame has to render in at the given refresh rate, e.g. 8.3ms at 120Hz. */
+    static long frameBudgetNanos(float refreshRate) {
+        if (!(refreshRate >= MIN_REFRESH_RATE)) {
+            refreshRate = DEFAULT_REFRESH_RATE;
+        }
+        return (long) (NANOS_PER_SECOND / (double) refreshRate);
+    }
+
+    /**
+     * Returns whether the frame missed its deadline. The deadline reported by the platform (API
+     * 31+) takes precedence; otherwise the frame budget derived from the refresh rate is used.
+     */
+    static boolean isSlow(long totalDurationNanos, long deadlineNanos, long frameBudgetNanos) {
+        long threshold = deadlineNanos > 0 ? deadlineNanos : frameBudgetNanos;
+        return totalDurationNanos > threshold;
+    }
+
+    /**
+     * Returns the number of vsyncs that were skipped between two consecutive frames. Half a frame
+     * budget of tolerance absorbs the vsync jitter, so e.g. at 60Hz an interval of 25ms or more
+     * counts as a skipped frame.
+     */
+    static long skippedFrames(long frameIntervalNanos, long frameBudgetNanos) {
+        return Math.max(0, (frameIntervalNanos + frameBudgetNanos / 2) / frameBudgetNanos - 1);
+    }
+
+    static boolean isFrozen(long totalDurationNanos) {
+        return totalDurationNanos > FROZEN_THRESHOLD_NANOS;
+    }
+
+    private FrameDeadlines() {}
+}
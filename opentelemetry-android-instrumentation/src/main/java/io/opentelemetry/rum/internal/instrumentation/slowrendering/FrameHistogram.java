@@ -0,0 +1,85 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.slowrendering;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A histogram of frame phase durations with fixed, preallocated buckets. The buckets are a
+ * millisecond wide around the frame deadlines of common refresh rates, and get wider towards the
+ * frozen frame range. Percentiles are estimated as the upper bound of the bucket they fall in.
+ *
+ * <p>This class is not thread-safe.
+ */
+final class FrameHistogram {
+
+    // upper bounds (inclusive) of the buckets; the last bucket holds everything above
+    static final long[] BUCKET_BOUNDS_MS = {
+        1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 16, 18, 20, 25, 33, 50, 66, 100, 150, 250,
+        400, 700, 1000, 2000, 5000
+    };
+
+    private static final long NANOS_PER_MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int[] counts = new int[BUCKET_BOUNDS_MS.length + 1];
+    private int totalCount = 0;
+    private long maxMillis = 0;
+
+    void record(long durationNanos) {
+        // round up, so that e.g. 16.2ms doesn't end up in the same bucket as a 16ms frame
+        long durationMs = (durationNanos + NANOS_PER_MS - 1) / NANOS_PER_MS;
+        counts[bucketIndex(durationMs)]++;
+        totalCount++;
+        maxMillis = Math.max(maxMillis, durationMs);
+    }
+
+    static int bucketIndex(long durationMs) {
+        int low = 0;
+        int high = BUCKET_BOUNDS_MS.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (BUCKET_BOUNDS_MS[mid] < durationMs) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    int getCount() {
+        return totalCount;
+    }
+
+    /** Returns the estimated percentile in milliseconds, e.g. {@code percentile(0.9)} for p90. */
+    long percentileMillis(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * totalCount);
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank && counts[i] > 0) {
+                return i < BUCKET_BOUNDS_MS.length
+                        ? Math.min(BUCKET_BOUNDS_MS[i], maxMillis)
+                        : maxMillis;
+            }
+        }
+        return maxMillis;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.slowrendering;
+
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+
+import android.os.Build;
+import android.view.FrameMetrics;
+import io.opentelemetry.api.common.AttributeKey;
+
+/** The phases of a frame that are captured from {@link FrameMetrics}. */
+enum FramePhase {
+    TOTAL(FrameMetrics.TOTAL_DURATION, "total", Build.VERSION_CODES.N),
+    INPUT(FrameMetrics.INPUT_HANDLING_DURATION, "input", Build.VERSION_CODES.N),
+    ANIMATION(FrameMetrics.ANIMATION_DURATION, "animation", Build.VERSION_CODES.N),
+    LAYOUT_MEASURE(FrameMetrics.LAYOUT_MEASURE_DURATION, "layout_measure", Build.VERSION_CODES.N),
+    DRAW(FrameMetrics.DRAW_DURATION, "draw", Build.VERSION_CODES.N),
+    SYNC(FrameMetrics.SYNC_DURATION, "sync", Build.VERSION_CODES.N),
+    COMMAND_ISSUE(FrameMetrics.COMMAND_ISSUE_DURATION, "command_issue", Build.VERSION_CODES.N),
+    SWAP_BUFFERS(FrameMetrics.SWAP_BUFFERS_DURATION, "swap_buffers", Build.VERSION_CODES.N),
+    GPU(FrameMetrics.GPU_DURATION, "gpu", Build.VERSION_CODES.S);
+
+    final int metricId;
+    final int minSdkVersion;
+    final AttributeKey<Long> p50Key;
+    final AttributeKey<Long> p90Key;
+    final AttributeKey<Long> p99Key;
+
+    FramePhase(int metricId, String name, int minSdkVersion) {
+        this.metricId = metricId;
+        this.minSdkVersion = minSdkVersion;
+        this.p50Key = longKey("frames." + name + ".p50");
+        this.p90Key = longKey("frames." + name + ".p90");
+        this.p99Key = longKey("frames." + name + ".p99");
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.slowrendering;
+
+import static io.opentelemetry.api.common.AttributeKey.doubleKey;
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+
+/**
+ * The frame statistics of a single screen: a {@link FrameHistogram} per {@link FramePhase}, and the
+ * number of janky frames, i.e. frames that missed their deadline.
+ *
+ * <p>This class is not thread-safe.
+ */
+final class ScreenFrameMetrics {
+
+    static final AttributeKey<String> SCREEN_NAME_KEY = stringKey("frames.screen.name");
+    static final AttributeKey<Long> FRAME_COUNT_KEY = longKey("frames.count");
+    static final AttributeKey<Long> JANKY_FRAME_COUNT_KEY = longKey("frames.janky");
+    static final AttributeKey<Double> JANK_RATIO_KEY = doubleKey("frames.jank_ratio");
+
+    private static final FramePhase[] PHASES = FramePhase.values();
+
+    private final String screenName;
+    private final FrameHistogram[] histograms = new FrameHistogram[PHASES.length];
+    private int jankyFrames = 0;
+
+    ScreenFrameMetrics(String screenName) {
+        this.screenName = screenName;
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new FrameHistogram();
+        }
+    }
+
+    String getScreenName() {
+        return screenName;
+    }
+
+    int getFrameCount() {
+        return histograms[FramePhase.TOTAL.ordinal()].getCount();
+    }
+
+    /**
+     * Records a single frame.
+     *
+     * @param phaseDurationsNanos the durations of the frame phases, indexed by {@link
+     *     FramePhase#ordinal()}; negative values (unsupported or invalid) are skipped.
+     * @param janky whether the frame missed its deadline.
+     */
+    void record(long[] phaseDurationsNanos, boolean janky) {
+        for (int i = 0; i < histograms.length; i++) {
+            if (phaseDurationsNanos[i] >= 0) {
+                histograms[i].record(phaseDurationsNanos[i]);
+            }
+        }
+        if (janky) {
+            jankyFrames++;
+        }
+    }
+
+    Attributes toAttributes() {
+        int frameCount = getFrameCount();
+        AttributesBuilder attributes =
+                Attributes.builder()
+                        .put(SCREEN_NAME_KEY, screenName)
+                        .put(FRAME_COUNT_KEY, frameCount)
+                        .put(JANKY_FRAME_COUNT_KEY, jankyFrames)
+                        .put(
+                                JANK_RATIO_KEY,
+                                frameCount == 0 ? 0.0 : (double) jankyFrames / frameCount);
+        for (FramePhase phase : PHASES) {
+            FrameHistogram histogram = histograms[phase.ordinal()];
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            attributes.put(phase.p50Key, histogram.percentileMillis(0.5));
+            attributes.put(phase.p90Key, histogram.percentileMillis(0.9));
+            attributes.put(phase.p99Key, histogram.percentileMillis(0.99));
+        }
+        return attributes.build();
+    }
+}
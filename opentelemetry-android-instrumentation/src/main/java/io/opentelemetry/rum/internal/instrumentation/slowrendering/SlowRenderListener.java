@@ -16,60 +16,88 @@
 
 package io.opentelemetry.rum.internal.instrumentation.slowrendering;
 
-import static android.view.FrameMetrics.DRAW_DURATION;
+import static android.view.FrameMetrics.DEADLINE;
 import static android.view.FrameMetrics.FIRST_DRAW_FRAME;
+import static android.view.FrameMetrics.TOTAL_DURATION;
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
 
 import android.app.Activity;
+import android.hardware.display.DisplayManager;
 import android.os.Build;
 import android.os.Handler;
 import android.os.HandlerThread;
 import android.os.Looper;
+import android.os.Process;
 import android.util.Log;
-import android.util.SparseIntArray;
+import android.view.Display;
 import android.view.FrameMetrics;
 import android.view.Window;
-import androidx.annotation.GuardedBy;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
-import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.rum.internal.DefaultingActivityLifecycleCallbacks;
 import io.opentelemetry.rum.internal.RumConstants;
+import io.opentelemetry.rum.internal.SdkOverhead;
+import io.opentelemetry.rum.internal.instrumentation.ApplicationStateListener;
+import io.opentelemetry.rum.internal.instrumentation.ForegroundPeriodicTask;
+import io.opentelemetry.rum.internal.instrumentation.activity.VisibleScreenTracker;
 import java.time.Duration;
-import java.time.Instant;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+/**
+ * Collects the {@link FrameMetrics} of the resumed activities. Slow and frozen frames are counted
+ * and periodically reported as {@code slowRenders} and {@code frozenRenders} spans. A frame is slow
+ * when it misses its deadline: the one reported by the platform on API 31+, or the frame budget
+ * derived from the current refresh rate of the display otherwise. The durations of all frame phases
+ * are also aggregated per visible screen, and reported as a single {@code frameMetrics} span with
+ * percentiles and the jank ratio once the screen is left.
+ */
 @RequiresApi(api = Build.VERSION_CODES.N)
-class SlowRenderListener implements DefaultingActivityLifecycleCallbacks {
-
-    static final int SLOW_THRESHOLD_MS = 16;
-    static final int FROZEN_THRESHOLD_MS = 700;
+class SlowRenderListener implements DefaultingActivityLifecycleCallbacks, ApplicationStateListener {
 
-    private static final int NANOS_PER_MS = (int) TimeUnit.MILLISECONDS.toNanos(1);
-    // rounding value adds half a millisecond, for rounding to nearest ms
-    private static final int NANOS_ROUNDING_VALUE = NANOS_PER_MS / 2;
+    static final String SLOW_RENDERS_SPAN_NAME = "slowRenders";
+    static final String FROZEN_RENDERS_SPAN_NAME = "frozenRenders";
+    static final String FRAME_METRICS_SPAN_NAME = "frameMetrics";
+    static final AttributeKey<Long> COUNT_KEY = longKey("count");
+    static final AttributeKey<String> ACTIVITY_NAME_KEY = stringKey("activity.name");
 
     private static final HandlerThread frameMetricsThread =
-            new HandlerThread("FrameMetricsCollector");
+            new HandlerThread("FrameMetricsCollector", Process.THREAD_PRIORITY_BACKGROUND);
 
     private final Tracer tracer;
-    private final ScheduledExecutorService executorService;
+    private final SlowRenderReporter reporter;
+    private final boolean trackFrameDurations;
+    private final ForegroundPeriodicTask reports;
     private final Handler frameMetricsHandler;
-    private final Duration pollInterval;
+    @Nullable private final VisibleScreenTracker visibleScreenTracker;
 
     private final ConcurrentMap<Activity, PerActivityListener> activities =
             new ConcurrentHashMap<>();
+    private volatile boolean framePhasesTracked = true;
+    private volatile boolean stopped = false;
 
-    SlowRenderListener(Tracer tracer, Duration pollInterval) {
+    SlowRenderListener(
+            Tracer tracer,
+            @Nullable SlowRenderMetrics metrics,
+            ScheduledExecutorService executorService,
+            Duration pollInterval,
+            @Nullable VisibleScreenTracker visibleScreenTracker) {
         this(
                 tracer,
-                Executors.newScheduledThreadPool(1),
+                metrics,
+                executorService,
                 new Handler(startFrameMetricsLoop()),
-                pollInterval);
+                pollInterval,
+                visibleScreenTracker);
     }
 
     // Exists for testing
@@ -78,10 +106,29 @@ class SlowRenderListener implements DefaultingActivityLifecycleCallbacks {
             ScheduledExecutorService executorService,
             Handler frameMetricsHandler,
             Duration pollInterval) {
+        this(tracer, null, executorService, frameMetricsHandler, pollInterval, null);
+    }
+
+    // Exists for testing
+    SlowRenderListener(
+            Tracer tracer,
+            @Nullable SlowRenderMetrics metrics,
+            ScheduledExecutorService executorService,
+            Handler frameMetricsHandler,
+            Duration pollInterval,
+            @Nullable VisibleScreenTracker visibleScreenTracker) {
         this.tracer = tracer;
-        this.executorService = executorService;
+        this.reporter = new SlowRenderReporter(tracer, metrics);
+        this.trackFrameDurations = metrics != null;
         this.frameMetricsHandler = frameMetricsHandler;
-        this.pollInterval = pollInterval;
+        this.reports =
+                ForegroundPeriodicTask.create(
+                        executorService,
+                        pollInterval,
+                        SdkOverhead.getInstance()
+                                .measureCpuTime(
+                                        SdkOverhead.SLOW_RENDERING, this::reportSlowRenders));
+        this.visibleScreenTracker = visibleScreenTracker;
     }
 
     private static Looper startFrameMetricsLoop() {
@@ -89,25 +136,63 @@ class SlowRenderListener implements DefaultingActivityLifecycleCallbacks {
         // be not started here
         if (!frameMetricsThread.isAlive()) {
             frameMetricsThread.start();
+            new Handler(frameMetricsThread.getLooper())
+                    .post(
+                            () ->
+                                    SdkOverhead.getInstance()
+                                            .registerCurrentThread(SdkOverhead.FRAME_METRICS));
         }
         return frameMetricsThread.getLooper();
     }
 
-    // the returned future is very unlikely to fail
-    @SuppressWarnings("FutureReturnValueIgnored")
     void start() {
-        executorService.scheduleAtFixedRate(
-                this::reportSlowRenders,
-                pollInterval.toMillis(),
-                pollInterval.toMillis(),
-                TimeUnit.MILLISECONDS);
+        reports.start();
+    }
+
+    @Override
+    public void onApplicationForegrounded() {
+        reports.onApplicationForegrounded();
+    }
+
+    @Override
+    public void onApplicationBackgrounded() {
+        // whatever was collected has been reported when the activities were paused
+        reports.onApplicationBackgrounded();
+    }
+
+    /**
+     * Stops aggregating the frame phase durations into {@code frameMetrics} spans. Slow and frozen
+     * frames are still counted.
+     */
+    void disableFramePhaseTracking() {
+        framePhasesTracked = false;
+        activities.values().forEach(PerActivityListener::disableFramePhaseTracking);
+    }
+
+    /**
+     * Stops collecting frame metrics for good, after reporting what has been collected so far. Must
+     * be called from the main thread.
+     */
+    void stop() {
+        stopped = true;
+        activities.keySet().forEach(this::onActivityPaused);
+        reports.stop();
     }
 
     @Override
     public void onActivityResumed(@NonNull Activity activity) {
-        PerActivityListener listener = new PerActivityListener(activity);
+        if (stopped) {
+            return;
+        }
+        PerActivityListener listener =
+                new PerActivityListener(
+                        activity, screenNameSupplier(activity), trackFrameDurations);
+        if (!framePhasesTracked) {
+            listener.disableFramePhaseTracking();
+        }
         PerActivityListener existing = activities.putIfAbsent(activity, listener);
         if (existing == null) {
+            listener.updateFrameBudget();
             activity.getWindow().addOnFrameMetricsAvailableListener(listener, frameMetricsHandler);
         }
     }
@@ -117,20 +202,80 @@ class SlowRenderListener implements DefaultingActivityLifecycleCallbacks {
         PerActivityListener listener = activities.remove(activity);
         if (listener != null) {
             activity.getWindow().removeOnFrameMetricsAvailableListener(listener);
-            reportSlow(listener);
+            // the current screen is owned by the frame metrics thread; this runs after the frames
+            // that are already queued up there
+            frameMetricsHandler.post(
+                    () -> {
+                        listener.completeCurrentScreen();
+                        reportSlow(listener);
+                    });
         }
     }
 
+    /** Keeps the frame budgets up to date when the refresh rate of a display changes. */
+    void registerDisplayListener(DisplayManager displayManager) {
+        displayManager.registerDisplayListener(
+                new DisplayManager.DisplayListener() {
+                    @Override
+                    public void onDisplayAdded(int displayId) {}
+
+                    @Override
+                    public void onDisplayRemoved(int displayId) {}
+
+                    @Override
+                    public void onDisplayChanged(int displayId) {
+                        activities.values().forEach(PerActivityListener::updateFrameBudget);
+                    }
+                },
+                frameMetricsHandler);
+    }
+
+    private Supplier<String> screenNameSupplier(Activity activity) {
+        VisibleScreenTracker tracker = visibleScreenTracker;
+        if (tracker != null) {
+            return tracker::getCurrentlyVisibleScreen;
+        }
+        String activityName = activity.getClass().getSimpleName();
+        return () -> activityName;
+    }
+
     static class PerActivityListener implements Window.OnFrameMetricsAvailableListener {
 
+        private static final FramePhase[] PHASES = FramePhase.values();
+
         private final Activity activity;
-        private final Object lock = new Object();
+        private final Supplier<String> screenName;
+        private final AtomicFrameHistogram frames;
+        private final Queue<ScreenFrameMetrics> completedScreens = new ConcurrentLinkedQueue<>();
+        private volatile long frameBudgetNanos =
+                FrameDeadlines.frameBudgetNanos(FrameDeadlines.DEFAULT_REFRESH_RATE);
+        private volatile boolean framePhasesTracked = true;
 
-        @GuardedBy("lock")
-        private SparseIntArray drawDurationHistogram = new SparseIntArray();
+        // accessed only from the frame metrics thread
+        private final long[] phaseDurations = new long[PHASES.length];
+        @Nullable private ScreenFrameMetrics currentScreen;
 
-        PerActivityListener(Activity activity) {
+        PerActivityListener(
+                Activity activity, Supplier<String> screenName, boolean trackFrameDurations) {
             this.activity = activity;
+            this.screenName = screenName;
+            this.frames = new AtomicFrameHistogram(trackFrameDurations);
+        }
+
+        void disableFramePhaseTracking() {
+            framePhasesTracked = false;
+        }
+
+        void updateFrameBudget() {
+            Display display =
+                    Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                            ? activity.getDisplay()
+                            : activity.getWindowManager().getDefaultDisplay();
+            float refreshRate =
+                    display == null
+                            ? FrameDeadlines.DEFAULT_REFRESH_RATE
+                            : display.getRefreshRate();
+            frameBudgetNanos = FrameDeadlines.frameBudgetNanos(refreshRate);
         }
 
         @Override
@@ -142,25 +287,52 @@ class SlowRenderListener implements DefaultingActivityLifecycleCallbacks {
                 return;
             }
 
-            long drawDurationsNs = frameMetrics.getMetric(DRAW_DURATION);
+            long totalDurationNs = frameMetrics.getMetric(TOTAL_DURATION);
             // ignore values < 0; something must have gone wrong
-            if (drawDurationsNs >= 0) {
-                synchronized (lock) {
-                    // calculation copied from FrameMetricsAggregator
-                    int durationMs =
-                            (int) ((drawDurationsNs + NANOS_ROUNDING_VALUE) / NANOS_PER_MS);
-                    int oldValue = drawDurationHistogram.get(durationMs);
-                    drawDurationHistogram.put(durationMs, (oldValue + 1));
-                }
+            if (totalDurationNs < 0) {
+                return;
             }
+            long deadlineNs =
+                    Build.VERSION.SDK_INT >= Build.VERSION_CODES.S
+                            ? frameMetrics.getMetric(DEADLINE)
+                            : -1;
+            boolean slow = FrameDeadlines.isSlow(totalDurationNs, deadlineNs, frameBudgetNanos);
+            frames.record(totalDurationNs, slow);
+
+            if (!framePhasesTracked) {
+                // report the frames of the current screen that were collected until now
+                completeCurrentScreen();
+                return;
+            }
+            for (FramePhase phase : PHASES) {
+                phaseDurations[phase.ordinal()] =
+                        Build.VERSION.SDK_INT >= phase.minSdkVersion
+                                ? frameMetrics.getMetric(phase.metricId)
+                                : -1;
+            }
+
+            String screen = screenName.get();
+            ScreenFrameMetrics current = currentScreen;
+            if (current == null || !current.getScreenName().equals(screen)) {
+                completeCurrentScreen();
+                current = new ScreenFrameMetrics(screen);
+                currentScreen = current;
+            }
+            current.record(phaseDurations, slow);
         }
 
-        SparseIntArray resetMetrics() {
-            synchronized (lock) {
-                SparseIntArray metrics = drawDurationHistogram;
-                drawDurationHistogram = new SparseIntArray();
-                return metrics;
+        /** Must be called from the frame metrics thread. */
+        void completeCurrentScreen() {
+            ScreenFrameMetrics current = currentScreen;
+            if (current != null && current.getFrameCount() > 0) {
+                completedScreens.add(current);
             }
+            currentScreen = null;
+        }
+
+        @Nullable
+        ScreenFrameMetrics pollCompletedScreen() {
+            return completedScreens.poll();
         }
 
         public String getActivityName() {
@@ -177,41 +349,17 @@ class SlowRenderListener implements DefaultingActivityLifecycleCallbacks {
     }
 
     private void reportSlow(PerActivityListener listener) {
-        int slowCount = 0;
-        int frozenCount = 0;
-        SparseIntArray durationToCountHistogram = listener.resetMetrics();
-        for (int i = 0; i < durationToCountHistogram.size(); i++) {
-            int duration = durationToCountHistogram.keyAt(i);
-            int count = durationToCountHistogram.get(duration);
-            if (duration > FROZEN_THRESHOLD_MS) {
-                Log.d(
-                        RumConstants.OTEL_RUM_LOG_TAG,
-                        "* FROZEN RENDER DETECTED: " + duration + " ms." + count + " times");
-                frozenCount += count;
-            } else if (duration > SLOW_THRESHOLD_MS) {
-                Log.d(
-                        RumConstants.OTEL_RUM_LOG_TAG,
-                        "* Slow render detected: " + duration + " ms. " + count + " times");
-                slowCount += count;
-            }
-        }
-
-        Instant now = Instant.now();
-        if (slowCount > 0) {
-            makeSpan("slowRenders", listener.getActivityName(), slowCount, now);
+        String activityName = listener.getActivityName();
+        long nowNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+        reporter.report(listener.frames, activityName, nowNanos);
+        ScreenFrameMetrics screen;
+        while ((screen = listener.pollCompletedScreen()) != null) {
+            tracer.spanBuilder(FRAME_METRICS_SPAN_NAME)
+                    .setAllAttributes(screen.toAttributes())
+                    .setAttribute(ACTIVITY_NAME_KEY, activityName)
+                    .setStartTimestamp(nowNanos, TimeUnit.NANOSECONDS)
+                    .startSpan()
+                    .end(nowNanos, TimeUnit.NANOSECONDS);
         }
-        if (frozenCount > 0) {
-            makeSpan("frozenRenders", listener.getActivityName(), frozenCount, now);
-        }
-    }
-
-    private void makeSpan(String spanName, String activityName, int slowCount, Instant now) {
-        Span span =
-                tracer.spanBuilder(spanName)
-                        .setAttribute("count", slowCount)
-                        .setAttribute("activity.name", activityName)
-                        .setStartTimestamp(now)
-                        .startSpan();
-        span.end(now);
     }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.slowrendering;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.sdk.metrics.Aggregation;
+import io.opentelemetry.sdk.metrics.InstrumentSelector;
+import io.opentelemetry.sdk.metrics.SdkMeterProviderBuilder;
+import io.opentelemetry.sdk.metrics.View;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports the slow and frozen frame counts, and the frame duration histogram, as metrics instead of
+ * {@code slowRenders} spans. The frames are still counted in an {@link AtomicFrameHistogram}; its
+ * contents are moved into the metric instruments once per poll interval, and the metric SDK
+ * aggregates them until the next export.
+ */
+final class SlowRenderMetrics {
+
+    static final String SLOW_FRAMES_METRIC_NAME = "rum.frames.slow";
+    static final String FROZEN_FRAMES_METRIC_NAME = "rum.frames.frozen";
+    static final String FRAME_DURATION_METRIC_NAME = "rum.frame.duration";
+
+    private final LongCounter slowFrames;
+    private final LongCounter frozenFrames;
+    private final LongHistogram frameDuration;
+
+    SlowRenderMetrics(Meter meter) {
+        slowFrames =
+                meter.counterBuilder(SLOW_FRAMES_METRIC_NAME)
+                        .setDescription("The number of slow frames")
+                        .setUnit("{frame}")
+                        .build();
+        frozenFrames =
+                meter.counterBuilder(FROZEN_FRAMES_METRIC_NAME)
+                        .setDescription("The number of frozen frames")
+                        .setUnit("{frame}")
+                        .build();
+        frameDuration =
+                meter.histogramBuilder(FRAME_DURATION_METRIC_NAME)
+                        .setDescription("The total duration of the rendered frames")
+                        .setUnit("ms")
+                        .ofLongs()
+                        .build();
+    }
+
+    /**
+     * Uses the buckets of {@link FrameHistogram} for the frame duration metric. Since the frames
+     * are recorded as the upper bound of their bucket, the bucket counts are exact; only the sum is
+     * an estimate.
+     */
+    static SdkMeterProviderBuilder registerViews(SdkMeterProviderBuilder meterProviderBuilder) {
+        List<Double> boundaries = new ArrayList<>(FrameHistogram.BUCKET_BOUNDS_MS.length);
+        for (long bound : FrameHistogram.BUCKET_BOUNDS_MS) {
+            boundaries.add((double) bound);
+        }
+        return meterProviderBuilder.registerView(
+                InstrumentSelector.builder().setName(FRAME_DURATION_METRIC_NAME).build(),
+                View.builder()
+                        .setAggregation(Aggregation.explicitBucketHistogram(boundaries))
+                        .build());
+    }
+
+    /** Moves the contents of the swapped out buffer of the histogram into the instruments. */
+    void record(
+            AtomicFrameHistogram histogram, int slowCount, int frozenCount, Attributes attributes) {
+        if (slowCount > 0) {
+            slowFrames.add(slowCount, attributes);
+        }
+        if (frozenCount > 0) {
+            frozenFrames.add(frozenCount, attributes);
+        }
+        histogram.takeBuckets(
+                (upperBoundMillis, count) -> {
+                    // everything above the last bound goes into the overflow bucket
+                    long value =
+                            upperBoundMillis >= 0
+                                    ? upperBoundMillis
+                                    : FrameHistogram.BUCKET_BOUNDS_MS[
+                                                    FrameHistogram.BUCKET_BOUNDS_MS.length - 1]
+                                            + 1;
+                    for (int i = 0; i < count; i++) {
+                        frameDuration.record(value, attributes);
+                    }
+                });
+    }
+}
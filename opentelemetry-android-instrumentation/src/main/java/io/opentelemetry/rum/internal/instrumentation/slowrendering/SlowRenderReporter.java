@@ -0,0 +1,72 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.slowrendering;
+
+import static io.opentelemetry.rum.internal.instrumentation.slowrendering.SlowRenderListener.ACTIVITY_NAME_KEY;
+import static io.opentelemetry.rum.internal.instrumentation.slowrendering.SlowRenderListener.COUNT_KEY;
+import static io.opentelemetry.rum.internal.instrumentation.slowrendering.SlowRenderListener.FROZEN_RENDERS_SPAN_NAME;
+import static io.opentelemetry.rum.internal.instrumentation.slowrendering.SlowRenderListener.SLOW_RENDERS_SPAN_NAME;
+
+import android.util.Log;
+import androidx.annotation.Nullable;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.rum.internal.RumConstants;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the frames counted in an {@link AtomicFrameHistogram}: as {@code slowRenders} and {@code
+ * frozenRenders} spans, or as {@link SlowRenderMetrics} when metrics are enabled. Frozen frames are
+ * always reported as spans as well, since they mark the session as a problematic one.
+ */
+final class SlowRenderReporter {
+
+    private final Tracer tracer;
+    @Nullable private final SlowRenderMetrics metrics;
+
+    SlowRenderReporter(Tracer tracer, @Nullable SlowRenderMetrics metrics) {
+        this.tracer = tracer;
+        this.metrics = metrics;
+    }
+
+    /** Swaps the buffers of the histogram and reports the frames that were counted so far. */
+    void report(AtomicFrameHistogram frames, String activityName, long nowNanos) {
+        frames.swap();
+        int slowCount = frames.takeSlowCount();
+        int frozenCount = frames.takeFrozenCount();
+        if (metrics != null) {
+            metrics.record(
+                    frames, slowCount, frozenCount, Attributes.of(ACTIVITY_NAME_KEY, activityName));
+        } else if (slowCount > 0) {
+            Log.d(RumConstants.OTEL_RUM_LOG_TAG, "* Slow renders detected: " + slowCount);
+            makeSpan(SLOW_RENDERS_SPAN_NAME, activityName, slowCount, nowNanos);
+        }
+        if (frozenCount > 0) {
+            Log.d(RumConstants.OTEL_RUM_LOG_TAG, "* FROZEN RENDERS DETECTED: " + frozenCount);
+            makeSpan(FROZEN_RENDERS_SPAN_NAME, activityName, frozenCount, nowNanos);
+        }
+    }
+
+    private void makeSpan(String spanName, String activityName, long count, long nowNanos) {
+        tracer.spanBuilder(spanName)
+                .setAttribute(COUNT_KEY, count)
+                .setAttribute(ACTIVITY_NAME_KEY, activityName)
+                .setStartTimestamp(nowNanos, TimeUnit.NANOSECONDS)
+                .startSpan()
+                .end(nowNanos, TimeUnit.NANOSECONDS);
+    }
+}
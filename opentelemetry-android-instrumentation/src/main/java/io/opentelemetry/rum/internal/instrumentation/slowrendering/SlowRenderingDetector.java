@@ -16,10 +16,17 @@
 
 package io.opentelemetry.rum.internal.instrumentation.slowrendering;
 
+import android.app.Application;
+import android.content.Context;
+import android.hardware.display.DisplayManager;
 import android.os.Build;
 import android.util.Log;
+import androidx.annotation.Nullable;
+import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.rum.internal.RumConstants;
 import io.opentelemetry.rum.internal.instrumentation.InstrumentedApplication;
+import io.opentelemetry.rum.internal.instrumentation.activity.VisibleScreenTracker;
+import io.opentelemetry.sdk.metrics.SdkMeterProviderBuilder;
 import java.time.Duration;
 
 /**
@@ -38,10 +45,26 @@ public final class SlowRenderingDetector {
         return new SlowRenderingDetectorBuilder();
     }
 
+    /**
+     * Registers the metric views that the frame duration histogram needs, when {@linkplain
+     * SlowRenderingDetectorBuilder#setMetricsEnabled(boolean) metrics are enabled}.
+     */
+    public static SdkMeterProviderBuilder registerMetricViews(
+            SdkMeterProviderBuilder meterProviderBuilder) {
+        return SlowRenderMetrics.registerViews(meterProviderBuilder);
+    }
+
     private final Duration slowRenderingDetectionPollInterval;
+    @Nullable private final VisibleScreenTracker visibleScreenTracker;
+    private final boolean metricsEnabled;
+    @Nullable private volatile Application application;
+    @Nullable private volatile SlowRenderListener slowRenderListener;
+    @Nullable private volatile ChoreographerFrameMonitor choreographerFrameMonitor;
 
     SlowRenderingDetector(SlowRenderingDetectorBuilder builder) {
         this.slowRenderingDetectionPollInterval = builder.slowRenderingDetectionPollInterval;
+        this.visibleScreenTracker = builder.visibleScreenTracker;
+        this.metricsEnabled = builder.metricsEnabled;
     }
 
     /**
@@ -49,21 +72,85 @@ public final class SlowRenderingDetector {
      * InstrumentedApplication}.
      */
     public void installOn(InstrumentedApplication instrumentedApplication) {
+        Tracer tracer =
+                instrumentedApplication
+                        .getOpenTelemetrySdk()
+                        .getTracer("io.opentelemetry.slow-rendering");
+        SlowRenderMetrics metrics =
+                metricsEnabled
+                        ? new SlowRenderMetrics(
+                                instrumentedApplication
+                                        .getOpenTelemetrySdk()
+                                        .getMeter("io.opentelemetry.slow-rendering"))
+                        : null;
+
         if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
-            Log.w(
+            Log.d(
                     RumConstants.OTEL_RUM_LOG_TAG,
-                    "Slow/frozen rendering detection is not supported on platforms older than Android N (SDK version 24).");
+                    "FrameMetrics are not available before Android N (SDK version 24), slow/frozen rendering detection falls back to Choreographer frame callbacks.");
+            ChoreographerFrameMonitor monitor =
+                    new ChoreographerFrameMonitor(
+                            tracer,
+                            metrics,
+                            instrumentedApplication.getScheduler(),
+                            slowRenderingDetectionPollInterval);
+            instrumentedApplication.getApplication().registerActivityLifecycleCallbacks(monitor);
+            instrumentedApplication.registerApplicationStateListener(monitor);
+            monitor.start();
+            this.application = instrumentedApplication.getApplication();
+            this.choreographerFrameMonitor = monitor;
             return;
         }
 
         SlowRenderListener detector =
                 new SlowRenderListener(
-                        instrumentedApplication
-                                .getOpenTelemetrySdk()
-                                .getTracer("io.opentelemetry.slow-rendering"),
-                        slowRenderingDetectionPollInterval);
+                        tracer,
+                        metrics,
+                        instrumentedApplication.getScheduler(),
+                        slowRenderingDetectionPollInterval,
+                        visibleScreenTracker);
 
         instrumentedApplication.getApplication().registerActivityLifecycleCallbacks(detector);
+        DisplayManager displayManager =
+                (DisplayManager)
+                        instrumentedApplication
+                                .getApplication()
+                                .getSystemService(Context.DISPLAY_SERVICE);
+        if (displayManager != null) {
+            detector.registerDisplayListener(displayManager);
+        }
+        instrumentedApplication.registerApplicationStateListener(detector);
         detector.start();
+        this.application = instrumentedApplication.getApplication();
+        this.slowRenderListener = detector;
+    }
+
+    /**
+     * Stops aggregating the durations of the frame phases into {@code frameMetrics} spans, to
+     * reduce the overhead of the instrumentation. Slow and frozen frames are still reported.
+     */
+    public void disableFramePhaseTracking() {
+        SlowRenderListener listener = slowRenderListener;
+        if (listener != null) {
+            listener.disableFramePhaseTracking();
+        }
+    }
+
+    /**
+     * Stops detecting slow rendering for good, to get rid of the overhead of the instrumentation.
+     * Has no effect if the instrumentation is not installed. Must be called from the main thread.
+     */
+    public void uninstall() {
+        Application application = this.application;
+        SlowRenderListener listener = slowRenderListener;
+        if (application != null && listener != null) {
+            application.unregisterActivityLifecycleCallbacks(listener);
+            listener.stop();
+        }
+        ChoreographerFrameMonitor monitor = choreographerFrameMonitor;
+        if (application != null && monitor != null) {
+            application.unregisterActivityLifecycleCallbacks(monitor);
+            monitor.stop();
+        }
     }
 }
@@ -17,7 +17,10 @@
 package io.opentelemetry.rum.internal.instrumentation.slowrendering;
 
 import android.util.Log;
+import androidx.annotation.Nullable;
 import io.opentelemetry.rum.internal.RumConstants;
+import io.opentelemetry.rum.internal.instrumentation.activity.VisibleScreenTracker;
+import io.opentelemetry.sdk.metrics.SdkMeterProviderBuilder;
 import java.time.Duration;
 
 /**
@@ -31,6 +34,8 @@ public final class SlowRenderingDetectorBuilder {
     SlowRenderingDetectorBuilder() {}
 
     Duration slowRenderingDetectionPollInterval = Duration.ofSeconds(1);
+    @Nullable VisibleScreenTracker visibleScreenTracker;
+    boolean metricsEnabled = false;
 
     /**
      * Configures the rate at which frame render durations are polled.
@@ -51,6 +56,32 @@ public final class SlowRenderingDetectorBuilder {
         return this;
     }
 
+    /**
+     * Sets the {@link VisibleScreenTracker} used to aggregate the frame metrics per visible screen.
+     * Without it, the frame metrics are aggregated per activity.
+     *
+     * @return {@code this}
+     */
+    public SlowRenderingDetectorBuilder setVisibleScreenTracker(
+            VisibleScreenTracker visibleScreenTracker) {
+        this.visibleScreenTracker = visibleScreenTracker;
+        return this;
+    }
+
+    /**
+     * Reports the slow and frozen frame counts and the frame duration histogram as metrics, instead
+     * of {@code slowRenders} spans. Frozen frames are reported as {@code frozenRenders} spans as
+     * well. The metrics are only exported if a metric reader has been registered, and the frame
+     * duration buckets are only accurate with {@link
+     * SlowRenderingDetector#registerMetricViews(SdkMeterProviderBuilder)}.
+     *
+     * @return {@code this}
+     */
+    public SlowRenderingDetectorBuilder setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+        return this;
+    }
+
     public SlowRenderingDetector build() {
         return new SlowRenderingDetector(this);
     }
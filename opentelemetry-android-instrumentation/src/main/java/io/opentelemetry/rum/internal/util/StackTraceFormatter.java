@@ -0,0 +1,252 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.util;
+
+import androidx.annotation.Nullable;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Formats stack traces for span attributes, keeping them small and cheap to produce.
+ *
+ * <ul>
+ *   <li>At most {@code maxFrames} frames are written per stack trace, including the frames of
+ *       causes; the remaining ones are replaced with a {@code ... n more} line.
+ *   <li>Long runs of Android framework frames (the {@code Looper}, {@code ActivityThread} and
+ *       {@code ZygoteInit} frames at the bottom of every main thread stack and so on) are collapsed
+ *       to their first and last frame, with a marker in between.
+ *   <li>The string representation of recently seen frames is cached, since the same frames show up
+ *       in most of the reported stack traces.
+ * </ul>
+ *
+ * <p>It also computes a fingerprint of a stack trace: a hash of the exception types and frames (but
+ * not of the messages) that is stable across app launches, and can be used to group occurrences of
+ * the same error.
+ */
+public final class StackTraceFormatter {
+
+    public static final int DEFAULT_MAX_FRAMES = 64;
+    private static final int MAX_CACHED_FRAMES = 256;
+    private static final int MAX_CAUSES = 8;
+    // shorter runs of framework frames are written out in full
+    private static final int MIN_COLLAPSED_FRAMES = 4;
+    private static final String[] FRAMEWORK_PACKAGES = {
+        "android.",
+        "com.android.",
+        "dalvik.",
+        "libcore.",
+        "java.lang.reflect.",
+        "jdk.internal.",
+        "sun."
+    };
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int maxFrames;
+    // guarded by itself
+    private final Map<StackTraceElement, String> frameCache =
+            new LinkedHashMap<StackTraceElement, String>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<StackTraceElement, String> eldest) {
+                    return size() > MAX_CACHED_FRAMES;
+                }
+            };
+
+    public StackTraceFormatter() {
+        this(DEFAULT_MAX_FRAMES);
+    }
+
+    public StackTraceFormatter(int maxFrames) {
+        this.maxFrames = maxFrames;
+    }
+
+    /** Formats the stack trace of a thread, one frame per line. */
+    public String format(StackTraceElement[] stackTrace) {
+        Output output = new Output();
+        appendFrames(output, stackTrace, stackTrace.length, "", "");
+        return output.toString();
+    }
+
+    /**
+     * Formats the stack trace of the throwable and of its causes, in the same layout as {@link
+     * Throwable#printStackTrace()}. Suppressed exceptions are not included.
+     */
+    public String format(Throwable throwable) {
+        Output output = new Output();
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        @Nullable StackTraceElement[] enclosingTrace = null;
+        String caption = "";
+        for (Throwable t = throwable;
+                t != null && seen.size() < MAX_CAUSES && seen.add(t);
+                t = t.getCause()) {
+            output.builder.append(caption).append(t).append('\n');
+            StackTraceElement[] stackTrace = t.getStackTrace();
+            int framesInCommon =
+                    enclosingTrace == null ? 0 : countFramesInCommon(stackTrace, enclosingTrace);
+            appendFrames(output, stackTrace, stackTrace.length - framesInCommon, "\tat ", "\t");
+            if (framesInCommon > 0) {
+                output.builder.append("\t... ").append(framesInCommon).append(" more\n");
+            }
+            enclosingTrace = stackTrace;
+            caption = "Caused by: ";
+        }
+        return output.toString();
+    }
+
+    private void appendFrames(
+            Output output,
+            StackTraceElement[] stackTrace,
+            int length,
+            String framePrefix,
+            String markerPrefix) {
+        StringBuilder builder = output.builder;
+        int i = 0;
+        while (i < length) {
+            if (output.framesLeft <= 0) {
+                builder.append(markerPrefix).append("... ").append(length - i).append(" more\n");
+                return;
+            }
+            int runLength = countFrameworkFrames(stackTrace, i, length);
+            if (runLength >= MIN_COLLAPSED_FRAMES && output.framesLeft >= 2) {
+                appendFrame(builder, framePrefix, stackTrace[i]);
+                builder.append(markerPrefix)
+                        .append("... ")
+                        .append(runLength - 2)
+                        .append(" framework frames\n");
+                appendFrame(builder, framePrefix, stackTrace[i + runLength - 1]);
+                output.framesLeft -= 2;
+                i += runLength;
+                continue;
+            }
+            appendFrame(builder, framePrefix, stackTrace[i]);
+            output.framesLeft--;
+            i++;
+        }
+    }
+
+    private void appendFrame(StringBuilder builder, String prefix, StackTraceElement frame) {
+        builder.append(prefix).append(frameToString(frame)).append('\n');
+    }
+
+    private String frameToString(StackTraceElement frame) {
+        synchronized (frameCache) {
+            String cached = frameCache.get(frame);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        String formatted = frame.toString();
+        synchronized (frameCache) {
+            frameCache.put(frame, formatted);
+        }
+        return formatted;
+    }
+
+    // visible for testing
+    int getCachedFrameCount() {
+        synchronized (frameCache) {
+            return frameCache.size();
+        }
+    }
+
+    private static int countFrameworkFrames(StackTraceElement[] stackTrace, int start, int end) {
+        int i = start;
+        while (i < end && isFrameworkFrame(stackTrace[i])) {
+            i++;
+        }
+        return i - start;
+    }
+
+    private static boolean isFrameworkFrame(StackTraceElement frame) {
+        String className = frame.getClassName();
+        for (String frameworkPackage : FRAMEWORK_PACKAGES) {
+            if (className.startsWith(frameworkPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int countFramesInCommon(
+            StackTraceElement[] stackTrace, StackTraceElement[] enclosingTrace) {
+        int m = stackTrace.length - 1;
+        int n = enclosingTrace.length - 1;
+        while (m >= 0 && n >= 0 && stackTrace[m].equals(enclosingTrace[n])) {
+            m--;
+            n--;
+        }
+        return stackTrace.length - 1 - m;
+    }
+
+    /** Returns the fingerprint of a thread stack trace, as a hex string. */
+    public String fingerprint(StackTraceElement[] stackTrace) {
+        return Long.toHexString(hashFrames(FNV_OFFSET_BASIS, stackTrace));
+    }
+
+    /**
+     * Returns the fingerprint of the throwable, as a hex string. It covers the types and the frames
+     * of the throwable and of its causes, but not the messages, which often contain identifiers
+     * that differ between occurrences of the same error.
+     */
+    public String fingerprint(Throwable throwable) {
+        long hash = FNV_OFFSET_BASIS;
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Throwable t = throwable;
+                t != null && seen.size() < MAX_CAUSES && seen.add(t);
+                t = t.getCause()) {
+            hash = hash(hash, t.getClass().getName());
+            hash = hashFrames(hash, t.getStackTrace());
+        }
+        return Long.toHexString(hash);
+    }
+
+    private long hashFrames(long hash, StackTraceElement[] stackTrace) {
+        int length = Math.min(stackTrace.length, maxFrames);
+        for (int i = 0; i < length; i++) {
+            StackTraceElement frame = stackTrace[i];
+            hash = hash(hash, frame.getClassName());
+            hash = hash(hash, frame.getMethodName());
+            hash = hash(hash, frame.getLineNumber());
+        }
+        return hash;
+    }
+
+    // FNV-1a, which unlike Object.hashCode() is stable across runtimes
+    private static long hash(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = hash(hash, value.charAt(i));
+        }
+        return hash(hash, 0);
+    }
+
+    private static long hash(long hash, int value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    private final class Output {
+        private final StringBuilder builder = new StringBuilder();
+        private int framesLeft = maxFrames;
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+}
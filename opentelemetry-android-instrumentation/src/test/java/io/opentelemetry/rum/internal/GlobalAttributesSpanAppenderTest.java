@@ -18,6 +18,7 @@ package io.opentelemetry.rum.internal;
 
 import static io.opentelemetry.api.common.AttributeKey.longKey;
 import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.verify;
@@ -53,4 +54,14 @@ class GlobalAttributesSpanAppenderTest {
 
         assertFalse(globalAttributes.isEndRequired());
     }
+
+    @Test
+    void shouldSupplyTheCurrentAttributes() {
+        Attributes initial = globalAttributes.get();
+        assertThat(globalAttributes.get()).isSameAs(initial);
+
+        globalAttributes.update(attributesBuilder -> attributesBuilder.put("key", "value2"));
+
+        assertThat(globalAttributes.get()).isEqualTo(Attributes.of(stringKey("key"), "value2"));
+    }
 }
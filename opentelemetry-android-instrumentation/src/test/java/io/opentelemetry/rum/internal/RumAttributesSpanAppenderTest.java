@@ -0,0 +1,110 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static io.opentelemetry.rum.internal.RumConstants.SESSION_ID_KEY;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RumAttributesSpanAppenderTest {
+
+    @Mock SessionId sessionId;
+    @Mock ReadWriteSpan span;
+
+    @Test
+    void shouldSetSessionIdAsSpanAttribute() {
+        when(sessionId.getSessionId()).thenReturn("42");
+
+        RumAttributesSpanAppender underTest = new RumAttributesSpanAppender(sessionId, emptyList());
+
+        assertTrue(underTest.isStartRequired());
+        underTest.onStart(Context.root(), span);
+
+        verify(span).setAllAttributes(Attributes.of(SESSION_ID_KEY, "42"));
+
+        assertFalse(underTest.isEndRequired());
+    }
+
+    @Test
+    void shouldMergeSuppliedAttributesInOrder() {
+        when(sessionId.getSessionId()).thenReturn("42");
+
+        RumAttributesSpanAppender underTest =
+                new RumAttributesSpanAppender(
+                        sessionId,
+                        asList(
+                                () ->
+                                        Attributes.of(
+                                                stringKey("first"), "1", stringKey("both"), "1"),
+                                () ->
+                                        Attributes.of(
+                                                stringKey("second"), "2", stringKey("both"), "2")));
+
+        underTest.onStart(Context.root(), span);
+
+        verify(span)
+                .setAllAttributes(
+                        Attributes.builder()
+                                .put(SESSION_ID_KEY, "42")
+                                .put("first", "1")
+                                .put("second", "2")
+                                .put("both", "2")
+                                .build());
+    }
+
+    @Test
+    void shouldReuseSnapshotUntilAnInputChanges() {
+        when(sessionId.getSessionId()).thenReturn("42", "42", "42", "43");
+        AtomicReference<Attributes> global =
+                new AtomicReference<>(Attributes.of(stringKey("key"), "value"));
+
+        RumAttributesSpanAppender underTest =
+                new RumAttributesSpanAppender(sessionId, asList(global::get));
+
+        underTest.onStart(Context.root(), span);
+        underTest.onStart(Context.root(), span);
+        global.set(Attributes.of(stringKey("key"), "value2"));
+        underTest.onStart(Context.root(), span);
+        underTest.onStart(Context.root(), span);
+
+        ArgumentCaptor<Attributes> captor = ArgumentCaptor.forClass(Attributes.class);
+        verify(span, times(4)).setAllAttributes(captor.capture());
+        assertThat(captor.getAllValues().get(1)).isSameAs(captor.getAllValues().get(0));
+        assertThat(captor.getAllValues().get(2))
+                .isEqualTo(Attributes.of(SESSION_ID_KEY, "42", stringKey("key"), "value2"));
+        assertThat(captor.getAllValues().get(3))
+                .isEqualTo(Attributes.of(SESSION_ID_KEY, "43", stringKey("key"), "value2"));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RumSchedulerTest {
+
+    private final ScheduledExecutorService scheduler =
+            RumScheduler.create(50, TimeUnit.MILLISECONDS);
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void runsTasksOnADaemonWorker() throws Exception {
+        AtomicReference<Thread> worker = new AtomicReference<>();
+
+        scheduler.submit(() -> worker.set(Thread.currentThread())).get(5, TimeUnit.SECONDS);
+
+        assertThat(worker.get().getName()).isEqualTo(RumScheduler.WORKER_THREAD_NAME);
+        assertThat(worker.get().isDaemon()).isTrue();
+    }
+
+    @Test
+    void workerExitsWhenIdleAndIsRestartedOnDemand() throws Exception {
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        scheduler.submit(() -> worker.set(Thread.currentThread())).get(5, TimeUnit.SECONDS);
+
+        worker.get().join(5_000);
+        assertThat(worker.get().isAlive()).isFalse();
+
+        AtomicReference<Thread> restarted = new AtomicReference<>();
+        scheduler.submit(() -> restarted.set(Thread.currentThread())).get(5, TimeUnit.SECONDS);
+        assertThat(restarted.get()).isNotSameAs(worker.get());
+    }
+
+    @Test
+    void cancelledTasksAreRemoved() {
+        ScheduledFuture<?> task = scheduler.scheduleAtFixedRate(() -> {}, 1, 1, TimeUnit.HOURS);
+
+        task.cancel(false);
+
+        assertThat(((ScheduledThreadPoolExecutor) scheduler).getQueue()).isEmpty();
+    }
+}
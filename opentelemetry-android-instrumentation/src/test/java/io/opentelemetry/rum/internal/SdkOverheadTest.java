@@ -0,0 +1,193 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class SdkOverheadTest {
+
+    private final AtomicInteger currentTid = new AtomicInteger();
+    private final Map<Integer, Long> cpuTimes = new HashMap<>();
+    private final AtomicLong threadCpuNanos = new AtomicLong();
+    private final SdkOverhead overhead =
+            new SdkOverhead(
+                    currentTid::get, tid -> cpuTimes.getOrDefault(tid, -1L), threadCpuNanos::get);
+
+    @Test
+    void nothingIsMeasuredWhenDisabled() {
+        currentTid.set(1);
+        cpuTimes.put(1, 100L);
+        overhead.registerCurrentThread("worker");
+
+        long start = overhead.startMainThreadWork();
+        overhead.endMainThreadWork(SdkOverhead.SPAN_START, start);
+
+        assertThat(start).isZero();
+        assertThat(overhead.getThreadCpuTimeMillis()).isEmpty();
+        assertThat(overhead.getMainThreadNanos()).isEmpty();
+    }
+
+    @Test
+    void taskCpuTimeIsAddedToItsComponent() {
+        overhead.enable(Thread.currentThread());
+        currentTid.set(1);
+        cpuTimes.put(1, 100L);
+        overhead.registerCurrentThread("worker");
+        Runnable task =
+                overhead.measureCpuTime("worker", () -> threadCpuNanos.addAndGet(7_000_000));
+
+        task.run();
+        task.run();
+        overhead.measureCpuTime("exporter", () -> threadCpuNanos.addAndGet(3_000_000)).run();
+
+        assertThat(overhead.getThreadCpuTimeMillis())
+                .containsEntry("worker", 114L)
+                .containsEntry("exporter", 3L);
+    }
+
+    @Test
+    void taskCpuTimeIsNotMeasuredWhenDisabled() {
+        overhead.measureCpuTime("worker", () -> threadCpuNanos.addAndGet(7_000_000)).run();
+
+        assertThat(overhead.getThreadCpuTimeMillis()).isEmpty();
+    }
+
+    @Test
+    void threadCpuTimeIsSummedByComponent() {
+        overhead.enable(Thread.currentThread());
+        currentTid.set(1);
+        overhead.registerCurrentThread("worker");
+        currentTid.set(2);
+        overhead.registerCurrentThread("scheduler");
+        currentTid.set(3);
+        overhead.registerCurrentThread("scheduler");
+        cpuTimes.put(1, 100L);
+        cpuTimes.put(2, 20L);
+        cpuTimes.put(3, 30L);
+
+        assertThat(overhead.getThreadCpuTimeMillis())
+                .containsOnly(entry("worker", 100L), entry("scheduler", 50L));
+
+        cpuTimes.put(1, 150L);
+        cpuTimes.put(2, 25L);
+        assertThat(overhead.getThreadCpuTimeMillis())
+                .containsOnly(entry("worker", 150L), entry("scheduler", 55L));
+    }
+
+    @Test
+    void deadThreadsKeepTheirLastCpuTime() {
+        overhead.enable(Thread.currentThread());
+        currentTid.set(1);
+        overhead.registerCurrentThread("worker");
+        currentTid.set(2);
+        overhead.registerCurrentThread("worker");
+        cpuTimes.put(1, 100L);
+        cpuTimes.put(2, 10L);
+        overhead.getThreadCpuTimeMillis();
+
+        cpuTimes.remove(1);
+        cpuTimes.put(2, 20L);
+        assertThat(overhead.getThreadCpuTimeMillis()).containsOnly(entry("worker", 120L));
+
+        // the tid might get reused by a thread that isn't ours
+        cpuTimes.put(1, 1000L);
+        assertThat(overhead.getThreadCpuTimeMillis()).containsOnly(entry("worker", 120L));
+    }
+
+    @Test
+    void threadFactoryRegistersTheNewThreads() throws InterruptedException {
+        overhead.enable(Thread.currentThread());
+        currentTid.set(7);
+        cpuTimes.put(7, 12L);
+        CountDownLatch ran = new CountDownLatch(1);
+
+        Thread thread = overhead.threadFactory("pool").newThread(ran::countDown);
+        thread.start();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertThat(ran.getCount()).isZero();
+        assertThat(overhead.getThreadCpuTimeMillis()).containsOnly(entry("pool", 12L));
+    }
+
+    @Test
+    void mainThreadWorkIsSummedByKind() {
+        overhead.enable(Thread.currentThread());
+
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, overhead.startMainThreadWork());
+        overhead.endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, overhead.startMainThreadWork());
+        overhead.endMainThreadWork(SdkOverhead.SPAN_START, overhead.startMainThreadWork());
+
+        Map<String, Long> nanos = overhead.getMainThreadNanos();
+        assertThat(nanos)
+                .containsOnlyKeys(SdkOverhead.ACTIVITY_LIFECYCLE, SdkOverhead.SPAN_START)
+                .allSatisfy((kind, value) -> assertThat(value).isPositive());
+
+        overhead.endMainThreadWork(SdkOverhead.SPAN_START, overhead.startMainThreadWork());
+        assertThat(overhead.getMainThreadNanos().get(SdkOverhead.SPAN_START))
+                .isGreaterThan(nanos.get(SdkOverhead.SPAN_START));
+    }
+
+    @Test
+    void workOffTheMainThreadIsIgnored() throws InterruptedException {
+        overhead.enable(new Thread());
+
+        long[] start = new long[1];
+        Thread thread =
+                new Thread(
+                        () -> {
+                            start[0] = overhead.startMainThreadWork();
+                            overhead.endMainThreadWork(SdkOverhead.SPAN_START, start[0]);
+                        });
+        thread.start();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertThat(start[0]).isZero();
+        assertThat(overhead.getMainThreadNanos()).isEmpty();
+    }
+
+    @Test
+    void deltas() {
+        SdkOverhead.Deltas deltas = new SdkOverhead.Deltas();
+        Map<String, Long> totals = new HashMap<>();
+        totals.put("worker", 100L);
+        totals.put("scheduler", 5L);
+        assertThat(deltas.next(totals)).containsOnly(entry("worker", 100L), entry("scheduler", 5L));
+
+        totals.put("worker", 130L);
+        totals.put("other", 1L);
+        assertThat(deltas.next(totals)).containsOnly(entry("worker", 30L), entry("other", 1L));
+        assertThat(deltas.next(totals)).isEmpty();
+    }
+
+    @Test
+    void parseCpuTime() {
+        String stat =
+                "1234 (Frame (Metrics) 1) S 1000 1000 0 0 -1 1077952576 "
+                        + "120 0 0 0 150 25 0 0 10 -10 20 0 ...";
+
+        assertThat(SdkOverhead.parseCpuTimeMillis(stat, 100)).isEqualTo(1750);
+    }
+}
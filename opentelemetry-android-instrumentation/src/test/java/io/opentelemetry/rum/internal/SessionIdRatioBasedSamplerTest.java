@@ -17,6 +17,7 @@
 package io.opentelemetry.rum.internal;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.when;
 
 import io.opentelemetry.api.common.Attributes;
@@ -24,12 +25,15 @@ import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.testing.time.TestClock;
 import io.opentelemetry.sdk.trace.IdGenerator;
 import io.opentelemetry.sdk.trace.data.LinkData;
 import io.opentelemetry.sdk.trace.samplers.Sampler;
 import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -92,14 +96,62 @@ class SessionIdRatioBasedSamplerTest {
         assertEquals(shouldSample(samplerLow), SamplingDecision.RECORD_AND_SAMPLE);
     }
 
-    private SamplingDecision shouldSample(Sampler sampler) {
-        return sampler.shouldSample(
-                        parentContext,
-                        traceId,
+    @Test
+    void cachedResultIsReturned() {
+        when(sessionId.getSessionId()).thenReturn(LOW_ID, LOW_ID, HIGH_ID);
+
+        SessionIdRatioBasedSampler sampler = new SessionIdRatioBasedSampler(0.5, sessionId);
+
+        assertSame(SamplingResult.recordAndSample(), sample(sampler));
+        assertSame(SamplingResult.recordAndSample(), sample(sampler));
+        assertSame(SamplingResult.drop(), sample(sampler));
+    }
+
+    @Test
+    void decisionIsUpdatedWhenSessionChanges() {
+        TestClock clock = TestClock.create();
+        SessionId realSessionId = new SessionId(clock, new SessionIdTimeoutHandler());
+        SessionIdRatioBasedSampler sampler = new SessionIdRatioBasedSampler(0.5, realSessionId);
+        RecordingListener listener = new RecordingListener();
+        realSessionId.addSessionIdChangeListener(listener);
+
+        String firstSessionId = realSessionId.getSessionId();
+        assertEquals(expectedDecision(firstSessionId), shouldSample(sampler));
+
+        clock.advance(4, TimeUnit.HOURS);
+        SamplingDecision decision = shouldSample(sampler);
+
+        // the sampler has already seen the new session when the span gets sampled
+        assertEquals(expectedDecision(listener.newSessionId), decision);
+    }
+
+    private static SamplingDecision expectedDecision(String sessionId) {
+        return Sampler.traceIdRatioBased(0.5)
+                .shouldSample(
+                        Context.root(),
+                        sessionId,
                         "name",
                         SpanKind.INTERNAL,
                         Attributes.empty(),
-                        parentLinks)
+                        Collections.emptyList())
                 .getDecision();
     }
+
+    private SamplingDecision shouldSample(Sampler sampler) {
+        return sample(sampler).getDecision();
+    }
+
+    private SamplingResult sample(Sampler sampler) {
+        return sampler.shouldSample(
+                parentContext, traceId, "name", SpanKind.INTERNAL, Attributes.empty(), parentLinks);
+    }
+
+    private static final class RecordingListener implements SessionIdChangeListener {
+        String newSessionId = "";
+
+        @Override
+        public void onChange(String oldSessionId, String newSessionId) {
+            this.newSessionId = newSessionId;
+        }
+    }
 }
@@ -20,14 +20,17 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.opentelemetry.sdk.common.Clock;
 import io.opentelemetry.sdk.testing.time.TestClock;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
@@ -75,18 +78,18 @@ class SessionIdTest {
         TestClock clock = TestClock.create();
         SessionIdChangeListener listener = mock(SessionIdChangeListener.class);
         SessionId sessionId = new SessionId(clock, timeoutHandler);
-        sessionId.setSessionIdChangeListener(listener);
+        sessionId.addSessionIdChangeListener(listener);
 
         String firstSessionId = sessionId.getSessionId();
         clock.advance(3, TimeUnit.HOURS);
         sessionId.getSessionId();
-        verify(timeoutHandler, times(2)).bump();
+        verify(timeoutHandler, times(2)).bump(anyLong());
         verify(listener, never()).onChange(anyString(), anyString());
 
         clock.advance(1, TimeUnit.HOURS);
         String secondSessionId = sessionId.getSessionId();
         InOrder io = inOrder(timeoutHandler, listener);
-        io.verify(timeoutHandler).bump();
+        io.verify(timeoutHandler).bump(anyLong());
         io.verify(listener).onChange(firstSessionId, secondSessionId);
         io.verifyNoMoreInteractions();
     }
@@ -96,14 +99,28 @@ class SessionIdTest {
         SessionId sessionId = new SessionId(timeoutHandler);
 
         String value = sessionId.getSessionId();
-        verify(timeoutHandler).bump();
+        verify(timeoutHandler).bump(anyLong());
 
         assertEquals(value, sessionId.getSessionId());
-        verify(timeoutHandler, times(2)).bump();
+        verify(timeoutHandler, times(2)).bump(anyLong());
 
-        when(timeoutHandler.hasTimedOut()).thenReturn(true);
+        when(timeoutHandler.hasTimedOut(anyLong())).thenReturn(true);
+
+        assertNotEquals(value, sessionId.getSessionId());
+        verify(timeoutHandler, times(3)).bump(anyLong());
+    }
+
+    @Test
+    void sessionLifetimeIsMeasuredWithMonotonicClock() {
+        Clock clock = mock(Clock.class);
+        // wall clock time and monotonic time are completely unrelated
+        lenient().when(clock.now()).thenReturn(TimeUnit.DAYS.toNanos(20_000));
+        when(clock.nanoTime()).thenReturn(0L);
+        SessionId sessionId = new SessionId(clock, timeoutHandler);
+        String value = sessionId.getSessionId();
+
+        when(clock.nanoTime()).thenReturn(TimeUnit.HOURS.toNanos(4));
 
         assertNotEquals(value, sessionId.getSessionId());
-        verify(timeoutHandler, times(3)).bump();
     }
 }
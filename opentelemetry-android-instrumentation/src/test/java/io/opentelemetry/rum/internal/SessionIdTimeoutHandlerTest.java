@@ -29,63 +29,85 @@ class SessionIdTimeoutHandlerTest {
     @Test
     void shouldNeverTimeOutInForeground() {
         TestClock clock = TestClock.create();
-        SessionIdTimeoutHandler timeoutHandler = new SessionIdTimeoutHandler(clock);
+        SessionIdTimeoutHandler timeoutHandler = new SessionIdTimeoutHandler();
 
-        assertFalse(timeoutHandler.hasTimedOut());
-        timeoutHandler.bump();
+        assertFalse(timeoutHandler.hasTimedOut(clock.nanoTime()));
+        timeoutHandler.bump(clock.nanoTime());
 
         // never time out in foreground
         clock.advance(Duration.ofHours(4));
-        assertFalse(timeoutHandler.hasTimedOut());
+        assertFalse(timeoutHandler.hasTimedOut(clock.nanoTime()));
     }
 
     @Test
     void shouldApply15MinutesTimeoutToAppsInBackground() {
         TestClock clock = TestClock.create();
-        SessionIdTimeoutHandler timeoutHandler = new SessionIdTimeoutHandler(clock);
+        SessionIdTimeoutHandler timeoutHandler = new SessionIdTimeoutHandler();
 
         timeoutHandler.onApplicationBackgrounded();
-        timeoutHandler.bump();
+        timeoutHandler.bump(clock.nanoTime());
 
-        assertFalse(timeoutHandler.hasTimedOut());
-        timeoutHandler.bump();
+        assertFalse(timeoutHandler.hasTimedOut(clock.nanoTime()));
+        timeoutHandler.bump(clock.nanoTime());
 
         // do not timeout if <15 minutes have passed
         clock.advance(14, TimeUnit.MINUTES);
         clock.advance(59, TimeUnit.SECONDS);
-        assertFalse(timeoutHandler.hasTimedOut());
-        timeoutHandler.bump();
+        assertFalse(timeoutHandler.hasTimedOut(clock.nanoTime()));
+        timeoutHandler.bump(clock.nanoTime());
 
         // restart the timeout counter after bump()
         clock.advance(1, TimeUnit.MINUTES);
-        assertFalse(timeoutHandler.hasTimedOut());
-        timeoutHandler.bump();
+        assertFalse(timeoutHandler.hasTimedOut(clock.nanoTime()));
+        timeoutHandler.bump(clock.nanoTime());
 
         // timeout after 15 minutes
         clock.advance(15, TimeUnit.MINUTES);
-        assertTrue(timeoutHandler.hasTimedOut());
+        assertTrue(timeoutHandler.hasTimedOut(clock.nanoTime()));
 
         // bump() resets the counter
-        timeoutHandler.bump();
-        assertFalse(timeoutHandler.hasTimedOut());
+        timeoutHandler.bump(clock.nanoTime());
+        assertFalse(timeoutHandler.hasTimedOut(clock.nanoTime()));
     }
 
     @Test
     void shouldApplyTimeoutToFirstSpanAfterAppBeingMovedToForeground() {
         TestClock clock = TestClock.create();
-        SessionIdTimeoutHandler timeoutHandler = new SessionIdTimeoutHandler(clock);
+        SessionIdTimeoutHandler timeoutHandler = new SessionIdTimeoutHandler();
 
         timeoutHandler.onApplicationBackgrounded();
-        timeoutHandler.bump();
+        timeoutHandler.bump(clock.nanoTime());
 
         // the first span after app is moved to the foreground gets timed out
         timeoutHandler.onApplicationForegrounded();
         clock.advance(20, TimeUnit.MINUTES);
-        assertTrue(timeoutHandler.hasTimedOut());
-        timeoutHandler.bump();
+        assertTrue(timeoutHandler.hasTimedOut(clock.nanoTime()));
+        timeoutHandler.bump(clock.nanoTime());
 
         // after the initial span it's the same as the usual foreground scenario
         clock.advance(Duration.ofHours(4));
-        assertFalse(timeoutHandler.hasTimedOut());
+        assertFalse(timeoutHandler.hasTimedOut(clock.nanoTime()));
+    }
+
+    @Test
+    void shouldCoalesceBumpsWithinOneSecond() {
+        TestClock clock = TestClock.create();
+        SessionIdTimeoutHandler timeoutHandler = new SessionIdTimeoutHandler();
+
+        timeoutHandler.onApplicationBackgrounded();
+        timeoutHandler.bump(clock.nanoTime());
+
+        // bumps less than a second apart don't move the timeout start
+        clock.advance(500, TimeUnit.MILLISECONDS);
+        timeoutHandler.bump(clock.nanoTime());
+        clock.advance(Duration.ofMinutes(15).minusMillis(500));
+        assertTrue(timeoutHandler.hasTimedOut(clock.nanoTime()));
+
+        // but any later bump does
+        timeoutHandler.bump(clock.nanoTime());
+        clock.advance(1, TimeUnit.SECONDS);
+        timeoutHandler.bump(clock.nanoTime());
+        clock.advance(Duration.ofMinutes(15).minusMillis(1));
+        assertFalse(timeoutHandler.hasTimedOut(clock.nanoTime()));
     }
 }
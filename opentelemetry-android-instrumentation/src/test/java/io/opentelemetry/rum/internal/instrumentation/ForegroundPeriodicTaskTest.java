@@ -0,0 +1,98 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ForegroundPeriodicTaskTest {
+
+    @Mock ScheduledExecutorService scheduler;
+    @Mock ScheduledFuture<?> future;
+    @Mock Runnable runnable;
+
+    private ForegroundPeriodicTask task;
+
+    @BeforeEach
+    void setUp() {
+        task = ForegroundPeriodicTask.create(scheduler, Duration.ofSeconds(5), runnable);
+    }
+
+    @Test
+    void runsOnlyInTheForeground() {
+        doReturn(future).when(scheduler).scheduleAtFixedRate(any(), anyLong(), anyLong(), any());
+
+        task.start();
+        verify(scheduler).scheduleAtFixedRate(runnable, 5000, 5000, TimeUnit.MILLISECONDS);
+
+        task.onApplicationBackgrounded();
+        verify(future).cancel(false);
+
+        task.onApplicationForegrounded();
+        task.onApplicationForegrounded();
+        verify(scheduler, times(2))
+                .scheduleAtFixedRate(runnable, 5000, 5000, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void startedInTheBackground() {
+        doReturn(future).when(scheduler).scheduleAtFixedRate(any(), anyLong(), anyLong(), any());
+        task.onApplicationBackgrounded();
+
+        task.start();
+        verify(scheduler, never()).scheduleAtFixedRate(any(), anyLong(), anyLong(), any());
+
+        task.onApplicationForegrounded();
+        verify(scheduler).scheduleAtFixedRate(runnable, 5000, 5000, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void notScheduledAgainOnceStopped() {
+        doReturn(future).when(scheduler).scheduleAtFixedRate(any(), anyLong(), anyLong(), any());
+        task.start();
+
+        task.stop();
+        task.onApplicationBackgrounded();
+        task.onApplicationForegrounded();
+
+        verify(future).cancel(false);
+        verify(scheduler).scheduleAtFixedRate(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void notScheduledUntilStarted() {
+        task.onApplicationForegrounded();
+
+        verifyNoInteractions(scheduler);
+    }
+}
@@ -18,7 +18,7 @@ package io.opentelemetry.rum.internal.instrumentation.anr;
 
 import static io.opentelemetry.api.common.AttributeKey.stringKey;
 import static io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor.constant;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -26,8 +26,8 @@ import static org.mockito.Mockito.when;
 import android.os.Looper;
 import io.opentelemetry.rum.internal.instrumentation.InstrumentedApplication;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -37,7 +37,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 class AnrDetectorTest {
 
     @Mock Looper mainLooper;
-    @Mock ScheduledExecutorService scheduler;
     @Mock InstrumentedApplication instrumentedApplication;
 
     @Test
@@ -48,16 +47,34 @@ class AnrDetectorTest {
         AnrDetector anrDetector =
                 AnrDetector.builder()
                         .setMainLooper(mainLooper)
-                        .setScheduler(scheduler)
                         .addAttributesExtractor(constant(stringKey("test.key"), "abc"))
                         .build();
         anrDetector.installOn(instrumentedApplication);
 
-        // verify that the ANR scheduler was started
-        verify(scheduler)
-                .scheduleAtFixedRate(isA(AnrWatcher.class), eq(1L), eq(1L), eq(TimeUnit.SECONDS));
+        // verify that the main looper is being monitored
+        verify(mainLooper).setMessageLogging(isA(LooperMonitor.class));
         // verify that an application listener was installed
         verify(instrumentedApplication)
                 .registerApplicationStateListener(isA(AnrDetectorToggler.class));
     }
+
+    @Test
+    void customizesTheLongTaskTracer() {
+        when(instrumentedApplication.getOpenTelemetrySdk())
+                .thenReturn(OpenTelemetrySdk.builder().build());
+        AtomicBoolean customized = new AtomicBoolean();
+
+        AnrDetector.builder()
+                .setMainLooper(mainLooper)
+                .setLongTaskThreshold(Duration.ofMillis(100))
+                .setLongTaskTracerCustomizer(
+                        tracer -> {
+                            customized.set(true);
+                            return tracer;
+                        })
+                .build()
+                .installOn(instrumentedApplication);
+
+        assertThat(customized).isTrue();
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.anr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class HangProfileTest {
+
+    @Test
+    void foldsStacksOutermostFrameFirst() {
+        HangProfile profile = new HangProfile(1);
+
+        profile.addSample(stack(2, "a"));
+        profile.addSample(stack(2, "b"));
+        profile.addSample(stack(2, "b"));
+
+        assertThat(profile.getSampleCount()).isEqualTo(3);
+        assertThat(profile.toFoldedStacks())
+                .isEqualTo("Frame.f1;Frame.b0 2\nFrame.f1;Frame.a0 1\n");
+    }
+
+    @Test
+    void keepsInnermostFramesOfDeepStacks() {
+        HangProfile profile = new HangProfile(1);
+
+        profile.addSample(stack(HangProfile.MAX_FRAMES + 10, "a"));
+
+        String folded = profile.toFoldedStacks();
+        assertThat(folded).startsWith("...;Frame.f" + (HangProfile.MAX_FRAMES - 1) + ";");
+        assertThat(folded).endsWith(";Frame.a0 1\n");
+    }
+
+    @Test
+    void boundsSamplesAndStacks() {
+        HangProfile profile = new HangProfile(1);
+
+        for (int i = 0; i < HangProfile.MAX_SAMPLES + 10; i++) {
+            profile.addSample(stack(1, "m" + i));
+        }
+
+        assertThat(profile.isFull()).isTrue();
+        assertThat(profile.getSampleCount()).isEqualTo(HangProfile.MAX_SAMPLES);
+        String folded = profile.toFoldedStacks();
+        assertThat(folded.split("\n")).hasSize(HangProfile.MAX_STACKS + 1);
+        assertThat(folded)
+                .endsWith("(other) " + (HangProfile.MAX_SAMPLES - HangProfile.MAX_STACKS) + "\n");
+    }
+
+    @Test
+    void boundsLength() {
+        HangProfile profile = new HangProfile(1);
+
+        for (int i = 0; i < HangProfile.MAX_STACKS; i++) {
+            profile.addSample(stack(HangProfile.MAX_FRAMES, "method" + i));
+        }
+
+        String folded = profile.toFoldedStacks();
+        assertThat(folded.length()).isLessThanOrEqualTo(HangProfile.MAX_LENGTH);
+        assertThat(folded).contains("(other) ");
+    }
+
+    @Test
+    void ignoresEmptyStacks() {
+        HangProfile profile = new HangProfile(1);
+
+        profile.addSample(new StackTraceElement[0]);
+
+        assertThat(profile.getSampleCount()).isZero();
+        assertThat(profile.toFoldedStacks()).isEmpty();
+    }
+
+    // frames f1..fN-1 with the given innermost method name as frame 0
+    private static StackTraceElement[] stack(int depth, String innermostMethod) {
+        StackTraceElement[] stackTrace = new StackTraceElement[depth];
+        for (int i = 0; i < depth; i++) {
+            String method = i == 0 ? innermostMethod + "0" : "f" + i;
+            stackTrace[i] = new StackTraceElement("Frame", method, null, 0);
+        }
+        return stackTrace;
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.anr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import android.os.Looper;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
+import io.opentelemetry.sdk.testing.junit5.OpenTelemetryExtension;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class LooperMonitorTest {
+
+    @RegisterExtension
+    static final OpenTelemetryExtension testing = OpenTelemetryExtension.create();
+
+    @Mock Looper mainLooper;
+    @Mock Thread mainThread;
+    @Mock Instrumenter<StackTraceElement[], Void> instrumenter;
+
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        when(mainLooper.getThread()).thenReturn(mainThread);
+        tracer = testing.getOpenTelemetry().getTracer("test");
+    }
+
+    @Test
+    void reportsLongTaskWithExactDuration() {
+        LooperMonitor monitor = create(TimeUnit.SECONDS.toNanos(5), millis(100));
+
+        monitor.onDispatchStarted(millis(1_000));
+        monitor.onDispatchFinished(millis(1_250));
+
+        assertThat(testing.getSpans())
+                .singleElement()
+                .satisfies(
+                        span -> {
+                            assertThat(span.getName()).isEqualTo(LooperMonitor.LONG_TASK_SPAN_NAME);
+                            assertThat(duration(span)).isEqualTo(millis(250));
+                        });
+    }
+
+    @Test
+    void shortTasksAreNotReported() {
+        LooperMonitor monitor = create(TimeUnit.SECONDS.toNanos(5), millis(100));
+
+        monitor.onDispatchStarted(millis(1_000));
+        monitor.onDispatchFinished(millis(1_050));
+        // finished without a matching start, e.g. right after the monitor was installed
+        monitor.onDispatchFinished(millis(5_000));
+
+        assertThat(testing.getSpans()).isEmpty();
+    }
+
+    @Test
+    void longTasksAreDisabledWithoutTracer() {
+        LooperMonitor monitor =
+                new LooperMonitor(
+                        mainLooper, instrumenter, null, TimeUnit.SECONDS.toNanos(5), 0, 0, 0);
+
+        monitor.onDispatchStarted(millis(1_000));
+        monitor.onDispatchFinished(millis(9_000));
+
+        assertThat(testing.getSpans()).isEmpty();
+    }
+
+    @Test
+    void reportsAnrOncePerDispatch() {
+        StackTraceElement[] stackTrace = new StackTraceElement[0];
+        when(mainThread.getStackTrace()).thenReturn(stackTrace);
+        LooperMonitor monitor = create(TimeUnit.SECONDS.toNanos(5), millis(100));
+
+        monitor.onDispatchStarted(millis(1_000));
+        long count = monitor.getDispatchCount();
+        monitor.checkForAnr(count);
+        monitor.checkForAnr(count);
+
+        verify(instrumenter, times(1)).start(any(), same(stackTrace));
+        verify(instrumenter, times(1)).end(any(), same(stackTrace), isNull(), isNull());
+
+        monitor.onDispatchFinished(millis(7_000));
+        monitor.checkForAnr(count);
+        verify(instrumenter, times(1)).start(any(), same(stackTrace));
+    }
+
+    @Test
+    void doesNotReportAnrForFinishedDispatch() {
+        LooperMonitor monitor = create(TimeUnit.SECONDS.toNanos(5), millis(100));
+
+        monitor.onDispatchStarted(millis(1_000));
+        long count = monitor.getDispatchCount();
+        monitor.onDispatchFinished(millis(1_010));
+        monitor.onDispatchStarted(millis(1_020));
+        monitor.checkForAnr(count);
+
+        verifyNoInteractions(instrumenter);
+    }
+
+    @Test
+    void watchdogDoesNotParkWhenDispatchStartedWhileItWasCheckingTheState() {
+        LooperMonitor monitor = create(millis(50), millis(100));
+
+        // the watchdog read the dispatch count after the main thread incremented it, but the
+        // dispatching flag before the main thread set it; it was not idle yet, so the main thread
+        // didn't unpark it
+        monitor.onDispatchStarted(millis(1_000));
+        long count = monitor.getDispatchCount();
+
+        assertTimeoutPreemptively(
+                Duration.ofSeconds(5), () -> monitor.waitForNextDispatch(count, false));
+    }
+
+    @Test
+    void watchdogReportsAnrWhileMainThreadIsStuck() {
+        StackTraceElement[] stackTrace = new StackTraceElement[0];
+        when(mainThread.getStackTrace()).thenReturn(stackTrace);
+        LooperMonitor monitor = create(millis(50), millis(100));
+        monitor.start();
+        verify(mainLooper).setMessageLogging(monitor);
+
+        monitor.println(">>>>> Dispatching to Handler (android.os.Handler) {1} null: 0");
+
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> verify(instrumenter).start(any(), same(stackTrace)));
+        monitor.println("<<<<< Finished to Handler (android.os.Handler) {1} null");
+        monitor.stop();
+        verify(mainLooper).setMessageLogging(null);
+    }
+
+    @Test
+    void attachesSampledStacksToLongTask() {
+        when(mainThread.getStackTrace())
+                .thenReturn(stack("Looper.loop", "App.render"))
+                .thenReturn(stack("Looper.loop", "App.render"))
+                .thenReturn(stack("Looper.loop", "App.load"));
+        LooperMonitor monitor =
+                new LooperMonitor(
+                        mainLooper,
+                        instrumenter,
+                        tracer,
+                        TimeUnit.SECONDS.toNanos(5),
+                        millis(100),
+                        millis(700),
+                        millis(100));
+
+        monitor.onDispatchStarted(millis(1_000));
+        long count = monitor.getDispatchCount();
+        assertThat(monitor.sampleIfHanging(count, millis(1_500))).isEqualTo(millis(1_700));
+        assertThat(monitor.sampleIfHanging(count, millis(1_700))).isEqualTo(millis(1_800));
+        // not due yet
+        assertThat(monitor.sampleIfHanging(count, millis(1_750))).isEqualTo(millis(1_800));
+        assertThat(monitor.sampleIfHanging(count, millis(1_800))).isEqualTo(millis(1_900));
+        assertThat(monitor.sampleIfHanging(count, millis(1_900))).isEqualTo(millis(2_000));
+        monitor.onDispatchFinished(millis(2_000));
+
+        assertThat(testing.getSpans())
+                .singleElement()
+                .satisfies(
+                        span -> {
+                            assertThat(span.getName()).isEqualTo(LooperMonitor.LONG_TASK_SPAN_NAME);
+                            assertThat(span.getAttributes().get(LooperMonitor.HANG_PROFILE_KEY))
+                                    .isEqualTo(
+                                            "android.os.Looper.loop;com.example.App.render 2\n"
+                                                    + "android.os.Looper.loop;com.example.App.load 1\n");
+                            assertThat(
+                                            span.getAttributes()
+                                                    .get(LooperMonitor.HANG_PROFILE_SAMPLES_KEY))
+                                    .isEqualTo(3);
+                        });
+    }
+
+    @Test
+    void doesNotSampleShortTasks() {
+        LooperMonitor monitor =
+                new LooperMonitor(
+                        mainLooper,
+                        instrumenter,
+                        tracer,
+                        TimeUnit.SECONDS.toNanos(5),
+                        millis(100),
+                        millis(700),
+                        millis(100));
+
+        monitor.onDispatchStarted(millis(1_000));
+        monitor.sampleIfHanging(monitor.getDispatchCount(), millis(1_300));
+        monitor.onDispatchFinished(millis(1_400));
+
+        verify(mainThread, never()).getStackTrace();
+        assertThat(testing.getSpans())
+                .singleElement()
+                .satisfies(
+                        span ->
+                                assertThat(span.getAttributes().get(LooperMonitor.HANG_PROFILE_KEY))
+                                        .isNull());
+    }
+
+    @Test
+    void stackSamplingCanBeDisabled() {
+        LooperMonitor monitor =
+                new LooperMonitor(
+                        mainLooper,
+                        instrumenter,
+                        tracer,
+                        TimeUnit.SECONDS.toNanos(5),
+                        millis(100),
+                        millis(700),
+                        millis(100));
+        monitor.disableStackSampling();
+
+        monitor.onDispatchStarted(millis(1_000));
+        monitor.sampleIfHanging(monitor.getDispatchCount(), millis(1_800));
+        monitor.onDispatchFinished(millis(2_000));
+
+        verify(mainThread, never()).getStackTrace();
+    }
+
+    @Test
+    void disabledMonitorDoesNotStartAgain() {
+        LooperMonitor monitor =
+                new LooperMonitor(
+                        mainLooper,
+                        instrumenter,
+                        tracer,
+                        TimeUnit.SECONDS.toNanos(5),
+                        millis(100),
+                        millis(700),
+                        millis(100));
+
+        monitor.disable();
+        monitor.start();
+
+        verify(mainLooper).setMessageLogging(isNull());
+        verify(mainLooper, never()).setMessageLogging(same(monitor));
+    }
+
+    @Test
+    void attachesSampledStacksToAnr() {
+        when(mainThread.getStackTrace()).thenReturn(stack("Looper.loop", "App.render"));
+        Instrumenter<StackTraceElement[], Void> anrInstrumenter =
+                Instrumenter.<StackTraceElement[], Void>builder(
+                                testing.getOpenTelemetry(), "test", stackTrace -> "ANR")
+                        .buildInstrumenter();
+        LooperMonitor monitor =
+                new LooperMonitor(
+                        mainLooper,
+                        anrInstrumenter,
+                        null,
+                        TimeUnit.SECONDS.toNanos(5),
+                        0,
+                        millis(700),
+                        millis(100));
+
+        monitor.onDispatchStarted(millis(1_000));
+        long count = monitor.getDispatchCount();
+        monitor.sampleIfHanging(count, millis(1_700));
+        monitor.checkForAnr(count);
+
+        assertThat(testing.getSpans())
+                .singleElement()
+                .satisfies(
+                        span -> {
+                            assertThat(span.getName()).isEqualTo("ANR");
+                            assertThat(span.getAttributes().get(LooperMonitor.HANG_PROFILE_KEY))
+                                    .isEqualTo("android.os.Looper.loop;com.example.App.render 2\n");
+                            assertThat(
+                                            span.getAttributes()
+                                                    .get(LooperMonitor.HANG_PROFILE_SAMPLES_KEY))
+                                    .isEqualTo(2);
+                        });
+    }
+
+    private LooperMonitor create(long anrThresholdNanos, long longTaskThresholdNanos) {
+        return new LooperMonitor(
+                mainLooper, instrumenter, tracer, anrThresholdNanos, longTaskThresholdNanos, 0, 0);
+    }
+
+    // innermost frame last, as in the folded output
+    private static StackTraceElement[] stack(String... frames) {
+        StackTraceElement[] stackTrace = new StackTraceElement[frames.length];
+        for (int i = 0; i < frames.length; i++) {
+            String[] classAndMethod = frames[i].split("\\.");
+            String packageName =
+                    classAndMethod[0].equals("Looper") ? "android.os." : "com.example.";
+            stackTrace[frames.length - 1 - i] =
+                    new StackTraceElement(
+                            packageName + classAndMethod[0], classAndMethod[1], null, 0);
+        }
+        return stackTrace;
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static long duration(SpanData span) {
+        return span.getEndEpochNanos() - span.getStartEpochNanos();
+    }
+}
@@ -21,10 +21,12 @@ import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.asser
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.context.Context;
+import io.opentelemetry.rum.internal.RumConstants;
+import io.opentelemetry.rum.internal.util.StackTraceFormatter;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import org.junit.jupiter.api.Test;
 
-class StackTraceFormatterTest {
+class StackTraceAttributesExtractorTest {
 
     @Test
     void shouldSerializeStackTrace() {
@@ -34,16 +36,19 @@ class StackTraceFormatterTest {
                     new StackTraceElement(
                             "a.b.AnotherClass", "bar", "/src/a/b/AnotherClass.java", 123)
                 };
-        StackTraceFormatter underTest = new StackTraceFormatter();
+        StackTraceAttributesExtractor underTest = new StackTraceAttributesExtractor();
 
         AttributesBuilder startAttributes = Attributes.builder();
         underTest.onStart(startAttributes, Context.current(), stackTrace);
         assertThat(startAttributes.build())
-                .hasSize(1)
+                .hasSize(2)
                 .containsEntry(
                         SemanticAttributes.EXCEPTION_STACKTRACE,
                         "a.b.Class.foo(/src/a/b/Class.java:42)\n"
-                                + "a.b.AnotherClass.bar(/src/a/b/AnotherClass.java:123)\n");
+                                + "a.b.AnotherClass.bar(/src/a/b/AnotherClass.java:123)\n")
+                .containsEntry(
+                        RumConstants.EXCEPTION_FINGERPRINT_KEY,
+                        new StackTraceFormatter().fingerprint(stackTrace));
 
         AttributesBuilder endAttributes = Attributes.builder();
         underTest.onEnd(endAttributes, Context.current(), stackTrace, null, null);
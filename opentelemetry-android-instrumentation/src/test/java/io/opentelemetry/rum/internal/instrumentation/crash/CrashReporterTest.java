@@ -24,7 +24,9 @@ import static org.mockito.Mockito.when;
 
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.rum.internal.RumConstants;
 import io.opentelemetry.rum.internal.instrumentation.InstrumentedApplication;
+import io.opentelemetry.rum.internal.util.StackTraceFormatter;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
 import io.opentelemetry.sdk.testing.assertj.TraceAssert;
 import io.opentelemetry.sdk.testing.junit5.OpenTelemetryExtension;
@@ -77,12 +79,25 @@ class CrashReporterTest {
         crashingThread.start();
         crashingThread.join();
 
+        StackTraceFormatter stackTraceFormatter = new StackTraceFormatter();
         Attributes expectedAttributes =
                 Attributes.builder()
                         .put(SemanticAttributes.EXCEPTION_ESCAPED, true)
                         .put(SemanticAttributes.THREAD_ID, crashingThread.getId())
                         .put(SemanticAttributes.THREAD_NAME, crashingThread.getName())
                         .put(stringKey("test.key"), "abc")
+                        .put(
+                                RumConstants.EXCEPTION_FINGERPRINT_KEY,
+                                stackTraceFormatter.fingerprint(crash))
+                        .build();
+        // the stack trace is capped the same way as in SplunkRum.addRumException()
+        Attributes expectedException =
+                Attributes.builder()
+                        .put(SemanticAttributes.EXCEPTION_TYPE, "java.lang.RuntimeException")
+                        .put(SemanticAttributes.EXCEPTION_MESSAGE, "boooom!")
+                        .put(
+                                SemanticAttributes.EXCEPTION_STACKTRACE,
+                                stackTraceFormatter.format(crash))
                         .build();
         assertTrace(
                 trace ->
@@ -91,7 +106,11 @@ class CrashReporterTest {
                                         span.hasName("RuntimeException")
                                                 .hasKind(SpanKind.INTERNAL)
                                                 .hasStatus(StatusData.error())
-                                                .hasException(crash)
+                                                .hasEventsSatisfyingExactly(
+                                                        event ->
+                                                                event.hasName("exception")
+                                                                        .hasAttributes(
+                                                                                expectedException))
                                                 .hasAttributes(expectedAttributes)));
     }
 
@@ -24,8 +24,10 @@ import static org.mockito.Mockito.when;
 
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
+import io.opentelemetry.rum.internal.util.StackTraceFormatter;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -47,7 +49,11 @@ class CrashReportingExceptionHandlerTest {
 
         CrashReportingExceptionHandler handler =
                 new CrashReportingExceptionHandler(
-                        instrumenter, sdkTracerProvider, existingHandler);
+                        instrumenter,
+                        new StackTraceFormatter(),
+                        sdkTracerProvider,
+                        existingHandler,
+                        Duration.ofSeconds(10));
 
         NullPointerException oopsie = new NullPointerException("oopsie");
         Thread crashThread = new Thread("badThread");
@@ -57,10 +63,29 @@ class CrashReportingExceptionHandlerTest {
         CrashDetails crashDetails = CrashDetails.create(crashThread, oopsie);
         InOrder io = inOrder(instrumenter, sdkTracerProvider, flushResult, existingHandler);
         io.verify(instrumenter).start(Context.current(), crashDetails);
-        io.verify(instrumenter).end(any(), eq(crashDetails), isNull(), eq(oopsie));
+        io.verify(instrumenter).end(any(), eq(crashDetails), isNull(), isNull());
         io.verify(sdkTracerProvider).forceFlush();
-        io.verify(flushResult).join(10, TimeUnit.SECONDS);
+        io.verify(flushResult).join(10_000, TimeUnit.MILLISECONDS);
         io.verify(existingHandler).uncaughtException(crashThread, oopsie);
         io.verifyNoMoreInteractions();
     }
+
+    @Test
+    void shouldWaitForFlushOnlyUntilTimeout() {
+        when(sdkTracerProvider.forceFlush()).thenReturn(flushResult);
+
+        CrashReportingExceptionHandler handler =
+                new CrashReportingExceptionHandler(
+                        instrumenter,
+                        new StackTraceFormatter(),
+                        sdkTracerProvider,
+                        existingHandler,
+                        Duration.ofMillis(200));
+
+        handler.uncaughtException(new Thread("badThread"), new NullPointerException("oopsie"));
+
+        InOrder io = inOrder(flushResult, existingHandler);
+        io.verify(flushResult).join(200, TimeUnit.MILLISECONDS);
+        io.verify(existingHandler).uncaughtException(any(), any());
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.lifecycle;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import io.opentelemetry.rum.internal.SdkOverhead;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TimedActivityLifecycleCallbacksTest {
+
+    @Mock private Application.ActivityLifecycleCallbacks delegate;
+    @Mock private SdkOverhead overhead;
+    @Mock private Activity activity;
+    @Mock private Bundle bundle;
+
+    @Test
+    void timesTheDelegate() {
+        when(overhead.startMainThreadWork()).thenReturn(42L);
+        TimedActivityLifecycleCallbacks callbacks =
+                new TimedActivityLifecycleCallbacks(delegate, overhead);
+
+        callbacks.onActivityCreated(activity, bundle);
+        callbacks.onActivityPostResumed(activity);
+        callbacks.onActivitySaveInstanceState(activity, bundle);
+
+        InOrder inOrder = inOrder(overhead, delegate);
+        inOrder.verify(overhead).startMainThreadWork();
+        inOrder.verify(delegate).onActivityCreated(activity, bundle);
+        inOrder.verify(overhead).endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, 42L);
+        inOrder.verify(overhead).startMainThreadWork();
+        inOrder.verify(delegate).onActivityPostResumed(activity);
+        inOrder.verify(overhead).endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, 42L);
+        inOrder.verify(overhead).startMainThreadWork();
+        inOrder.verify(delegate).onActivitySaveInstanceState(activity, bundle);
+        inOrder.verify(overhead).endMainThreadWork(SdkOverhead.ACTIVITY_LIFECYCLE, 42L);
+    }
+}
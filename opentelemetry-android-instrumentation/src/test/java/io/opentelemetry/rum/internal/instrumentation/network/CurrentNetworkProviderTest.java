@@ -17,6 +17,8 @@
 package io.opentelemetry.rum.internal.instrumentation.network;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
@@ -32,6 +34,8 @@ import android.net.ConnectivityManager.NetworkCallback;
 import android.net.Network;
 import android.net.NetworkRequest;
 import android.os.Build;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -236,4 +240,29 @@ public class CurrentNetworkProviderTest {
         CurrentNetworkProvider currentNetworkProvider = new CurrentNetworkProvider(networkDetector);
         currentNetworkProvider.startMonitoring(() -> networkRequest, connectivityManager);
     }
+
+    @Test
+    public void networkAttributesAreOnlyExtractedWhenNetworkChanges() {
+        NetworkDetector networkDetector = mock(NetworkDetector.class);
+        when(networkDetector.detectCurrentNetwork())
+                .thenReturn(CurrentNetwork.builder(NetworkState.TRANSPORT_WIFI).build())
+                .thenReturn(CurrentNetwork.builder(NetworkState.TRANSPORT_WIFI).build())
+                .thenReturn(CurrentNetwork.builder(NetworkState.TRANSPORT_CELLULAR).build());
+
+        CurrentNetworkProvider currentNetworkProvider = new CurrentNetworkProvider(networkDetector);
+
+        CurrentNetwork wifi = currentNetworkProvider.refreshNetworkStatus();
+        Attributes wifiAttributes = currentNetworkProvider.getCurrentNetworkAttributes();
+        assertEquals(
+                Attributes.of(SemanticAttributes.NET_HOST_CONNECTION_TYPE, "wifi"), wifiAttributes);
+
+        // an equal network does not replace the current one
+        assertSame(wifi, currentNetworkProvider.refreshNetworkStatus());
+        assertSame(wifiAttributes, currentNetworkProvider.getCurrentNetworkAttributes());
+
+        assertNotSame(wifi, currentNetworkProvider.refreshNetworkStatus());
+        assertEquals(
+                Attributes.of(SemanticAttributes.NET_HOST_CONNECTION_TYPE, "cell"),
+                currentNetworkProvider.getCurrentNetworkAttributes());
+    }
 }
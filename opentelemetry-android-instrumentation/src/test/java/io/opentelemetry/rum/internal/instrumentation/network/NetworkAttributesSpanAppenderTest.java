@@ -41,11 +41,11 @@ class NetworkAttributesSpanAppenderTest {
 
     @Test
     void shouldAppendNetworkAttributes() {
-        when(currentNetworkProvider.getCurrentNetwork())
+        when(currentNetworkProvider.getCurrentNetworkAttributes())
                 .thenReturn(
-                        CurrentNetwork.builder(NetworkState.TRANSPORT_CELLULAR)
-                                .subType("LTE")
-                                .build());
+                        Attributes.of(
+                                SemanticAttributes.NET_HOST_CONNECTION_TYPE, "cell",
+                                SemanticAttributes.NET_HOST_CONNECTION_SUBTYPE, "LTE"));
 
         assertTrue(underTest.isStartRequired());
         underTest.onStart(Context.current(), span);
@@ -171,4 +171,26 @@ public class NetworkChangeMonitorTest {
                 CurrentNetwork.builder(NetworkState.NO_NETWORK_AVAILABLE).build());
         assertEquals(1, otelTesting.getSpans().size());
     }
+
+    @Test
+    public void noEventsAfterUninstall() {
+        NetworkChangeMonitor monitor = NetworkChangeMonitor.create(currentNetworkProvider);
+        monitor.installOn(instrumentedApplication);
+
+        verify(currentNetworkProvider)
+                .addNetworkChangeListener(networkChangeListenerCaptor.capture());
+        NetworkChangeListener networkListener = networkChangeListenerCaptor.getValue();
+
+        verify(instrumentedApplication)
+                .registerApplicationStateListener(applicationStateListenerCaptor.capture());
+        ApplicationStateListener applicationListener = applicationStateListenerCaptor.getValue();
+
+        monitor.uninstall();
+        applicationListener.onApplicationBackgrounded();
+        applicationListener.onApplicationForegrounded();
+
+        networkListener.onNetworkChange(
+                CurrentNetwork.builder(NetworkState.NO_NETWORK_AVAILABLE).build());
+        assertTrue(otelTesting.getSpans().isEmpty());
+    }
 }
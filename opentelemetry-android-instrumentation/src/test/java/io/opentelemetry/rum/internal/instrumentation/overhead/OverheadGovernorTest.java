@@ -0,0 +1,219 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.overhead;
+
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.rum.internal.SdkOverhead;
+import io.opentelemetry.rum.internal.instrumentation.ApplicationStateListener;
+import io.opentelemetry.rum.internal.instrumentation.InstrumentedApplication;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.junit5.OpenTelemetryExtension;
+import io.opentelemetry.sdk.testing.time.TestClock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class OverheadGovernorTest {
+
+    @RegisterExtension final OpenTelemetryExtension testing = OpenTelemetryExtension.create();
+
+    @Mock SdkOverhead overhead;
+    @Mock ScheduledExecutorService executorService;
+    @Mock ScheduledFuture<?> checks;
+    @Mock InstrumentedApplication instrumentedApplication;
+
+    private final TestClock clock = TestClock.create();
+    private final Map<String, Long> cpuTimeMillis = new HashMap<>();
+    private final Map<String, Long> mainThreadNanos = new HashMap<>();
+    private final List<String> appliedSteps = new ArrayList<>();
+    private final List<ApplicationStateListener> listeners = new ArrayList<>();
+    private OverheadGovernor governor;
+
+    @BeforeEach
+    void setUp() {
+        when(instrumentedApplication.getOpenTelemetrySdk())
+                .thenReturn((OpenTelemetrySdk) testing.getOpenTelemetry());
+        // return copies, like the real thing
+        when(overhead.getThreadCpuTimeMillis()).thenAnswer(i -> new HashMap<>(cpuTimeMillis));
+        when(overhead.getMainThreadNanos()).thenAnswer(i -> new HashMap<>(mainThreadNanos));
+        doReturn(checks)
+                .when(executorService)
+                .scheduleAtFixedRate(any(), anyLong(), anyLong(), any());
+        doAnswer(
+                        invocation -> {
+                            invocation.<Runnable>getArgument(0).run();
+                            return null;
+                        })
+                .when(executorService)
+                .execute(any());
+        doAnswer(invocation -> listeners.add(invocation.getArgument(0)))
+                .when(instrumentedApplication)
+                .registerApplicationStateListener(any());
+
+        OverheadGovernorBuilder builder =
+                OverheadGovernor.builder()
+                        .setCpuTimeBudget(Duration.ofSeconds(1))
+                        .setMainThreadTimeBudget(Duration.ofMillis(100))
+                        .setCheckInterval(Duration.ofSeconds(30))
+                        .addInstrumentation(
+                                "anr",
+                                asList(SdkOverhead.ANR_WATCHDOG, SdkOverhead.ANR_DETECTOR),
+                                step("anr", "disable_stack_sampling"),
+                                step("anr", "uninstall"))
+                        .addInstrumentation(
+                                "slow_rendering",
+                                singletonList(SdkOverhead.FRAME_METRICS),
+                                step("slow_rendering", "uninstall"));
+        governor = new OverheadGovernor(builder, overhead, executorService, Runnable::run, clock);
+        governor.installOn(instrumentedApplication);
+    }
+
+    @Test
+    void checksPeriodicallyInTheForeground() {
+        verify(executorService)
+                .scheduleAtFixedRate(any(), eq(30_000L), eq(30_000L), eq(TimeUnit.MILLISECONDS));
+        verify(instrumentedApplication).registerApplicationStateListener(governor);
+
+        listeners.forEach(ApplicationStateListener::onApplicationBackgrounded);
+        verify(checks).cancel(false);
+
+        listeners.forEach(ApplicationStateListener::onApplicationForegrounded);
+        verify(executorService, times(2))
+                .scheduleAtFixedRate(any(), eq(30_000L), eq(30_000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void nothingHappensWithinBudget() {
+        cpuTimeMillis.put(SdkOverhead.FRAME_METRICS, 400L);
+        mainThreadNanos.put(SdkOverhead.ANR_DETECTOR, TimeUnit.MILLISECONDS.toNanos(40));
+        clock.advance(Duration.ofSeconds(30));
+
+        governor.check();
+
+        assertThat(appliedSteps).isEmpty();
+        assertThat(testing.getSpans()).isEmpty();
+    }
+
+    @Test
+    void degradesTheCostliestInstrumentationOneStepAtATime() {
+        cpuTimeMillis.put(SdkOverhead.ANR_WATCHDOG, 100L);
+        cpuTimeMillis.put(SdkOverhead.FRAME_METRICS, 500L);
+        clock.advance(Duration.ofSeconds(30));
+        governor.check();
+
+        assertThat(appliedSteps).containsExactly("slow_rendering:uninstall");
+        assertThat(testing.getSpans())
+                .singleElement()
+                .satisfies(
+                        span ->
+                                assertThat(span)
+                                        .hasName(OverheadGovernor.SPAN_NAME)
+                                        .hasAttribute(
+                                                OverheadGovernor.INSTRUMENTATION_KEY,
+                                                "slow_rendering")
+                                        .hasAttribute(OverheadGovernor.STEP_KEY, "uninstall")
+                                        .hasAttribute(OverheadGovernor.LEVEL_KEY, 1L)
+                                        .hasAttribute(OverheadGovernor.CPU_TIME_KEY, 1200.0)
+                                        .hasAttribute(OverheadGovernor.MAIN_THREAD_TIME_KEY, 0.0));
+
+        // slow rendering has no steps left
+        cpuTimeMillis.put(SdkOverhead.ANR_WATCHDOG, 200L);
+        cpuTimeMillis.put(SdkOverhead.FRAME_METRICS, 1_000L);
+        clock.advance(Duration.ofSeconds(30));
+        governor.check();
+        cpuTimeMillis.put(SdkOverhead.ANR_WATCHDOG, 800L);
+        clock.advance(Duration.ofSeconds(30));
+        governor.check();
+        clock.advance(Duration.ofSeconds(30));
+        cpuTimeMillis.put(SdkOverhead.ANR_WATCHDOG, 1400L);
+        governor.check();
+
+        assertThat(appliedSteps)
+                .containsExactly(
+                        "slow_rendering:uninstall", "anr:disable_stack_sampling", "anr:uninstall");
+        assertThat(testing.getSpans()).hasSize(3);
+    }
+
+    @Test
+    void mainThreadBudget() {
+        cpuTimeMillis.put(SdkOverhead.FRAME_METRICS, 100L);
+        mainThreadNanos.put(SdkOverhead.ANR_DETECTOR, TimeUnit.MILLISECONDS.toNanos(60));
+        clock.advance(Duration.ofSeconds(30));
+
+        governor.check();
+
+        assertThat(appliedSteps).containsExactly("anr:disable_stack_sampling");
+        assertThat(testing.getSpans())
+                .singleElement()
+                .satisfies(
+                        span ->
+                                assertThat(span)
+                                        .hasAttribute(
+                                                OverheadGovernor.MAIN_THREAD_TIME_KEY, 120.0));
+    }
+
+    @Test
+    void overheadThatCantBeAttributedDoesNotDegradeAnything() {
+        cpuTimeMillis.put("span_processor", 2_000L);
+        clock.advance(Duration.ofSeconds(30));
+
+        governor.check();
+
+        assertThat(appliedSteps).isEmpty();
+        assertThat(testing.getSpans()).isEmpty();
+    }
+
+    @Test
+    void timeInTheBackgroundIsNotCounted() {
+        listeners.forEach(ApplicationStateListener::onApplicationBackgrounded);
+        cpuTimeMillis.put(SdkOverhead.FRAME_METRICS, 5_000L);
+        clock.advance(Duration.ofMinutes(10));
+
+        listeners.forEach(ApplicationStateListener::onApplicationForegrounded);
+        clock.advance(Duration.ofSeconds(30));
+        governor.check();
+
+        assertThat(appliedSteps).isEmpty();
+    }
+
+    private DegradationStep step(String instrumentation, String name) {
+        return DegradationStep.create(name, () -> appliedSteps.add(instrumentation + ":" + name));
+    }
+}
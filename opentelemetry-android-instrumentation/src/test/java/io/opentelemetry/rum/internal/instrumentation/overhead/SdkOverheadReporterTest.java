@@ -0,0 +1,116 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.overhead;
+
+import static io.opentelemetry.api.common.AttributeKey.doubleKey;
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.rum.internal.SdkOverhead;
+import io.opentelemetry.sdk.testing.junit5.OpenTelemetryExtension;
+import io.opentelemetry.sdk.testing.time.TestClock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SdkOverheadReporterTest {
+
+    @RegisterExtension final OpenTelemetryExtension testing = OpenTelemetryExtension.create();
+
+    @Mock private SdkOverhead overhead;
+    private final TestClock clock = TestClock.create(Instant.ofEpochSecond(1_000));
+    private SdkOverheadReporter reporter;
+
+    @BeforeEach
+    void setUp() {
+        reporter =
+                new SdkOverheadReporter(
+                        testing.getOpenTelemetry().getTracer("test"), overhead, clock);
+    }
+
+    @Test
+    void reportsOverheadWhenBackgrounded() {
+        Map<String, Long> cpuTimes = new HashMap<>();
+        cpuTimes.put("span_processor", 120L);
+        cpuTimes.put("disk_exporter", 30L);
+        when(overhead.getThreadCpuTimeMillis()).thenReturn(cpuTimes);
+        when(overhead.getMainThreadNanos())
+                .thenReturn(singletonMap(SdkOverhead.ACTIVITY_LIFECYCLE, 2_500_000L));
+        clock.advance(Duration.ofMinutes(1));
+
+        reporter.onApplicationBackgrounded();
+
+        assertThat(testing.getSpans())
+                .singleElement()
+                .satisfies(
+                        span ->
+                                assertThat(span)
+                                        .hasName(SdkOverheadReporter.SPAN_NAME)
+                                        .startsAt(Instant.ofEpochSecond(1_000))
+                                        .endsAt(Instant.ofEpochSecond(1_060))
+                                        .hasAttribute(longKey("sdk.cpu_time.span_processor"), 120L)
+                                        .hasAttribute(longKey("sdk.cpu_time.disk_exporter"), 30L)
+                                        .hasAttribute(
+                                                doubleKey(
+                                                        "sdk.main_thread_time.activity_lifecycle"),
+                                                2.5));
+    }
+
+    @Test
+    void nextReportStartsWhereThePreviousEnded() {
+        when(overhead.getThreadCpuTimeMillis())
+                .thenReturn(singletonMap("span_processor", 1L), singletonMap("span_processor", 3L));
+        when(overhead.getMainThreadNanos()).thenReturn(emptyMap());
+        clock.advance(Duration.ofMinutes(1));
+        reporter.onApplicationBackgrounded();
+        clock.advance(Duration.ofMinutes(2));
+        reporter.onApplicationBackgrounded();
+
+        assertThat(testing.getSpans())
+                .satisfiesExactly(
+                        span ->
+                                assertThat(span)
+                                        .endsAt(Instant.ofEpochSecond(1_060))
+                                        .hasAttribute(longKey("sdk.cpu_time.span_processor"), 1L),
+                        span ->
+                                assertThat(span)
+                                        .startsAt(Instant.ofEpochSecond(1_060))
+                                        .endsAt(Instant.ofEpochSecond(1_180))
+                                        .hasAttribute(longKey("sdk.cpu_time.span_processor"), 2L));
+    }
+
+    @Test
+    void nothingToReport() {
+        when(overhead.getThreadCpuTimeMillis()).thenReturn(emptyMap());
+        when(overhead.getMainThreadNanos()).thenReturn(emptyMap());
+
+        reporter.onApplicationBackgrounded();
+
+        assertThat(testing.getSpans()).isEmpty();
+    }
+}
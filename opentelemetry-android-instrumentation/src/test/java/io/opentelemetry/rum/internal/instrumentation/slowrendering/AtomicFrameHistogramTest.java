@@ -0,0 +1,88 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.slowrendering;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AtomicFrameHistogramTest {
+
+    @Test
+    void countsSlowAndFrozenFrames() {
+        AtomicFrameHistogram histogram = new AtomicFrameHistogram(false);
+        histogram.record(millis(10), false);
+        histogram.record(millis(17), true);
+        histogram.record(millis(101), true);
+        histogram.record(millis(700), true);
+        histogram.record(millis(700) + 1, true);
+        histogram.record(millis(12_000), true);
+
+        histogram.swap();
+
+        assertThat(histogram.takeSlowCount()).isEqualTo(3);
+        assertThat(histogram.takeFrozenCount()).isEqualTo(2);
+        assertThat(buckets(histogram)).isEmpty();
+    }
+
+    @Test
+    void drainsOnlyTheSwappedOutBuffer() {
+        AtomicFrameHistogram histogram = new AtomicFrameHistogram(false);
+        histogram.record(millis(20), true);
+
+        histogram.swap();
+        histogram.record(millis(30), true);
+        histogram.record(millis(800), true);
+
+        assertThat(histogram.takeSlowCount()).isEqualTo(1);
+        assertThat(histogram.takeFrozenCount()).isZero();
+        // already drained
+        assertThat(histogram.takeSlowCount()).isZero();
+
+        histogram.swap();
+
+        assertThat(histogram.takeSlowCount()).isEqualTo(1);
+        assertThat(histogram.takeFrozenCount()).isEqualTo(1);
+    }
+
+    @Test
+    void tracksFrameDurations() {
+        AtomicFrameHistogram histogram = new AtomicFrameHistogram(true);
+        histogram.record(millis(8), false);
+        histogram.record(millis(8), false);
+        histogram.record(millis(16) + 1, true);
+        histogram.record(millis(12_000), true);
+
+        histogram.swap();
+
+        assertThat(buckets(histogram)).containsExactly("8:2", "18:1", "-1:1");
+        assertThat(buckets(histogram)).isEmpty();
+    }
+
+    private static List<String> buckets(AtomicFrameHistogram histogram) {
+        List<String> buckets = new ArrayList<>();
+        histogram.takeBuckets((upperBound, count) -> buckets.add(upperBound + ":" + count));
+        return buckets;
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
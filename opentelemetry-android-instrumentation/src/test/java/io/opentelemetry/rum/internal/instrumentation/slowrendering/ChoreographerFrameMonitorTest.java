@@ -0,0 +1,169 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.slowrendering;
+
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.app.Activity;
+import android.content.ComponentName;
+import android.view.Choreographer;
+import io.opentelemetry.sdk.testing.junit5.OpenTelemetryExtension;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ChoreographerFrameMonitorTest {
+
+    private static final long FRAME = FrameDeadlines.frameBudgetNanos(60f);
+
+    @RegisterExtension
+    static final OpenTelemetryExtension testing = OpenTelemetryExtension.create();
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    Activity activity;
+
+    @Mock Choreographer choreographer;
+
+    private ChoreographerFrameMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor =
+                new ChoreographerFrameMonitor(
+                        testing.getOpenTelemetry().getTracer("test"),
+                        null,
+                        mock(ScheduledExecutorService.class),
+                        () -> choreographer,
+                        Duration.ofSeconds(1));
+    }
+
+    @Test
+    void reportsSkippedFrames() {
+        resumeActivity();
+
+        long frameTime = TimeUnit.SECONDS.toNanos(10);
+        drawFrame(frameTime);
+        drawFrame(frameTime += FRAME);
+        drawFrame(frameTime += FRAME + 1_000); // jitter
+        drawFrame(frameTime += 3 * FRAME); // slow
+        drawFrame(frameTime += 2 * FRAME); // slow
+        drawFrame(frameTime += TimeUnit.MILLISECONDS.toNanos(800)); // frozen
+
+        monitor.onActivityPaused(activity);
+
+        assertThat(testing.getSpans())
+                .satisfiesExactly(
+                        span ->
+                                assertThat(span)
+                                        .hasName(SlowRenderListener.SLOW_RENDERS_SPAN_NAME)
+                                        .hasAttribute(SlowRenderListener.COUNT_KEY, 2L)
+                                        .hasAttribute(
+                                                SlowRenderListener.ACTIVITY_NAME_KEY,
+                                                "io.otel/Komponent"),
+                        span ->
+                                assertThat(span)
+                                        .hasName(SlowRenderListener.FROZEN_RENDERS_SPAN_NAME)
+                                        .hasAttribute(SlowRenderListener.COUNT_KEY, 1L));
+    }
+
+    @Test
+    void stopsTimingFramesWhenNothingIsDrawn() {
+        resumeActivity();
+
+        long frameTime = TimeUnit.SECONDS.toNanos(10);
+        drawFrame(frameTime);
+        // nothing has been drawn since the previous frame
+        monitor.doFrame(frameTime += FRAME);
+        verify(choreographer, times(2)).postFrameCallback(monitor);
+
+        // the idle time is not a frame interval
+        drawFrame(frameTime += TimeUnit.SECONDS.toNanos(5));
+        verify(choreographer, times(4)).postFrameCallback(monitor);
+
+        monitor.onActivityPaused(activity);
+
+        assertThat(testing.getSpans()).isEmpty();
+    }
+
+    @Test
+    void removesFrameCallbackWhenPaused() {
+        resumeActivity();
+        monitor.onPreDraw();
+
+        monitor.onActivityPaused(activity);
+        monitor.onPreDraw();
+
+        verify(choreographer).postFrameCallback(monitor);
+        verify(choreographer).removeFrameCallback(monitor);
+    }
+
+    @Test
+    void doesNothingBeforeResume() {
+        monitor.onPreDraw();
+        monitor.onActivityPaused(activity);
+
+        verify(choreographer, never()).postFrameCallback(monitor);
+        assertThat(testing.getSpans()).isEmpty();
+    }
+
+    @Test
+    void stopReportsAndStopsTimingFrames() {
+        resumeActivity();
+        long frameTime = TimeUnit.SECONDS.toNanos(10);
+        drawFrame(frameTime);
+        drawFrame(frameTime += 3 * FRAME); // slow
+
+        monitor.stop();
+        monitor.onActivityResumed(activity);
+        monitor.onPreDraw();
+
+        verify(choreographer).removeFrameCallback(monitor);
+        verify(choreographer, times(3)).postFrameCallback(monitor);
+        assertThat(testing.getSpans())
+                .singleElement()
+                .satisfies(
+                        span ->
+                                assertThat(span)
+                                        .hasName(SlowRenderListener.SLOW_RENDERS_SPAN_NAME)
+                                        .hasAttribute(SlowRenderListener.COUNT_KEY, 1L));
+    }
+
+    private void resumeActivity() {
+        ComponentName componentName = mock(ComponentName.class);
+        when(componentName.flattenToShortString()).thenReturn("io.otel/Komponent");
+        when(activity.getComponentName()).thenReturn(componentName);
+        monitor.onActivityResumed(activity);
+    }
+
+    private void drawFrame(long frameTimeNanos) {
+        monitor.onPreDraw();
+        monitor.doFrame(frameTimeNanos);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.slowrendering;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class FrameDeadlinesTest {
+
+    @Test
+    void frameBudgetFollowsRefreshRate() {
+        assertThat(FrameDeadlines.frameBudgetNanos(60f)).isEqualTo(16_666_666L);
+        assertThat(FrameDeadlines.frameBudgetNanos(90f)).isEqualTo(11_111_111L);
+        assertThat(FrameDeadlines.frameBudgetNanos(120f)).isEqualTo(8_333_333L);
+    }
+
+    @Test
+    void unknownRefreshRateFallsBackToDefault() {
+        long defaultBudget = FrameDeadlines.frameBudgetNanos(FrameDeadlines.DEFAULT_REFRESH_RATE);
+
+        assertThat(FrameDeadlines.frameBudgetNanos(0f)).isEqualTo(defaultBudget);
+        assertThat(FrameDeadlines.frameBudgetNanos(-1f)).isEqualTo(defaultBudget);
+        assertThat(FrameDeadlines.frameBudgetNanos(Float.NaN)).isEqualTo(defaultBudget);
+    }
+
+    @Test
+    void slowFramesMissTheFrameBudget() {
+        long budget = FrameDeadlines.frameBudgetNanos(120f);
+
+        assertThat(FrameDeadlines.isSlow(millis(8), -1, budget)).isFalse();
+        assertThat(FrameDeadlines.isSlow(millis(9), -1, budget)).isTrue();
+        // would not be slow at 60Hz
+        assertThat(FrameDeadlines.isSlow(millis(12), -1, budget)).isTrue();
+    }
+
+    @Test
+    void platformDeadlineTakesPrecedence() {
+        long budget = FrameDeadlines.frameBudgetNanos(60f);
+
+        assertThat(FrameDeadlines.isSlow(millis(12), millis(11), budget)).isTrue();
+        assertThat(FrameDeadlines.isSlow(millis(20), millis(33), budget)).isFalse();
+        assertThat(FrameDeadlines.isSlow(millis(20), 0, budget)).isTrue();
+    }
+
+    @Test
+    void skippedFramesTolerateVsyncJitter() {
+        long budget = FrameDeadlines.frameBudgetNanos(60f);
+
+        assertThat(FrameDeadlines.skippedFrames(budget - 100_000, budget)).isZero();
+        assertThat(FrameDeadlines.skippedFrames(budget + 100_000, budget)).isZero();
+        assertThat(FrameDeadlines.skippedFrames(millis(24), budget)).isZero();
+        assertThat(FrameDeadlines.skippedFrames(millis(25), budget)).isEqualTo(1);
+        assertThat(FrameDeadlines.skippedFrames(3 * budget, budget)).isEqualTo(2);
+        assertThat(FrameDeadlines.skippedFrames(0, budget)).isZero();
+    }
+
+    @Test
+    void frozenFrames() {
+        assertThat(FrameDeadlines.isFrozen(millis(700))).isFalse();
+        assertThat(FrameDeadlines.isFrozen(millis(700) + 1)).isTrue();
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
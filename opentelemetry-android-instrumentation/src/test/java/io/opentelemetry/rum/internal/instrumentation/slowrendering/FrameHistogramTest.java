@@ -0,0 +1,86 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.slowrendering;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class FrameHistogramTest {
+
+    @Test
+    void emptyHistogram() {
+        FrameHistogram histogram = new FrameHistogram();
+
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.percentileMillis(0.5)).isZero();
+    }
+
+    @Test
+    void bucketIndex() {
+        assertThat(FrameHistogram.bucketIndex(0)).isEqualTo(0);
+        assertThat(FrameHistogram.bucketIndex(1)).isEqualTo(0);
+        assertThat(FrameHistogram.bucketIndex(2)).isEqualTo(1);
+        assertThat(FrameHistogram.bucketIndex(15)).isEqualTo(14);
+        assertThat(FrameHistogram.bucketIndex(16)).isEqualTo(14);
+        assertThat(FrameHistogram.bucketIndex(5000))
+                .isEqualTo(FrameHistogram.BUCKET_BOUNDS_MS.length - 1);
+        assertThat(FrameHistogram.bucketIndex(5001))
+                .isEqualTo(FrameHistogram.BUCKET_BOUNDS_MS.length);
+    }
+
+    @Test
+    void percentiles() {
+        FrameHistogram histogram = new FrameHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(millis(8));
+        }
+        for (int i = 0; i < 9; i++) {
+            histogram.record(millis(30));
+        }
+        histogram.record(millis(800));
+
+        assertThat(histogram.getCount()).isEqualTo(100);
+        assertThat(histogram.percentileMillis(0.5)).isEqualTo(8);
+        assertThat(histogram.percentileMillis(0.9)).isEqualTo(8);
+        assertThat(histogram.percentileMillis(0.99)).isEqualTo(33);
+        assertThat(histogram.percentileMillis(1.0)).isEqualTo(800);
+    }
+
+    @Test
+    void roundsUpToWholeMillis() {
+        FrameHistogram histogram = new FrameHistogram();
+
+        histogram.record(millis(16) + 1);
+
+        assertThat(histogram.percentileMillis(0.5)).isEqualTo(17);
+    }
+
+    @Test
+    void overflowBucketReportsMax() {
+        FrameHistogram histogram = new FrameHistogram();
+
+        histogram.record(millis(12_000));
+
+        assertThat(histogram.percentileMillis(0.99)).isEqualTo(12_000);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
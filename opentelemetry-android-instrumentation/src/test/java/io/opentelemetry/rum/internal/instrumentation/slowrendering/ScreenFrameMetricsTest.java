@@ -0,0 +1,70 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.slowrendering;
+
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+
+import io.opentelemetry.api.common.Attributes;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ScreenFrameMetricsTest {
+
+    @Test
+    void aggregatesPhasesAndJank() {
+        ScreenFrameMetrics metrics = new ScreenFrameMetrics("HomeFragment");
+
+        metrics.record(frame(10, 3), false);
+        metrics.record(frame(12, 4), false);
+        metrics.record(frame(40, 20), true);
+        metrics.record(frame(8, 2), false);
+
+        assertThat(metrics.getFrameCount()).isEqualTo(4);
+        Attributes attributes = metrics.toAttributes();
+        assertThat(attributes)
+                .containsEntry(ScreenFrameMetrics.SCREEN_NAME_KEY, "HomeFragment")
+                .containsEntry(ScreenFrameMetrics.FRAME_COUNT_KEY, 4L)
+                .containsEntry(ScreenFrameMetrics.JANKY_FRAME_COUNT_KEY, 1L)
+                .containsEntry(ScreenFrameMetrics.JANK_RATIO_KEY, 0.25)
+                .containsEntry(FramePhase.TOTAL.p50Key, 10L)
+                .containsEntry(FramePhase.TOTAL.p90Key, 40L)
+                .containsEntry(FramePhase.DRAW.p50Key, 3L)
+                .containsEntry(FramePhase.DRAW.p99Key, 20L);
+    }
+
+    @Test
+    void skipsUnsupportedPhases() {
+        ScreenFrameMetrics metrics = new ScreenFrameMetrics("HomeFragment");
+
+        metrics.record(frame(10, 3), false);
+
+        Attributes attributes = metrics.toAttributes();
+        assertThat(attributes.get(FramePhase.GPU.p50Key)).isNull();
+        assertThat(attributes.get(FramePhase.INPUT.p50Key)).isEqualTo(0L);
+    }
+
+    // total and draw durations in millis; the GPU duration is unsupported, the rest are 0
+    private static long[] frame(long totalMillis, long drawMillis) {
+        long[] durations = new long[FramePhase.values().length];
+        Arrays.fill(durations, 0);
+        durations[FramePhase.TOTAL.ordinal()] = TimeUnit.MILLISECONDS.toNanos(totalMillis);
+        durations[FramePhase.DRAW.ordinal()] = TimeUnit.MILLISECONDS.toNanos(drawMillis);
+        durations[FramePhase.GPU.ordinal()] = -1;
+        return durations;
+    }
+}
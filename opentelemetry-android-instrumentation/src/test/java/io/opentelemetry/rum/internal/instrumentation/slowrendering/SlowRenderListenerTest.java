@@ -18,11 +18,13 @@ package io.opentelemetry.rum.internal.instrumentation.slowrendering;
 
 import static android.view.FrameMetrics.DRAW_DURATION;
 import static android.view.FrameMetrics.FIRST_DRAW_FRAME;
+import static android.view.FrameMetrics.TOTAL_DURATION;
 import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -42,6 +44,7 @@ import io.opentelemetry.sdk.trace.data.SpanData;
 import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -128,6 +131,13 @@ public class SlowRenderListenerTest {
 
     @Test
     public void removeWithMetrics() {
+        when(frameMetricsHandler.post(any()))
+                .thenAnswer(
+                        invocation -> {
+                            Runnable runnable = invocation.getArgument(0);
+                            runnable.run(); // just call it immediately
+                            return true;
+                        });
         SlowRenderListener testInstance =
                 new SlowRenderListener(tracer, null, frameMetricsHandler, Duration.ZERO);
 
@@ -137,14 +147,74 @@ public class SlowRenderListenerTest {
                 .addOnFrameMetricsAvailableListener(activityListenerCaptor.capture(), any());
         SlowRenderListener.PerActivityListener listener = activityListenerCaptor.getValue();
         for (long duration : makeSomeDurations()) {
-            when(frameMetrics.getMetric(DRAW_DURATION)).thenReturn(duration);
+            when(frameMetrics.getMetric(TOTAL_DURATION)).thenReturn(duration);
             listener.onFrameMetricsAvailable(null, frameMetrics, 0);
         }
 
         testInstance.onActivityPaused(activity);
 
         List<SpanData> spans = otelTesting.getSpans();
-        assertSpanContent(spans);
+        assertThat(spans).hasSize(3);
+        assertSpanContent(spans.subList(0, 2));
+        assertThat(spans.get(2))
+                .hasName(SlowRenderListener.FRAME_METRICS_SPAN_NAME)
+                .hasAttribute(ScreenFrameMetrics.FRAME_COUNT_KEY, 8L)
+                .hasAttribute(ScreenFrameMetrics.JANKY_FRAME_COUNT_KEY, 4L)
+                .hasAttribute(ScreenFrameMetrics.JANK_RATIO_KEY, 0.5)
+                .hasAttribute(FramePhase.TOTAL.p50Key, 16L)
+                .hasAttribute(FramePhase.TOTAL.p99Key, 701L)
+                .hasAttribute(AttributeKey.stringKey("activity.name"), "io.otel/Komponent");
+    }
+
+    @Test
+    public void framePhasesAreNotTrackedWhenDisabled() {
+        when(frameMetricsHandler.post(any()))
+                .thenAnswer(
+                        invocation -> {
+                            Runnable runnable = invocation.getArgument(0);
+                            runnable.run(); // just call it immediately
+                            return true;
+                        });
+        SlowRenderListener testInstance =
+                new SlowRenderListener(tracer, null, frameMetricsHandler, Duration.ZERO);
+        testInstance.disableFramePhaseTracking();
+
+        testInstance.onActivityResumed(activity);
+
+        verify(activity.getWindow())
+                .addOnFrameMetricsAvailableListener(activityListenerCaptor.capture(), any());
+        SlowRenderListener.PerActivityListener listener = activityListenerCaptor.getValue();
+        for (long duration : makeSomeDurations()) {
+            when(frameMetrics.getMetric(TOTAL_DURATION)).thenReturn(duration);
+            listener.onFrameMetricsAvailable(null, frameMetrics, 0);
+        }
+
+        testInstance.onActivityPaused(activity);
+
+        assertSpanContent(otelTesting.getSpans());
+        verify(frameMetrics, never()).getMetric(DRAW_DURATION);
+    }
+
+    @Test
+    public void stop() {
+        ScheduledExecutorService exec = mock(ScheduledExecutorService.class);
+        ScheduledFuture<?> reports = mock(ScheduledFuture.class);
+        doReturn(reports).when(exec).scheduleAtFixedRate(any(), eq(0L), eq(0L), any());
+        SlowRenderListener testInstance =
+                new SlowRenderListener(tracer, exec, frameMetricsHandler, Duration.ZERO);
+
+        testInstance.start();
+        testInstance.onActivityResumed(activity);
+        testInstance.stop();
+        testInstance.onActivityResumed(activity);
+
+        verify(activity.getWindow())
+                .addOnFrameMetricsAvailableListener(activityListenerCaptor.capture(), any());
+        verify(activity.getWindow())
+                .removeOnFrameMetricsAvailableListener(activityListenerCaptor.getValue());
+        // the scheduler is shared, only the reports of this instrumentation are cancelled
+        verify(reports).cancel(false);
+        verify(exec, never()).shutdown();
     }
 
     @Test
@@ -169,7 +239,7 @@ public class SlowRenderListenerTest {
                 .addOnFrameMetricsAvailableListener(activityListenerCaptor.capture(), any());
         SlowRenderListener.PerActivityListener listener = activityListenerCaptor.getValue();
         for (long duration : makeSomeDurations()) {
-            when(frameMetrics.getMetric(DRAW_DURATION)).thenReturn(duration);
+            when(frameMetrics.getMetric(TOTAL_DURATION)).thenReturn(duration);
             listener.onFrameMetricsAvailable(null, frameMetrics, 0);
         }
 
@@ -182,10 +252,11 @@ public class SlowRenderListenerTest {
     @Test
     public void activityListenerSkipsFirstFrame() {
         SlowRenderListener.PerActivityListener listener =
-                new SlowRenderListener.PerActivityListener(null);
+                new SlowRenderListener.PerActivityListener(null, () -> "screen", false);
         when(frameMetrics.getMetric(FIRST_DRAW_FRAME)).thenReturn(1L);
         listener.onFrameMetricsAvailable(null, frameMetrics, 99);
         verify(frameMetrics, never()).getMetric(DRAW_DURATION);
+        verify(frameMetrics, never()).getMetric(TOTAL_DURATION);
     }
 
     private static void assertSpanContent(List<SpanData> spans) {
@@ -0,0 +1,115 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.instrumentation.slowrendering;
+
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SlowRenderMetricsTest {
+
+    private static final Attributes ATTRIBUTES =
+            Attributes.of(SlowRenderListener.ACTIVITY_NAME_KEY, "io.otel/Komponent");
+
+    private InMemoryMetricReader metricReader;
+    private SlowRenderMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metricReader = InMemoryMetricReader.createDelta();
+        SdkMeterProvider meterProvider =
+                SlowRenderMetrics.registerViews(SdkMeterProvider.builder())
+                        .registerMetricReader(metricReader)
+                        .build();
+        metrics = new SlowRenderMetrics(meterProvider.get("test"));
+    }
+
+    @Test
+    void recordsCountsAndDurations() {
+        AtomicFrameHistogram histogram = new AtomicFrameHistogram(true);
+        histogram.record(millis(8), false);
+        histogram.record(millis(8), false);
+        histogram.record(millis(30), true);
+        histogram.record(millis(800), true);
+        histogram.swap();
+
+        metrics.record(
+                histogram, histogram.takeSlowCount(), histogram.takeFrozenCount(), ATTRIBUTES);
+
+        assertThat(metricReader.collectAllMetrics())
+                .satisfiesExactlyInAnyOrder(
+                        metric ->
+                                assertThat(metric)
+                                        .hasName(SlowRenderMetrics.SLOW_FRAMES_METRIC_NAME)
+                                        .hasLongSumSatisfying(
+                                                sum ->
+                                                        sum.hasPointsSatisfying(
+                                                                point ->
+                                                                        point.hasValue(1)
+                                                                                .hasAttributes(
+                                                                                        ATTRIBUTES))),
+                        metric ->
+                                assertThat(metric)
+                                        .hasName(SlowRenderMetrics.FROZEN_FRAMES_METRIC_NAME)
+                                        .hasLongSumSatisfying(
+                                                sum ->
+                                                        sum.hasPointsSatisfying(
+                                                                point -> point.hasValue(1))),
+                        metric ->
+                                assertThat(metric)
+                                        .hasName(SlowRenderMetrics.FRAME_DURATION_METRIC_NAME)
+                                        .hasHistogramSatisfying(
+                                                histogramData ->
+                                                        histogramData.hasPointsSatisfying(
+                                                                point ->
+                                                                        point.hasCount(4)
+                                                                                .hasSum(
+                                                                                        8 + 8 + 33
+                                                                                                + 1000)
+                                                                                .hasBucketBoundaries(
+                                                                                        boundaries())
+                                                                                .hasAttributes(
+                                                                                        ATTRIBUTES))));
+    }
+
+    @Test
+    void nothingIsRecordedWithoutFrames() {
+        AtomicFrameHistogram histogram = new AtomicFrameHistogram(true);
+        histogram.swap();
+
+        metrics.record(histogram, 0, 0, ATTRIBUTES);
+
+        assertThat(metricReader.collectAllMetrics()).isEmpty();
+    }
+
+    private static double[] boundaries() {
+        double[] boundaries = new double[FrameHistogram.BUCKET_BOUNDS_MS.length];
+        for (int i = 0; i < boundaries.length; i++) {
+            boundaries[i] = FrameHistogram.BUCKET_BOUNDS_MS[i];
+        }
+        return boundaries;
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
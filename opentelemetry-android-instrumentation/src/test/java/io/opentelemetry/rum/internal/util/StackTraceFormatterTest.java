@@ -0,0 +1,171 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.rum.internal.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class StackTraceFormatterTest {
+
+    @Test
+    void formatsThreadStackTrace() {
+        StackTraceFormatter underTest = new StackTraceFormatter();
+
+        String formatted =
+                underTest.format(
+                        new StackTraceElement[] {
+                            frame("a.b.Class", "foo"), frame("a.b.AnotherClass", "bar")
+                        });
+
+        assertThat(formatted)
+                .isEqualTo("a.b.Class.foo(Class.java:1)\na.b.AnotherClass.bar(Class.java:1)\n");
+    }
+
+    @Test
+    void collapsesFrameworkFrames() {
+        StackTraceFormatter underTest = new StackTraceFormatter();
+
+        String formatted =
+                underTest.format(
+                        new StackTraceElement[] {
+                            frame("com.example.App", "onClick"),
+                            frame("android.view.View", "performClick"),
+                            frame("android.os.Handler", "dispatchMessage"),
+                            frame("android.os.Looper", "loop"),
+                            frame("android.app.ActivityThread", "main"),
+                            frame("java.lang.reflect.Method", "invoke"),
+                            frame("com.android.internal.os.ZygoteInit", "main")
+                        });
+
+        assertThat(formatted)
+                .isEqualTo(
+                        "com.example.App.onClick(Class.java:1)\n"
+                                + "android.view.View.performClick(Class.java:1)\n"
+                                + "... 4 framework frames\n"
+                                + "com.android.internal.os.ZygoteInit.main(Class.java:1)\n");
+    }
+
+    @Test
+    void keepsShortRunsOfFrameworkFrames() {
+        StackTraceFormatter underTest = new StackTraceFormatter();
+        StackTraceElement[] stackTrace = {
+            frame("android.os.Handler", "dispatchMessage"),
+            frame("com.example.App", "handleMessage"),
+            frame("android.os.Looper", "loop")
+        };
+
+        assertThat(underTest.format(stackTrace).split("\n")).hasSize(3);
+    }
+
+    @Test
+    void limitsFrames() {
+        StackTraceFormatter underTest = new StackTraceFormatter(2);
+
+        String formatted =
+                underTest.format(
+                        new StackTraceElement[] {
+                            frame("com.example.A", "a"),
+                            frame("com.example.B", "b"),
+                            frame("com.example.C", "c"),
+                            frame("com.example.D", "d")
+                        });
+
+        assertThat(formatted)
+                .isEqualTo(
+                        "com.example.A.a(Class.java:1)\n"
+                                + "com.example.B.b(Class.java:1)\n"
+                                + "... 2 more\n");
+    }
+
+    @Test
+    void formatsThrowableWithCauses() {
+        StackTraceFormatter underTest = new StackTraceFormatter();
+        StackTraceElement common = frame("com.example.Main", "main");
+        IllegalStateException cause = new IllegalStateException("inner");
+        cause.setStackTrace(new StackTraceElement[] {frame("com.example.Db", "query"), common});
+        RuntimeException throwable = new RuntimeException("outer", cause);
+        throwable.setStackTrace(
+                new StackTraceElement[] {frame("com.example.Repo", "load"), common});
+
+        assertThat(underTest.format(throwable))
+                .isEqualTo(
+                        "java.lang.RuntimeException: outer\n"
+                                + "\tat com.example.Repo.load(Class.java:1)\n"
+                                + "\tat com.example.Main.main(Class.java:1)\n"
+                                + "Caused by: java.lang.IllegalStateException: inner\n"
+                                + "\tat com.example.Db.query(Class.java:1)\n"
+                                + "\t... 1 more\n");
+    }
+
+    @Test
+    void formatsCyclicCausesOnce() {
+        StackTraceFormatter underTest = new StackTraceFormatter();
+        Exception first = new Exception("first");
+        Exception second = new Exception("second", first);
+        first.initCause(second);
+        first.setStackTrace(new StackTraceElement[0]);
+        second.setStackTrace(new StackTraceElement[0]);
+
+        assertThat(underTest.format(first))
+                .isEqualTo(
+                        "java.lang.Exception: first\n"
+                                + "Caused by: java.lang.Exception: second\n");
+    }
+
+    @Test
+    void cachesFrames() {
+        StackTraceFormatter underTest = new StackTraceFormatter();
+        StackTraceElement[] stackTrace = {frame("com.example.A", "a"), frame("com.example.B", "b")};
+
+        underTest.format(stackTrace);
+        underTest.format(stackTrace);
+
+        assertThat(underTest.getCachedFrameCount()).isEqualTo(2);
+    }
+
+    @Test
+    void fingerprintIgnoresMessages() {
+        StackTraceFormatter underTest = new StackTraceFormatter();
+        StackTraceElement[] stackTrace = {frame("com.example.A", "a")};
+        Exception first = new Exception("id=1");
+        first.setStackTrace(stackTrace);
+        Exception second = new Exception("id=2");
+        second.setStackTrace(stackTrace);
+        Exception other = new IllegalStateException("id=1");
+        other.setStackTrace(stackTrace);
+
+        assertThat(underTest.fingerprint(first))
+                .isEqualTo(underTest.fingerprint(second))
+                .isEqualTo(new StackTraceFormatter().fingerprint(first))
+                .isNotEqualTo(underTest.fingerprint(other));
+    }
+
+    @Test
+    void fingerprintDependsOnFrames() {
+        StackTraceFormatter underTest = new StackTraceFormatter();
+
+        assertThat(underTest.fingerprint(new StackTraceElement[] {frame("com.example.A", "a")}))
+                .isNotEqualTo(
+                        underTest.fingerprint(
+                                new StackTraceElement[] {frame("com.example.A", "b")}));
+    }
+
+    private static StackTraceElement frame(String className, String methodName) {
+        return new StackTraceElement(className, methodName, "Class.java", 1);
+    }
+}
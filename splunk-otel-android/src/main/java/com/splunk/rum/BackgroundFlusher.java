@@ -0,0 +1,89 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import android.util.Log;
+import androidx.annotation.Nullable;
+import io.opentelemetry.rum.internal.SdkOverhead;
+import io.opentelemetry.rum.internal.instrumentation.ApplicationStateListener;
+import io.opentelemetry.sdk.metrics.export.MetricReader;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flushes all the pending telemetry once, when the application is backgrounded, since the periodic
+ * exports are suspended there: the metrics recorded so far are turned into spans, the repeated
+ * errors are summarized, the spans queued in the span processor are exported, and then the spans
+ * buffered on disk are sent. All of it runs in order on the shared scheduler, never on the main
+ * thread.
+ */
+final class BackgroundFlusher implements ApplicationStateListener {
+
+    static final String OVERHEAD_COMPONENT = "background_flush";
+    private static final long FLUSH_TIMEOUT_SECONDS = 5;
+
+    private final Executor scheduler;
+    private final SdkTracerProvider tracerProvider;
+    @Nullable private final MetricReader metricReader;
+    @Nullable private final ErrorDeduplicatingExporter errorDeduplicatingExporter;
+    @Nullable private final DiskToZipkinExporter diskToZipkinExporter;
+
+    BackgroundFlusher(
+            Executor scheduler,
+            SdkTracerProvider tracerProvider,
+            @Nullable MetricReader metricReader,
+            @Nullable ErrorDeduplicatingExporter errorDeduplicatingExporter,
+            @Nullable DiskToZipkinExporter diskToZipkinExporter) {
+        this.scheduler = scheduler;
+        this.tracerProvider = tracerProvider;
+        this.metricReader = metricReader;
+        this.errorDeduplicatingExporter = errorDeduplicatingExporter;
+        this.diskToZipkinExporter = diskToZipkinExporter;
+    }
+
+    @Override
+    public void onApplicationForegrounded() {}
+
+    @Override
+    public void onApplicationBackgrounded() {
+        scheduler.execute(
+                SdkOverhead.getInstance().measureCpuTime(OVERHEAD_COMPONENT, this::flush));
+    }
+
+    // visible for testing
+    void flush() {
+        MetricReader metricReader = this.metricReader;
+        if (metricReader != null) {
+            metricReader.forceFlush().join(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+        ErrorDeduplicatingExporter errorDeduplicatingExporter = this.errorDeduplicatingExporter;
+        if (errorDeduplicatingExporter != null) {
+            errorDeduplicatingExporter.summarizeAll();
+        }
+        if (!tracerProvider
+                .forceFlush()
+                .join(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .isSuccess()) {
+            Log.d(SplunkRum.LOG_TAG, "Could not flush the spans before going to the background");
+        }
+        DiskToZipkinExporter diskToZipkinExporter = this.diskToZipkinExporter;
+        if (diskToZipkinExporter != null) {
+            diskToZipkinExporter.doExportCycle();
+        }
+    }
+}
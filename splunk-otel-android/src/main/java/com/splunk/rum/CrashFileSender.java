@@ -0,0 +1,177 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static com.splunk.rum.SplunkRum.LOG_TAG;
+
+import android.util.Log;
+import androidx.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import zipkin2.Call;
+import zipkin2.codec.Encoding;
+import zipkin2.reporter.Sender;
+
+/**
+ * Writes encoded spans into a small, preallocated crash file. When the app crashes, this is where
+ * the crash span and whatever spans were still queued up go, so that the crash handler never has to
+ * wait for the network. The content is picked up again on the next launch.
+ *
+ * <p>The file starts with the length of the content, followed by the spans, one per line. The file
+ * is kept open once it has been {@linkplain #preallocate() preallocated}, so that the crashing
+ * thread doesn't have to create it.
+ */
+class CrashFileSender extends Sender {
+
+    static final int DEFAULT_MAX_CONTENT_BYTES = 256 * 1024;
+    private static final int HEADER_BYTES = 4;
+
+    private final File file;
+    private final int maxContentBytes;
+    @Nullable private RandomAccessFile out;
+    private int contentLength = 0;
+
+    CrashFileSender(File file, int maxContentBytes) {
+        this.file = file;
+        this.maxContentBytes = maxContentBytes;
+    }
+
+    /** Creates the crash file, if needed, and keeps it open. */
+    synchronized void preallocate() {
+        try {
+            open();
+        } catch (IOException e) {
+            Log.w(LOG_TAG, "Error preallocating crash file " + file, e);
+        }
+    }
+
+    private RandomAccessFile open() throws IOException {
+        RandomAccessFile out = this.out;
+        if (out == null) {
+            out = new RandomAccessFile(file, "rw");
+            if (out.length() < HEADER_BYTES + maxContentBytes) {
+                out.setLength(HEADER_BYTES + maxContentBytes);
+            }
+            out.seek(0);
+            int length = out.readInt();
+            contentLength = length < 0 || length > maxContentBytes ? 0 : length;
+            this.out = out;
+        }
+        return out;
+    }
+
+    @Override
+    public Encoding encoding() {
+        return Encoding.JSON;
+    }
+
+    @Override
+    public int messageMaxBytes() {
+        return maxContentBytes;
+    }
+
+    @Override
+    public int messageSizeInBytes(List<byte[]> encodedSpans) {
+        return encodedSpans.stream().reduce(0, (acc, cur) -> acc + cur.length + 1, Integer::sum);
+    }
+
+    @Override
+    public synchronized Call<Void> sendSpans(List<byte[]> encodedSpans) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        int dropped = 0;
+        for (byte[] encodedSpan : encodedSpans) {
+            if (contentLength + content.size() + encodedSpan.length + 1 > maxContentBytes) {
+                dropped++;
+                continue;
+            }
+            content.write(encodedSpan, 0, encodedSpan.length);
+            content.write('\n');
+        }
+        if (dropped > 0) {
+            Log.w(LOG_TAG, "Crash file is full, dropping " + dropped + " spans");
+        }
+        if (content.size() == 0) {
+            return Call.create(null);
+        }
+        try {
+            RandomAccessFile out = open();
+            out.seek(HEADER_BYTES + contentLength);
+            out.write(content.toByteArray());
+            contentLength += content.size();
+            out.seek(0);
+            out.writeInt(contentLength);
+            out.getFD().sync();
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Error writing spans to crash file", e);
+        }
+        return Call.create(null);
+    }
+
+    /** Returns the spans that were written into the crash file, most likely by a previous run. */
+    synchronized List<byte[]> readSpans() {
+        try {
+            RandomAccessFile out = open();
+            if (contentLength == 0) {
+                return Collections.emptyList();
+            }
+            byte[] content = new byte[contentLength];
+            out.seek(HEADER_BYTES);
+            out.readFully(content);
+            List<byte[]> spans = new ArrayList<>();
+            int start = 0;
+            for (int i = 0; i < content.length; i++) {
+                if (content[i] == '\n') {
+                    if (i > start) {
+                        byte[] span = new byte[i - start];
+                        System.arraycopy(content, start, span, 0, span.length);
+                        spans.add(span);
+                    }
+                    start = i + 1;
+                }
+            }
+            return spans;
+        } catch (IOException e) {
+            Log.w(LOG_TAG, "Error reading crash file " + file, e);
+            return Collections.emptyList();
+        }
+    }
+
+    /** Marks the crash file as empty. */
+    synchronized void clear() {
+        try {
+            RandomAccessFile out = open();
+            contentLength = 0;
+            out.seek(0);
+            out.writeInt(0);
+        } catch (IOException e) {
+            Log.w(LOG_TAG, "Error clearing crash file " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static com.splunk.rum.SplunkRum.COMPONENT_CRASH;
+import static com.splunk.rum.SplunkRum.COMPONENT_KEY;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.Collections;
+
+/**
+ * Writes the crash span into the crash file synchronously, on the crashing thread, and then tells
+ * the {@link WriteAheadCrashExporter} to redirect the remaining spans to the crash file as well.
+ * Must be registered before the span processor that exports the spans.
+ */
+class CrashWriteAheadSpanProcessor implements SpanProcessor {
+
+    private final SpanExporter crashSpanExporter;
+    private final WriteAheadCrashExporter writeAheadCrashExporter;
+
+    CrashWriteAheadSpanProcessor(
+            SpanExporter crashSpanExporter, WriteAheadCrashExporter writeAheadCrashExporter) {
+        this.crashSpanExporter = crashSpanExporter;
+        this.writeAheadCrashExporter = writeAheadCrashExporter;
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {}
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        if (!COMPONENT_CRASH.equals(span.getAttribute(COMPONENT_KEY))) {
+            return;
+        }
+        writeAheadCrashExporter.onCrash();
+        crashSpanExporter.export(Collections.singletonList(span.toSpanData()));
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+}
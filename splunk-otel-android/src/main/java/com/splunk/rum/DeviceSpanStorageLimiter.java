@@ -29,19 +29,26 @@ import java.util.stream.Collectors;
 class DeviceSpanStorageLimiter {
     static final int DEFAULT_MAX_STORAGE_USE_MB = 25;
     private final File path;
+    @Nullable private final File pendingPath;
     private final int maxStorageUseMb;
     private final FileUtils fileUtils;
+    private final PipelineHealth pipelineHealth;
 
     private DeviceSpanStorageLimiter(Builder builder) {
         this.path = requireNonNull(builder.path);
+        this.pendingPath = builder.pendingPath;
         this.maxStorageUseMb = builder.maxStorageUseMb;
         this.fileUtils = builder.fileUtils;
+        this.pipelineHealth = builder.pipelineHealth;
     }
 
     /**
      * Ensures that the storage currently used by spans has not exceeded the limit. If it does, it
      * will delete older files until the limit is no longer exceeded.
      *
+     * <p>The pending spans of the session tail sampling, if any, share the same limit; they're
+     * dropped first, since they might never be sent anyway.
+     *
      * <p>This method also looks at the free space on the device and will return false if the
      * available free space is less than our max storage.
      *
@@ -56,19 +63,31 @@ class DeviceSpanStorageLimiter {
     }
 
     private void tryFreeingSpace() {
+        File pendingPath = this.pendingPath;
         long currentUsageInBytes = fileUtils.getTotalFileSizeInBytes(path);
+        if (pendingPath != null) {
+            currentUsageInBytes += fileUtils.getTotalFileSizeInBytes(pendingPath);
+        }
         if (underLimit(currentUsageInBytes)) {
             return; // nothing to do
         }
-        List<File> files =
-                fileUtils
-                        .listSpanFiles(path)
-                        .sorted(comparingLong(fileUtils::getModificationTime))
-                        .collect(Collectors.toList());
-        for (File file : files) {
+        if (pendingPath != null) {
+            for (File file : listOldestFirst(pendingPath)) {
+                Log.w(LOG_TAG, "Too much data buffered, dropping pending file " + file);
+                long fileSize = fileUtils.getFileSize(file);
+                fileUtils.safeDelete(file);
+                pipelineHealth.recordPendingSpanFileDroppedStorageLimit();
+                currentUsageInBytes -= fileSize;
+                if (underLimit(currentUsageInBytes)) {
+                    return;
+                }
+            }
+        }
+        for (File file : listOldestFirst(path)) {
             Log.w(LOG_TAG, "Too much data buffered, dropping file " + file);
             long fileSize = fileUtils.getFileSize(file);
             fileUtils.safeDelete(file);
+            pipelineHealth.recordSpanFileDroppedStorageLimit();
             currentUsageInBytes -= fileSize;
             if (underLimit(currentUsageInBytes)) {
                 return;
@@ -76,6 +95,13 @@ class DeviceSpanStorageLimiter {
         }
     }
 
+    private List<File> listOldestFirst(File path) {
+        return fileUtils
+                .listSpanFiles(path)
+                .sorted(comparingLong(fileUtils::getModificationTime))
+                .collect(Collectors.toList());
+    }
+
     private boolean underLimit(long currentUsageInBytes) {
         return currentUsageInBytes < limitInBytes();
     }
@@ -90,14 +116,22 @@ class DeviceSpanStorageLimiter {
 
     static class Builder {
         @Nullable private File path;
+        @Nullable private File pendingPath;
         private int maxStorageUseMb = DEFAULT_MAX_STORAGE_USE_MB;
         private FileUtils fileUtils = new FileUtils();
+        private PipelineHealth pipelineHealth = new PipelineHealth();
 
         Builder path(File path) {
             this.path = path;
             return this;
         }
 
+        /** The directory of the pending spans, which count towards the same limit. */
+        Builder pendingPath(File pendingPath) {
+            this.pendingPath = pendingPath;
+            return this;
+        }
+
         Builder maxStorageUseMb(int maxStorageUseMb) {
             this.maxStorageUseMb = maxStorageUseMb;
             return this;
@@ -108,6 +142,11 @@ class DeviceSpanStorageLimiter {
             return this;
         }
 
+        Builder pipelineHealth(PipelineHealth pipelineHealth) {
+            this.pipelineHealth = pipelineHealth;
+            return this;
+        }
+
         DeviceSpanStorageLimiter build() {
             return new DeviceSpanStorageLimiter(this);
         }
@@ -0,0 +1,125 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static com.splunk.rum.SplunkRum.LOG_TAG;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import android.util.Log;
+import androidx.annotation.Nullable;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the pending spans into a separate directory of the disk span store. Keeping the session
+ * moves the span files into the directory that is sent out by the {@link DiskToZipkinExporter}, so
+ * the spans are never encoded twice.
+ */
+class DiskPendingSessionSpans implements PendingSessionSpans {
+
+    // the old pending files are looked for at most once per session timeout, so that the export
+    // thread doesn't list the directory on every batch
+    static final long DISCARD_OLDER_INTERVAL_NANOS = MINUTES.toNanos(15);
+
+    private final File pendingSpansPath;
+    private final File spansPath;
+    private final Supplier<SpanExporter> writerFactory;
+    private final FileUtils fileUtils;
+    // created lazily on the worker thread, so the main thread doesn't block on the disk
+    @Nullable private SpanExporter writer;
+    // accessed only from the worker thread
+    private boolean leftoversDiscarded = false;
+    private long nextDiscardOlderEpochNanos = Long.MIN_VALUE;
+
+    DiskPendingSessionSpans(
+            File pendingSpansPath,
+            File spansPath,
+            Supplier<SpanExporter> writerFactory,
+            FileUtils fileUtils) {
+        this.pendingSpansPath = pendingSpansPath;
+        this.spansPath = spansPath;
+        this.writerFactory = writerFactory;
+        this.fileUtils = fileUtils;
+    }
+
+    @Override
+    public void add(Collection<SpanData> spans) {
+        discardLeftovers();
+        getWriter().export(spans);
+    }
+
+    private SpanExporter getWriter() {
+        SpanExporter writer = this.writer;
+        if (writer == null) {
+            writer = writerFactory.get();
+            this.writer = writer;
+        }
+        return writer;
+    }
+
+    private void discardLeftovers() {
+        // whatever got left behind by the previous process belongs to a session that ended without
+        // any problems; it must not be kept along with the current one
+        if (!leftoversDiscarded) {
+            discard();
+        }
+    }
+
+    @Override
+    public CompletableResultCode keep(SpanExporter exporter) {
+        discardLeftovers();
+        for (File file : listPendingFiles()) {
+            fileUtils.safeRename(file, new File(spansPath, file.getName()));
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public void discard() {
+        leftoversDiscarded = true;
+        for (File file : listPendingFiles()) {
+            fileUtils.safeDelete(file);
+        }
+    }
+
+    @Override
+    public void discardOlderThan(long epochNanos) {
+        discardLeftovers();
+        if (epochNanos < nextDiscardOlderEpochNanos) {
+            return;
+        }
+        nextDiscardOlderEpochNanos = epochNanos + DISCARD_OLDER_INTERVAL_NANOS;
+        long epochSeconds = NANOSECONDS.toSeconds(epochNanos);
+        for (File file : listPendingFiles()) {
+            if (fileUtils.getModificationTime(file) < epochSeconds) {
+                Log.d(LOG_TAG, "Dropping pending spans file " + file);
+                fileUtils.safeDelete(file);
+            }
+        }
+    }
+
+    private List<File> listPendingFiles() {
+        return fileUtils.listSpanFiles(pendingSpansPath).collect(Collectors.toList());
+    }
+}
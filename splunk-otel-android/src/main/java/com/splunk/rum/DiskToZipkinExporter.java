@@ -22,13 +22,14 @@ import static java.util.Objects.requireNonNull;
 
 import android.util.Log;
 import androidx.annotation.Nullable;
+import io.opentelemetry.rum.internal.SdkOverhead;
+import io.opentelemetry.rum.internal.instrumentation.ForegroundPeriodicTask;
+import io.opentelemetry.rum.internal.instrumentation.InstrumentedApplication;
 import io.opentelemetry.rum.internal.instrumentation.network.CurrentNetworkProvider;
 import java.io.File;
+import java.time.Duration;
 import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -38,17 +39,18 @@ import java.util.stream.Collectors;
 class DiskToZipkinExporter {
 
     static final double DEFAULT_MAX_UNCOMPRESSED_BANDWIDTH = 15.0 * 1024;
+    static final String OVERHEAD_COMPONENT = "disk_exporter";
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(5);
 
-    private final ScheduledExecutorService threadPool;
     private final CurrentNetworkProvider currentNetworkProvider;
     private final FileSender fileSender;
     private final File spanFilesPath;
     private final FileUtils fileUtils;
     private final BandwidthTracker bandwidthTracker;
     private final double bandwidthLimit;
+    @Nullable private volatile ForegroundPeriodicTask exportCycles;
 
     DiskToZipkinExporter(Builder builder) {
-        this.threadPool = builder.threadPool;
         this.currentNetworkProvider = requireNonNull(builder.currentNetworkProvider);
         this.fileSender = requireNonNull(builder.fileSender);
         this.spanFilesPath = requireNonNull(builder.spanFilesPath);
@@ -57,10 +59,20 @@ class DiskToZipkinExporter {
         this.bandwidthLimit = builder.bandwidthLimit;
     }
 
-    // the returned future is very unlikely to fail
-    @SuppressWarnings("FutureReturnValueIgnored")
-    void startPolling() {
-        threadPool.scheduleAtFixedRate(this::doExportCycle, 5, 5, TimeUnit.SECONDS);
+    /**
+     * Starts exporting periodically on the scheduler of the instrumented application, while the
+     * application is in the foreground.
+     */
+    void startPolling(InstrumentedApplication instrumentedApplication) {
+        ForegroundPeriodicTask exportCycles =
+                ForegroundPeriodicTask.create(
+                        instrumentedApplication.getScheduler(),
+                        POLL_INTERVAL,
+                        SdkOverhead.getInstance()
+                                .measureCpuTime(OVERHEAD_COMPONENT, this::doExportCycle));
+        instrumentedApplication.registerApplicationStateListener(exportCycles);
+        exportCycles.start();
+        this.exportCycles = exportCycles;
     }
 
     // Visible for testing
@@ -113,7 +125,10 @@ class DiskToZipkinExporter {
     }
 
     void stop() {
-        threadPool.shutdown();
+        ForegroundPeriodicTask exportCycles = this.exportCycles;
+        if (exportCycles != null) {
+            exportCycles.stop();
+        }
     }
 
     static Builder builder() {
@@ -123,17 +138,11 @@ class DiskToZipkinExporter {
     static class Builder {
         @Nullable private FileSender fileSender;
         @Nullable private BandwidthTracker bandwidthTracker;
-        private ScheduledExecutorService threadPool = Executors.newSingleThreadScheduledExecutor();
         @Nullable private CurrentNetworkProvider currentNetworkProvider;
         @Nullable private File spanFilesPath;
         private FileUtils fileUtils = new FileUtils();
         private double bandwidthLimit = DEFAULT_MAX_UNCOMPRESSED_BANDWIDTH;
 
-        Builder threadPool(ScheduledExecutorService threadPool) {
-            this.threadPool = threadPool;
-            return this;
-        }
-
         Builder connectionUtil(CurrentNetworkProvider currentNetworkProvider) {
             this.currentNetworkProvider = currentNetworkProvider;
             return this;
@@ -0,0 +1,361 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.rum.internal.RumConstants.EXCEPTION_FINGERPRINT_KEY;
+
+import androidx.annotation.Nullable;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.rum.internal.SdkOverhead;
+import io.opentelemetry.rum.internal.instrumentation.ForegroundPeriodicTask;
+import io.opentelemetry.rum.internal.instrumentation.InstrumentedApplication;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.DelegatingSpanData;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Folds repeated errors into summary spans, so that an app that reports the same error in a loop
+ * doesn't flood the exporter with identical spans.
+ *
+ * <p>Errors are identified by their {@code exception.fingerprint} attribute. The first occurrence
+ * of an error is exported in full and starts a deduplication window; the repeats within that window
+ * are dropped and counted. When the window ends, a single summary span is exported for the repeats:
+ * it is the first repeat without its stack trace, stretched from the first to the last repeat, and
+ * carries the number of repeats along with their first and last seen times. The number of tracked
+ * errors is bounded; the least recently seen ones are summarized early.
+ *
+ * <p>The ended windows are summarized on every export, and also periodically on the shared
+ * scheduler, so that a window ends even when no other span gets exported after it. The periodic
+ * summaries are handed over to the span processor and exported like any other ended span.
+ */
+class ErrorDeduplicatingExporter implements SpanExporter {
+
+    static final AttributeKey<Long> ERROR_REPEAT_COUNT_KEY = longKey("error.repeat_count");
+    static final AttributeKey<Long> ERROR_FIRST_SEEN_KEY = longKey("error.first_seen");
+    static final AttributeKey<Long> ERROR_LAST_SEEN_KEY = longKey("error.last_seen");
+
+    static final int MAX_TRACKED_ERRORS = 64;
+    static final String OVERHEAD_COMPONENT = "error_deduplication";
+
+    private final SpanExporter delegate;
+    private final Clock clock;
+    private final Duration window;
+    private final long windowNanos;
+    // guarded by this; the exports run on the span processor worker thread, the periodic
+    // summaries on the shared scheduler
+    private final Map<String, Occurrences> trackedErrors = new LinkedHashMap<>(16, 0.75f, true);
+    @Nullable private volatile SpanProcessor spanProcessor;
+    @Nullable private volatile ForegroundPeriodicTask summaries;
+
+    ErrorDeduplicatingExporter(SpanExporter delegate, Duration window) {
+        this(delegate, window, Clock.getDefault());
+    }
+
+    // visible for testing
+    ErrorDeduplicatingExporter(SpanExporter delegate, Duration window, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.window = window;
+        this.windowNanos = window.toNanos();
+    }
+
+    /** Sets the span processor that the periodic summaries are handed over to. */
+    void setSpanProcessor(SpanProcessor spanProcessor) {
+        this.spanProcessor = spanProcessor;
+    }
+
+    /**
+     * Starts summarizing the ended windows periodically on the scheduler of the instrumented
+     * application, while the application is in the foreground.
+     */
+    void startSummarizing(InstrumentedApplication instrumentedApplication) {
+        ForegroundPeriodicTask summaries =
+                ForegroundPeriodicTask.create(
+                        instrumentedApplication.getScheduler(),
+                        window,
+                        SdkOverhead.getInstance()
+                                .measureCpuTime(OVERHEAD_COMPONENT, this::summarizeEndedWindows));
+        instrumentedApplication.registerApplicationStateListener(summaries);
+        summaries.start();
+        this.summaries = summaries;
+    }
+
+    // visible for testing
+    void summarizeEndedWindows() {
+        List<SummarySpan> spans = new ArrayList<>();
+        synchronized (this) {
+            summarizeEndedWindows(clock.now(), spans);
+        }
+        handOver(spans);
+    }
+
+    /**
+     * Summarizes all the tracked errors right away, without waiting for their windows to end; used
+     * before flushing the span processor.
+     */
+    void summarizeAll() {
+        List<SummarySpan> spans = new ArrayList<>();
+        synchronized (this) {
+            for (Occurrences occurrences : trackedErrors.values()) {
+                occurrences.addSummaryTo(spans);
+            }
+            trackedErrors.clear();
+        }
+        handOver(spans);
+    }
+
+    private void handOver(List<SummarySpan> spans) {
+        SpanProcessor spanProcessor = this.spanProcessor;
+        if (spanProcessor == null) {
+            return;
+        }
+        for (SummarySpan span : spans) {
+            spanProcessor.onEnd(span);
+        }
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        long now = clock.now();
+        List<SpanData> spansToExport = new ArrayList<>(spans.size());
+        synchronized (this) {
+            summarizeEndedWindows(now, spansToExport);
+
+            for (SpanData span : spans) {
+                String fingerprint = span.getAttributes().get(EXCEPTION_FINGERPRINT_KEY);
+                // the periodic summaries come back through the span processor
+                if (fingerprint == null
+                        || span.getAttributes().get(ERROR_REPEAT_COUNT_KEY) != null) {
+                    spansToExport.add(span);
+                    continue;
+                }
+                Occurrences occurrences = trackedErrors.get(fingerprint);
+                if (occurrences != null) {
+                    occurrences.addRepeat(span);
+                    continue;
+                }
+                if (trackedErrors.size() >= MAX_TRACKED_ERRORS) {
+                    evictLeastRecentlySeen(spansToExport);
+                }
+                trackedErrors.put(fingerprint, new Occurrences(now));
+                spansToExport.add(span);
+            }
+        }
+
+        if (spansToExport.isEmpty()) {
+            return CompletableResultCode.ofSuccess();
+        }
+        return delegate.export(spansToExport);
+    }
+
+    private void summarizeEndedWindows(long now, List<? super SummarySpan> spansToExport) {
+        Iterator<Occurrences> it = trackedErrors.values().iterator();
+        while (it.hasNext()) {
+            Occurrences occurrences = it.next();
+            if (now - occurrences.windowStartNanos >= windowNanos) {
+                it.remove();
+                occurrences.addSummaryTo(spansToExport);
+            }
+        }
+    }
+
+    private void evictLeastRecentlySeen(List<SpanData> spansToExport) {
+        Iterator<Occurrences> it = trackedErrors.values().iterator();
+        Occurrences eldest = it.next();
+        it.remove();
+        eldest.addSummaryTo(spansToExport);
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        ForegroundPeriodicTask summaries = this.summaries;
+        if (summaries != null) {
+            summaries.stop();
+        }
+        List<SpanData> spans = new ArrayList<>();
+        synchronized (this) {
+            for (Occurrences occurrences : trackedErrors.values()) {
+                occurrences.addSummaryTo(spans);
+            }
+            trackedErrors.clear();
+        }
+        if (!spans.isEmpty()) {
+            delegate.export(spans);
+        }
+        return delegate.shutdown();
+    }
+
+    // visible for testing
+    synchronized int getTrackedErrorCount() {
+        return trackedErrors.size();
+    }
+
+    private static final class Occurrences {
+        private final long windowStartNanos;
+        @Nullable private SpanData firstRepeat;
+        private long repeatCount = 0;
+        private long firstSeenNanos;
+        private long lastSeenNanos;
+
+        private Occurrences(long windowStartNanos) {
+            this.windowStartNanos = windowStartNanos;
+        }
+
+        private void addRepeat(SpanData span) {
+            if (firstRepeat == null) {
+                // only the first repeat is kept, and without its stack trace
+                firstRepeat = withoutStackTrace(span);
+                firstSeenNanos = span.getStartEpochNanos();
+            }
+            repeatCount++;
+            lastSeenNanos = Math.max(lastSeenNanos, span.getEndEpochNanos());
+        }
+
+        private void addSummaryTo(List<? super SummarySpan> spans) {
+            if (firstRepeat == null) {
+                return;
+            }
+            Attributes attributes =
+                    firstRepeat.getAttributes().toBuilder()
+                            .put(ERROR_REPEAT_COUNT_KEY, repeatCount)
+                            .put(
+                                    ERROR_FIRST_SEEN_KEY,
+                                    TimeUnit.NANOSECONDS.toMillis(firstSeenNanos))
+                            .put(ERROR_LAST_SEEN_KEY, TimeUnit.NANOSECONDS.toMillis(lastSeenNanos))
+                            .build();
+            spans.add(
+                    new SummarySpan(
+                            firstRepeat,
+                            firstRepeat.getEvents(),
+                            attributes,
+                            firstSeenNanos,
+                            lastSeenNanos));
+        }
+    }
+
+    private static SpanData withoutStackTrace(SpanData span) {
+        List<EventData> events = new ArrayList<>(span.getEvents().size());
+        for (EventData event : span.getEvents()) {
+            if (event.getName().equals(SemanticAttributes.EXCEPTION_EVENT_NAME)) {
+                event =
+                        EventData.create(
+                                event.getEpochNanos(),
+                                event.getName(),
+                                event.getAttributes().toBuilder()
+                                        .remove(SemanticAttributes.EXCEPTION_STACKTRACE)
+                                        .build());
+            }
+            events.add(event);
+        }
+        // ANR spans carry the stack trace as a span attribute
+        Attributes attributes =
+                span.getAttributes().toBuilder()
+                        .remove(SemanticAttributes.EXCEPTION_STACKTRACE)
+                        .build();
+        return new SummarySpan(
+                span, events, attributes, span.getStartEpochNanos(), span.getEndEpochNanos());
+    }
+
+    // also a ReadableSpan, so that the periodic summaries can be handed over to the span processor
+    private static final class SummarySpan extends DelegatingSpanData implements ReadableSpan {
+
+        private final List<EventData> events;
+        private final Attributes attributes;
+        private final long startEpochNanos;
+        private final long endEpochNanos;
+
+        private SummarySpan(
+                SpanData delegate,
+                List<EventData> events,
+                Attributes attributes,
+                long startEpochNanos,
+                long endEpochNanos) {
+            super(delegate);
+            this.events = events;
+            this.attributes = attributes;
+            this.startEpochNanos = startEpochNanos;
+            this.endEpochNanos = endEpochNanos;
+        }
+
+        @Override
+        public List<EventData> getEvents() {
+            return events;
+        }
+
+        @Override
+        public int getTotalRecordedEvents() {
+            return events.size();
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public int getTotalAttributeCount() {
+            return attributes.size();
+        }
+
+        @Override
+        public long getStartEpochNanos() {
+            return startEpochNanos;
+        }
+
+        @Override
+        public long getEndEpochNanos() {
+            return endEpochNanos;
+        }
+
+        @Override
+        public SpanData toSpanData() {
+            return this;
+        }
+
+        @Override
+        public long getLatencyNanos() {
+            return endEpochNanos - startEpochNanos;
+        }
+
+        @Override
+        @Nullable
+        public <T> T getAttribute(AttributeKey<T> key) {
+            return attributes.get(key);
+        }
+    }
+}
@@ -105,10 +105,13 @@ class FileSender {
         private final Map<File, Integer> attempts = new HashMap<>();
         private final int maxRetries;
         private final Consumer<Integer> backoff;
+        private final PipelineHealth pipelineHealth;
 
-        private RetryTracker(int maxRetries, Consumer<Integer> backoff) {
+        private RetryTracker(
+                int maxRetries, Consumer<Integer> backoff, PipelineHealth pipelineHealth) {
             this.maxRetries = maxRetries;
             this.backoff = backoff;
+            this.pipelineHealth = pipelineHealth;
         }
 
         void clear(File file) {
@@ -125,10 +128,12 @@ class FileSender {
             Integer retryCount = attempts.merge(file, 1, (cur, x) -> cur + 1);
             boolean exceededRetries = retryCount >= maxRetries;
             if (exceededRetries) {
+                pipelineHealth.recordSpanFileDroppedMaxRetries();
                 Log.w(
                         LOG_TAG,
                         "Dropping data in " + file + " (max retries exceeded " + maxRetries + ")");
             } else {
+                pipelineHealth.recordSendRetry();
                 backoff.accept(retryCount);
             }
         }
@@ -159,6 +164,7 @@ class FileSender {
         @Nullable private BandwidthTracker bandwidthTracker;
         private int maxRetries = DEFAULT_MAX_RETRIES;
         private Consumer<Integer> backoff = new DefaultBackoff();
+        private PipelineHealth pipelineHealth = new PipelineHealth();
 
         Builder sender(Sender sender) {
             this.sender = sender;
@@ -186,12 +192,17 @@ class FileSender {
             return this;
         }
 
+        Builder pipelineHealth(PipelineHealth pipelineHealth) {
+            this.pipelineHealth = pipelineHealth;
+            return this;
+        }
+
         FileSender build() {
             return new FileSender(this);
         }
 
         private RetryTracker buildRetryTracker() {
-            return new RetryTracker(maxRetries, backoff);
+            return new RetryTracker(maxRetries, backoff, pipelineHealth);
         }
     }
 }
@@ -45,6 +45,16 @@ class FileUtils {
         return new File(filesDir, "spans");
     }
 
+    static File getCrashSpansFile(Application application) {
+        File filesDir = application.getApplicationContext().getFilesDir();
+        return new File(filesDir, "spans-crash");
+    }
+
+    static File getPendingSpansDirectory(Application application) {
+        File filesDir = application.getApplicationContext().getFilesDir();
+        return new File(filesDir, "spans-pending");
+    }
+
     void writeAsLines(File file, List<byte[]> blocksOfData) throws IOException {
         AtomicFile outfile = new AtomicFile(file);
         try (FileOutputStream out = outfile.startWrite()) {
@@ -116,4 +126,10 @@ class FileUtils {
             Log.w(LOG_TAG, "Error deleting file " + file);
         }
     }
+
+    void safeRename(File file, File destination) {
+        if (!file.renameTo(destination)) {
+            Log.w(LOG_TAG, "Error moving file " + file + " to " + destination);
+        }
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.view.Choreographer;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.opentelemetry.rum.internal.DefaultingActivityLifecycleCallbacks;
+import java.util.function.Supplier;
+
+/**
+ * Runs a task on the main thread once the first activity has drawn its first frame and the main
+ * thread has gone idle, so that the task doesn't delay the cold start of the app. Nothing is run if
+ * no activity is ever resumed.
+ *
+ * <p>It has to be registered before the first activity is resumed, but the task can be set later
+ * on; if the first frame has already been drawn by then, the task is run right away.
+ */
+final class FirstFrameIdleTask
+        implements DefaultingActivityLifecycleCallbacks,
+                Choreographer.FrameCallback,
+                MessageQueue.IdleHandler {
+
+    private final Application application;
+    private final Supplier<Choreographer> choreographerSupplier;
+    private final Supplier<MessageQueue> mainQueueSupplier;
+
+    // accessed only from the main thread
+    private boolean frameCallbackPosted = false;
+    private boolean firstFrameIdle = false;
+    @Nullable private Runnable task;
+
+    /** Must be called from the main thread, before the first activity is resumed. */
+    static FirstFrameIdleTask register(Application application) {
+        FirstFrameIdleTask firstFrameIdleTask =
+                new FirstFrameIdleTask(application, Choreographer::getInstance, Looper::myQueue);
+        application.registerActivityLifecycleCallbacks(firstFrameIdleTask);
+        return firstFrameIdleTask;
+    }
+
+    // Exists for testing
+    FirstFrameIdleTask(
+            Application application,
+            Supplier<Choreographer> choreographerSupplier,
+            Supplier<MessageQueue> mainQueueSupplier) {
+        this.application = application;
+        this.choreographerSupplier = choreographerSupplier;
+        this.mainQueueSupplier = mainQueueSupplier;
+    }
+
+    /** Must be called from the main thread. */
+    void runWhenIdle(Runnable task) {
+        if (firstFrameIdle) {
+            task.run();
+        } else {
+            this.task = task;
+        }
+    }
+
+    @Override
+    public void onActivityResumed(@NonNull Activity activity) {
+        if (frameCallbackPosted) {
+            return;
+        }
+        frameCallbackPosted = true;
+        application.unregisterActivityLifecycleCallbacks(this);
+        // the first frame of the activity is drawn after the next vsync
+        choreographerSupplier.get().postFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        // the frame callbacks run before the frame is drawn, within the same message; the queue
+        // goes idle once it's done
+        mainQueueSupplier.get().addIdleHandler(this);
+    }
+
+    @Override
+    public boolean queueIdle() {
+        firstFrameIdle = true;
+        Runnable task = this.task;
+        if (task != null) {
+            this.task = null;
+            task.run();
+        }
+        // run once
+        return false;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import androidx.annotation.Nullable;
+import io.opentelemetry.rum.internal.SdkOverhead;
+import io.opentelemetry.rum.internal.instrumentation.ForegroundPeriodicTask;
+import io.opentelemetry.rum.internal.instrumentation.InstrumentedApplication;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.Aggregation;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.export.CollectionRegistration;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+import io.opentelemetry.sdk.metrics.export.MetricReader;
+import io.opentelemetry.sdk.metrics.export.PeriodicMetricReader;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Collects and exports the metrics periodically, like {@link PeriodicMetricReader}, but only while
+ * the application is in the foreground, and on the shared scheduler instead of a thread of its own.
+ * Nothing is recorded in the background anyway; whatever has been recorded until then gets exported
+ * by {@link #forceFlush()}.
+ *
+ * <p>The collection and the export themselves are left to a {@link PeriodicMetricReader} that is
+ * never scheduled: this reader only decides when to flush it.
+ */
+final class ForegroundMetricReader implements MetricReader {
+
+    static final String OVERHEAD_COMPONENT = "metric_reader";
+
+    private final PeriodicMetricReader delegate;
+    private final Duration interval;
+    @Nullable private volatile ForegroundPeriodicTask exports;
+
+    ForegroundMetricReader(MetricExporter exporter, Duration interval) {
+        this.delegate =
+                PeriodicMetricReader.builder(exporter)
+                        .setInterval(interval)
+                        .setExecutor(idleExecutor())
+                        .build();
+        this.interval = interval;
+    }
+
+    // An executor that has been shut down before anything was scheduled on it: the periodic run
+    // of the delegate gets discarded without ever starting a thread, and shutting the delegate
+    // down still collects and exports one last time.
+    private static ScheduledExecutorService idleExecutor() {
+        ScheduledThreadPoolExecutor executor =
+                new ScheduledThreadPoolExecutor(0, new ThreadPoolExecutor.DiscardPolicy());
+        executor.shutdown();
+        return executor;
+    }
+
+    /** Starts exporting periodically, on the scheduler of the instrumented application. */
+    void start(InstrumentedApplication instrumentedApplication) {
+        ForegroundPeriodicTask exports =
+                ForegroundPeriodicTask.create(
+                        instrumentedApplication.getScheduler(),
+                        interval,
+                        SdkOverhead.getInstance()
+                                .measureCpuTime(OVERHEAD_COMPONENT, delegate::forceFlush));
+        instrumentedApplication.registerApplicationStateListener(exports);
+        exports.start();
+        this.exports = exports;
+    }
+
+    @Override
+    public void register(CollectionRegistration registration) {
+        delegate.register(registration);
+    }
+
+    @Override
+    public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+        return delegate.getAggregationTemporality(instrumentType);
+    }
+
+    @Override
+    public Aggregation getDefaultAggregation(InstrumentType instrumentType) {
+        return delegate.getDefaultAggregation(instrumentType);
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        ForegroundPeriodicTask exports = this.exports;
+        if (exports != null) {
+            exports.stop();
+        }
+        return delegate.shutdown();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import android.util.Log;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+
+/** Keeps the pending spans in a bounded in-memory queue, dropping the oldest ones when full. */
+class InMemoryPendingSessionSpans implements PendingSessionSpans {
+
+    static final int DEFAULT_MAX_PENDING_SPANS = 1000;
+
+    private final int maxPendingSpans;
+    private final Deque<SpanData> spans = new ArrayDeque<>();
+
+    InMemoryPendingSessionSpans(int maxPendingSpans) {
+        this.maxPendingSpans = maxPendingSpans;
+    }
+
+    @Override
+    public void add(Collection<SpanData> newSpans) {
+        spans.addAll(newSpans);
+        int dropped = 0;
+        while (spans.size() > maxPendingSpans) {
+            spans.pollFirst();
+            dropped++;
+        }
+        if (dropped > 0) {
+            Log.d(SplunkRum.LOG_TAG, "Dropped " + dropped + " oldest spans of the pending session");
+        }
+    }
+
+    @Override
+    public CompletableResultCode keep(SpanExporter exporter) {
+        if (spans.isEmpty()) {
+            return CompletableResultCode.ofSuccess();
+        }
+        CompletableResultCode result = exporter.export(new ArrayList<>(spans));
+        spans.clear();
+        return result;
+    }
+
+    @Override
+    public void discard() {
+        spans.clear();
+    }
+
+    @Override
+    public void discardOlderThan(long epochNanos) {
+        // spans arrive roughly in the order they ended
+        while (!spans.isEmpty() && spans.peekFirst().getEndEpochNanos() < epochNanos) {
+            spans.pollFirst();
+        }
+    }
+
+    // visible for testing
+    int size() {
+        return spans.size();
+    }
+}
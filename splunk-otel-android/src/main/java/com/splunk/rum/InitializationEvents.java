@@ -23,13 +23,20 @@ import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.rum.internal.instrumentation.startup.AppStartupTimer;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 class InitializationEvents {
     private final AppStartupTimer startupTimer;
-    private final List<Event> events = new ArrayList<>();
+    // with async initialization, the events are also emitted by a background thread
+    private final List<Event> events = new CopyOnWriteArrayList<>();
+    // the SplunkRum.initialize span ends when the AppStart span does, or once the deferred
+    // instrumentations are installed if that happens later
+    private final AtomicInteger pendingStages = new AtomicInteger(1);
+    private final AtomicReference<Runnable> endSpan = new AtomicReference<>();
     private long startTimeNanos = -1;
 
     InitializationEvents(AppStartupTimer startupTimer) {
@@ -44,6 +51,25 @@ class InitializationEvents {
         events.add(new Event(eventName, startupTimer.clockNow()));
     }
 
+    /** Keeps the initialization span open until {@link #endDeferredStage()} is called. */
+    void beginDeferredStage() {
+        pendingStages.incrementAndGet();
+    }
+
+    void endDeferredStage() {
+        emit("deferredInstrumentationsInstalled");
+        endStage();
+    }
+
+    private void endStage() {
+        if (pendingStages.decrementAndGet() == 0) {
+            Runnable endSpan = this.endSpan.getAndSet(null);
+            if (endSpan != null) {
+                endSpan.run();
+            }
+        }
+    }
+
     void recordInitializationSpans(ConfigFlags flags, Tracer delegateTracer) {
         Tracer tracer =
                 spanName ->
@@ -60,13 +86,23 @@ class InitializationEvents {
 
         span.setAttribute("config_settings", flags.toString());
 
-        for (Event initializationEvent : events) {
-            span.addEvent(initializationEvent.name, initializationEvent.time, TimeUnit.NANOSECONDS);
-        }
-        long spanEndTime = startupTimer.clockNow();
+        long synchronousEndTime = startupTimer.clockNow();
         // we only want to create SplunkRum.initialize span when there is a AppStart span so we
-        // register a callback that is called right before AppStart span is ended
-        startupTimer.setCompletionCallback(() -> span.end(spanEndTime, TimeUnit.NANOSECONDS));
+        // register a callback that is called right before AppStart span is ended; the span covers
+        // the part of an async initialization that is done by then too
+        endSpan.set(
+                () -> {
+                    long spanEndTime = synchronousEndTime;
+                    for (Event initializationEvent : events) {
+                        span.addEvent(
+                                initializationEvent.name,
+                                initializationEvent.time,
+                                TimeUnit.NANOSECONDS);
+                        spanEndTime = Math.max(spanEndTime, initializationEvent.time);
+                    }
+                    span.end(spanEndTime, TimeUnit.NANOSECONDS);
+                });
+        startupTimer.setCompletionCallback(this::endStage);
     }
 
     private static class Event {
@@ -27,6 +27,7 @@ import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.api.trace.TracerBuilder;
 import io.opentelemetry.api.trace.TracerProvider;
 import io.opentelemetry.context.Context;
+import io.opentelemetry.rum.internal.SdkOverhead;
 import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
 import io.opentelemetry.sdk.logs.LogRecordProcessor;
 import io.opentelemetry.sdk.logs.ReadWriteLogRecord;
@@ -34,6 +35,7 @@ import io.opentelemetry.sdk.logs.data.Body;
 import io.opentelemetry.sdk.logs.data.LogRecordData;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 final class LogToSpanBridge implements LogRecordProcessor {
 
@@ -44,12 +46,28 @@ final class LogToSpanBridge implements LogRecordProcessor {
     static final AttributeKey<String> LOG_SEVERITY_TEXT = stringKey("log.severity_text");
     static final AttributeKey<String> LOG_BODY = stringKey("log.body");
 
+    // the kind of main thread work measured by SdkOverhead
+    static final String OVERHEAD_KIND = "log_bridge";
+
+    private final SdkOverhead overhead = SdkOverhead.getInstance();
+    private final AtomicLong logCount = new AtomicLong();
     private volatile TracerProvider tracerProvider;
+    // 1 converts every log, 0 none of them
+    private volatile int keepOneIn = 1;
 
     void setTracerProvider(TracerProvider tracerProvider) {
         this.tracerProvider = tracerProvider;
     }
 
+    /**
+     * Converts only every {@code keepOneIn}-th log into a span from now on, or none of them when 0,
+     * to reduce the overhead of the bridge. The converted logs get a {@code sampling.weight}
+     * attribute.
+     */
+    void sample(int keepOneIn) {
+        this.keepOneIn = keepOneIn;
+    }
+
     @Override
     public void onEmit(Context context, ReadWriteLogRecord logRecord) {
         TracerProvider tracerProvider = this.tracerProvider;
@@ -57,12 +75,26 @@ final class LogToSpanBridge implements LogRecordProcessor {
             // if this is null then we've messed up the RumInitializer implementation
             return;
         }
+        int keepOneIn = this.keepOneIn;
+        if (keepOneIn != 1 && (keepOneIn == 0 || logCount.getAndIncrement() % keepOneIn != 0)) {
+            return;
+        }
+
+        long overheadStartNanos = overhead.startMainThreadWork();
+        emitSpan(tracerProvider, logRecord, keepOneIn);
+        overhead.endMainThreadWork(OVERHEAD_KIND, overheadStartNanos);
+    }
 
+    private static void emitSpan(
+            TracerProvider tracerProvider, ReadWriteLogRecord logRecord, int keepOneIn) {
         LogRecordData log = logRecord.toLogRecordData();
         Tracer tracer = getTracer(tracerProvider, log.getInstrumentationScopeInfo());
 
         SpanBuilder spanBuilder = tracer.spanBuilder(getSpanName(log));
         setLogAttributes(spanBuilder, log);
+        if (keepOneIn > 1) {
+            spanBuilder.setAttribute(RuleBasedSampler.SAMPLING_WEIGHT_KEY, (double) keepOneIn);
+        }
         Span span =
                 spanBuilder
                         .setStartTimestamp(log.getTimestampEpochNanos(), TimeUnit.NANOSECONDS)
@@ -70,7 +102,7 @@ final class LogToSpanBridge implements LogRecordProcessor {
         span.end(log.getTimestampEpochNanos(), TimeUnit.NANOSECONDS);
     }
 
-    private static Tracer getTracer(TracerProvider tracerProvider, InstrumentationScopeInfo scope) {
+    static Tracer getTracer(TracerProvider tracerProvider, InstrumentationScopeInfo scope) {
         TracerBuilder builder = tracerProvider.tracerBuilder(scope.getName());
         String version = scope.getVersion();
         if (version != null) {
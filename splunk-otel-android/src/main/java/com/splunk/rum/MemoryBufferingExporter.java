@@ -33,19 +33,32 @@ class MemoryBufferingExporter implements SpanExporter {
 
     private final CurrentNetworkProvider currentNetworkProvider;
     private final SpanExporter delegate;
+    private final PipelineHealth pipelineHealth;
     // note: no need to make this queue thread-safe since it will only ever be called from the
     // BatchSpanProcessor worker thread.
     private final Queue<SpanData> backlog = new ArrayDeque<>(MAX_BACKLOG_SIZE);
+    // read by the pipeline health gauges from other threads
+    private volatile int backlogSize = 0;
 
     MemoryBufferingExporter(CurrentNetworkProvider currentNetworkProvider, SpanExporter delegate) {
+        this(currentNetworkProvider, delegate, new PipelineHealth());
+    }
+
+    MemoryBufferingExporter(
+            CurrentNetworkProvider currentNetworkProvider,
+            SpanExporter delegate,
+            PipelineHealth pipelineHealth) {
         this.currentNetworkProvider = currentNetworkProvider;
         this.delegate = delegate;
+        this.pipelineHealth = pipelineHealth;
+        pipelineHealth.addSpanBacklog(() -> backlogSize);
     }
 
     @Override
     public CompletableResultCode export(Collection<SpanData> spans) {
         backlog.addAll(spans);
         if (!currentNetworkProvider.refreshNetworkStatus().isOnline()) {
+            backlogSize = backlog.size();
             Log.i(
                     SplunkRum.LOG_TAG,
                     "Network offline, buffering " + spans.size() + " spans for eventual export.");
@@ -69,17 +82,25 @@ class MemoryBufferingExporter implements SpanExporter {
 
     // todo Should we favor saving certain kinds of span if we're out of space? Or favor recency?
     private void addFailedSpansToBacklog(List<SpanData> toExport) {
+        int dropped = 0;
         for (SpanData spanData : toExport) {
             if (backlog.size() < MAX_BACKLOG_SIZE) {
                 backlog.add(spanData);
+            } else {
+                dropped++;
             }
         }
+        backlogSize = backlog.size();
+        if (dropped > 0) {
+            pipelineHealth.recordSpansDroppedBacklogFull(dropped);
+        }
     }
 
     @NonNull
     private List<SpanData> fillFromBacklog() {
         List<SpanData> retries = new ArrayList<>(backlog);
         backlog.clear();
+        backlogSize = 0;
         return retries;
     }
 
@@ -96,6 +117,7 @@ class MemoryBufferingExporter implements SpanExporter {
     @Override
     public CompletableResultCode shutdown() {
         backlog.clear();
+        backlogSize = 0;
         return delegate.shutdown();
     }
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static io.opentelemetry.api.common.AttributeKey.doubleArrayKey;
+import static io.opentelemetry.api.common.AttributeKey.doubleKey;
+import static io.opentelemetry.api.common.AttributeKey.longArrayKey;
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.TracerProvider;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.PointData;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports metrics as spans, so that they go through the same exporter pipeline (and disk buffer) as
+ * everything else: every metric point becomes a single span named after the metric, that starts and
+ * ends with the collection interval of the point. The delta temporality is used, so that every span
+ * only carries the measurements of its own interval.
+ */
+final class MetricToSpanExporter implements MetricExporter {
+
+    static final AttributeKey<String> METRIC_UNIT = stringKey("metric.unit");
+    static final AttributeKey<Long> METRIC_LONG_VALUE = longKey("metric.value");
+    static final AttributeKey<Double> METRIC_DOUBLE_VALUE = doubleKey("metric.value");
+    static final AttributeKey<Long> METRIC_COUNT = longKey("metric.count");
+    static final AttributeKey<Double> METRIC_SUM = doubleKey("metric.sum");
+    static final AttributeKey<List<Double>> METRIC_BUCKET_BOUNDS =
+            doubleArrayKey("metric.bucket_bounds");
+    static final AttributeKey<List<Long>> METRIC_BUCKET_COUNTS =
+            longArrayKey("metric.bucket_counts");
+
+    private volatile TracerProvider tracerProvider;
+
+    void setTracerProvider(TracerProvider tracerProvider) {
+        this.tracerProvider = tracerProvider;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<MetricData> metrics) {
+        TracerProvider tracerProvider = this.tracerProvider;
+        if (tracerProvider == null) {
+            // if this is null then we've messed up the RumInitializer implementation
+            return CompletableResultCode.ofFailure();
+        }
+
+        for (MetricData metric : metrics) {
+            Tracer tracer =
+                    LogToSpanBridge.getTracer(tracerProvider, metric.getInstrumentationScopeInfo());
+            switch (metric.getType()) {
+                case LONG_SUM:
+                    for (LongPointData point : metric.getLongSumData().getPoints()) {
+                        exportPoint(
+                                tracer,
+                                metric,
+                                point,
+                                pointAttributes(metric, point)
+                                        .put(METRIC_LONG_VALUE, point.getValue()));
+                    }
+                    break;
+                case LONG_GAUGE:
+                    for (LongPointData point : metric.getLongGaugeData().getPoints()) {
+                        exportPoint(
+                                tracer,
+                                metric,
+                                point,
+                                pointAttributes(metric, point)
+                                        .put(METRIC_LONG_VALUE, point.getValue()));
+                    }
+                    break;
+                case DOUBLE_SUM:
+                    for (DoublePointData point : metric.getDoubleSumData().getPoints()) {
+                        exportPoint(
+                                tracer,
+                                metric,
+                                point,
+                                pointAttributes(metric, point)
+                                        .put(METRIC_DOUBLE_VALUE, point.getValue()));
+                    }
+                    break;
+                case HISTOGRAM:
+                    for (HistogramPointData point : metric.getHistogramData().getPoints()) {
+                        exportPoint(
+                                tracer,
+                                metric,
+                                point,
+                                pointAttributes(metric, point)
+                                        .put(METRIC_COUNT, point.getCount())
+                                        .put(METRIC_SUM, point.getSum())
+                                        .put(METRIC_BUCKET_BOUNDS, point.getBoundaries())
+                                        .put(METRIC_BUCKET_COUNTS, point.getCounts()));
+                    }
+                    break;
+                default:
+                    // the RUM library doesn't record any other kind of metrics
+                    break;
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private static AttributesBuilder pointAttributes(MetricData metric, PointData point) {
+        return Attributes.builder()
+                .putAll(point.getAttributes())
+                .put(METRIC_UNIT, metric.getUnit());
+    }
+
+    private static void exportPoint(
+            Tracer tracer, MetricData metric, PointData point, AttributesBuilder attributes) {
+        tracer.spanBuilder(metric.getName())
+                .setAllAttributes(attributes.build())
+                .setStartTimestamp(point.getStartEpochNanos(), TimeUnit.NANOSECONDS)
+                .startSpan()
+                .end(point.getEpochNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+        return AggregationTemporality.DELTA;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import androidx.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free multi-producer/single-consumer queue backed by a preallocated ring buffer.
+ *
+ * <p>Every slot carries a sequence number that tells producers and the consumer whose turn it is: a
+ * producer claims a slot with a single CAS on the producer index and then publishes the element by
+ * bumping the slot sequence; the consumer releases the slot for the next lap once it has read the
+ * element. {@link #offer(Object)} may be called from any thread, {@link #poll()} only from a single
+ * consumer thread.
+ */
+final class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerIndex = new AtomicLong();
+    // written only by the consumer thread
+    private volatile long consumerIndex = 0;
+
+    MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = roundUpToPowerOfTwo(requestedCapacity);
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    private static int roundUpToPowerOfTwo(int value) {
+        int highestOneBit = Integer.highestOneBit(value);
+        return highestOneBit == value ? value : highestOneBit << 1;
+    }
+
+    /**
+     * Adds the element to the queue.
+     *
+     * @return {@code false} if the queue is full and the element was not added.
+     */
+    boolean offer(E element) {
+        while (true) {
+            long index = producerIndex.get();
+            int slot = (int) (index & mask);
+            long sequence = sequences.get(slot);
+            if (sequence == index) {
+                if (producerIndex.compareAndSet(index, index + 1)) {
+                    elements.lazySet(slot, element);
+                    // publish the element to the consumer
+                    sequences.set(slot, index + 1);
+                    return true;
+                }
+            } else if (sequence < index) {
+                // the consumer hasn't released this slot yet - the buffer is full
+                return false;
+            }
+            // some other producer has claimed this slot in the meantime, try again
+        }
+    }
+
+    /**
+     * Removes and returns the oldest element of the queue, or {@code null} if there is none. Must
+     * only be called from the consumer thread.
+     */
+    @Nullable
+    E poll() {
+        long index = consumerIndex;
+        int slot = (int) (index & mask);
+        if (sequences.get(slot) != index + 1) {
+            return null;
+        }
+        E element = elements.get(slot);
+        elements.lazySet(slot, null);
+        // release the slot for the next lap of producers
+        sequences.lazySet(slot, index + capacity);
+        consumerIndex = index + 1;
+        return element;
+    }
+
+    /** Returns the approximate number of elements currently in the queue. */
+    int size() {
+        long size = producerIndex.get() - consumerIndex;
+        if (size < 0) {
+            return 0;
+        }
+        return (int) Math.min(size, capacity);
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -32,7 +32,7 @@ class NoOpSplunkRum extends SplunkRum {
     // passing null values here is fine, they'll never get used anyway
     @SuppressWarnings("NullAway")
     private NoOpSplunkRum() {
-        super(OpenTelemetryRum.noop(), null);
+        super(OpenTelemetryRum.noop(), null, new PipelineHealth());
     }
 
     @Override
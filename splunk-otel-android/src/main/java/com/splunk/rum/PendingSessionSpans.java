@@ -0,0 +1,42 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.Collection;
+
+/**
+ * Holds on to the spans of the session that {@link SessionTailSamplingExporter} hasn't made a
+ * decision about yet. There's only ever one such session at a time. Implementations are only used
+ * from the span processor worker thread and don't need to be thread-safe.
+ */
+interface PendingSessionSpans {
+
+    /** Adds spans of the pending session. Implementations may drop spans to stay bounded. */
+    void add(Collection<SpanData> spans);
+
+    /** The pending session is kept: hands all pending spans over to the {@code exporter}. */
+    CompletableResultCode keep(SpanExporter exporter);
+
+    /** The pending session is sampled out: drops all pending spans. */
+    void discard();
+
+    /** Drops the pending spans that ended before the given epoch timestamp. */
+    void discardOlderThan(long epochNanos);
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Counts what happens to the spans on their way out of the app: the spans and span files that get
+ * dropped (and why), the disk upload retries, the uploaded bytes and the time it takes to hand a
+ * batch over to the exporter chain. All methods are thread-safe and lock-free, so the pipeline
+ * components can call them on their hot paths.
+ *
+ * <p>The counters are exposed via {@link SplunkRum#getPipelineHealth()}, and can optionally be
+ * exported as metrics (see {@link #registerMetrics(Meter)}).
+ */
+final class PipelineHealth {
+
+    static final AttributeKey<String> REASON_KEY = stringKey("reason");
+    static final AttributeKey<String> OUTCOME_KEY = stringKey("outcome");
+    static final AttributeKey<String> QUEUE_KEY = stringKey("queue");
+
+    private final AtomicLong spansDroppedQueueFull = new AtomicLong();
+    private final AtomicLong spansDroppedThrottled = new AtomicLong();
+    private final AtomicLong spansDroppedBacklogFull = new AtomicLong();
+    private final AtomicLong spansDroppedPreInitFull = new AtomicLong();
+    private final AtomicLong spanFilesDroppedStorageLimit = new AtomicLong();
+    private final AtomicLong pendingSpanFilesDroppedStorageLimit = new AtomicLong();
+    private final AtomicLong spanFilesDroppedMaxRetries = new AtomicLong();
+    private final AtomicLong sendRetries = new AtomicLong();
+    private final AtomicLong uploadedBytes = new AtomicLong();
+    private final AtomicLong exports = new AtomicLong();
+    private final AtomicLong failedExports = new AtomicLong();
+    private final AtomicLong totalExportNanos = new AtomicLong();
+    private final AtomicLong maxExportNanos = new AtomicLong();
+    private final List<IntSupplier> queuedSpans = new CopyOnWriteArrayList<>();
+    private final List<IntSupplier> backloggedSpans = new CopyOnWriteArrayList<>();
+
+    void recordSpanDroppedQueueFull() {
+        spansDroppedQueueFull.incrementAndGet();
+    }
+
+    void recordSpansDroppedThrottled(int count) {
+        spansDroppedThrottled.addAndGet(count);
+    }
+
+    void recordSpansDroppedBacklogFull(int count) {
+        spansDroppedBacklogFull.addAndGet(count);
+    }
+
+    void recordSpanDroppedPreInitFull() {
+        spansDroppedPreInitFull.incrementAndGet();
+    }
+
+    void recordSpanFileDroppedStorageLimit() {
+        spanFilesDroppedStorageLimit.incrementAndGet();
+    }
+
+    void recordPendingSpanFileDroppedStorageLimit() {
+        pendingSpanFilesDroppedStorageLimit.incrementAndGet();
+    }
+
+    void recordSpanFileDroppedMaxRetries() {
+        spanFilesDroppedMaxRetries.incrementAndGet();
+    }
+
+    void recordSendRetry() {
+        sendRetries.incrementAndGet();
+    }
+
+    void recordUploadedBytes(long bytes) {
+        uploadedBytes.addAndGet(bytes);
+    }
+
+    void recordExport(long durationNanos, boolean success) {
+        exports.incrementAndGet();
+        if (!success) {
+            failedExports.incrementAndGet();
+        }
+        totalExportNanos.addAndGet(durationNanos);
+        long max;
+        do {
+            max = maxExportNanos.get();
+        } while (durationNanos > max && !maxExportNanos.compareAndSet(max, durationNanos));
+    }
+
+    /** Adds a queue whose current size is reported as spans waiting for the exporter. */
+    void addSpanQueue(IntSupplier size) {
+        queuedSpans.add(size);
+    }
+
+    /** Adds a backlog whose current size is reported as spans waiting for the network. */
+    void addSpanBacklog(IntSupplier size) {
+        backloggedSpans.add(size);
+    }
+
+    PipelineHealthSnapshot snapshot() {
+        return new PipelineHealthSnapshot(
+                spansDroppedQueueFull.get(),
+                spansDroppedThrottled.get(),
+                spansDroppedBacklogFull.get(),
+                spansDroppedPreInitFull.get(),
+                spanFilesDroppedStorageLimit.get(),
+                pendingSpanFilesDroppedStorageLimit.get(),
+                spanFilesDroppedMaxRetries.get(),
+                sendRetries.get(),
+                uploadedBytes.get(),
+                exports.get(),
+                failedExports.get(),
+                totalExportNanos.get(),
+                maxExportNanos.get(),
+                sum(queuedSpans),
+                sum(backloggedSpans));
+    }
+
+    /**
+     * Registers asynchronous instruments that report the counters on every metric collection.
+     * Counters are cumulative; the metric reader decides whether they're exported as deltas.
+     */
+    void registerMetrics(Meter meter) {
+        meter.counterBuilder("rum.pipeline.spans.dropped")
+                .setUnit("{span}")
+                .buildWithCallback(
+                        measurement -> {
+                            measurement.record(spansDroppedQueueFull.get(), reason("queue_full"));
+                            measurement.record(spansDroppedThrottled.get(), reason("throttled"));
+                            measurement.record(
+                                    spansDroppedBacklogFull.get(), reason("backlog_full"));
+                            measurement.record(
+                                    spansDroppedPreInitFull.get(), reason("pre_init_full"));
+                        });
+        meter.counterBuilder("rum.pipeline.files.dropped")
+                .setUnit("{file}")
+                .buildWithCallback(
+                        measurement -> {
+                            measurement.record(
+                                    spanFilesDroppedStorageLimit.get(), reason("storage_limit"));
+                            measurement.record(
+                                    pendingSpanFilesDroppedStorageLimit.get(),
+                                    reason("pending_storage_limit"));
+                            measurement.record(
+                                    spanFilesDroppedMaxRetries.get(), reason("max_retries"));
+                        });
+        meter.counterBuilder("rum.pipeline.send.retries")
+                .setUnit("{retry}")
+                .buildWithCallback(measurement -> measurement.record(sendRetries.get()));
+        meter.counterBuilder("rum.pipeline.uploaded")
+                .setUnit("By")
+                .buildWithCallback(measurement -> measurement.record(uploadedBytes.get()));
+        meter.counterBuilder("rum.pipeline.exports")
+                .setUnit("{export}")
+                .buildWithCallback(
+                        measurement -> {
+                            long failed = failedExports.get();
+                            measurement.record(
+                                    exports.get() - failed, Attributes.of(OUTCOME_KEY, "success"));
+                            measurement.record(failed, Attributes.of(OUTCOME_KEY, "failure"));
+                        });
+        meter.counterBuilder("rum.pipeline.export.time")
+                .setUnit("ms")
+                .buildWithCallback(
+                        measurement ->
+                                measurement.record(
+                                        TimeUnit.NANOSECONDS.toMillis(totalExportNanos.get())));
+        meter.gaugeBuilder("rum.pipeline.spans.queued")
+                .ofLongs()
+                .setUnit("{span}")
+                .buildWithCallback(
+                        measurement -> {
+                            measurement.record(
+                                    sum(queuedSpans), Attributes.of(QUEUE_KEY, "processor"));
+                            measurement.record(
+                                    sum(backloggedSpans), Attributes.of(QUEUE_KEY, "backlog"));
+                        });
+    }
+
+    private static Attributes reason(String reason) {
+        return Attributes.of(REASON_KEY, reason);
+    }
+
+    private static int sum(List<IntSupplier> sizes) {
+        int sum = 0;
+        for (IntSupplier size : sizes) {
+            sum += size.getAsInt();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import java.time.Duration;
+
+/**
+ * A point in time view of the health of the span export pipeline, returned by {@link
+ * SplunkRum#getPipelineHealth()}. All counts are totals since the library was initialized.
+ */
+public final class PipelineHealthSnapshot {
+
+    private final long spansDroppedQueueFull;
+    private final long spansDroppedThrottled;
+    private final long spansDroppedBacklogFull;
+    private final long spansDroppedPreInitFull;
+    private final long spanFilesDroppedStorageLimit;
+    private final long pendingSpanFilesDroppedStorageLimit;
+    private final long spanFilesDroppedMaxRetries;
+    private final long sendRetries;
+    private final long uploadedBytes;
+    private final long exportCount;
+    private final long failedExportCount;
+    private final long totalExportNanos;
+    private final long maxExportNanos;
+    private final int queuedSpans;
+    private final int backloggedSpans;
+
+    PipelineHealthSnapshot(
+            long spansDroppedQueueFull,
+            long spansDroppedThrottled,
+            long spansDroppedBacklogFull,
+            long spansDroppedPreInitFull,
+            long spanFilesDroppedStorageLimit,
+            long pendingSpanFilesDroppedStorageLimit,
+            long spanFilesDroppedMaxRetries,
+            long sendRetries,
+            long uploadedBytes,
+            long exportCount,
+            long failedExportCount,
+            long totalExportNanos,
+            long maxExportNanos,
+            int queuedSpans,
+            int backloggedSpans) {
+        this.spansDroppedQueueFull = spansDroppedQueueFull;
+        this.spansDroppedThrottled = spansDroppedThrottled;
+        this.spansDroppedBacklogFull = spansDroppedBacklogFull;
+        this.spansDroppedPreInitFull = spansDroppedPreInitFull;
+        this.spanFilesDroppedStorageLimit = spanFilesDroppedStorageLimit;
+        this.pendingSpanFilesDroppedStorageLimit = pendingSpanFilesDroppedStorageLimit;
+        this.spanFilesDroppedMaxRetries = spanFilesDroppedMaxRetries;
+        this.sendRetries = sendRetries;
+        this.uploadedBytes = uploadedBytes;
+        this.exportCount = exportCount;
+        this.failedExportCount = failedExportCount;
+        this.totalExportNanos = totalExportNanos;
+        this.maxExportNanos = maxExportNanos;
+        this.queuedSpans = queuedSpans;
+        this.backloggedSpans = backloggedSpans;
+    }
+
+    /** Spans dropped because the span processor queue was full. */
+    public long getSpansDroppedQueueFull() {
+        return spansDroppedQueueFull;
+    }
+
+    /** Spans dropped because too many spans of the same component were sent in a short window. */
+    public long getSpansDroppedThrottled() {
+        return spansDroppedThrottled;
+    }
+
+    /** Spans dropped because the in-memory backlog of the offline or failed spans was full. */
+    public long getSpansDroppedBacklogFull() {
+        return spansDroppedBacklogFull;
+    }
+
+    /** Spans dropped because the buffer of the spans ended before initialization was full. */
+    public long getSpansDroppedPreInitFull() {
+        return spansDroppedPreInitFull;
+    }
+
+    /** Span files deleted because the disk buffer exceeded its storage limit. */
+    public long getSpanFilesDroppedStorageLimit() {
+        return spanFilesDroppedStorageLimit;
+    }
+
+    /**
+     * Pending span files of the session tail sampling deleted because the disk buffer exceeded its
+     * storage limit.
+     */
+    public long getPendingSpanFilesDroppedStorageLimit() {
+        return pendingSpanFilesDroppedStorageLimit;
+    }
+
+    /** Span files deleted because their upload failed too many times. */
+    public long getSpanFilesDroppedMaxRetries() {
+        return spanFilesDroppedMaxRetries;
+    }
+
+    /** Failed span file uploads that were retried later. */
+    public long getSendRetries() {
+        return sendRetries;
+    }
+
+    /** Encoded (uncompressed) span bytes successfully sent to the ingest endpoint. */
+    public long getUploadedBytes() {
+        return uploadedBytes;
+    }
+
+    /** Span batches handed over to the exporter. */
+    public long getExportCount() {
+        return exportCount;
+    }
+
+    /** Span batches that the exporter failed to export, or that timed out. */
+    public long getFailedExportCount() {
+        return failedExportCount;
+    }
+
+    /** The total time spent exporting span batches. */
+    public Duration getTotalExportTime() {
+        return Duration.ofNanos(totalExportNanos);
+    }
+
+    /** The longest time that the export of a single span batch took. */
+    public Duration getMaxExportTime() {
+        return Duration.ofNanos(maxExportNanos);
+    }
+
+    /** Ended spans currently waiting in the span processor queue. */
+    public int getQueuedSpans() {
+        return queuedSpans;
+    }
+
+    /** Spans currently held in memory while the network is unavailable. */
+    public int getBackloggedSpans() {
+        return backloggedSpans;
+    }
+
+    @Override
+    public String toString() {
+        return "PipelineHealthSnapshot{"
+                + "spansDroppedQueueFull="
+                + spansDroppedQueueFull
+                + ", spansDroppedThrottled="
+                + spansDroppedThrottled
+                + ", spansDroppedBacklogFull="
+                + spansDroppedBacklogFull
+                + ", spansDroppedPreInitFull="
+                + spansDroppedPreInitFull
+                + ", spanFilesDroppedStorageLimit="
+                + spanFilesDroppedStorageLimit
+                + ", pendingSpanFilesDroppedStorageLimit="
+                + pendingSpanFilesDroppedStorageLimit
+                + ", spanFilesDroppedMaxRetries="
+                + spanFilesDroppedMaxRetries
+                + ", sendRetries="
+                + sendRetries
+                + ", uploadedBytes="
+                + uploadedBytes
+                + ", exportCount="
+                + exportCount
+                + ", failedExportCount="
+                + failedExportCount
+                + ", totalExportTime="
+                + getTotalExportTime()
+                + ", maxExportTime="
+                + getMaxExportTime()
+                + ", queuedSpans="
+                + queuedSpans
+                + ", backloggedSpans="
+                + backloggedSpans
+                + '}';
+    }
+}
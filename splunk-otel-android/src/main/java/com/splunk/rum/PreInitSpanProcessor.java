@@ -0,0 +1,153 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static com.splunk.rum.SplunkRum.COMPONENT_CRASH;
+import static com.splunk.rum.SplunkRum.COMPONENT_KEY;
+
+import androidx.annotation.Nullable;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stands in for the export pipeline while it's being built in the background (see {@link
+ * SplunkRumBuilder#enableAsyncInitialization()}). The spans that end in the meantime are kept in a
+ * bounded buffer, and are handed over to the pipeline in the order they ended once it's ready; they
+ * keep their original timestamps, attributes and parents. When the buffer is full, further spans
+ * are dropped and counted as {@code queue_full} drops.
+ *
+ * <p>If the app crashes before the pipeline is ready, the crash span and the buffered spans are
+ * written into the crash file instead, and get exported on the next launch.
+ */
+final class PreInitSpanProcessor implements SpanProcessor {
+
+    static final int DEFAULT_MAX_BUFFERED_SPANS = 512;
+
+    private final int maxBufferedSpans;
+    private final PipelineHealth pipelineHealth;
+    @Nullable private final SpanExporter crashFileExporter;
+    // guarded by this; emptied when the pipeline is set
+    private final List<ReadableSpan> buffer = new ArrayList<>();
+    @Nullable private volatile SpanProcessor delegate;
+
+    PreInitSpanProcessor(int maxBufferedSpans, PipelineHealth pipelineHealth) {
+        this(maxBufferedSpans, pipelineHealth, null);
+    }
+
+    PreInitSpanProcessor(
+            int maxBufferedSpans,
+            PipelineHealth pipelineHealth,
+            @Nullable SpanExporter crashFileExporter) {
+        this.maxBufferedSpans = maxBufferedSpans;
+        this.pipelineHealth = pipelineHealth;
+        this.crashFileExporter = crashFileExporter;
+        pipelineHealth.addSpanQueue(this::size);
+    }
+
+    /**
+     * Replays the buffered spans into the export pipeline, and passes every span that ends from now
+     * on straight to it.
+     */
+    void setDelegate(SpanProcessor delegate) {
+        synchronized (this) {
+            for (ReadableSpan span : buffer) {
+                delegate.onEnd(span);
+            }
+            buffer.clear();
+            this.delegate = delegate;
+        }
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {}
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        SpanProcessor delegate = this.delegate;
+        if (delegate == null) {
+            synchronized (this) {
+                delegate = this.delegate;
+                if (delegate == null) {
+                    buffer(span);
+                    return;
+                }
+            }
+        }
+        delegate.onEnd(span);
+    }
+
+    // must be called with the lock held
+    private void buffer(ReadableSpan span) {
+        SpanExporter crashFileExporter = this.crashFileExporter;
+        if (crashFileExporter != null && COMPONENT_CRASH.equals(span.getAttribute(COMPONENT_KEY))) {
+            writeCrashFile(crashFileExporter, span);
+            return;
+        }
+        if (buffer.size() < maxBufferedSpans) {
+            buffer.add(span);
+        } else {
+            pipelineHealth.recordSpanDroppedPreInitFull();
+        }
+    }
+
+    // must be called with the lock held
+    private void writeCrashFile(SpanExporter crashFileExporter, ReadableSpan crashSpan) {
+        // the crash span goes first, in case the crash file can't fit all of them
+        List<SpanData> spans = new ArrayList<>(buffer.size() + 1);
+        spans.add(crashSpan.toSpanData());
+        for (ReadableSpan span : buffer) {
+            spans.add(span.toSpanData());
+        }
+        buffer.clear();
+        // synchronous, the crashing thread is about to die
+        crashFileExporter.export(spans);
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        // the buffered spans can't go anywhere until the pipeline is ready
+        SpanProcessor delegate = this.delegate;
+        return delegate == null ? CompletableResultCode.ofSuccess() : delegate.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        SpanProcessor delegate = this.delegate;
+        return delegate == null ? CompletableResultCode.ofSuccess() : delegate.shutdown();
+    }
+
+    private synchronized int size() {
+        return buffer.size();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static com.splunk.rum.SplunkRum.COMPONENT_CRASH;
+import static com.splunk.rum.SplunkRum.COMPONENT_ERROR;
+import static com.splunk.rum.SplunkRum.COMPONENT_KEY;
+
+import androidx.annotation.Nullable;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Sends crash and error spans (including ANRs) to a separate exporter, so that they neither count
+ * towards the throttling limits of the bulk traffic nor have to wait behind its backlog.
+ */
+class PriorityRoutingExporter implements SpanExporter {
+
+    private final SpanExporter priorityDelegate;
+    private final SpanExporter bulkDelegate;
+
+    PriorityRoutingExporter(SpanExporter priorityDelegate, SpanExporter bulkDelegate) {
+        this.priorityDelegate = priorityDelegate;
+        this.bulkDelegate = bulkDelegate;
+    }
+
+    static boolean isPriority(@Nullable String component) {
+        return COMPONENT_CRASH.equals(component) || COMPONENT_ERROR.equals(component);
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        List<SpanData> prioritySpans = new ArrayList<>();
+        List<SpanData> bulkSpans = new ArrayList<>(spans.size());
+        for (SpanData span : spans) {
+            if (isPriority(span.getAttributes().get(COMPONENT_KEY))) {
+                prioritySpans.add(span);
+            } else {
+                bulkSpans.add(span);
+            }
+        }
+        if (bulkSpans.isEmpty()) {
+            return priorityDelegate.export(prioritySpans);
+        }
+        if (prioritySpans.isEmpty()) {
+            return bulkDelegate.export(bulkSpans);
+        }
+        return CompletableResultCode.ofAll(
+                Arrays.asList(
+                        priorityDelegate.export(prioritySpans), bulkDelegate.export(bulkSpans)));
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofAll(
+                Arrays.asList(priorityDelegate.flush(), bulkDelegate.flush()));
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofAll(
+                Arrays.asList(priorityDelegate.shutdown(), bulkDelegate.shutdown()));
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static com.splunk.rum.SplunkRum.LOG_TAG;
+
+import android.os.Process;
+import android.util.Log;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.rum.internal.SdkOverhead;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * A drop-in replacement for the {@link io.opentelemetry.sdk.trace.export.BatchSpanProcessor},
+ * tailored for mobile: ended spans are handed over to the worker thread through a preallocated
+ * {@link MpscRingBuffer}, so ending a span (usually on the main thread) costs a single CAS instead
+ * of a trip through a shared blocking queue. The worker thread parks when there's nothing to
+ * export, and is only woken up when a full batch is ready, when the schedule delay of a partial
+ * batch elapses, or when a flush is requested.
+ *
+ * <p>Spans that match the priority filter (e.g. crashes and errors) take a separate, small priority
+ * lane: the worker is woken up right away and exports them on their own, ahead of any bulk traffic
+ * that is waiting in the main queue.
+ */
+final class RingBufferSpanProcessor implements SpanProcessor {
+
+    private static final String WORKER_THREAD_NAME = "RingBufferSpanProcessor_WorkerThread";
+    private static final long UNPUBLISHED_SLOT_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final MpscRingBuffer<ReadableSpan> queue;
+    private final MpscRingBuffer<ReadableSpan> priorityQueue;
+    private final Predicate<ReadableSpan> priorityFilter;
+    private final PipelineHealth pipelineHealth;
+    private final Worker worker;
+    private final Thread workerThread;
+    private final AtomicBoolean isShutdown = new AtomicBoolean(false);
+
+    private RingBufferSpanProcessor(Builder builder) {
+        this.queue = new MpscRingBuffer<>(builder.maxQueueSize);
+        this.priorityQueue = new MpscRingBuffer<>(builder.maxPriorityQueueSize);
+        this.priorityFilter = builder.priorityFilter;
+        this.pipelineHealth = builder.pipelineHealth;
+        pipelineHealth.addSpanQueue(() -> queue.size() + priorityQueue.size());
+        this.worker =
+                new Worker(
+                        builder.exporter,
+                        builder.maxExportBatchSize,
+                        builder.scheduleDelay.toNanos(),
+                        builder.exporterTimeout.toNanos());
+        this.workerThread = new Thread(worker, WORKER_THREAD_NAME);
+        workerThread.setDaemon(true);
+        workerThread.start();
+    }
+
+    static Builder builder(SpanExporter exporter) {
+        return new Builder(exporter);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {}
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        if (!span.getSpanContext().isSampled() || isShutdown.get()) {
+            return;
+        }
+        if (priorityFilter.test(span) && priorityQueue.offer(span)) {
+            LockSupport.unpark(workerThread);
+            return;
+        }
+        // when the priority lane is full the span just waits in the main queue
+        if (!queue.offer(span)) {
+            pipelineHealth.recordSpanDroppedQueueFull();
+            return;
+        }
+        // only wake the worker up when it actually waits for more spans
+        if (worker.sleeping && queue.size() >= worker.wakeupThreshold) {
+            LockSupport.unpark(workerThread);
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        if (isShutdown.get()) {
+            return CompletableResultCode.ofSuccess();
+        }
+        CompletableResultCode result = new CompletableResultCode();
+        worker.pendingFlushes.add(result);
+        worker.flushRequested = true;
+        LockSupport.unpark(workerThread);
+        return result;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        if (isShutdown.getAndSet(true)) {
+            return worker.shutdownResult;
+        }
+        worker.shutdownRequested = true;
+        LockSupport.unpark(workerThread);
+        return worker.shutdownResult;
+    }
+
+    private final class Worker implements Runnable {
+
+        private final SpanExporter exporter;
+        private final int maxExportBatchSize;
+        private final long scheduleDelayNanos;
+        private final long exporterTimeoutNanos;
+        // accessed only from the worker thread
+        private final List<SpanData> batch;
+        private final List<SpanData> priorityBatch = new ArrayList<>();
+        private long batchDeadlineNanos = 0;
+
+        private final Queue<CompletableResultCode> pendingFlushes = new ConcurrentLinkedQueue<>();
+        private final CompletableResultCode shutdownResult = new CompletableResultCode();
+        private volatile boolean flushRequested = false;
+        private volatile boolean shutdownRequested = false;
+        private volatile boolean sleeping = false;
+        private volatile int wakeupThreshold = 1;
+
+        private Worker(
+                SpanExporter exporter,
+                int maxExportBatchSize,
+                long scheduleDelayNanos,
+                long exporterTimeoutNanos) {
+            this.exporter = exporter;
+            this.maxExportBatchSize = maxExportBatchSize;
+            this.scheduleDelayNanos = scheduleDelayNanos;
+            this.exporterTimeoutNanos = exporterTimeoutNanos;
+            this.batch = new ArrayList<>(maxExportBatchSize);
+        }
+
+        @Override
+        public void run() {
+            // exporting is never urgent enough to compete with the UI
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            SdkOverhead.getInstance().registerCurrentThread("span_processor");
+            while (true) {
+                exportPriorityQueue();
+                boolean drainedAnything = drainQueue();
+
+                if (flushRequested) {
+                    flushRequested = false;
+                    // only complete the flushes that were requested before the queue got drained;
+                    // the ones that come in later will be handled in the next iteration
+                    List<CompletableResultCode> flushes = takePendingFlushes();
+                    exportPriorityQueue();
+                    drainQueue();
+                    exportCurrentBatch();
+                    succeedAll(flushes);
+                }
+                if (shutdownRequested) {
+                    exportPriorityQueue();
+                    drainQueue();
+                    exportCurrentBatch();
+                    succeedAll(takePendingFlushes());
+                    CompletableResultCode exporterShutdown = exporter.shutdown();
+                    exporterShutdown.whenComplete(
+                            () -> {
+                                if (exporterShutdown.isSuccess()) {
+                                    shutdownResult.succeed();
+                                } else {
+                                    shutdownResult.fail();
+                                }
+                            });
+                    return;
+                }
+                if (!batch.isEmpty() && System.nanoTime() - batchDeadlineNanos >= 0) {
+                    exportCurrentBatch();
+                }
+
+                if (!drainedAnything && !(queue.isEmpty() && priorityQueue.isEmpty())) {
+                    // a producer has claimed a slot but hasn't published the span yet
+                    LockSupport.parkNanos(this, UNPUBLISHED_SLOT_BACKOFF_NANOS);
+                    continue;
+                }
+                parkUntilNeeded();
+            }
+        }
+
+        private boolean drainQueue() {
+            boolean drainedAnything = false;
+            ReadableSpan span;
+            while ((span = queue.poll()) != null) {
+                drainedAnything = true;
+                if (batch.isEmpty()) {
+                    batchDeadlineNanos = System.nanoTime() + scheduleDelayNanos;
+                }
+                batch.add(span.toSpanData());
+                if (batch.size() >= maxExportBatchSize) {
+                    exportCurrentBatch();
+                }
+            }
+            return drainedAnything;
+        }
+
+        private void exportPriorityQueue() {
+            ReadableSpan span;
+            while ((span = priorityQueue.poll()) != null) {
+                priorityBatch.add(span.toSpanData());
+            }
+            export(priorityBatch);
+        }
+
+        private void parkUntilNeeded() {
+            // with an empty batch any new span is worth waking up for; otherwise we wait until
+            // either the batch can be filled up or the schedule delay elapses
+            wakeupThreshold = batch.isEmpty() ? 1 : maxExportBatchSize - batch.size();
+            sleeping = true;
+            try {
+                if (flushRequested
+                        || shutdownRequested
+                        || !priorityQueue.isEmpty()
+                        || queue.size() >= wakeupThreshold) {
+                    return;
+                }
+                if (batch.isEmpty()) {
+                    LockSupport.park(this);
+                } else {
+                    long remainingNanos = batchDeadlineNanos - System.nanoTime();
+                    if (remainingNanos > 0) {
+                        LockSupport.parkNanos(this, remainingNanos);
+                    }
+                }
+            } finally {
+                sleeping = false;
+            }
+        }
+
+        private void exportCurrentBatch() {
+            export(batch);
+        }
+
+        private void export(List<SpanData> spans) {
+            if (spans.isEmpty()) {
+                return;
+            }
+            long startNanos = System.nanoTime();
+            try {
+                CompletableResultCode result = exporter.export(new ArrayList<>(spans));
+                result.join(exporterTimeoutNanos, TimeUnit.NANOSECONDS);
+                pipelineHealth.recordExport(System.nanoTime() - startNanos, result.isSuccess());
+                if (!result.isSuccess()) {
+                    Log.d(LOG_TAG, "Exporter failed to export " + spans.size() + " spans");
+                }
+            } catch (RuntimeException e) {
+                pipelineHealth.recordExport(System.nanoTime() - startNanos, false);
+                Log.w(LOG_TAG, "Exporter threw an exception", e);
+            } finally {
+                spans.clear();
+            }
+        }
+
+        private List<CompletableResultCode> takePendingFlushes() {
+            List<CompletableResultCode> flushes = new ArrayList<>();
+            CompletableResultCode flushResult;
+            while ((flushResult = pendingFlushes.poll()) != null) {
+                flushes.add(flushResult);
+            }
+            return flushes;
+        }
+
+        private void succeedAll(List<CompletableResultCode> flushes) {
+            for (CompletableResultCode flushResult : flushes) {
+                flushResult.succeed();
+            }
+        }
+    }
+
+    static class Builder {
+        final SpanExporter exporter;
+        int maxQueueSize = 2048;
+        int maxExportBatchSize = 512;
+        Duration scheduleDelay = Duration.ofSeconds(5);
+        Duration exporterTimeout = Duration.ofSeconds(30);
+        int maxPriorityQueueSize = 64;
+        Predicate<ReadableSpan> priorityFilter = span -> false;
+        PipelineHealth pipelineHealth = new PipelineHealth();
+
+        private Builder(SpanExporter exporter) {
+            this.exporter = exporter;
+        }
+
+        /** The queue is preallocated; its capacity is rounded up to the next power of two. */
+        Builder maxQueueSize(int maxQueueSize) {
+            this.maxQueueSize = maxQueueSize;
+            return this;
+        }
+
+        Builder maxExportBatchSize(int maxExportBatchSize) {
+            this.maxExportBatchSize = maxExportBatchSize;
+            return this;
+        }
+
+        Builder scheduleDelay(Duration scheduleDelay) {
+            this.scheduleDelay = scheduleDelay;
+            return this;
+        }
+
+        Builder exporterTimeout(Duration exporterTimeout) {
+            this.exporterTimeout = exporterTimeout;
+            return this;
+        }
+
+        /** Spans matching the filter are exported right away, ahead of the main queue. */
+        Builder priorityFilter(Predicate<ReadableSpan> priorityFilter) {
+            this.priorityFilter = priorityFilter;
+            return this;
+        }
+
+        Builder maxPriorityQueueSize(int maxPriorityQueueSize) {
+            this.maxPriorityQueueSize = maxPriorityQueueSize;
+            return this;
+        }
+
+        Builder pipelineHealth(PipelineHealth pipelineHealth) {
+            this.pipelineHealth = pipelineHealth;
+            return this;
+        }
+
+        RingBufferSpanProcessor build() {
+            return new RingBufferSpanProcessor(this);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static com.splunk.rum.SplunkRum.COMPONENT_CRASH;
+import static com.splunk.rum.SplunkRum.COMPONENT_ERROR;
+import static com.splunk.rum.SplunkRum.COMPONENT_KEY;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Samples spans according to the rules configured in the {@link SamplingRulesBuilder}. The rules
+ * are only applied to spans that the delegate sampler (e.g. the session based one) has decided to
+ * keep. Crash, error and ANR spans are exempt from the rules: they're kept whenever the delegate
+ * keeps them, even if their parent span was dropped by a rule.
+ */
+final class RuleBasedSampler implements Sampler {
+
+    static final AttributeKey<Double> SAMPLING_WEIGHT_KEY =
+            AttributeKey.doubleKey("sampling.weight");
+    private static final SamplingResult ALWAYS_SAMPLED = SamplingResult.recordAndSample();
+
+    private final Sampler delegate;
+    private final Rule[] rules;
+
+    RuleBasedSampler(Sampler delegate, List<Rule> rules) {
+        this.delegate = delegate;
+        this.rules = rules.toArray(new Rule[0]);
+    }
+
+    @Override
+    public SamplingResult shouldSample(
+            Context parentContext,
+            String traceId,
+            String name,
+            SpanKind spanKind,
+            Attributes attributes,
+            List<LinkData> parentLinks) {
+        boolean alwaysSampled = isAlwaysSampled(attributes);
+        // the parent of an error span may have been dropped by a rule, so the delegate decides
+        // as if it was a root span; a session that was sampled out stays sampled out
+        SamplingResult result =
+                delegate.shouldSample(
+                        alwaysSampled ? Context.root() : parentContext,
+                        traceId,
+                        name,
+                        spanKind,
+                        attributes,
+                        parentLinks);
+        if (result.getDecision() != SamplingDecision.RECORD_AND_SAMPLE) {
+            return result;
+        }
+        if (alwaysSampled) {
+            return ALWAYS_SAMPLED;
+        }
+        for (Rule rule : rules) {
+            if (rule.matches(name, attributes)) {
+                return rule.sample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isAlwaysSampled(Attributes attributes) {
+        // crashes, errors and ANRs (which are reported with component=error)
+        String component = attributes.get(COMPONENT_KEY);
+        return COMPONENT_CRASH.equals(component) || COMPONENT_ERROR.equals(component);
+    }
+
+    @Override
+    public String getDescription() {
+        return "RuleBasedSampler{rules:"
+                + rules.length
+                + ",delegate:"
+                + delegate.getDescription()
+                + "}";
+    }
+
+    abstract static class Rule {
+
+        private final Sampler ratioSampler;
+        private final SamplingResult sampled;
+
+        Rule(double ratio) {
+            this.ratioSampler = Sampler.traceIdRatioBased(ratio);
+            // the results are computed once, no need to allocate anything per span
+            if (ratio <= 0.0) {
+                this.sampled = SamplingResult.drop();
+            } else if (ratio >= 1.0) {
+                this.sampled = SamplingResult.recordAndSample();
+            } else {
+                this.sampled =
+                        SamplingResult.create(
+                                SamplingDecision.RECORD_AND_SAMPLE,
+                                Attributes.of(SAMPLING_WEIGHT_KEY, 1.0 / ratio));
+            }
+        }
+
+        static Rule byName(Predicate<String> spanNamePredicate, double ratio) {
+            return new Rule(ratio) {
+                @Override
+                boolean matches(String name, Attributes attributes) {
+                    return spanNamePredicate.test(name);
+                }
+            };
+        }
+
+        static <T> Rule byAttributeValue(
+                AttributeKey<T> attributeKey,
+                Predicate<? super T> attributeValuePredicate,
+                double ratio) {
+            return new Rule(ratio) {
+                @Override
+                boolean matches(String name, Attributes attributes) {
+                    T value = attributes.get(attributeKey);
+                    return value != null && attributeValuePredicate.test(value);
+                }
+            };
+        }
+
+        abstract boolean matches(String name, Attributes attributes);
+
+        SamplingResult sample(
+                Context parentContext,
+                String traceId,
+                String name,
+                SpanKind spanKind,
+                Attributes attributes,
+                List<LinkData> parentLinks) {
+            SamplingDecision decision =
+                    ratioSampler
+                            .shouldSample(
+                                    parentContext, traceId, name, spanKind, attributes, parentLinks)
+                            .getDecision();
+            return decision == SamplingDecision.RECORD_AND_SAMPLE ? sampled : SamplingResult.drop();
+        }
+    }
+}
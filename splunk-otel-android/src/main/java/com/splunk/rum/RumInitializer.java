@@ -26,42 +26,62 @@ import static io.opentelemetry.instrumentation.api.instrumenter.AttributesExtrac
 import static io.opentelemetry.rum.internal.RumConstants.APP_START_SPAN_NAME;
 import static io.opentelemetry.rum.internal.RumConstants.RUM_SDK_VERSION;
 import static io.opentelemetry.semconv.resource.attributes.ResourceAttributes.DEPLOYMENT_ENVIRONMENT;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
 
 import android.app.Application;
+import android.os.Handler;
 import android.os.Looper;
+import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import com.splunk.android.rum.R;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.exporter.logging.LoggingSpanExporter;
 import io.opentelemetry.exporter.zipkin.ZipkinSpanExporter;
 import io.opentelemetry.rum.internal.GlobalAttributesSpanAppender;
 import io.opentelemetry.rum.internal.OpenTelemetryRum;
 import io.opentelemetry.rum.internal.OpenTelemetryRumBuilder;
+import io.opentelemetry.rum.internal.SdkOverhead;
 import io.opentelemetry.rum.internal.SessionIdRatioBasedSampler;
+import io.opentelemetry.rum.internal.instrumentation.InstrumentedApplication;
 import io.opentelemetry.rum.internal.instrumentation.activity.VisibleScreenTracker;
 import io.opentelemetry.rum.internal.instrumentation.anr.AnrDetector;
+import io.opentelemetry.rum.internal.instrumentation.anr.AnrDetectorBuilder;
+import io.opentelemetry.rum.internal.instrumentation.crash.CrashDetails;
 import io.opentelemetry.rum.internal.instrumentation.crash.CrashReporter;
 import io.opentelemetry.rum.internal.instrumentation.lifecycle.AndroidLifecycleInstrumentation;
 import io.opentelemetry.rum.internal.instrumentation.network.CurrentNetworkProvider;
 import io.opentelemetry.rum.internal.instrumentation.network.NetworkAttributesSpanAppender;
 import io.opentelemetry.rum.internal.instrumentation.network.NetworkChangeMonitor;
+import io.opentelemetry.rum.internal.instrumentation.overhead.DegradationStep;
+import io.opentelemetry.rum.internal.instrumentation.overhead.OverheadGovernor;
+import io.opentelemetry.rum.internal.instrumentation.overhead.OverheadGovernorBuilder;
+import io.opentelemetry.rum.internal.instrumentation.overhead.SdkOverheadReporter;
 import io.opentelemetry.rum.internal.instrumentation.slowrendering.SlowRenderingDetector;
 import io.opentelemetry.rum.internal.instrumentation.startup.AppStartupTimer;
+import io.opentelemetry.sdk.common.Clock;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.resources.Resource;
 import io.opentelemetry.sdk.resources.ResourceBuilder;
 import io.opentelemetry.sdk.trace.SpanLimits;
 import io.opentelemetry.sdk.trace.SpanProcessor;
 import io.opentelemetry.sdk.trace.data.SpanData;
-import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
 import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
 import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
 import java.io.File;
+import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import zipkin2.reporter.Sender;
@@ -72,11 +92,29 @@ class RumInitializer {
     // we're setting a fairly large length limit to capture long stack traces; ~256 lines,
     // assuming 128 chars per line
     static final int MAX_ATTRIBUTE_LENGTH = 256 * 128;
+    // the crash and the queued spans are written to the crash file, which only takes milliseconds
+    private static final Duration CRASH_FLUSH_TIMEOUT = Duration.ofMillis(200);
 
     private final SplunkRumBuilder builder;
     private final Application application;
     private final AppStartupTimer startupTimer;
     private final InitializationEvents initializationEvents;
+    private final PipelineHealth pipelineHealth = new PipelineHealth();
+    // the instrumentations add themselves to the governor as they're installed
+    @Nullable private final OverheadGovernorBuilder overheadGovernorBuilder;
+    @Nullable private CrashFileSender crashFileSender;
+    @Nullable private CrashWriteAheadSpanProcessor crashWriteAheadSpanProcessor;
+    @Nullable private DiskToZipkinExporter diskToZipkinExporter;
+    @Nullable private ErrorDeduplicatingExporter errorDeduplicatingExporter;
+    // created on the first attempt to send the recovered crash spans, on the export thread
+    @Nullable private Sender recoveredCrashSpansSender;
+    // created lazily, by whichever disk exporter comes first
+    @Nullable private DeviceSpanStorageLimiter storageLimiter;
+    @Nullable private volatile NetworkAttributesSpanAppender networkAttributes;
+    // the shared RUM scheduler, once initialize() has created it
+    @Nullable private Executor worker;
+    // registered by initialize(), if the non-critical instrumentations are deferred
+    @Nullable private FirstFrameIdleTask firstFrameIdleTask;
 
     RumInitializer(
             SplunkRumBuilder builder, Application application, AppStartupTimer startupTimer) {
@@ -84,6 +122,14 @@ class RumInitializer {
         this.application = application;
         this.startupTimer = startupTimer;
         this.initializationEvents = new InitializationEvents(startupTimer);
+        Duration cpuTimeBudget = builder.overheadGovernorCpuTimeBudget;
+        Duration mainThreadTimeBudget = builder.overheadGovernorMainThreadTimeBudget;
+        this.overheadGovernorBuilder =
+                cpuTimeBudget == null || mainThreadTimeBudget == null
+                        ? null
+                        : OverheadGovernor.builder()
+                                .setCpuTimeBudget(cpuTimeBudget)
+                                .setMainThreadTimeBudget(mainThreadTimeBudget);
     }
 
     SplunkRum initialize(
@@ -91,55 +137,55 @@ class RumInitializer {
             Looper mainLooper) {
         VisibleScreenTracker visibleScreenTracker = new VisibleScreenTracker();
 
+        // the library threads register themselves as they start, so this goes first
+        if (builder.sdkOverheadReportingEnabled || overheadGovernorBuilder != null) {
+            SdkOverhead.getInstance().enable();
+        }
+
         initializationEvents.begin();
         OpenTelemetryRumBuilder otelRumBuilder = OpenTelemetryRum.builder(application);
+        worker = otelRumBuilder.getScheduler();
 
         otelRumBuilder.mergeResource(createSplunkResource());
         initializationEvents.emit("resourceInitialized");
 
-        CurrentNetworkProvider currentNetworkProvider =
-                currentNetworkProviderFactory.apply(application);
-        initializationEvents.emit("connectionUtilInitialized");
-
-        // TODO: How truly important is the order of these span processors? The location of event
-        // generation should probably not be altered...
+        // in async mode, the network provider and the export pipeline are set up in the background
+        // and the spans that end until then are buffered; a crash in the meantime goes straight
+        // into the crash file
+        PreInitSpanProcessor preInitSpanProcessor = null;
+        CurrentNetworkProvider currentNetworkProvider = null;
+        if (builder.asyncInitializationEnabled) {
+            preInitSpanProcessor =
+                    new PreInitSpanProcessor(
+                            PreInitSpanProcessor.DEFAULT_MAX_BUFFERED_SPANS,
+                            pipelineHealth,
+                            builder.isCrashReportingEnabled()
+                                    ? buildCrashSpanExporter(
+                                            buildCrashFileExporter(getCrashFileSender()))
+                                    : null);
+        } else {
+            currentNetworkProvider = initializeNetworkProvider(currentNetworkProviderFactory);
+        }
 
         GlobalAttributesSpanAppender globalAttributesSpanAppender =
                 GlobalAttributesSpanAppender.create(builder.globalAttributes);
 
-        // Add span processor that appends global attributes.
+        // Append global, network and screen attributes (in that order) to every span; they're
+        // merged with the session id into a single snapshot that is rebuilt only when they change
+        otelRumBuilder
+                .addSpanAttributesSupplier(globalAttributesSpanAppender)
+                .addSpanAttributesSupplier(this::getNetworkAttributes)
+                .addSpanAttributesSupplier(new ScreenAttributesAppender(visibleScreenTracker));
+        initializationEvents.emit("attributeAppenderInitialized");
+
+        // Add span processor that batches spans up for export
+        SpanProcessor spanProcessor =
+                preInitSpanProcessor != null
+                        ? preInitSpanProcessor
+                        : buildSpanProcessor(requireNonNull(currentNetworkProvider));
         otelRumBuilder.addTracerProviderCustomizer(
                 (tracerProviderBuilder, app) ->
-                        tracerProviderBuilder.addSpanProcessor(globalAttributesSpanAppender));
-
-        // Add span processor that appends network attributes.
-        otelRumBuilder.addTracerProviderCustomizer(
-                (tracerProviderBuilder, app) -> {
-                    SpanProcessor networkAttributesSpanAppender =
-                            NetworkAttributesSpanAppender.create(currentNetworkProvider);
-                    return tracerProviderBuilder.addSpanProcessor(networkAttributesSpanAppender);
-                });
-
-        // Add span processor that appends screen attributes and generate init event.
-        otelRumBuilder.addTracerProviderCustomizer(
-                (tracerProviderBuilder, app) -> {
-                    ScreenAttributesAppender screenAttributesAppender =
-                            new ScreenAttributesAppender(visibleScreenTracker);
-                    initializationEvents.emit("attributeAppenderInitialized");
-                    return tracerProviderBuilder.addSpanProcessor(screenAttributesAppender);
-                });
-
-        // Add batch span processor
-        otelRumBuilder.addTracerProviderCustomizer(
-                (tracerProviderBuilder, app) -> {
-                    SpanExporter zipkinExporter = buildFilteringExporter(currentNetworkProvider);
-                    initializationEvents.emit("exporterInitialized");
-
-                    BatchSpanProcessor batchSpanProcessor =
-                            BatchSpanProcessor.builder(zipkinExporter).build();
-                    initializationEvents.emit("batchSpanProcessorInitialized");
-                    return tracerProviderBuilder.addSpanProcessor(batchSpanProcessor);
-                });
+                        tracerProviderBuilder.addSpanProcessor(spanProcessor));
 
         // Set span limits
         otelRumBuilder.addTracerProviderCustomizer(
@@ -150,13 +196,18 @@ class RumInitializer {
                                         .build()));
 
         // Set up the sampler, if enabled
-        if (builder.sessionBasedSamplerEnabled) {
+        if (builder.sessionBasedSamplerEnabled || builder.samplingRulesBuilder.hasRules()) {
             otelRumBuilder.addTracerProviderCustomizer(
                     (tracerProviderBuilder, app) -> {
-                        SessionIdRatioBasedSampler sampler =
-                                new SessionIdRatioBasedSampler(
-                                        builder.sessionBasedSamplerRatio,
-                                        otelRumBuilder.getSessionId());
+                        Sampler sampler =
+                                builder.sessionBasedSamplerEnabled
+                                        ? new SessionIdRatioBasedSampler(
+                                                builder.sessionBasedSamplerRatio,
+                                                otelRumBuilder.getSessionId())
+                                        : Sampler.parentBased(Sampler.alwaysOn());
+                        if (builder.samplingRulesBuilder.hasRules()) {
+                            sampler = builder.samplingRulesBuilder.build(sampler);
+                        }
                         return tracerProviderBuilder.setSampler(sampler);
                     });
         }
@@ -192,30 +243,220 @@ class RumInitializer {
                 instrumentedApplication ->
                         logBridge.setTracerProvider(
                                 instrumentedApplication.getOpenTelemetrySdk().getTracerProvider()));
-
-        if (builder.isAnrDetectionEnabled()) {
-            installAnrDetector(otelRumBuilder, mainLooper);
+        governOverhead(
+                "log_bridge",
+                singletonList(LogToSpanBridge.OVERHEAD_KIND),
+                DegradationStep.create("sample_1_in_10", () -> logBridge.sample(10)),
+                DegradationStep.create("disable", () -> logBridge.sample(0)));
+
+        Duration metricsExportInterval = getMetricsExportInterval();
+        ForegroundMetricReader metricReader =
+                metricsExportInterval == null
+                        ? null
+                        : installMetricExporter(otelRumBuilder, metricsExportInterval);
+        if (builder.pipelineHealthMetricsExportInterval != null) {
+            otelRumBuilder.addInstrumentation(
+                    instrumentedApplication ->
+                            pipelineHealth.registerMetrics(
+                                    instrumentedApplication
+                                            .getOpenTelemetrySdk()
+                                            .getMeterProvider()
+                                            .get(RUM_TRACER_NAME)));
         }
-        if (builder.isNetworkMonitorEnabled()) {
-            installNetworkMonitor(otelRumBuilder, currentNetworkProvider);
-        }
-        if (builder.isSlowRenderingDetectionEnabled()) {
-            installSlowRenderingDetector(otelRumBuilder);
-        }
-        if (builder.isCrashReportingEnabled()) {
-            installCrashReporter(otelRumBuilder);
+
+        // must see the first activity being resumed, even if the instrumentations are installed
+        // asynchronously
+        if (builder.deferredInstrumentationsEnabled) {
+            firstFrameIdleTask = FirstFrameIdleTask.register(application);
+            initializationEvents.beginDeferredStage();
         }
 
         // Lifecycle events instrumentation are always installed.
         installLifecycleInstrumentations(otelRumBuilder, visibleScreenTracker);
 
+        // a crash during the cold start needs to be reported too, even in async mode
+        if (builder.isCrashReportingEnabled()) {
+            installCrashReporter(otelRumBuilder::addInstrumentation);
+        }
+
+        if (preInitSpanProcessor == null) {
+            installInstrumentations(
+                    otelRumBuilder::addInstrumentation,
+                    requireNonNull(currentNetworkProvider),
+                    mainLooper,
+                    visibleScreenTracker,
+                    metricReader);
+        } else {
+            // must go last, so that the instrumentations above are installed synchronously
+            PreInitSpanProcessor spanBuffer = preInitSpanProcessor;
+            otelRumBuilder.addInstrumentation(
+                    instrumentedApplication ->
+                            instrumentedApplication
+                                    .getScheduler()
+                                    .execute(
+                                            () ->
+                                                    finishInitialization(
+                                                            instrumentedApplication,
+                                                            currentNetworkProviderFactory,
+                                                            spanBuffer,
+                                                            mainLooper,
+                                                            visibleScreenTracker,
+                                                            metricReader)));
+        }
+
         OpenTelemetryRum openTelemetryRum = otelRumBuilder.build();
 
         initializationEvents.recordInitializationSpans(
                 builder.getConfigFlags(),
                 openTelemetryRum.getOpenTelemetry().getTracer(RUM_TRACER_NAME));
 
-        return new SplunkRum(openTelemetryRum, globalAttributesSpanAppender);
+        return new SplunkRum(openTelemetryRum, globalAttributesSpanAppender, pipelineHealth);
+    }
+
+    private void finishInitialization(
+            InstrumentedApplication instrumentedApplication,
+            Function<Application, CurrentNetworkProvider> currentNetworkProviderFactory,
+            PreInitSpanProcessor preInitSpanProcessor,
+            Looper mainLooper,
+            VisibleScreenTracker visibleScreenTracker,
+            @Nullable ForegroundMetricReader metricReader) {
+        CurrentNetworkProvider currentNetworkProvider =
+                initializeNetworkProvider(currentNetworkProviderFactory);
+        preInitSpanProcessor.setDelegate(buildSpanProcessor(currentNetworkProvider));
+        // the instrumentations expect to be installed on the main thread, like in the sync mode
+        runOnMainThread(
+                mainLooper,
+                () ->
+                        installInstrumentations(
+                                installer -> installer.accept(instrumentedApplication),
+                                currentNetworkProvider,
+                                mainLooper,
+                                visibleScreenTracker,
+                                metricReader));
+    }
+
+    // visible for testing
+    void runOnMainThread(Looper mainLooper, Runnable task) {
+        new Handler(mainLooper).post(task);
+    }
+
+    private CurrentNetworkProvider initializeNetworkProvider(
+            Function<Application, CurrentNetworkProvider> currentNetworkProviderFactory) {
+        CurrentNetworkProvider currentNetworkProvider =
+                currentNetworkProviderFactory.apply(application);
+        networkAttributes = NetworkAttributesSpanAppender.create(currentNetworkProvider);
+        initializationEvents.emit("connectionUtilInitialized");
+        return currentNetworkProvider;
+    }
+
+    private Attributes getNetworkAttributes() {
+        // the spans that start before the network provider is ready don't get any
+        NetworkAttributesSpanAppender networkAttributes = this.networkAttributes;
+        return networkAttributes == null ? Attributes.empty() : networkAttributes.get();
+    }
+
+    private SpanProcessor buildSpanProcessor(CurrentNetworkProvider currentNetworkProvider) {
+        SpanExporter zipkinExporter = buildFilteringExporter(currentNetworkProvider);
+        initializationEvents.emit("exporterInitialized");
+
+        // crash, error and ANR spans skip the queue and get exported right away
+        RingBufferSpanProcessor spanProcessor =
+                RingBufferSpanProcessor.builder(zipkinExporter)
+                        .priorityFilter(
+                                span ->
+                                        PriorityRoutingExporter.isPriority(
+                                                span.getAttribute(COMPONENT_KEY)))
+                        .pipelineHealth(pipelineHealth)
+                        .build();
+        ErrorDeduplicatingExporter errorDeduplicatingExporter = this.errorDeduplicatingExporter;
+        if (errorDeduplicatingExporter != null) {
+            // the periodic summaries of the repeated errors are exported like any other span
+            errorDeduplicatingExporter.setSpanProcessor(spanProcessor);
+        }
+        initializationEvents.emit("batchSpanProcessorInitialized");
+        CrashWriteAheadSpanProcessor crashWriteAheadSpanProcessor =
+                this.crashWriteAheadSpanProcessor;
+        if (crashWriteAheadSpanProcessor == null) {
+            return spanProcessor;
+        }
+        // must see the crash span before the batching processor does
+        return SpanProcessor.composite(crashWriteAheadSpanProcessor, spanProcessor);
+    }
+
+    private void installInstrumentations(
+            InstrumentationSink instrumentations,
+            CurrentNetworkProvider currentNetworkProvider,
+            Looper mainLooper,
+            VisibleScreenTracker visibleScreenTracker,
+            @Nullable ForegroundMetricReader metricReader) {
+        // the exporter is created along with the span processor
+        instrumentations.add(
+                instrumentedApplication -> {
+                    DiskToZipkinExporter diskToZipkinExporter = this.diskToZipkinExporter;
+                    if (diskToZipkinExporter != null) {
+                        diskToZipkinExporter.startPolling(instrumentedApplication);
+                    }
+                    ErrorDeduplicatingExporter errorDeduplicatingExporter =
+                            this.errorDeduplicatingExporter;
+                    if (errorDeduplicatingExporter != null) {
+                        errorDeduplicatingExporter.startSummarizing(instrumentedApplication);
+                    }
+                    // the periodic exports are suspended in the background
+                    instrumentedApplication.registerApplicationStateListener(
+                            new BackgroundFlusher(
+                                    instrumentedApplication.getScheduler(),
+                                    instrumentedApplication
+                                            .getOpenTelemetrySdk()
+                                            .getSdkTracerProvider(),
+                                    metricReader,
+                                    errorDeduplicatingExporter,
+                                    diskToZipkinExporter));
+                });
+
+        // the rest can wait until the first frame is drawn, if enabled
+        FirstFrameIdleTask firstFrameIdleTask = this.firstFrameIdleTask;
+        List<Consumer<InstrumentedApplication>> deferredInstallers = new ArrayList<>();
+        InstrumentationSink nonCritical =
+                firstFrameIdleTask != null ? deferredInstallers::add : instrumentations;
+        if (builder.isAnrDetectionEnabled()) {
+            installAnrDetector(nonCritical, mainLooper);
+        }
+        if (builder.isNetworkMonitorEnabled()) {
+            installNetworkMonitor(nonCritical, currentNetworkProvider);
+        }
+        if (builder.isSlowRenderingDetectionEnabled()) {
+            installSlowRenderingDetector(nonCritical, visibleScreenTracker);
+        }
+        if (builder.sdkOverheadReportingEnabled) {
+            nonCritical.add(
+                    instrumentedApplication -> {
+                        SdkOverheadReporter.installOn(instrumentedApplication);
+                        initializationEvents.emit("sdkOverheadReporterInitialized");
+                    });
+        }
+
+        // must go after all the instrumentations it governs
+        OverheadGovernorBuilder overheadGovernorBuilder = this.overheadGovernorBuilder;
+        if (overheadGovernorBuilder != null) {
+            nonCritical.add(
+                    instrumentedApplication -> {
+                        overheadGovernorBuilder.build().installOn(instrumentedApplication);
+                        initializationEvents.emit("overheadGovernorInitialized");
+                    });
+        }
+
+        if (firstFrameIdleTask != null) {
+            instrumentations.add(
+                    instrumentedApplication ->
+                            firstFrameIdleTask.runWhenIdle(
+                                    () -> {
+                                        for (Consumer<InstrumentedApplication> installer :
+                                                deferredInstallers) {
+                                            installer.accept(instrumentedApplication);
+                                        }
+                                        initializationEvents.endDeferredStage();
+                                    }));
+        }
     }
 
     private void installLifecycleInstrumentations(
@@ -242,6 +483,15 @@ class RumInitializer {
                                     .setScreenNameExtractor(SplunkScreenNameExtractor.INSTANCE)
                                     .build();
                     instrumentation.installOn(instrumentedApp);
+                    governOverhead(
+                            "lifecycle",
+                            asList(SdkOverhead.ACTIVITY_LIFECYCLE, SdkOverhead.FRAGMENT_LIFECYCLE),
+                            DegradationStep.create(
+                                    "disable_fragment_tracing",
+                                    instrumentation::disableFragmentTracing),
+                            DegradationStep.create(
+                                    "disable_activity_tracing",
+                                    instrumentation::disableActivityTracing));
                     initializationEvents.emit("activityLifecycleCallbacksInitialized");
                 });
     }
@@ -271,51 +521,137 @@ class RumInitializer {
         return "unknown";
     }
 
-    private void installAnrDetector(OpenTelemetryRumBuilder otelRumBuilder, Looper mainLooper) {
-        otelRumBuilder.addInstrumentation(
+    private static Function<Tracer, Tracer> withComponent(String component) {
+        return tracer ->
+                (Tracer)
+                        spanName ->
+                                tracer.spanBuilder(spanName).setAttribute(COMPONENT_KEY, component);
+    }
+
+    private void installAnrDetector(InstrumentationSink instrumentations, Looper mainLooper) {
+        instrumentations.add(
                 instrumentedApplication -> {
-                    AnrDetector.builder()
-                            .addAttributesExtractor(constant(COMPONENT_KEY, COMPONENT_ERROR))
-                            .setMainLooper(mainLooper)
-                            .build()
-                            .installOn(instrumentedApplication);
+                    AnrDetectorBuilder anrDetectorBuilder =
+                            AnrDetector.builder()
+                                    .addAttributesExtractor(
+                                            constant(COMPONENT_KEY, COMPONENT_ERROR))
+                                    .setMainLooper(mainLooper);
+                    if (builder.longTaskThreshold != null) {
+                        anrDetectorBuilder
+                                .setLongTaskThreshold(builder.longTaskThreshold)
+                                // a long task is a UI hiccup, not an error
+                                .setLongTaskTracerCustomizer(withComponent(COMPONENT_UI));
+                    }
+                    AnrDetector anrDetector = anrDetectorBuilder.build();
+                    anrDetector.installOn(instrumentedApplication);
+                    governOverhead(
+                            "anr",
+                            asList(SdkOverhead.ANR_WATCHDOG, SdkOverhead.ANR_DETECTOR),
+                            DegradationStep.create(
+                                    "disable_stack_sampling", anrDetector::disableStackSampling),
+                            DegradationStep.create("uninstall", anrDetector::uninstall));
 
                     initializationEvents.emit("anrMonitorInitialized");
                 });
     }
 
     private void installNetworkMonitor(
-            OpenTelemetryRumBuilder otelRumBuilder, CurrentNetworkProvider currentNetworkProvider) {
-        otelRumBuilder.addInstrumentation(
+            InstrumentationSink instrumentations, CurrentNetworkProvider currentNetworkProvider) {
+        instrumentations.add(
                 instrumentedApplication -> {
-                    NetworkChangeMonitor.create(currentNetworkProvider)
-                            .installOn(instrumentedApplication);
+                    NetworkChangeMonitor networkChangeMonitor =
+                            NetworkChangeMonitor.create(currentNetworkProvider);
+                    networkChangeMonitor.installOn(instrumentedApplication);
+                    governOverhead(
+                            "network_monitor",
+                            singletonList(SdkOverhead.NETWORK_MONITOR),
+                            DegradationStep.create("uninstall", networkChangeMonitor::uninstall));
                     initializationEvents.emit("networkMonitorInitialized");
                 });
     }
 
-    private void installSlowRenderingDetector(OpenTelemetryRumBuilder otelRumBuilder) {
+    @Nullable
+    private Duration getMetricsExportInterval() {
+        Duration slowRenderingInterval =
+                builder.isSlowRenderingDetectionEnabled()
+                        ? builder.slowRenderingMetricsExportInterval
+                        : null;
+        Duration pipelineHealthInterval = builder.pipelineHealthMetricsExportInterval;
+        if (slowRenderingInterval == null) {
+            return pipelineHealthInterval;
+        }
+        if (pipelineHealthInterval == null) {
+            return slowRenderingInterval;
+        }
+        // all metrics are collected by the same reader
+        return slowRenderingInterval.compareTo(pipelineHealthInterval) < 0
+                ? slowRenderingInterval
+                : pipelineHealthInterval;
+    }
+
+    private ForegroundMetricReader installMetricExporter(
+            OpenTelemetryRumBuilder otelRumBuilder, Duration exportInterval) {
+        // metrics are sent as spans, through the same exporter pipeline
+        MetricToSpanExporter metricExporter = new MetricToSpanExporter();
+        ForegroundMetricReader metricReader =
+                new ForegroundMetricReader(metricExporter, exportInterval);
+        otelRumBuilder.addMeterProviderCustomizer(
+                (meterProviderBuilder, app) ->
+                        SlowRenderingDetector.registerMetricViews(meterProviderBuilder)
+                                .registerMetricReader(metricReader));
         otelRumBuilder.addInstrumentation(
                 instrumentedApplication -> {
-                    SlowRenderingDetector.builder()
-                            .setSlowRenderingDetectionPollInterval(
-                                    builder.slowRenderingDetectionPollInterval)
-                            .build()
-                            .installOn(instrumentedApplication);
+                    metricExporter.setTracerProvider(
+                            instrumentedApplication.getOpenTelemetrySdk().getTracerProvider());
+                    metricReader.start(instrumentedApplication);
+                });
+        return metricReader;
+    }
+
+    private void installSlowRenderingDetector(
+            InstrumentationSink instrumentations, VisibleScreenTracker visibleScreenTracker) {
+        instrumentations.add(
+                instrumentedApplication -> {
+                    SlowRenderingDetector slowRenderingDetector =
+                            SlowRenderingDetector.builder()
+                                    .setSlowRenderingDetectionPollInterval(
+                                            builder.slowRenderingDetectionPollInterval)
+                                    .setVisibleScreenTracker(visibleScreenTracker)
+                                    .setMetricsEnabled(
+                                            builder.slowRenderingMetricsExportInterval != null)
+                                    .build();
+                    slowRenderingDetector.installOn(instrumentedApplication);
+                    governOverhead(
+                            "slow_rendering",
+                            asList(SdkOverhead.SLOW_RENDERING, SdkOverhead.FRAME_METRICS),
+                            DegradationStep.create(
+                                    "disable_frame_phases",
+                                    slowRenderingDetector::disableFramePhaseTracking),
+                            DegradationStep.create("uninstall", slowRenderingDetector::uninstall));
                     initializationEvents.emit("slowRenderingDetectorInitialized");
                 });
     }
 
-    private void installCrashReporter(OpenTelemetryRumBuilder otelRumBuilder) {
-        otelRumBuilder.addInstrumentation(
+    private void governOverhead(
+            String instrumentation, List<String> costKeys, DegradationStep... steps) {
+        if (overheadGovernorBuilder != null) {
+            overheadGovernorBuilder.addInstrumentation(instrumentation, costKeys, steps);
+        }
+    }
+
+    private void installCrashReporter(InstrumentationSink instrumentations) {
+        instrumentations.add(
                 instrumentedApplication -> {
+                    RuntimeDetailsExtractor<CrashDetails, Void> runtimeDetails =
+                            RuntimeDetailsExtractor.create(
+                                    instrumentedApplication
+                                            .getApplication()
+                                            .getApplicationContext());
+                    instrumentedApplication.registerApplicationStateListener(runtimeDetails);
                     CrashReporter.builder()
-                            .addAttributesExtractor(
-                                    RuntimeDetailsExtractor.create(
-                                            instrumentedApplication
-                                                    .getApplication()
-                                                    .getApplicationContext()))
+                            .addAttributesExtractor(runtimeDetails)
                             .addAttributesExtractor(new CrashComponentExtractor())
+                            .setFlushTimeout(CRASH_FLUSH_TIMEOUT)
                             .build()
                             .installOn(instrumentedApplication);
 
@@ -326,8 +662,22 @@ class RumInitializer {
     // visible for testing
     SpanExporter buildFilteringExporter(CurrentNetworkProvider currentNetworkProvider) {
         SpanExporter exporter = buildExporter(currentNetworkProvider);
+        if (builder.isCrashReportingEnabled()) {
+            exporter = buildWriteAheadCrashExporter(exporter, currentNetworkProvider);
+        }
+        if (builder.sessionTailSamplingEnabled) {
+            exporter = buildSessionTailSamplingExporter(exporter);
+        }
         SpanExporter splunkTranslatedExporter =
                 new SplunkSpanDataModifier(exporter, builder.isReactNativeSupportEnabled());
+        if (builder.errorDeduplicationEnabled) {
+            ErrorDeduplicatingExporter errorDeduplicatingExporter =
+                    new ErrorDeduplicatingExporter(
+                            splunkTranslatedExporter, builder.errorDeduplicationWindow);
+            // summarizes periodically once the instrumentations are installed
+            this.errorDeduplicatingExporter = errorDeduplicatingExporter;
+            splunkTranslatedExporter = errorDeduplicatingExporter;
+        }
         SpanExporter filteredExporter = builder.decorateWithSpanFilter(splunkTranslatedExporter);
         initializationEvents.emit("zipkin exporter initialized");
         return filteredExporter;
@@ -350,12 +700,18 @@ class RumInitializer {
 
     private SpanExporter buildStorageBufferingExporter(
             CurrentNetworkProvider currentNetworkProvider) {
-        Sender sender = OkHttpSender.newBuilder().endpoint(getEndpoint()).build();
+        Sender sender =
+                new UploadCountingSender(
+                        OkHttpSender.newBuilder().endpoint(getEndpoint()).build(), pipelineHealth);
         File spanFilesPath = FileUtils.getSpansDirectory(application);
         BandwidthTracker bandwidthTracker = new BandwidthTracker();
 
         FileSender fileSender =
-                FileSender.builder().sender(sender).bandwidthTracker(bandwidthTracker).build();
+                FileSender.builder()
+                        .sender(sender)
+                        .bandwidthTracker(bandwidthTracker)
+                        .pipelineHealth(pipelineHealth)
+                        .build();
         DiskToZipkinExporter diskToZipkinExporter =
                 DiskToZipkinExporter.builder()
                         .connectionUtil(currentNetworkProvider)
@@ -363,11 +719,133 @@ class RumInitializer {
                         .bandwidthTracker(bandwidthTracker)
                         .spanFilesPath(spanFilesPath)
                         .build();
-        diskToZipkinExporter.startPolling();
+        // starts polling on the shared scheduler once the instrumentations are installed
+        this.diskToZipkinExporter = diskToZipkinExporter;
 
         return getToDiskExporter();
     }
 
+    private SpanExporter buildWriteAheadCrashExporter(
+            SpanExporter exporter, CurrentNetworkProvider currentNetworkProvider) {
+        CrashFileSender crashFileSender = getCrashFileSender();
+        SpanExporter crashFileExporter = buildCrashFileExporter(crashFileSender);
+        Predicate<List<byte[]>> recoveredSpansHandler =
+                builder.isDiskBufferingEnabled()
+                        ? this::moveRecoveredCrashSpansToDisk
+                        : spans -> sendRecoveredCrashSpans(currentNetworkProvider, spans);
+        WriteAheadCrashExporter writeAheadCrashExporter =
+                new WriteAheadCrashExporter(
+                        exporter,
+                        crashFileExporter,
+                        crashFileSender,
+                        recoveredSpansHandler,
+                        CRASH_FLUSH_TIMEOUT);
+        crashWriteAheadSpanProcessor =
+                new CrashWriteAheadSpanProcessor(
+                        buildCrashSpanExporter(crashFileExporter), writeAheadCrashExporter);
+        return writeAheadCrashExporter;
+    }
+
+    // shared by the pre-init buffer and the write-ahead exporter, which recovers what's in it
+    private CrashFileSender getCrashFileSender() {
+        CrashFileSender crashFileSender = this.crashFileSender;
+        if (crashFileSender == null) {
+            crashFileSender =
+                    new CrashFileSender(
+                            FileUtils.getCrashSpansFile(application),
+                            CrashFileSender.DEFAULT_MAX_CONTENT_BYTES);
+            // so that the crashing thread doesn't have to create the file
+            Executor worker = this.worker;
+            if (worker != null) {
+                worker.execute(crashFileSender::preallocate);
+            }
+            this.crashFileSender = crashFileSender;
+        }
+        return crashFileSender;
+    }
+
+    private static SpanExporter buildCrashFileExporter(CrashFileSender crashFileSender) {
+        return ZipkinSpanExporter.builder()
+                .setEncoder(new CustomZipkinEncoder())
+                .setSender(crashFileSender)
+                // remove the local IP address
+                .setLocalIpAddressSupplier(() -> null)
+                .build();
+    }
+
+    // the crash span itself goes through the same translation and filtering as the others
+    private SpanExporter buildCrashSpanExporter(SpanExporter crashFileExporter) {
+        return builder.decorateWithSpanFilter(
+                new SplunkSpanDataModifier(
+                        crashFileExporter, builder.isReactNativeSupportEnabled()));
+    }
+
+    private boolean moveRecoveredCrashSpansToDisk(List<byte[]> spans) {
+        File spansPath = FileUtils.getSpansDirectory(application);
+        if (!spansPath.exists() && !spansPath.mkdirs()) {
+            Log.w(SplunkRum.LOG_TAG, "Error creating path " + spansPath + " for crash spans");
+            return false;
+        }
+        try {
+            new FileUtils()
+                    .writeAsLines(new File(spansPath, Clock.getDefault().now() + ".spans"), spans);
+            return true;
+        } catch (IOException e) {
+            Log.w(SplunkRum.LOG_TAG, "Error writing crash spans to storage", e);
+            return false;
+        }
+    }
+
+    private boolean sendRecoveredCrashSpans(
+            CurrentNetworkProvider currentNetworkProvider, List<byte[]> spans) {
+        if (!currentNetworkProvider.refreshNetworkStatus().isOnline()) {
+            return false;
+        }
+        try {
+            getRecoveredCrashSpansSender().sendSpans(spans).execute();
+            return true;
+        } catch (IOException e) {
+            Log.w(SplunkRum.LOG_TAG, "Error sending crash spans", e);
+            return false;
+        }
+    }
+
+    private Sender getRecoveredCrashSpansSender() {
+        Sender sender = recoveredCrashSpansSender;
+        if (sender == null) {
+            sender =
+                    new UploadCountingSender(
+                            OkHttpSender.newBuilder().endpoint(getEndpoint()).build(),
+                            pipelineHealth);
+            recoveredCrashSpansSender = sender;
+        }
+        return sender;
+    }
+
+    private SpanExporter buildSessionTailSamplingExporter(SpanExporter exporter) {
+        PendingSessionSpans pendingSpans;
+        if (isPendingSpansOnDisk()) {
+            File pendingSpansPath = FileUtils.getPendingSpansDirectory(application);
+            pendingSpans =
+                    new DiskPendingSessionSpans(
+                            pendingSpansPath,
+                            FileUtils.getSpansDirectory(application),
+                            () ->
+                                    ZipkinWriteToDiskExporterFactory.create(
+                                            application, pendingSpansPath, getStorageLimiter()),
+                            new FileUtils());
+        } else {
+            pendingSpans =
+                    new InMemoryPendingSessionSpans(
+                            InMemoryPendingSessionSpans.DEFAULT_MAX_PENDING_SPANS);
+        }
+        initializationEvents.emit("sessionTailSamplingInitialized");
+        return SessionTailSamplingExporter.builder(exporter)
+                .pendingSpans(pendingSpans)
+                .samplingRatio(builder.sessionTailSamplingRatio)
+                .build();
+    }
+
     @NonNull
     private String getEndpoint() {
         return builder.beaconEndpoint + "?auth=" + builder.rumAccessToken;
@@ -377,19 +855,49 @@ class RumInitializer {
             CurrentNetworkProvider currentNetworkProvider) {
         String endpoint = getEndpoint();
         SpanExporter zipkinSpanExporter = getCoreSpanExporter(endpoint);
-        return ThrottlingExporter.newBuilder(
-                        new MemoryBufferingExporter(currentNetworkProvider, zipkinSpanExporter))
-                .categorizeByAttribute(COMPONENT_KEY)
-                .maxSpansInWindow(100)
-                .windowSize(Duration.ofSeconds(30))
-                .build();
+        SpanExporter bulkExporter =
+                ThrottlingExporter.newBuilder(
+                                new MemoryBufferingExporter(
+                                        currentNetworkProvider, zipkinSpanExporter, pipelineHealth))
+                        .categorizeByAttribute(COMPONENT_KEY)
+                        .maxSpansInWindow(100)
+                        .windowSize(Duration.ofSeconds(30))
+                        .pipelineHealth(pipelineHealth)
+                        .build();
+        // crash and error spans have their own backlog, so they don't wait behind the bulk one
+        return new PriorityRoutingExporter(
+                new MemoryBufferingExporter(
+                        currentNetworkProvider, zipkinSpanExporter, pipelineHealth),
+                bulkExporter);
     }
 
     SpanExporter getToDiskExporter() {
         return new LazyInitSpanExporter(
-                () ->
-                        ZipkinWriteToDiskExporterFactory.create(
-                                application, builder.maxUsageMegabytes));
+                () -> ZipkinWriteToDiskExporterFactory.create(application, getStorageLimiter()));
+    }
+
+    // the spans directory and the pending spans directory share a single disk budget
+    private synchronized DeviceSpanStorageLimiter getStorageLimiter() {
+        DeviceSpanStorageLimiter storageLimiter = this.storageLimiter;
+        if (storageLimiter == null) {
+            DeviceSpanStorageLimiter.Builder limiterBuilder =
+                    DeviceSpanStorageLimiter.builder()
+                            .path(FileUtils.getSpansDirectory(application))
+                            .maxStorageUseMb(builder.maxUsageMegabytes)
+                            .pipelineHealth(pipelineHealth);
+            if (isPendingSpansOnDisk()) {
+                limiterBuilder.pendingPath(FileUtils.getPendingSpansDirectory(application));
+            }
+            storageLimiter = limiterBuilder.build();
+            this.storageLimiter = storageLimiter;
+        }
+        return storageLimiter;
+    }
+
+    private boolean isPendingSpansOnDisk() {
+        return builder.sessionTailSamplingEnabled
+                && builder.isDiskBufferingEnabled()
+                && builder.sessionTailSamplingOnDisk;
     }
 
     // visible for testing
@@ -399,12 +907,22 @@ class RumInitializer {
                 () ->
                         ZipkinSpanExporter.builder()
                                 .setEncoder(new CustomZipkinEncoder())
-                                .setEndpoint(endpoint)
+                                .setSender(
+                                        new UploadCountingSender(
+                                                OkHttpSender.create(endpoint), pipelineHealth))
                                 // remove the local IP address
                                 .setLocalIpAddressSupplier(() -> null)
                                 .build());
     }
 
+    /**
+     * Where the instrumentations go: the {@link OpenTelemetryRumBuilder}, or straight to the {@link
+     * InstrumentedApplication} when the SDK has been built already.
+     */
+    private interface InstrumentationSink {
+        void add(Consumer<InstrumentedApplication> installer);
+    }
+
     private static class LazyInitSpanExporter implements SpanExporter {
         @Nullable private volatile SpanExporter delegate;
         private final Supplier<SpanExporter> s;
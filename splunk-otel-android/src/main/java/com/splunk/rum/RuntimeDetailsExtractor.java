@@ -24,25 +24,50 @@ import android.os.BatteryManager;
 import androidx.annotation.Nullable;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import io.opentelemetry.rum.internal.instrumentation.ApplicationStateListener;
 import java.io.File;
 
-/** Represents details about the runtime environment at a time */
+/**
+ * Represents details about the runtime environment at a time. The battery level is only tracked
+ * while the application is in the foreground; in the background the last known level is reported.
+ */
 final class RuntimeDetailsExtractor<RQ, RS> extends BroadcastReceiver
-        implements AttributesExtractor<RQ, RS> {
+        implements AttributesExtractor<RQ, RS>, ApplicationStateListener {
 
     private @Nullable volatile Double batteryPercent = null;
+    private final Context context;
     private final File filesDir;
+    // accessed only from the main thread
+    private boolean receiverRegistered = false;
 
     static <RQ, RS> RuntimeDetailsExtractor<RQ, RS> create(Context context) {
-        IntentFilter batteryChangedFilter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
-        File filesDir = context.getFilesDir();
-        RuntimeDetailsExtractor<RQ, RS> runtimeDetails = new RuntimeDetailsExtractor<>(filesDir);
-        context.registerReceiver(runtimeDetails, batteryChangedFilter);
+        RuntimeDetailsExtractor<RQ, RS> runtimeDetails = new RuntimeDetailsExtractor<>(context);
+        runtimeDetails.onApplicationForegrounded();
         return runtimeDetails;
     }
 
-    private RuntimeDetailsExtractor(File filesDir) {
-        this.filesDir = filesDir;
+    private RuntimeDetailsExtractor(Context context) {
+        this.context = context;
+        this.filesDir = context.getFilesDir();
+    }
+
+    @Override
+    public void onApplicationForegrounded() {
+        // the first activity start comes after the receiver was registered by create()
+        if (receiverRegistered) {
+            return;
+        }
+        // the battery changed broadcast is sticky, the current level is delivered right away
+        context.registerReceiver(this, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        receiverRegistered = true;
+    }
+
+    @Override
+    public void onApplicationBackgrounded() {
+        if (receiverRegistered) {
+            context.unregisterReceiver(this);
+            receiverRegistered = false;
+        }
     }
 
     @Override
@@ -0,0 +1,119 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static com.splunk.rum.SplunkRum.COMPONENT_KEY;
+
+import android.util.Log;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Configures rule based sampling of spans. Every rule matches spans by their name or by the
+ * attributes they are started with, and keeps only the given ratio of them; the first matching rule
+ * wins, and spans that don't match any rule are always kept.
+ *
+ * <p>Crash, error and ANR spans are always kept, no matter the rules.
+ *
+ * <p>Sampling is done by the trace id, so all spans of a trace that match the same rule share the
+ * same decision. Every span kept by a rule gets a {@code sampling.weight} attribute that tells how
+ * many spans it represents (i.e. {@code 1 / ratio}).
+ */
+public final class SamplingRulesBuilder {
+
+    private final List<RuleBasedSampler.Rule> rules = new ArrayList<>();
+
+    SamplingRulesBuilder() {}
+
+    /**
+     * Keeps only the {@code ratio} of spans with names that match the {@code spanNamePredicate}.
+     *
+     * @param spanNamePredicate A function that returns true if a span with passed name should be
+     *     sampled by this rule.
+     * @param ratio The ratio of matching spans that will be kept. Must be within [0.0, 1.0].
+     * @return {@code this}.
+     */
+    public SamplingRulesBuilder sampleSpansByName(
+            Predicate<String> spanNamePredicate, double ratio) {
+        if (isValid(ratio)) {
+            rules.add(RuleBasedSampler.Rule.byName(spanNamePredicate, ratio));
+        }
+        return this;
+    }
+
+    /**
+     * Keeps only the {@code ratio} of spans that are started with an attribute with key {@code
+     * attributeKey} and value matching the {@code attributeValuePredicate} - for example, to sample
+     * HTTP requests to a particular endpoint:
+     *
+     * <pre>{@code
+     * rules.sampleSpansByAttributeValue(
+     *         SemanticAttributes.HTTP_URL, url -> url.contains("/api/prices"), 0.1);
+     * }</pre>
+     *
+     * @param attributeKey An attribute key to match.
+     * @param attributeValuePredicate A function that returns true if a span containing an attribute
+     *     with matching value should be sampled by this rule.
+     * @param ratio The ratio of matching spans that will be kept. Must be within [0.0, 1.0].
+     * @return {@code this}.
+     */
+    public <T> SamplingRulesBuilder sampleSpansByAttributeValue(
+            AttributeKey<T> attributeKey,
+            Predicate<? super T> attributeValuePredicate,
+            double ratio) {
+        if (isValid(ratio)) {
+            rules.add(
+                    RuleBasedSampler.Rule.byAttributeValue(
+                            attributeKey, attributeValuePredicate, ratio));
+        }
+        return this;
+    }
+
+    /**
+     * Keeps only the {@code ratio} of spans that belong to the given {@code component} (e.g. {@code
+     * "ui"} for the activity and fragment lifecycle spans). The component is the closest equivalent
+     * of the instrumentation scope that is available at sampling time.
+     *
+     * @param component The value of the {@code component} attribute to match.
+     * @param ratio The ratio of matching spans that will be kept. Must be within [0.0, 1.0].
+     * @return {@code this}.
+     */
+    public SamplingRulesBuilder sampleSpansByComponent(String component, double ratio) {
+        return sampleSpansByAttributeValue(COMPONENT_KEY, component::equals, ratio);
+    }
+
+    private static boolean isValid(double ratio) {
+        if (ratio < 0.0 || ratio > 1.0) {
+            Log.e(
+                    SplunkRum.LOG_TAG,
+                    "invalid sampling rule ratio: " + ratio + " must be within [0.0, 1.0]");
+            return false;
+        }
+        return true;
+    }
+
+    boolean hasRules() {
+        return !rules.isEmpty();
+    }
+
+    Sampler build(Sampler delegate) {
+        return new RuleBasedSampler(delegate, rules);
+    }
+}
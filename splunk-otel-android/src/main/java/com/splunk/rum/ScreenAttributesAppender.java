@@ -18,15 +18,20 @@ package com.splunk.rum;
 
 import static io.opentelemetry.rum.internal.RumConstants.SCREEN_NAME_KEY;
 
+import androidx.annotation.Nullable;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.rum.internal.instrumentation.activity.VisibleScreenTracker;
 import io.opentelemetry.sdk.trace.ReadWriteSpan;
 import io.opentelemetry.sdk.trace.ReadableSpan;
 import io.opentelemetry.sdk.trace.SpanProcessor;
+import java.util.function.Supplier;
 
-class ScreenAttributesAppender implements SpanProcessor {
+class ScreenAttributesAppender implements SpanProcessor, Supplier<Attributes> {
 
     private final VisibleScreenTracker visibleScreenTracker;
+    // the screen changes far less often than spans are started, so reuse the attributes
+    @Nullable private volatile Attributes cachedAttributes;
 
     ScreenAttributesAppender(VisibleScreenTracker visibleScreenTracker) {
         this.visibleScreenTracker = visibleScreenTracker;
@@ -38,6 +43,17 @@ class ScreenAttributesAppender implements SpanProcessor {
         span.setAttribute(SCREEN_NAME_KEY, currentScreen);
     }
 
+    @Override
+    public Attributes get() {
+        String currentScreen = visibleScreenTracker.getCurrentlyVisibleScreen();
+        Attributes cached = cachedAttributes;
+        if (cached == null || !currentScreen.equals(cached.get(SCREEN_NAME_KEY))) {
+            cached = Attributes.of(SCREEN_NAME_KEY, currentScreen);
+            cachedAttributes = cached;
+        }
+        return cached;
+    }
+
     @Override
     public boolean isStartRequired() {
         return true;
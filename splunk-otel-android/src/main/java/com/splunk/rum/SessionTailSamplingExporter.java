@@ -0,0 +1,229 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static com.splunk.rum.SplunkRum.COMPONENT_CRASH;
+import static com.splunk.rum.SplunkRum.COMPONENT_ERROR;
+import static com.splunk.rum.SplunkRum.COMPONENT_KEY;
+import static java.util.Objects.requireNonNull;
+
+import android.util.Log;
+import androidx.annotation.Nullable;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.rum.internal.RumConstants;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tail-based session sampling: sessions that contain a crash, an error, an ANR or a frozen render
+ * are always kept, and the rest are sampled by ratio.
+ *
+ * <p>Sessions that the ratio keeps anyway are exported right away. The spans of any other session
+ * are held in the {@link PendingSessionSpans} until the session either turns out to have a problem
+ * (all pending spans are kept) or ends (all pending spans are discarded). Pending spans older than
+ * the pending window are discarded as well, so a problem keeps at most the last window of the
+ * session that led to it, together with all of the spans that come after it.
+ */
+class SessionTailSamplingExporter implements SpanExporter {
+
+    // these are the names of the spans created by the upstream ANR and slow rendering detectors
+    static final String ANR_SPAN_NAME = "ANR";
+    static final String FROZEN_RENDERS_SPAN_NAME = "frozenRenders";
+
+    private static final int MAX_DECIDED_SESSIONS = 16;
+
+    private final SpanExporter delegate;
+    private final PendingSessionSpans pendingSpans;
+    private final Sampler ratioBasedSampler;
+    private final Clock clock;
+    private final long pendingWindowNanos;
+    // note: no need to make this thread-safe since it will only ever be called from the span
+    // processor worker thread.
+    private final Map<String, Boolean> decidedSessions =
+            new LinkedHashMap<String, Boolean>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > MAX_DECIDED_SESSIONS;
+                }
+            };
+    @Nullable private String pendingSessionId;
+
+    private SessionTailSamplingExporter(Builder builder) {
+        this.delegate = builder.delegate;
+        this.pendingSpans = requireNonNull(builder.pendingSpans);
+        // SessionId uses the same format as TraceId, so we can reuse trace ID ratio sampler.
+        this.ratioBasedSampler = Sampler.traceIdRatioBased(builder.samplingRatio);
+        this.clock = builder.clock;
+        this.pendingWindowNanos = builder.pendingWindow.toNanos();
+    }
+
+    static Builder builder(SpanExporter delegate) {
+        return new Builder(delegate);
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        List<CompletableResultCode> results = new ArrayList<>(2);
+        List<SpanData> spansToExport = new ArrayList<>(spans.size());
+        List<SpanData> spansToHold = new ArrayList<>();
+
+        for (SpanData span : spans) {
+            String sessionId = span.getAttributes().get(RumConstants.SESSION_ID_KEY);
+            if (sessionId == null) {
+                spansToExport.add(span);
+                continue;
+            }
+
+            Boolean keep = decidedSessions.get(sessionId);
+            if (keep == null && !sessionId.equals(pendingSessionId)) {
+                // a new session has started, which means that the pending one has ended
+                discardPendingSession();
+                spansToHold.clear();
+                if (isSampledByRatio(sessionId)) {
+                    decidedSessions.put(sessionId, true);
+                    keep = true;
+                } else {
+                    pendingSessionId = sessionId;
+                }
+            }
+
+            if (keep == null) {
+                if (isProblem(span)) {
+                    if (!spansToHold.isEmpty()) {
+                        pendingSpans.add(spansToHold);
+                        spansToHold.clear();
+                    }
+                    results.add(pendingSpans.keep(delegate));
+                    decidedSessions.put(sessionId, true);
+                    pendingSessionId = null;
+                    spansToExport.add(span);
+                } else {
+                    spansToHold.add(span);
+                }
+            } else if (keep || isProblem(span)) {
+                // a sampled out session that ended up having a problem is kept from then on
+                decidedSessions.put(sessionId, true);
+                spansToExport.add(span);
+            }
+        }
+
+        if (!spansToHold.isEmpty()) {
+            pendingSpans.add(spansToHold);
+        }
+        if (pendingSessionId != null) {
+            pendingSpans.discardOlderThan(clock.now() - pendingWindowNanos);
+        }
+        if (!spansToExport.isEmpty()) {
+            results.add(delegate.export(spansToExport));
+        }
+        return CompletableResultCode.ofAll(results);
+    }
+
+    private void discardPendingSession() {
+        if (pendingSessionId == null) {
+            return;
+        }
+        Log.d(SplunkRum.LOG_TAG, "Session " + pendingSessionId + " was sampled out");
+        pendingSpans.discard();
+        decidedSessions.put(pendingSessionId, false);
+        pendingSessionId = null;
+    }
+
+    private boolean isSampledByRatio(String sessionId) {
+        // Replace traceId with sessionId; the trace id ratio based sampler looks only at the id
+        return ratioBasedSampler
+                        .shouldSample(
+                                Context.root(),
+                                sessionId,
+                                "",
+                                SpanKind.INTERNAL,
+                                Attributes.empty(),
+                                Collections.emptyList())
+                        .getDecision()
+                == SamplingDecision.RECORD_AND_SAMPLE;
+    }
+
+    private static boolean isProblem(SpanData span) {
+        String component = span.getAttributes().get(COMPONENT_KEY);
+        if (COMPONENT_CRASH.equals(component) || COMPONENT_ERROR.equals(component)) {
+            return true;
+        }
+        String name = span.getName();
+        return ANR_SPAN_NAME.equals(name) || FROZEN_RENDERS_SPAN_NAME.equals(name);
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        // the pending session hasn't ended yet; disk pending spans will be cleaned up on the next
+        // start, in-memory ones are lost anyway
+        return delegate.shutdown();
+    }
+
+    static class Builder {
+        final SpanExporter delegate;
+        @Nullable PendingSessionSpans pendingSpans;
+        double samplingRatio = 1.0;
+        Duration pendingWindow = Duration.ofMinutes(15);
+        Clock clock = Clock.getDefault();
+
+        private Builder(SpanExporter delegate) {
+            this.delegate = delegate;
+        }
+
+        Builder pendingSpans(PendingSessionSpans pendingSpans) {
+            this.pendingSpans = pendingSpans;
+            return this;
+        }
+
+        Builder samplingRatio(double samplingRatio) {
+            this.samplingRatio = samplingRatio;
+            return this;
+        }
+
+        Builder pendingWindow(Duration pendingWindow) {
+            this.pendingWindow = pendingWindow;
+            return this;
+        }
+
+        Builder clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        SessionTailSamplingExporter build() {
+            return new SessionTailSamplingExporter(this);
+        }
+    }
+}
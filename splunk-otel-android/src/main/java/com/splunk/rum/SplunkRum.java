@@ -19,6 +19,7 @@ package com.splunk.rum;
 import static io.opentelemetry.api.common.AttributeKey.doubleKey;
 import static io.opentelemetry.api.common.AttributeKey.longKey;
 import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static io.opentelemetry.rum.internal.RumConstants.EXCEPTION_FINGERPRINT_KEY;
 
 import android.app.Application;
 import android.location.Location;
@@ -38,7 +39,9 @@ import io.opentelemetry.rum.internal.GlobalAttributesSpanAppender;
 import io.opentelemetry.rum.internal.OpenTelemetryRum;
 import io.opentelemetry.rum.internal.instrumentation.network.CurrentNetworkProvider;
 import io.opentelemetry.rum.internal.instrumentation.startup.AppStartupTimer;
+import io.opentelemetry.rum.internal.util.StackTraceFormatter;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -79,15 +82,21 @@ public class SplunkRum {
 
     private final OpenTelemetryRum openTelemetryRum;
     private final GlobalAttributesSpanAppender globalAttributes;
+    private final PipelineHealth pipelineHealth;
+    private final StackTraceFormatter stackTraceFormatter = new StackTraceFormatter();
 
     static {
         Handler handler = new Handler(Looper.getMainLooper());
         startupTimer.detectBackgroundStart(handler);
     }
 
-    SplunkRum(OpenTelemetryRum openTelemetryRum, GlobalAttributesSpanAppender globalAttributes) {
+    SplunkRum(
+            OpenTelemetryRum openTelemetryRum,
+            GlobalAttributesSpanAppender globalAttributes,
+            PipelineHealth pipelineHealth) {
         this.openTelemetryRum = openTelemetryRum;
         this.globalAttributes = globalAttributes;
+        this.pipelineHealth = pipelineHealth;
     }
 
     /** Creates a new {@link SplunkRumBuilder}, used to set up a {@link SplunkRum} instance. */
@@ -180,6 +189,15 @@ public class SplunkRum {
         return openTelemetryRum.getRumSessionId();
     }
 
+    /**
+     * Get a snapshot of the span export pipeline counters: how many spans and span files have been
+     * dropped and why, how many uploads were retried, how many bytes were uploaded, and how long
+     * exporting the span batches took. Useful for sizing the buffers and limits of the library.
+     */
+    public PipelineHealthSnapshot getPipelineHealth() {
+        return pipelineHealth.snapshot();
+    }
+
     /**
      * Add a custom event to RUM monitoring. This can be useful to capture business events, or
      * simply add instrumentation to your application.
@@ -235,11 +253,30 @@ public class SplunkRum {
                 .spanBuilder(throwable.getClass().getSimpleName())
                 .setAllAttributes(attributes)
                 .setAttribute(COMPONENT_KEY, COMPONENT_ERROR)
+                .setAttribute(EXCEPTION_FINGERPRINT_KEY, stackTraceFormatter.fingerprint(throwable))
                 .startSpan()
-                .recordException(throwable)
+                .addEvent(SemanticAttributes.EXCEPTION_EVENT_NAME, exceptionAttributes(throwable))
                 .end();
     }
 
+    // same as Span.recordException(), but with a size-limited stack trace
+    private Attributes exceptionAttributes(Throwable throwable) {
+        String type = throwable.getClass().getCanonicalName();
+        AttributesBuilder builder =
+                Attributes.builder()
+                        .put(
+                                SemanticAttributes.EXCEPTION_TYPE,
+                                type == null ? throwable.getClass().getName() : type)
+                        .put(
+                                SemanticAttributes.EXCEPTION_STACKTRACE,
+                                stackTraceFormatter.format(throwable));
+        String message = throwable.getMessage();
+        if (message != null) {
+            builder.put(SemanticAttributes.EXCEPTION_MESSAGE, message);
+        }
+        return builder.build();
+    }
+
     Tracer getTracer() {
         return getOpenTelemetry().getTracer(RUM_TRACER_NAME);
     }
@@ -32,6 +32,7 @@ public final class SplunkRumBuilder {
 
     private static final Duration DEFAULT_SLOW_RENDERING_DETECTION_POLL_INTERVAL =
             Duration.ofSeconds(1);
+    private static final Duration DEFAULT_ERROR_DEDUPLICATION_WINDOW = Duration.ofMinutes(1);
 
     @Nullable String applicationName;
     @Nullable String beaconEndpoint;
@@ -41,12 +42,26 @@ public final class SplunkRumBuilder {
     private final ConfigFlags configFlags = new ConfigFlags();
 
     Duration slowRenderingDetectionPollInterval = DEFAULT_SLOW_RENDERING_DETECTION_POLL_INTERVAL;
+    @Nullable Duration longTaskThreshold = null;
+    @Nullable Duration slowRenderingMetricsExportInterval = null;
+    @Nullable Duration pipelineHealthMetricsExportInterval = null;
     Attributes globalAttributes = Attributes.empty();
     @Nullable String deploymentEnvironment;
     private final SpanFilterBuilder spanFilterBuilder = new SpanFilterBuilder();
+    final SamplingRulesBuilder samplingRulesBuilder = new SamplingRulesBuilder();
     int maxUsageMegabytes = DEFAULT_MAX_STORAGE_USE_MB;
     boolean sessionBasedSamplerEnabled = false;
     double sessionBasedSamplerRatio = 1.0;
+    boolean sessionTailSamplingEnabled = false;
+    double sessionTailSamplingRatio = 1.0;
+    boolean sessionTailSamplingOnDisk = false;
+    boolean errorDeduplicationEnabled = true;
+    boolean sdkOverheadReportingEnabled = false;
+    @Nullable Duration overheadGovernorCpuTimeBudget = null;
+    @Nullable Duration overheadGovernorMainThreadTimeBudget = null;
+    boolean asyncInitializationEnabled = false;
+    boolean deferredInstrumentationsEnabled = false;
+    Duration errorDeduplicationWindow = DEFAULT_ERROR_DEDUPLICATION_WINDOW;
 
     /**
      * Sets the application name that will be used to identify your application in the Splunk RUM
@@ -183,6 +198,27 @@ public final class SplunkRumBuilder {
         return this;
     }
 
+    /**
+     * Enables reporting of long tasks: messages processed by the main thread that take longer than
+     * the given threshold are reported as {@code LongTask} spans with their exact duration.
+     *
+     * <p>This feature is disabled by default. It only works when {@linkplain #disableAnrDetection()
+     * ANR detection} is enabled.
+     *
+     * @param threshold The minimum duration of a reported long task.
+     * @return {@code this}
+     */
+    public SplunkRumBuilder enableLongTaskReporting(Duration threshold) {
+        if (threshold.toMillis() <= 0) {
+            Log.e(
+                    SplunkRum.LOG_TAG,
+                    "invalid longTaskThreshold: " + threshold + " is not positive");
+            return this;
+        }
+        this.longTaskThreshold = threshold;
+        return this;
+    }
+
     /**
      * Disables the slow rendering detection feature.
      *
@@ -212,6 +248,57 @@ public final class SplunkRumBuilder {
         return this;
     }
 
+    /**
+     * Reports slow rendering as metrics instead of {@code slowRenders} spans: the slow and frozen
+     * frame counts and the frame duration histogram are aggregated on the device, and exported once
+     * per the given interval. Each exported metric point is sent as a span, through the same
+     * pipeline (and disk buffer) as all other spans. Frozen frames are still reported as {@code
+     * frozenRenders} spans as well.
+     *
+     * <p>This feature is disabled by default.
+     *
+     * @param exportInterval The period in which the aggregated metrics are exported.
+     * @return {@code this}
+     */
+    public SplunkRumBuilder enableSlowRenderingMetrics(Duration exportInterval) {
+        if (exportInterval.toMillis() <= 0) {
+            Log.e(
+                    SplunkRum.LOG_TAG,
+                    "invalid slowRenderingMetricsExportInterval: "
+                            + exportInterval
+                            + " is not positive");
+            return this;
+        }
+        this.slowRenderingMetricsExportInterval = exportInterval;
+        return this;
+    }
+
+    /**
+     * Exports the span pipeline health counters (see {@link SplunkRum#getPipelineHealth()}) as
+     * metrics, once per the given interval: dropped spans and span files by reason, upload retries,
+     * uploaded bytes, span batch exports and their total duration, and the number of spans waiting
+     * to be exported. Each exported metric point is sent as a span, through the same pipeline as
+     * all other spans. When slow rendering metrics are enabled as well, both are exported with the
+     * shorter of the two intervals.
+     *
+     * <p>This feature is disabled by default.
+     *
+     * @param exportInterval The period in which the metrics are exported.
+     * @return {@code this}
+     */
+    public SplunkRumBuilder enablePipelineHealthMetrics(Duration exportInterval) {
+        if (exportInterval.toMillis() <= 0) {
+            Log.e(
+                    SplunkRum.LOG_TAG,
+                    "invalid pipelineHealthMetricsExportInterval: "
+                            + exportInterval
+                            + " is not positive");
+            return this;
+        }
+        this.pipelineHealthMetricsExportInterval = exportInterval;
+        return this;
+    }
+
     /**
      * Provides a set of global {@link Attributes} that will be applied to every span generated by
      * the RUM instrumentation.
@@ -292,6 +379,209 @@ public final class SplunkRumBuilder {
         return this;
     }
 
+    /**
+     * Enables tail-based session sampling. Unlike {@linkplain #enableSessionBasedSampling(double)
+     * session based sampling}, which decides when the session starts, tail-based sampling holds on
+     * to the spans of a session until it is known whether the session had any problems: sessions
+     * that contain a crash, an error, an ANR or a frozen render are always kept, and the rest are
+     * sampled by the given ratio.
+     *
+     * <p>The spans are held in a bounded in-memory buffer, unless {@linkplain
+     * #bufferTailSampledSessionsOnDisk() disk buffering of pending sessions} is enabled. This
+     * feature should not be combined with session based sampling.
+     *
+     * @param ratio The ratio of sessions without problems that get sampled. Must be within [0.0,
+     *     1.0].
+     * @return {@code this}
+     */
+    public SplunkRumBuilder enableSessionTailSampling(double ratio) {
+        if (ratio < 0.0) {
+            Log.e(
+                    SplunkRum.LOG_TAG,
+                    "invalid sessionTailSamplingRatio: " + ratio + " must not be negative");
+            return this;
+        } else if (ratio > 1.0) {
+            Log.e(
+                    SplunkRum.LOG_TAG,
+                    "invalid sessionTailSamplingRatio: " + ratio + " must not be greater than 1.0");
+            return this;
+        }
+
+        this.sessionTailSamplingEnabled = true;
+        this.sessionTailSamplingRatio = ratio;
+        return this;
+    }
+
+    /**
+     * Makes {@linkplain #enableSessionTailSampling(double) tail-based session sampling} hold the
+     * spans of the pending session in the disk span store instead of memory. The pending spans
+     * count towards a separate {@linkplain #limitDiskUsageMegabytes(int) disk usage limit}.
+     *
+     * <p>This setting only applies when {@linkplain #enableDiskBuffering() disk buffering is
+     * enabled}.
+     *
+     * @return {@code this}
+     */
+    public SplunkRumBuilder bufferTailSampledSessionsOnDisk() {
+        this.sessionTailSamplingOnDisk = true;
+        return this;
+    }
+
+    /**
+     * Sets the window of the error deduplication. The first occurrence of an error (an exception
+     * reported with {@link SplunkRum#addRumException(Throwable)}, an ANR or a crash) is reported in
+     * full; the repeats of the same error within the window are reported as a single summary span,
+     * carrying the number of repeats. The default window is 1 minute.
+     *
+     * @param window The deduplication window.
+     * @return {@code this}
+     */
+    public SplunkRumBuilder setErrorDeduplicationWindow(Duration window) {
+        if (window.toMillis() <= 0) {
+            Log.e(
+                    SplunkRum.LOG_TAG,
+                    "invalid errorDeduplicationWindow: " + window + " is not positive");
+            return this;
+        }
+        this.errorDeduplicationWindow = window;
+        return this;
+    }
+
+    /**
+     * Disables the error deduplication: every occurrence of an error will be reported in full.
+     *
+     * <p>This feature is enabled by default. You can disable it by calling this method.
+     *
+     * @return {@code this}
+     */
+    public SplunkRumBuilder disableErrorDeduplication() {
+        this.errorDeduplicationEnabled = false;
+        return this;
+    }
+
+    /**
+     * Enables measuring the overhead of the RUM library itself: the CPU time used by its background
+     * threads and the time spent in its activity, fragment and span start callbacks on the main
+     * thread. The overhead accumulated since the previous report is reported as an {@code
+     * sdkOverhead} span every time the application goes to the background.
+     *
+     * <p>The threads are only registered once and their CPU time is only read when a report is
+     * made, so this is cheap enough to be left on in production.
+     *
+     * <p>This feature is disabled by default.
+     *
+     * @return {@code this}
+     */
+    public SplunkRumBuilder enableSdkOverheadReporting() {
+        this.sdkOverheadReportingEnabled = true;
+        return this;
+    }
+
+    /**
+     * Enables the overhead governor, which keeps the overhead of the RUM library within the given
+     * budget. The overhead is measured the same way as with {@link #enableSdkOverheadReporting()}
+     * and checked every 30 seconds while the application is in the foreground. When it goes over
+     * the budget, the instrumentation that costs the most is degraded by one step:
+     *
+     * <ul>
+     *   <li>ANR detection: stack sampling of a stuck main thread is disabled, then the detector is
+     *       uninstalled.
+     *   <li>Slow rendering detection: frame phases are no longer aggregated into {@code
+     *       frameMetrics} spans, then the detector is uninstalled.
+     *   <li>Activity and fragment lifecycle: fragments stop being traced, then activities.
+     *   <li>Network monitor: network change events are no longer reported.
+     *   <li>Log bridge: only 1 in 10 logs is turned into a span, then none of them.
+     * </ul>
+     *
+     * <p>Every step is reported as an {@code sdkOverheadDegradation} span, and lasts until the
+     * application process ends.
+     *
+     * <p>This feature is disabled by default.
+     *
+     * @param cpuTimeBudget The CPU time that the library threads may use per minute spent in the
+     *     foreground.
+     * @param mainThreadTimeBudget The time that the library may spend on the main thread per minute
+     *     spent in the foreground.
+     * @return {@code this}
+     */
+    public SplunkRumBuilder enableOverheadGovernor(
+            Duration cpuTimeBudget, Duration mainThreadTimeBudget) {
+        if (cpuTimeBudget.isNegative() || mainThreadTimeBudget.isNegative()) {
+            Log.e(
+                    SplunkRum.LOG_TAG,
+                    "invalid overhead budget: "
+                            + cpuTimeBudget
+                            + " of CPU time, "
+                            + mainThreadTimeBudget
+                            + " of main thread time");
+            return this;
+        }
+        this.overheadGovernorCpuTimeBudget = cpuTimeBudget;
+        this.overheadGovernorMainThreadTimeBudget = mainThreadTimeBudget;
+        return this;
+    }
+
+    /**
+     * Moves most of the RUM library initialization off the main thread. {@link #build(Application)}
+     * then only sets up the OpenTelemetry SDK and the activity and fragment lifecycle
+     * instrumentation; the network provider, the exporters and span processors are set up on a
+     * background thread, and the other instrumentations are installed back on the main thread once
+     * they're ready.
+     *
+     * <p>The spans that end before the exporters are ready (up to 512 of them) are buffered, and
+     * exported once the initialization finishes. The instrumentations installed after the
+     * initialization only observe what happens after they're installed: e.g. a crash that happens
+     * before the crash reporter is installed is not reported, and the first activity may not be
+     * checked for slow renders. The network attributes are missing from the spans that start before
+     * the network provider is ready.
+     *
+     * <p>This feature is disabled by default.
+     *
+     * @return {@code this}
+     */
+    public SplunkRumBuilder enableAsyncInitialization() {
+        this.asyncInitializationEnabled = true;
+        return this;
+    }
+
+    /**
+     * Delays the installation of the instrumentations that aren't needed during the cold start
+     * until the first activity has drawn its first frame and the main thread has gone idle: the ANR
+     * detector, the network monitor, the slow rendering detector and the SDK overhead reporter and
+     * governor. The crash reporter and the lifecycle instrumentation are still installed right
+     * away. The deferred installation is recorded as events of the {@code SplunkRum.initialize}
+     * span.
+     *
+     * <p>The deferred instrumentations don't observe anything that happens before they're
+     * installed, e.g. an ANR during the cold start is not reported.
+     *
+     * <p>This feature is disabled by default.
+     *
+     * @return {@code this}
+     */
+    public SplunkRumBuilder enableDeferredInstrumentations() {
+        this.deferredInstrumentationsEnabled = true;
+        return this;
+    }
+
+    /**
+     * Configures rule based sampling of spans. Unlike {@linkplain
+     * #enableSessionBasedSampling(double) session based sampling}, which keeps or drops whole
+     * sessions, the sampling rules keep a ratio of the matching spans in every session - e.g. to
+     * reduce the number of high volume HTTP or lifecycle spans. Crash, error and ANR spans are
+     * never dropped by a rule.
+     *
+     * <p>When session based sampling is enabled as well, the rules are applied to the spans of the
+     * sampled sessions.
+     *
+     * @param configurer A function that will configure the passed {@link SamplingRulesBuilder}.
+     * @return {@code this}
+     */
+    public SplunkRumBuilder sampleSpans(Consumer<SamplingRulesBuilder> configurer) {
+        configurer.accept(samplingRulesBuilder);
+        return this;
+    }
+
     /**
      * Creates a new instance of {@link SplunkRum} with the settings of this {@link
      * SplunkRumBuilder}.
@@ -36,6 +36,7 @@ class ThrottlingExporter implements SpanExporter {
     private final Function<SpanData, String> categoryFunction;
     private final long windowSizeInNanos;
     private final int maxSpansInWindow;
+    private final PipelineHealth pipelineHealth;
     // note: no need to make this thread-safe since it will only ever be called from the
     // BatchSpanProcessor worker thread.
     // the implementation here needs to support null keys, or we'd need to use a default component
@@ -47,6 +48,7 @@ class ThrottlingExporter implements SpanExporter {
         this.categoryFunction = builder.categoryFunction;
         this.windowSizeInNanos = builder.windowSize.toNanos();
         this.maxSpansInWindow = builder.maxSpansInWindow;
+        this.pipelineHealth = builder.pipelineHealth;
     }
 
     static Builder newBuilder(SpanExporter delegate) {
@@ -65,6 +67,7 @@ class ThrottlingExporter implements SpanExporter {
         }
         int dropped = spans.size() - spansBelowLimit.size();
         if (dropped > 0) {
+            pipelineHealth.recordSpansDroppedThrottled(dropped);
             Log.d(SplunkRum.LOG_TAG, "Dropped " + dropped + " spans because of throttling");
         }
         return delegate.export(spansBelowLimit);
@@ -117,6 +120,7 @@ class ThrottlingExporter implements SpanExporter {
         Function<SpanData, String> categoryFunction = span -> "default";
         Duration windowSize = Duration.ofSeconds(30);
         int maxSpansInWindow = 100;
+        PipelineHealth pipelineHealth = new PipelineHealth();
 
         private Builder(SpanExporter delegate) {
             this.delegate = delegate;
@@ -137,6 +141,11 @@ class ThrottlingExporter implements SpanExporter {
             return this;
         }
 
+        Builder pipelineHealth(PipelineHealth pipelineHealth) {
+            this.pipelineHealth = pipelineHealth;
+            return this;
+        }
+
         ThrottlingExporter build() {
             return new ThrottlingExporter(this);
         }
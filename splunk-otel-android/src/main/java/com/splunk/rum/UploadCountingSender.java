@@ -0,0 +1,82 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import java.io.IOException;
+import java.util.List;
+import zipkin2.Call;
+import zipkin2.CheckResult;
+import zipkin2.codec.Encoding;
+import zipkin2.reporter.Sender;
+
+/** Counts the span bytes that the wrapped network {@link Sender} uploaded successfully. */
+final class UploadCountingSender extends Sender {
+
+    private final Sender delegate;
+    private final PipelineHealth pipelineHealth;
+
+    UploadCountingSender(Sender delegate, PipelineHealth pipelineHealth) {
+        this.delegate = delegate;
+        this.pipelineHealth = pipelineHealth;
+    }
+
+    @Override
+    public Encoding encoding() {
+        return delegate.encoding();
+    }
+
+    @Override
+    public int messageMaxBytes() {
+        return delegate.messageMaxBytes();
+    }
+
+    @Override
+    public int messageSizeInBytes(List<byte[]> encodedSpans) {
+        return delegate.messageSizeInBytes(encodedSpans);
+    }
+
+    @Override
+    public int messageSizeInBytes(int encodedSizeInBytes) {
+        return delegate.messageSizeInBytes(encodedSizeInBytes);
+    }
+
+    @Override
+    public Call<Void> sendSpans(List<byte[]> encodedSpans) {
+        long bytes = 0;
+        for (byte[] span : encodedSpans) {
+            bytes += span.length;
+        }
+        long uploadedBytes = bytes;
+        // the mapper only runs when the call succeeds, whether it's executed or enqueued
+        return delegate.sendSpans(encodedSpans)
+                .map(
+                        result -> {
+                            pipelineHealth.recordUploadedBytes(uploadedBytes);
+                            return result;
+                        });
+    }
+
+    @Override
+    public CheckResult check() {
+        return delegate.check();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
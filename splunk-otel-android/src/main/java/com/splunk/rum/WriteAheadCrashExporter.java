@@ -0,0 +1,159 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static com.splunk.rum.SplunkRum.COMPONENT_CRASH;
+import static com.splunk.rum.SplunkRum.COMPONENT_KEY;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Exports spans to the delegate until the app crashes; from then on, and for as long as the crash
+ * handler waits for the spans to be flushed, the spans go into the crash file instead, which is
+ * much faster and works without network. The crash span itself is written by the {@link
+ * CrashWriteAheadSpanProcessor} on the crashing thread, so it is skipped here. If the process
+ * survives the crash, e.g. because another handler swallowed it, the spans go to the delegate again
+ * once the crash flush is over.
+ *
+ * <p>The spans found in the crash file on the next launch are handed over to the recovered spans
+ * handler, which returns {@code true} once it has taken care of them. When it can't, it's asked
+ * again after an exponentially growing delay, not on every export.
+ */
+class WriteAheadCrashExporter implements SpanExporter {
+
+    static final long INITIAL_RECOVERY_BACKOFF_NANOS = SECONDS.toNanos(30);
+    static final long MAX_RECOVERY_BACKOFF_NANOS = MINUTES.toNanos(15);
+
+    private final SpanExporter delegate;
+    private final SpanExporter crashFileExporter;
+    private final CrashFileSender crashFileSender;
+    private final Predicate<List<byte[]>> recoveredSpansHandler;
+    private final long crashFlushTimeoutNanos;
+    private final LongSupplier nanoTime;
+    private volatile boolean crashed = false;
+    private volatile long crashFlushEndNanos;
+    // note: only ever accessed from the span processor worker thread
+    private boolean recovered = false;
+    private long recoveryBackoffNanos = INITIAL_RECOVERY_BACKOFF_NANOS;
+    private boolean recoveryBackingOff = false;
+    private long nextRecoveryNanos;
+
+    WriteAheadCrashExporter(
+            SpanExporter delegate,
+            SpanExporter crashFileExporter,
+            CrashFileSender crashFileSender,
+            Predicate<List<byte[]>> recoveredSpansHandler,
+            Duration crashFlushTimeout) {
+        this(
+                delegate,
+                crashFileExporter,
+                crashFileSender,
+                recoveredSpansHandler,
+                crashFlushTimeout,
+                System::nanoTime);
+    }
+
+    // Exists for testing
+    WriteAheadCrashExporter(
+            SpanExporter delegate,
+            SpanExporter crashFileExporter,
+            CrashFileSender crashFileSender,
+            Predicate<List<byte[]>> recoveredSpansHandler,
+            Duration crashFlushTimeout,
+            LongSupplier nanoTime) {
+        this.delegate = delegate;
+        this.crashFileExporter = crashFileExporter;
+        this.crashFileSender = crashFileSender;
+        this.recoveredSpansHandler = recoveredSpansHandler;
+        this.crashFlushTimeoutNanos = crashFlushTimeout.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /** Called on the crashing thread, right after the crash span has been written. */
+    void onCrash() {
+        crashFlushEndNanos = nanoTime.getAsLong() + crashFlushTimeoutNanos;
+        crashed = true;
+    }
+
+    private boolean isFlushingCrash() {
+        if (crashed && nanoTime.getAsLong() - crashFlushEndNanos >= 0) {
+            crashed = false;
+        }
+        return crashed;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        if (isFlushingCrash()) {
+            List<SpanData> spansToWrite = new ArrayList<>(spans.size());
+            for (SpanData span : spans) {
+                if (!COMPONENT_CRASH.equals(span.getAttributes().get(COMPONENT_KEY))) {
+                    spansToWrite.add(span);
+                }
+            }
+            return crashFileExporter.export(spansToWrite);
+        }
+        if (!recovered && isRecoveryDue()) {
+            recoverCrashFile();
+        }
+        return delegate.export(spans);
+    }
+
+    private void recoverCrashFile() {
+        // this also preallocates the crash file, if it didn't exist yet
+        List<byte[]> recoveredSpans = crashFileSender.readSpans();
+        if (recoveredSpans.isEmpty() || recoveredSpansHandler.test(recoveredSpans)) {
+            if (!recoveredSpans.isEmpty()) {
+                crashFileSender.clear();
+            }
+            recovered = true;
+        } else {
+            // e.g. the device is offline; no need to try again on every single export
+            recoveryBackingOff = true;
+            nextRecoveryNanos = nanoTime.getAsLong() + recoveryBackoffNanos;
+            recoveryBackoffNanos = Math.min(recoveryBackoffNanos * 2, MAX_RECOVERY_BACKOFF_NANOS);
+        }
+    }
+
+    private boolean isRecoveryDue() {
+        return !recoveryBackingOff || nanoTime.getAsLong() - nextRecoveryNanos >= 0;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        if (isFlushingCrash()) {
+            return CompletableResultCode.ofSuccess();
+        }
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        crashFileExporter.shutdown();
+        return delegate.shutdown();
+    }
+}
@@ -30,8 +30,12 @@ class ZipkinWriteToDiskExporterFactory {
 
     private ZipkinWriteToDiskExporterFactory() {}
 
-    static ZipkinSpanExporter create(Application application, int maxUsageMegabytes) {
-        File spansPath = FileUtils.getSpansDirectory(application);
+    static ZipkinSpanExporter create(Application application, DeviceSpanStorageLimiter limiter) {
+        return create(application, FileUtils.getSpansDirectory(application), limiter);
+    }
+
+    static ZipkinSpanExporter create(
+            Application application, File spansPath, DeviceSpanStorageLimiter limiter) {
         if (!spansPath.exists()) {
             if (!spansPath.mkdirs()) {
                 Log.e(
@@ -43,17 +47,10 @@ class ZipkinWriteToDiskExporterFactory {
             }
         }
 
-        FileUtils fileUtils = new FileUtils();
-        DeviceSpanStorageLimiter limiter =
-                DeviceSpanStorageLimiter.builder()
-                        .fileUtils(fileUtils)
-                        .path(spansPath)
-                        .maxStorageUseMb(maxUsageMegabytes)
-                        .build();
         Sender sender =
                 ZipkinToDiskSender.builder()
                         .path(spansPath)
-                        .fileUtils(fileUtils)
+                        .fileUtils(new FileUtils())
                         .storageLimiter(limiter)
                         .build();
         return ZipkinSpanExporter.builder()
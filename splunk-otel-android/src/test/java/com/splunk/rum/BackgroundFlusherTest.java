@@ -0,0 +1,80 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.export.MetricReader;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BackgroundFlusherTest {
+
+    @Mock SdkTracerProvider tracerProvider;
+    @Mock MetricReader metricReader;
+    @Mock ErrorDeduplicatingExporter errorDeduplicatingExporter;
+    @Mock DiskToZipkinExporter diskToZipkinExporter;
+
+    @Test
+    void flushesOnceOnTheSchedulerWhenBackgrounded() {
+        when(metricReader.forceFlush()).thenReturn(CompletableResultCode.ofSuccess());
+        when(tracerProvider.forceFlush()).thenReturn(CompletableResultCode.ofSuccess());
+        BackgroundFlusher flusher =
+                new BackgroundFlusher(
+                        Runnable::run,
+                        tracerProvider,
+                        metricReader,
+                        errorDeduplicatingExporter,
+                        diskToZipkinExporter);
+
+        flusher.onApplicationForegrounded();
+        flusher.onApplicationBackgrounded();
+
+        // the metrics and the error summaries become spans, which end up on disk before the disk
+        // is exported
+        InOrder inOrder =
+                inOrder(
+                        metricReader,
+                        errorDeduplicatingExporter,
+                        tracerProvider,
+                        diskToZipkinExporter);
+        inOrder.verify(metricReader).forceFlush();
+        inOrder.verify(errorDeduplicatingExporter).summarizeAll();
+        inOrder.verify(tracerProvider).forceFlush();
+        inOrder.verify(diskToZipkinExporter).doExportCycle();
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void flushesSpansWithoutMetricsAndDiskBuffering() {
+        when(tracerProvider.forceFlush()).thenReturn(CompletableResultCode.ofSuccess());
+        BackgroundFlusher flusher =
+                new BackgroundFlusher(Runnable::run, tracerProvider, null, null, null);
+
+        flusher.onApplicationBackgrounded();
+
+        verify(tracerProvider).forceFlush();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CrashFileSenderTest {
+
+    @TempDir File dir;
+
+    @Test
+    void preallocatesFile() {
+        File file = new File(dir, "crash");
+        CrashFileSender sender = new CrashFileSender(file, 1024);
+
+        sender.preallocate();
+
+        assertThat(file).exists();
+        assertThat(file.length()).isEqualTo(4 + 1024);
+        assertThat(sender.readSpans()).isEmpty();
+    }
+
+    @Test
+    void spansSurviveRestart() throws IOException {
+        File file = new File(dir, "crash");
+        CrashFileSender sender = new CrashFileSender(file, 1024);
+        sender.sendSpans(encode("one", "two"));
+        sender.sendSpans(encode("three"));
+        sender.close();
+
+        CrashFileSender nextLaunch = new CrashFileSender(file, 1024);
+
+        assertThat(decode(nextLaunch.readSpans())).containsExactly("one", "two", "three");
+        nextLaunch.clear();
+        assertThat(nextLaunch.readSpans()).isEmpty();
+    }
+
+    @Test
+    void dropsSpansThatDoNotFit() {
+        CrashFileSender sender = new CrashFileSender(new File(dir, "crash"), 10);
+
+        sender.sendSpans(encode("12345", "1234567", "123"));
+
+        assertThat(decode(sender.readSpans())).containsExactly("12345", "123");
+    }
+
+    @Test
+    void emptyBatchDoesNothing() {
+        File file = new File(dir, "crash");
+
+        new CrashFileSender(file, 10).sendSpans(Collections.emptyList());
+
+        assertThat(file).doesNotExist();
+    }
+
+    private static List<byte[]> encode(String... spans) {
+        return Arrays.stream(spans).map(s -> s.getBytes(UTF_8)).collect(Collectors.toList());
+    }
+
+    private static List<String> decode(List<byte[]> spans) {
+        return spans.stream().map(s -> new String(s, UTF_8)).collect(Collectors.toList());
+    }
+}
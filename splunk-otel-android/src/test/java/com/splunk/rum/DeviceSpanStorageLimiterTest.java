@@ -16,6 +16,7 @@
 
 package com.splunk.rum;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -39,6 +40,8 @@ class DeviceSpanStorageLimiterTest {
     private static final long MAX_STORAGE_USE_BYTES = MAX_STORAGE_USE_MB * 1024 * 1024;
     @Mock private FileUtils fileUtils;
     @Mock private File path;
+    @Mock private File pendingPath;
+    private final PipelineHealth pipelineHealth = new PipelineHealth();
     private DeviceSpanStorageLimiter limiter;
 
     @BeforeEach
@@ -48,6 +51,7 @@ class DeviceSpanStorageLimiterTest {
                         .fileUtils(fileUtils)
                         .path(path)
                         .maxStorageUseMb(MAX_STORAGE_USE_MB)
+                        .pipelineHealth(pipelineHealth)
                         .build();
     }
 
@@ -96,5 +100,32 @@ class DeviceSpanStorageLimiterTest {
         verify(fileUtils).safeDelete(file2);
         verify(fileUtils, never()).safeDelete(file3);
         assertTrue(result);
+        assertEquals(2, pipelineHealth.snapshot().getSpanFilesDroppedStorageLimit());
+    }
+
+    @Test
+    void ensureFreeSpace_pendingFilesShareTheLimitAndAreDroppedFirst() {
+        DeviceSpanStorageLimiter limiter =
+                DeviceSpanStorageLimiter.builder()
+                        .fileUtils(fileUtils)
+                        .path(path)
+                        .pendingPath(pendingPath)
+                        .maxStorageUseMb(MAX_STORAGE_USE_MB)
+                        .pipelineHealth(pipelineHealth)
+                        .build();
+        File pending = new File("pending-file");
+
+        when(fileUtils.getTotalFileSizeInBytes(path)).thenReturn(MAX_STORAGE_USE_BYTES / 2);
+        when(fileUtils.getTotalFileSizeInBytes(pendingPath)).thenReturn(MAX_STORAGE_USE_BYTES / 2);
+        when(fileUtils.getFileSize(pending)).thenReturn(1L);
+        when(fileUtils.listSpanFiles(pendingPath)).thenReturn(Stream.of(pending));
+        when(path.getFreeSpace()).thenReturn(MAX_STORAGE_USE_BYTES + 1);
+
+        assertTrue(limiter.ensureFreeSpace());
+
+        verify(fileUtils).safeDelete(pending);
+        verify(fileUtils, never()).listSpanFiles(path);
+        assertEquals(0, pipelineHealth.snapshot().getSpanFilesDroppedStorageLimit());
+        assertEquals(1, pipelineHealth.snapshot().getPendingSpanFilesDroppedStorageLimit());
     }
 }
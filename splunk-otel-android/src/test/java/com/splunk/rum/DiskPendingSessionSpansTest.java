@@ -0,0 +1,130 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DiskPendingSessionSpansTest {
+
+    private final File pendingSpansPath = new File("/my/files/spans-pending");
+    private final File spansPath = new File("/my/files/spans");
+
+    @Mock private FileUtils fileUtils;
+    @Mock private SpanExporter writer;
+    @Mock private SpanExporter exporter;
+
+    @Test
+    void firstAddCleansUpLeftoversAndWritesToDisk() {
+        File leftover = new File(pendingSpansPath, "1.spans");
+        when(fileUtils.listSpanFiles(pendingSpansPath)).thenReturn(Stream.of(leftover));
+        DiskPendingSessionSpans pendingSpans = create();
+        List<SpanData> spans = Collections.emptyList();
+
+        pendingSpans.add(spans);
+        pendingSpans.add(spans);
+
+        verify(fileUtils).safeDelete(leftover);
+        verify(writer, times(2)).export(spans);
+    }
+
+    @Test
+    void keepMovesFilesToSpansDirectory() {
+        File pending = new File(pendingSpansPath, "1.spans");
+        when(fileUtils.listSpanFiles(pendingSpansPath))
+                .thenReturn(Stream.empty(), Stream.of(pending));
+        DiskPendingSessionSpans pendingSpans = create();
+
+        pendingSpans.add(Collections.emptyList());
+        pendingSpans.keep(exporter);
+
+        verify(fileUtils).safeRename(pending, new File(spansPath, "1.spans"));
+        verifyNoInteractions(exporter);
+    }
+
+    @Test
+    void keepBeforeFirstAddDoesNotKeepLeftovers() {
+        File leftover = new File(pendingSpansPath, "1.spans");
+        when(fileUtils.listSpanFiles(pendingSpansPath))
+                .thenReturn(Stream.of(leftover), Stream.empty());
+
+        create().keep(exporter);
+
+        verify(fileUtils).safeDelete(leftover);
+        verify(fileUtils, never()).safeRename(any(), any());
+    }
+
+    @Test
+    void discardOlderThan() {
+        File old = new File(pendingSpansPath, "1.spans");
+        File recent = new File(pendingSpansPath, "2.spans");
+        when(fileUtils.listSpanFiles(pendingSpansPath))
+                .thenReturn(Stream.empty(), Stream.of(old, recent));
+        when(fileUtils.getModificationTime(old)).thenReturn(99L);
+        when(fileUtils.getModificationTime(recent)).thenReturn(100L);
+        DiskPendingSessionSpans pendingSpans = create();
+
+        pendingSpans.add(Collections.emptyList());
+        pendingSpans.discardOlderThan(TimeUnit.SECONDS.toNanos(100));
+
+        verify(fileUtils).safeDelete(old);
+        verify(fileUtils, never()).safeDelete(recent);
+        verify(fileUtils, never()).safeRename(any(), any());
+    }
+
+    @Test
+    void discardOlderThanListsTheFilesOncePerInterval() {
+        File old = new File(pendingSpansPath, "1.spans");
+        when(fileUtils.listSpanFiles(pendingSpansPath))
+                .thenReturn(Stream.empty(), Stream.empty(), Stream.of(old));
+        when(fileUtils.getModificationTime(old)).thenReturn(99L);
+        DiskPendingSessionSpans pendingSpans = create();
+        long now = TimeUnit.SECONDS.toNanos(100);
+
+        pendingSpans.add(Collections.emptyList());
+        pendingSpans.discardOlderThan(now);
+        pendingSpans.discardOlderThan(now + 1);
+        pendingSpans.discardOlderThan(
+                now + DiskPendingSessionSpans.DISCARD_OLDER_INTERVAL_NANOS - 1);
+        verify(fileUtils, times(2)).listSpanFiles(pendingSpansPath);
+
+        pendingSpans.discardOlderThan(now + DiskPendingSessionSpans.DISCARD_OLDER_INTERVAL_NANOS);
+        verify(fileUtils, times(3)).listSpanFiles(pendingSpansPath);
+        verify(fileUtils).safeDelete(old);
+    }
+
+    private DiskPendingSessionSpans create() {
+        return new DiskPendingSessionSpans(pendingSpansPath, spansPath, () -> writer, fileUtils);
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.rum.internal.RumConstants;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.testing.trace.TestSpanData;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ErrorDeduplicatingExporterTest {
+
+    private static final long NOW_NANOS = TimeUnit.MINUTES.toNanos(60);
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    @Mock private Clock clock;
+    @Mock private SpanProcessor spanProcessor;
+
+    private final RecordingExporter delegate = new RecordingExporter();
+    private ErrorDeduplicatingExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new ErrorDeduplicatingExporter(delegate, WINDOW, clock);
+    }
+
+    @Test
+    void exportsSpansWithoutFingerprint() {
+        when(clock.now()).thenReturn(NOW_NANOS);
+        SpanData first = span("span", null, NOW_NANOS);
+        SpanData second = span("span", null, NOW_NANOS);
+
+        exporter.export(Arrays.asList(first, second));
+
+        assertThat(delegate.exported).containsExactly(first, second);
+    }
+
+    @Test
+    void foldsRepeatsIntoSummary() {
+        when(clock.now()).thenReturn(NOW_NANOS);
+        SpanData first = span("NullPointerException", "abc", NOW_NANOS);
+        SpanData other = span("IllegalStateException", "def", NOW_NANOS);
+        SpanData repeat1 = span("NullPointerException", "abc", NOW_NANOS + 10);
+        SpanData repeat2 = span("NullPointerException", "abc", NOW_NANOS + 20);
+
+        exporter.export(Arrays.asList(first, other, repeat1));
+        exporter.export(Collections.singletonList(repeat2));
+
+        assertThat(delegate.exported).containsExactly(first, other);
+
+        when(clock.now()).thenReturn(NOW_NANOS + WINDOW.toNanos());
+        exporter.export(Collections.emptyList());
+
+        assertThat(delegate.exported).hasSize(3);
+        SpanData summary = delegate.exported.get(2);
+        assertThat(summary.getName()).isEqualTo("NullPointerException");
+        assertThat(summary.getSpanContext()).isEqualTo(repeat1.getSpanContext());
+        assertThat(summary.getStartEpochNanos()).isEqualTo(NOW_NANOS + 10);
+        assertThat(summary.getEndEpochNanos()).isEqualTo(NOW_NANOS + 20);
+        assertThat(summary.getAttributes().get(ErrorDeduplicatingExporter.ERROR_REPEAT_COUNT_KEY))
+                .isEqualTo(2);
+        assertThat(summary.getAttributes().get(ErrorDeduplicatingExporter.ERROR_FIRST_SEEN_KEY))
+                .isEqualTo(TimeUnit.NANOSECONDS.toMillis(NOW_NANOS + 10));
+        assertThat(summary.getAttributes().get(ErrorDeduplicatingExporter.ERROR_LAST_SEEN_KEY))
+                .isEqualTo(TimeUnit.NANOSECONDS.toMillis(NOW_NANOS + 20));
+        assertThat(summary.getAttributes().get(SemanticAttributes.EXCEPTION_STACKTRACE)).isNull();
+        assertThat(summary.getEvents())
+                .singleElement()
+                .satisfies(
+                        event -> {
+                            assertThat(event.getAttributes().get(SemanticAttributes.EXCEPTION_TYPE))
+                                    .isEqualTo("java.lang.NullPointerException");
+                            assertThat(
+                                            event.getAttributes()
+                                                    .get(SemanticAttributes.EXCEPTION_STACKTRACE))
+                                    .isNull();
+                        });
+        assertThat(exporter.getTrackedErrorCount()).isZero();
+    }
+
+    @Test
+    void exportsErrorInFullAgainAfterWindow() {
+        when(clock.now()).thenReturn(NOW_NANOS);
+        SpanData first = span("NullPointerException", "abc", NOW_NANOS);
+        exporter.export(Collections.singletonList(first));
+
+        when(clock.now()).thenReturn(NOW_NANOS + WINDOW.toNanos());
+        SpanData second = span("NullPointerException", "abc", NOW_NANOS + WINDOW.toNanos());
+        exporter.export(Collections.singletonList(second));
+
+        // no repeats within the first window, so there's no summary either
+        assertThat(delegate.exported).containsExactly(first, second);
+    }
+
+    @Test
+    void summarizesLeastRecentlySeenErrorWhenTableIsFull() {
+        when(clock.now()).thenReturn(NOW_NANOS);
+        exporter.export(
+                Arrays.asList(
+                        span("error", "fingerprint0", NOW_NANOS),
+                        span("error", "fingerprint0", NOW_NANOS)));
+        for (int i = 1; i <= ErrorDeduplicatingExporter.MAX_TRACKED_ERRORS; i++) {
+            exporter.export(Collections.singletonList(span("error", "fingerprint" + i, NOW_NANOS)));
+        }
+
+        assertThat(exporter.getTrackedErrorCount())
+                .isEqualTo(ErrorDeduplicatingExporter.MAX_TRACKED_ERRORS);
+        assertThat(delegate.exported).hasSize(ErrorDeduplicatingExporter.MAX_TRACKED_ERRORS + 2);
+        assertThat(delegate.exported)
+                .filteredOn(
+                        span ->
+                                span.getAttributes()
+                                                .get(
+                                                        ErrorDeduplicatingExporter
+                                                                .ERROR_REPEAT_COUNT_KEY)
+                                        != null)
+                .singleElement()
+                .satisfies(
+                        summary ->
+                                assertThat(
+                                                summary.getAttributes()
+                                                        .get(
+                                                                RumConstants
+                                                                        .EXCEPTION_FINGERPRINT_KEY))
+                                        .isEqualTo("fingerprint0"));
+    }
+
+    @Test
+    void handsOverSummaryWhenWindowEndsWithoutFurtherExports() {
+        when(clock.now()).thenReturn(NOW_NANOS);
+        exporter.setSpanProcessor(spanProcessor);
+        exporter.export(
+                Arrays.asList(
+                        span("error", "abc", NOW_NANOS), span("error", "abc", NOW_NANOS + 10)));
+
+        exporter.summarizeEndedWindows();
+        verify(spanProcessor, never()).onEnd(any());
+
+        when(clock.now()).thenReturn(NOW_NANOS + WINDOW.toNanos());
+        exporter.summarizeEndedWindows();
+
+        ArgumentCaptor<ReadableSpan> summary = ArgumentCaptor.forClass(ReadableSpan.class);
+        verify(spanProcessor).onEnd(summary.capture());
+        assertThat(
+                        summary.getValue()
+                                .getAttribute(ErrorDeduplicatingExporter.ERROR_REPEAT_COUNT_KEY))
+                .isEqualTo(1);
+        assertThat(exporter.getTrackedErrorCount()).isZero();
+
+        // the span processor exports the summary as is
+        exporter.export(Collections.singletonList(summary.getValue().toSpanData()));
+        assertThat(delegate.exported).hasSize(2);
+        assertThat(delegate.exported.get(1)).isSameAs(summary.getValue().toSpanData());
+        assertThat(exporter.getTrackedErrorCount()).isZero();
+    }
+
+    @Test
+    void handsOverAllSummariesBeforeTheWindowEnds() {
+        when(clock.now()).thenReturn(NOW_NANOS);
+        exporter.setSpanProcessor(spanProcessor);
+        exporter.export(
+                Arrays.asList(
+                        span("error", "abc", NOW_NANOS), span("error", "abc", NOW_NANOS + 10)));
+
+        exporter.summarizeAll();
+
+        ArgumentCaptor<ReadableSpan> summary = ArgumentCaptor.forClass(ReadableSpan.class);
+        verify(spanProcessor).onEnd(summary.capture());
+        assertThat(
+                        summary.getValue()
+                                .getAttribute(ErrorDeduplicatingExporter.ERROR_REPEAT_COUNT_KEY))
+                .isEqualTo(1);
+        assertThat(exporter.getTrackedErrorCount()).isZero();
+    }
+
+    @Test
+    void exportsSummariesOnShutdown() {
+        when(clock.now()).thenReturn(NOW_NANOS);
+        exporter.export(
+                Arrays.asList(
+                        span("error", "abc", NOW_NANOS), span("error", "abc", NOW_NANOS + 10)));
+
+        exporter.shutdown();
+
+        assertThat(delegate.exported).hasSize(2);
+        assertThat(
+                        delegate.exported
+                                .get(1)
+                                .getAttributes()
+                                .get(ErrorDeduplicatingExporter.ERROR_REPEAT_COUNT_KEY))
+                .isEqualTo(1);
+        assertThat(delegate.shutdown).isTrue();
+    }
+
+    private static SpanData span(String name, String fingerprint, long epochNanos) {
+        Attributes attributes =
+                fingerprint == null
+                        ? Attributes.empty()
+                        : Attributes.of(
+                                RumConstants.EXCEPTION_FINGERPRINT_KEY,
+                                fingerprint,
+                                SemanticAttributes.EXCEPTION_STACKTRACE,
+                                "at com.example.App.main");
+        EventData exception =
+                EventData.create(
+                        epochNanos,
+                        SemanticAttributes.EXCEPTION_EVENT_NAME,
+                        Attributes.of(
+                                SemanticAttributes.EXCEPTION_TYPE,
+                                "java.lang.NullPointerException",
+                                SemanticAttributes.EXCEPTION_STACKTRACE,
+                                "at com.example.App.main"));
+        return TestSpanData.builder()
+                .setName(name)
+                .setKind(SpanKind.INTERNAL)
+                .setStatus(StatusData.unset())
+                .setHasEnded(true)
+                .setStartEpochNanos(epochNanos)
+                .setEndEpochNanos(epochNanos)
+                .setAttributes(attributes)
+                .setEvents(Collections.singletonList(exception))
+                .build();
+    }
+
+    private static class RecordingExporter implements SpanExporter {
+        private final List<SpanData> exported = new ArrayList<>();
+        private boolean shutdown = false;
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            exported.addAll(spans);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            shutdown = true;
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
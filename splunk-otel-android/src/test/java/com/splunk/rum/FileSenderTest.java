@@ -17,6 +17,7 @@
 package com.splunk.rum;
 
 import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -94,7 +95,8 @@ class FileSenderTest {
     @Test
     void senderFailureRetriesExhausted() throws Exception {
         when(httpCall.execute()).thenThrow(new IOException("boom"));
-        FileSender sender = buildSender(3);
+        PipelineHealth pipelineHealth = new PipelineHealth();
+        FileSender sender = buildSender(3, pipelineHealth);
         boolean result = sender.handleFileOnDisk(file);
         assertFalse(result);
         verify(fileUtils, never()).safeDelete(any());
@@ -107,6 +109,8 @@ class FileSenderTest {
         assertFalse(result);
         verify(fileUtils).safeDelete(file);
         verifyNoMoreInteractions(backoff);
+        assertEquals(2, pipelineHealth.snapshot().getSendRetries());
+        assertEquals(1, pipelineHealth.snapshot().getSpanFilesDroppedMaxRetries());
     }
 
     @Test
@@ -126,12 +130,17 @@ class FileSenderTest {
     }
 
     private FileSender buildSender(int maxRetries) {
+        return buildSender(maxRetries, new PipelineHealth());
+    }
+
+    private FileSender buildSender(int maxRetries, PipelineHealth pipelineHealth) {
         return FileSender.builder()
                 .backoff(backoff)
                 .bandwidthTracker(bandwidthTracker)
                 .maxRetries(maxRetries)
                 .sender(delegate)
                 .fileUtils(fileUtils)
+                .pipelineHealth(pipelineHealth)
                 .build();
     }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.MessageQueue;
+import android.view.Choreographer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class FirstFrameIdleTaskTest {
+
+    @Mock Application application;
+    @Mock Activity activity;
+    @Mock Choreographer choreographer;
+    @Mock MessageQueue mainQueue;
+    @Mock Runnable task;
+
+    private FirstFrameIdleTask firstFrameIdleTask;
+
+    @BeforeEach
+    void setUp() {
+        firstFrameIdleTask =
+                new FirstFrameIdleTask(application, () -> choreographer, () -> mainQueue);
+    }
+
+    @Test
+    void runsOnceTheMainThreadIsIdleAfterTheFirstFrame() {
+        firstFrameIdleTask.runWhenIdle(task);
+        firstFrameIdleTask.onActivityResumed(activity);
+
+        verify(application).unregisterActivityLifecycleCallbacks(firstFrameIdleTask);
+        verify(choreographer).postFrameCallback(firstFrameIdleTask);
+        verifyNoInteractions(mainQueue, task);
+
+        firstFrameIdleTask.doFrame(0);
+
+        verify(mainQueue).addIdleHandler(firstFrameIdleTask);
+        verifyNoInteractions(task);
+
+        assertThat(firstFrameIdleTask.queueIdle()).isFalse();
+        verify(task).run();
+    }
+
+    @Test
+    void waitsForTheFirstFrameOnlyOnce() {
+        firstFrameIdleTask.onActivityResumed(activity);
+        firstFrameIdleTask.onActivityResumed(activity);
+
+        verify(choreographer).postFrameCallback(firstFrameIdleTask);
+        verifyNoMoreInteractions(choreographer);
+    }
+
+    @Test
+    void runsRightAwayWhenSetAfterTheFirstFrame() {
+        firstFrameIdleTask.onActivityResumed(activity);
+        firstFrameIdleTask.doFrame(0);
+        assertThat(firstFrameIdleTask.queueIdle()).isFalse();
+
+        firstFrameIdleTask.runWhenIdle(task);
+
+        verify(task).run();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.rum.internal.instrumentation.ForegroundPeriodicTask;
+import io.opentelemetry.rum.internal.instrumentation.InstrumentedApplication;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricExporter;
+import io.opentelemetry.sdk.testing.junit5.OpenTelemetryExtension;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ForegroundMetricReaderTest {
+
+    @RegisterExtension
+    static final OpenTelemetryExtension testing = OpenTelemetryExtension.create();
+
+    @Mock InstrumentedApplication instrumentedApplication;
+    @Mock ScheduledExecutorService scheduler;
+
+    private final InMemoryMetricExporter exporter =
+            InMemoryMetricExporter.create(AggregationTemporality.DELTA);
+    private final ForegroundMetricReader reader =
+            new ForegroundMetricReader(exporter, Duration.ofMinutes(1));
+    private LongCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter =
+                SdkMeterProvider.builder()
+                        .registerMetricReader(reader)
+                        .build()
+                        .get("test")
+                        .counterBuilder("counter")
+                        .build();
+    }
+
+    @Test
+    void flushExportsWhatWasRecorded() {
+        counter.add(3);
+
+        assertThat(reader.forceFlush().isSuccess()).isTrue();
+        assertThat(exporter.getFinishedMetricItems())
+                .singleElement()
+                .satisfies(metric -> assertThat(metric.getName()).isEqualTo("counter"));
+
+        exporter.reset();
+        reader.forceFlush();
+        assertThat(exporter.getFinishedMetricItems()).isEmpty();
+    }
+
+    @Test
+    void exportsPeriodicallyInTheForeground() {
+        when(instrumentedApplication.getScheduler()).thenReturn(scheduler);
+
+        reader.start(instrumentedApplication);
+
+        verify(instrumentedApplication)
+                .registerApplicationStateListener(any(ForegroundPeriodicTask.class));
+        verify(scheduler)
+                .scheduleAtFixedRate(any(), eq(60_000L), eq(60_000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shutdownExportsWhatWasRecorded() {
+        // the in-memory exporter forgets everything when shut down
+        MetricToSpanExporter spanExporter = new MetricToSpanExporter();
+        spanExporter.setTracerProvider(testing.getOpenTelemetry().getTracerProvider());
+        ForegroundMetricReader reader =
+                new ForegroundMetricReader(spanExporter, Duration.ofMinutes(1));
+        SdkMeterProvider.builder()
+                .registerMetricReader(reader)
+                .build()
+                .get("test")
+                .counterBuilder("counter")
+                .build()
+                .add(3);
+
+        assertThat(reader.shutdown().isSuccess()).isTrue();
+
+        assertThat(testing.getSpans())
+                .singleElement()
+                .satisfies(span -> assertThat(span.getName()).isEqualTo("counter"));
+    }
+}
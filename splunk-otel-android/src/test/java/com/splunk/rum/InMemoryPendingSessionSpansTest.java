@@ -0,0 +1,93 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.trace.TestSpanData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryPendingSessionSpansTest {
+
+    @Mock private SpanExporter exporter;
+
+    private final InMemoryPendingSessionSpans pendingSpans = new InMemoryPendingSessionSpans(2);
+
+    @Test
+    void dropsOldestSpansWhenFull() {
+        SpanData first = span("first", 1);
+        SpanData second = span("second", 2);
+        SpanData third = span("third", 3);
+
+        pendingSpans.add(Arrays.asList(first, second, third));
+
+        assertThat(pendingSpans.size()).isEqualTo(2);
+        pendingSpans.keep(exporter);
+        verify(exporter).export(Arrays.asList(second, third));
+        assertThat(pendingSpans.size()).isZero();
+    }
+
+    @Test
+    void keepWithoutSpansDoesNotExport() {
+        assertThat(pendingSpans.keep(exporter).isSuccess()).isTrue();
+        verifyNoInteractions(exporter);
+    }
+
+    @Test
+    void discard() {
+        pendingSpans.add(Arrays.asList(span("first", 1)));
+
+        pendingSpans.discard();
+
+        assertThat(pendingSpans.size()).isZero();
+    }
+
+    @Test
+    void discardOlderThan() {
+        SpanData old = span("old", 1);
+        SpanData recent = span("recent", 5);
+        pendingSpans.add(Arrays.asList(old, recent));
+
+        pendingSpans.discardOlderThan(3);
+
+        assertThat(pendingSpans.size()).isEqualTo(1);
+        pendingSpans.keep(exporter);
+        verify(exporter).export(Arrays.asList(recent));
+    }
+
+    private static SpanData span(String name, long endEpochNanos) {
+        return TestSpanData.builder()
+                .setName(name)
+                .setKind(SpanKind.INTERNAL)
+                .setStatus(StatusData.unset())
+                .setHasEnded(true)
+                .setStartEpochNanos(endEpochNanos)
+                .setEndEpochNanos(endEpochNanos)
+                .build();
+    }
+}
@@ -163,4 +163,28 @@ class LogToSpanBridgeTest {
                                 .put(LogToSpanBridge.LOG_BODY, "message")
                                 .build());
     }
+
+    @Test
+    void sampledLogs() {
+        when(log.getInstrumentationScopeInfo()).thenReturn(InstrumentationScopeInfo.create("test"));
+        when(log.getAttributes()).thenReturn(Attributes.empty());
+        when(log.getSeverity()).thenReturn(Severity.UNDEFINED_SEVERITY_NUMBER);
+        when(log.getBody()).thenReturn(Body.empty());
+        when(logRecord.toLogRecordData()).thenReturn(log);
+
+        bridge.setTracerProvider(testing.getOpenTelemetry().getTracerProvider());
+        bridge.sample(3);
+        for (int i = 0; i < 6; i++) {
+            bridge.onEmit(Context.root(), logRecord);
+        }
+        bridge.sample(0);
+        bridge.onEmit(Context.root(), logRecord);
+
+        assertThat(testing.getSpans())
+                .hasSize(2)
+                .allSatisfy(
+                        span ->
+                                assertThat(span)
+                                        .hasAttribute(RuleBasedSampler.SAMPLING_WEIGHT_KEY, 3.0));
+    }
 }
@@ -159,8 +159,9 @@ class MemoryBufferingExporterTest {
         when(currentNetwork.isOnline()).thenReturn(true);
 
         SpanExporter delegate = mock(SpanExporter.class);
+        PipelineHealth pipelineHealth = new PipelineHealth();
         MemoryBufferingExporter bufferingExporter =
-                new MemoryBufferingExporter(currentNetworkProvider, delegate);
+                new MemoryBufferingExporter(currentNetworkProvider, delegate, pipelineHealth);
 
         List<SpanData> firstSet = new ArrayList<>();
         for (int i = 0; i < 110; i++) {
@@ -170,6 +171,8 @@ class MemoryBufferingExporterTest {
 
         CompletableResultCode firstResult = bufferingExporter.export(firstSet);
         assertFalse(firstResult.isSuccess());
+        assertEquals(10, pipelineHealth.snapshot().getSpansDroppedBacklogFull());
+        assertEquals(100, pipelineHealth.snapshot().getBackloggedSpans());
 
         List<SpanData> secondSet = new ArrayList<>();
         for (int i = 0; i < 20; i++) {
@@ -186,6 +189,7 @@ class MemoryBufferingExporterTest {
         List<SpanData> value = argumentCaptor.getValue();
         // we keep only 100 of the first 110 that failed.
         assertEquals(120, value.size());
+        assertEquals(0, pipelineHealth.snapshot().getBackloggedSpans());
     }
 
     @Test
@@ -0,0 +1,155 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static java.util.Arrays.asList;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import io.opentelemetry.sdk.testing.junit5.OpenTelemetryExtension;
+import java.util.Collection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+class MetricToSpanExporterTest {
+
+    private static final Attributes ATTRIBUTES = Attributes.of(stringKey("screen"), "Home");
+
+    @RegisterExtension OpenTelemetryExtension testing = OpenTelemetryExtension.create();
+
+    private final MetricToSpanExporter exporter = new MetricToSpanExporter();
+    private final InMemoryMetricReader metricReader = InMemoryMetricReader.createDelta();
+    private Meter meter;
+
+    @BeforeEach
+    void setUp() {
+        meter = SdkMeterProvider.builder().registerMetricReader(metricReader).build().get("test");
+    }
+
+    @Test
+    void misconfiguration() {
+        meter.counterBuilder("counter").build().add(1);
+
+        CompletableResultCode result = exporter.export(metricReader.collectAllMetrics());
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(testing.getSpans()).isEmpty();
+    }
+
+    @Test
+    void exportsSumsAsSpans() {
+        meter.counterBuilder("counter").setUnit("{frame}").build().add(3, ATTRIBUTES);
+        meter.counterBuilder("doubleCounter").ofDoubles().build().add(1.5);
+        Collection<MetricData> metrics = metricReader.collectAllMetrics();
+
+        exporter.setTracerProvider(testing.getOpenTelemetry().getTracerProvider());
+        CompletableResultCode result = exporter.export(metrics);
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(testing.getSpans())
+                .satisfiesExactlyInAnyOrder(
+                        span ->
+                                assertThat(span)
+                                        .hasName("counter")
+                                        .hasAttributes(
+                                                ATTRIBUTES.toBuilder()
+                                                        .put(
+                                                                MetricToSpanExporter.METRIC_UNIT,
+                                                                "{frame}")
+                                                        .put(
+                                                                MetricToSpanExporter
+                                                                        .METRIC_LONG_VALUE,
+                                                                3L)
+                                                        .build()),
+                        span ->
+                                assertThat(span)
+                                        .hasName("doubleCounter")
+                                        .hasAttribute(
+                                                MetricToSpanExporter.METRIC_DOUBLE_VALUE, 1.5));
+    }
+
+    @Test
+    void exportsGaugesAsSpans() {
+        meter.gaugeBuilder("gauge")
+                .ofLongs()
+                .setUnit("{span}")
+                .buildWithCallback(measurement -> measurement.record(42, ATTRIBUTES));
+        Collection<MetricData> metrics = metricReader.collectAllMetrics();
+
+        exporter.setTracerProvider(testing.getOpenTelemetry().getTracerProvider());
+        exporter.export(metrics);
+
+        assertThat(testing.getSpans())
+                .singleElement()
+                .satisfies(
+                        span ->
+                                assertThat(span)
+                                        .hasName("gauge")
+                                        .hasAttribute(stringKey("screen"), "Home")
+                                        .hasAttribute(MetricToSpanExporter.METRIC_UNIT, "{span}")
+                                        .hasAttribute(MetricToSpanExporter.METRIC_LONG_VALUE, 42L));
+    }
+
+    @Test
+    void exportsHistogramsAsSpans() {
+        meter.histogramBuilder("histogram").setUnit("ms").ofLongs().build().record(7, ATTRIBUTES);
+        Collection<MetricData> metrics = metricReader.collectAllMetrics();
+        MetricData metric = metrics.iterator().next();
+
+        exporter.setTracerProvider(testing.getOpenTelemetry().getTracerProvider());
+        exporter.export(metrics);
+
+        assertThat(testing.getSpans())
+                .singleElement()
+                .satisfies(
+                        span ->
+                                assertThat(span)
+                                        .hasName("histogram")
+                                        .startsAt(
+                                                metric.getHistogramData()
+                                                        .getPoints()
+                                                        .iterator()
+                                                        .next()
+                                                        .getStartEpochNanos())
+                                        .hasAttribute(stringKey("screen"), "Home")
+                                        .hasAttribute(MetricToSpanExporter.METRIC_UNIT, "ms")
+                                        .hasAttribute(MetricToSpanExporter.METRIC_COUNT, 1L)
+                                        .hasAttribute(MetricToSpanExporter.METRIC_SUM, 7.0)
+                                        .hasAttribute(
+                                                MetricToSpanExporter.METRIC_BUCKET_COUNTS,
+                                                asList(
+                                                        0L, 0L, 1L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L,
+                                                        0L, 0L, 0L, 0L, 0L)));
+    }
+
+    @Test
+    void usesDeltaTemporality() {
+        assertThat(exporter.getAggregationTemporality(InstrumentType.COUNTER))
+                .isEqualTo(AggregationTemporality.DELTA);
+        assertThat(exporter.getAggregationTemporality(InstrumentType.HISTOGRAM))
+                .isEqualTo(AggregationTemporality.DELTA);
+    }
+}
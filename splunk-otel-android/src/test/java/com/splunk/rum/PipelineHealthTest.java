@@ -0,0 +1,154 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class PipelineHealthTest {
+
+    private final PipelineHealth pipelineHealth = new PipelineHealth();
+
+    @Test
+    void snapshot() {
+        pipelineHealth.recordSpanDroppedQueueFull();
+        pipelineHealth.recordSpansDroppedThrottled(2);
+        pipelineHealth.recordSpansDroppedBacklogFull(3);
+        pipelineHealth.recordSpanDroppedPreInitFull();
+        pipelineHealth.recordSpanFileDroppedStorageLimit();
+        pipelineHealth.recordSpanFileDroppedMaxRetries();
+        pipelineHealth.recordSendRetry();
+        pipelineHealth.recordSendRetry();
+        pipelineHealth.recordUploadedBytes(100);
+        pipelineHealth.recordUploadedBytes(23);
+        pipelineHealth.recordExport(Duration.ofMillis(30).toNanos(), true);
+        pipelineHealth.recordExport(Duration.ofMillis(50).toNanos(), false);
+        pipelineHealth.recordExport(Duration.ofMillis(20).toNanos(), true);
+        pipelineHealth.addSpanQueue(() -> 5);
+        pipelineHealth.addSpanQueue(() -> 1);
+        pipelineHealth.addSpanBacklog(() -> 7);
+
+        PipelineHealthSnapshot snapshot = pipelineHealth.snapshot();
+
+        assertThat(snapshot.getSpansDroppedQueueFull()).isEqualTo(1);
+        assertThat(snapshot.getSpansDroppedThrottled()).isEqualTo(2);
+        assertThat(snapshot.getSpansDroppedBacklogFull()).isEqualTo(3);
+        assertThat(snapshot.getSpansDroppedPreInitFull()).isEqualTo(1);
+        assertThat(snapshot.getSpanFilesDroppedStorageLimit()).isEqualTo(1);
+        assertThat(snapshot.getSpanFilesDroppedMaxRetries()).isEqualTo(1);
+        assertThat(snapshot.getSendRetries()).isEqualTo(2);
+        assertThat(snapshot.getUploadedBytes()).isEqualTo(123);
+        assertThat(snapshot.getExportCount()).isEqualTo(3);
+        assertThat(snapshot.getFailedExportCount()).isEqualTo(1);
+        assertThat(snapshot.getTotalExportTime()).isEqualTo(Duration.ofMillis(100));
+        assertThat(snapshot.getMaxExportTime()).isEqualTo(Duration.ofMillis(50));
+        assertThat(snapshot.getQueuedSpans()).isEqualTo(6);
+        assertThat(snapshot.getBackloggedSpans()).isEqualTo(7);
+    }
+
+    @Test
+    void emptySnapshot() {
+        PipelineHealthSnapshot snapshot = pipelineHealth.snapshot();
+
+        assertThat(snapshot.getSpansDroppedQueueFull()).isZero();
+        assertThat(snapshot.getExportCount()).isZero();
+        assertThat(snapshot.getMaxExportTime()).isEqualTo(Duration.ZERO);
+        assertThat(snapshot.getQueuedSpans()).isZero();
+    }
+
+    @Test
+    void exportsDeltasAsMetrics() {
+        InMemoryMetricReader metricReader = InMemoryMetricReader.createDelta();
+        pipelineHealth.registerMetrics(
+                SdkMeterProvider.builder().registerMetricReader(metricReader).build().get("test"));
+        pipelineHealth.addSpanBacklog(() -> 4);
+        pipelineHealth.recordSpansDroppedThrottled(2);
+        pipelineHealth.recordUploadedBytes(100);
+        metricReader.collectAllMetrics();
+
+        pipelineHealth.recordSpansDroppedThrottled(3);
+        pipelineHealth.recordUploadedBytes(50);
+
+        assertThat(metricReader.collectAllMetrics())
+                .anySatisfy(
+                        metric ->
+                                assertThat(metric)
+                                        .hasName("rum.pipeline.spans.dropped")
+                                        .hasLongSumSatisfying(
+                                                sum ->
+                                                        sum.hasPointsSatisfying(
+                                                                point ->
+                                                                        point.hasValue(0)
+                                                                                .hasAttributes(
+                                                                                        reason(
+                                                                                                "queue_full")),
+                                                                point ->
+                                                                        point.hasValue(3)
+                                                                                .hasAttributes(
+                                                                                        reason(
+                                                                                                "throttled")),
+                                                                point ->
+                                                                        point.hasValue(0)
+                                                                                .hasAttributes(
+                                                                                        reason(
+                                                                                                "backlog_full")),
+                                                                point ->
+                                                                        point.hasValue(0)
+                                                                                .hasAttributes(
+                                                                                        reason(
+                                                                                                "pre_init_full")))))
+                .anySatisfy(
+                        metric ->
+                                assertThat(metric)
+                                        .hasName("rum.pipeline.uploaded")
+                                        .hasUnit("By")
+                                        .hasLongSumSatisfying(
+                                                sum ->
+                                                        sum.hasPointsSatisfying(
+                                                                point -> point.hasValue(50))))
+                .anySatisfy(
+                        metric ->
+                                assertThat(metric)
+                                        .hasName("rum.pipeline.spans.queued")
+                                        .hasLongGaugeSatisfying(
+                                                gauge ->
+                                                        gauge.hasPointsSatisfying(
+                                                                point ->
+                                                                        point.hasValue(0)
+                                                                                .hasAttributes(
+                                                                                        queue(
+                                                                                                "processor")),
+                                                                point ->
+                                                                        point.hasValue(4)
+                                                                                .hasAttributes(
+                                                                                        queue(
+                                                                                                "backlog")))));
+    }
+
+    private static Attributes reason(String reason) {
+        return Attributes.of(PipelineHealth.REASON_KEY, reason);
+    }
+
+    private static Attributes queue(String queue) {
+        return Attributes.of(PipelineHealth.QUEUE_KEY, queue);
+    }
+}
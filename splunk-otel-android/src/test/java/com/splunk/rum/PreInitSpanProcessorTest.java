@@ -0,0 +1,108 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static com.splunk.rum.SplunkRum.COMPONENT_CRASH;
+import static com.splunk.rum.SplunkRum.COMPONENT_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PreInitSpanProcessorTest {
+
+    @Mock SpanProcessor delegate;
+    @Mock ReadableSpan first;
+    @Mock ReadableSpan second;
+    @Mock ReadableSpan third;
+    @Mock SpanExporter crashFileExporter;
+    @Mock SpanData firstData;
+    @Mock SpanData crashData;
+
+    @Test
+    void replaysBufferedSpansInOrder() {
+        PreInitSpanProcessor processor = new PreInitSpanProcessor(10, new PipelineHealth());
+
+        processor.onEnd(first);
+        processor.onEnd(second);
+        processor.setDelegate(delegate);
+        processor.onEnd(third);
+
+        InOrder inOrder = inOrder(delegate);
+        inOrder.verify(delegate).onEnd(first);
+        inOrder.verify(delegate).onEnd(second);
+        inOrder.verify(delegate).onEnd(third);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void dropsSpansWhenBufferIsFull() {
+        PipelineHealth pipelineHealth = new PipelineHealth();
+        PreInitSpanProcessor processor = new PreInitSpanProcessor(1, pipelineHealth);
+
+        processor.onEnd(first);
+        processor.onEnd(second);
+
+        assertThat(pipelineHealth.snapshot().getSpansDroppedPreInitFull()).isEqualTo(1);
+        assertThat(pipelineHealth.snapshot().getQueuedSpans()).isEqualTo(1);
+
+        processor.setDelegate(delegate);
+
+        verify(delegate).onEnd(first);
+        assertThat(pipelineHealth.snapshot().getQueuedSpans()).isZero();
+    }
+
+    @Test
+    void flushAndShutdownSucceedBeforeThePipelineIsReady() {
+        PreInitSpanProcessor processor = new PreInitSpanProcessor(10, new PipelineHealth());
+
+        assertThat(processor.forceFlush().isSuccess()).isTrue();
+        assertThat(processor.shutdown().isSuccess()).isTrue();
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void writesCrashFileWhenCrashingBeforeThePipelineIsReady() {
+        PreInitSpanProcessor processor =
+                new PreInitSpanProcessor(10, new PipelineHealth(), crashFileExporter);
+        when(first.toSpanData()).thenReturn(firstData);
+        when(second.getAttribute(COMPONENT_KEY)).thenReturn(COMPONENT_CRASH);
+        when(second.toSpanData()).thenReturn(crashData);
+
+        processor.onEnd(first);
+        processor.onEnd(second);
+
+        verify(crashFileExporter).export(Arrays.asList(crashData, firstData));
+
+        // the spans written into the crash file aren't exported again
+        processor.setDelegate(delegate);
+        verifyNoInteractions(delegate);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static com.splunk.rum.SplunkRum.COMPONENT_CRASH;
+import static com.splunk.rum.SplunkRum.COMPONENT_ERROR;
+import static com.splunk.rum.SplunkRum.COMPONENT_KEY;
+import static com.splunk.rum.SplunkRum.COMPONENT_UI;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.testing.trace.TestSpanData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PriorityRoutingExporterTest {
+
+    @Mock private SpanExporter priorityDelegate;
+    @Mock private SpanExporter bulkDelegate;
+
+    @Test
+    void routesCrashAndErrorSpansToPriorityExporter() {
+        when(priorityDelegate.export(any())).thenReturn(CompletableResultCode.ofSuccess());
+        when(bulkDelegate.export(any())).thenReturn(CompletableResultCode.ofSuccess());
+        SpanData crash = span(COMPONENT_CRASH);
+        SpanData error = span(COMPONENT_ERROR);
+        SpanData ui = span(COMPONENT_UI);
+        SpanData noComponent = span(null);
+
+        CompletableResultCode result =
+                new PriorityRoutingExporter(priorityDelegate, bulkDelegate)
+                        .export(Arrays.asList(crash, ui, error, noComponent));
+
+        assertThat(result.isSuccess()).isTrue();
+        verify(priorityDelegate).export(Arrays.asList(crash, error));
+        verify(bulkDelegate).export(Arrays.asList(ui, noComponent));
+    }
+
+    @Test
+    void doesNotCallBulkExporterForPrioritySpansOnly() {
+        SpanData crash = span(COMPONENT_CRASH);
+
+        new PriorityRoutingExporter(priorityDelegate, bulkDelegate)
+                .export(Collections.singletonList(crash));
+
+        verify(priorityDelegate).export(Collections.singletonList(crash));
+        verify(bulkDelegate, never()).export(any());
+    }
+
+    private static SpanData span(String component) {
+        return TestSpanData.builder()
+                .setName("span")
+                .setKind(SpanKind.INTERNAL)
+                .setStatus(StatusData.unset())
+                .setHasEnded(true)
+                .setStartEpochNanos(0)
+                .setEndEpochNanos(1)
+                .setAttributes(
+                        component == null
+                                ? Attributes.empty()
+                                : Attributes.of(COMPONENT_KEY, component))
+                .build();
+    }
+}
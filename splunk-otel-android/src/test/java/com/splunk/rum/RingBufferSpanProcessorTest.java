@@ -0,0 +1,257 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RingBufferSpanProcessorTest {
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+    private SdkTracerProvider tracerProvider;
+
+    @AfterEach
+    void tearDown() {
+        if (tracerProvider != null) {
+            tracerProvider.shutdown().join(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void forceFlushExportsAllEndedSpans() {
+        Tracer tracer = createTracer(RingBufferSpanProcessor.builder(exporter).build());
+
+        tracer.spanBuilder("one").startSpan().end();
+        tracer.spanBuilder("two").startSpan().end();
+        CompletableResultCode result = tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(exporter.getFinishedSpanItems())
+                .extracting(SpanData::getName)
+                .containsExactly("one", "two");
+    }
+
+    @Test
+    void exportsFullBatchWithoutWaitingForScheduleDelay() {
+        Tracer tracer =
+                createTracer(
+                        RingBufferSpanProcessor.builder(exporter)
+                                .maxExportBatchSize(3)
+                                .scheduleDelay(Duration.ofHours(1))
+                                .build());
+
+        for (int i = 0; i < 3; i++) {
+            tracer.spanBuilder("span" + i).startSpan().end();
+        }
+
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(exporter.getFinishedSpanItems()).hasSize(3));
+    }
+
+    @Test
+    void exportsPartialBatchAfterScheduleDelay() {
+        Tracer tracer =
+                createTracer(
+                        RingBufferSpanProcessor.builder(exporter)
+                                .maxExportBatchSize(100)
+                                .scheduleDelay(Duration.ofMillis(50))
+                                .build());
+
+        tracer.spanBuilder("span").startSpan().end();
+
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(exporter.getFinishedSpanItems()).hasSize(1));
+    }
+
+    @Test
+    void exportsPrioritySpansAheadOfQueuedSpans() {
+        RecordingExporter recordingExporter = new RecordingExporter();
+        Tracer tracer =
+                createTracer(
+                        RingBufferSpanProcessor.builder(recordingExporter)
+                                .scheduleDelay(Duration.ofHours(1))
+                                .priorityFilter(span -> span.getName().equals("crash"))
+                                .build());
+
+        tracer.spanBuilder("bulk").startSpan().end();
+        tracer.spanBuilder("crash").startSpan().end();
+
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(
+                        () ->
+                                assertThat(recordingExporter.spans)
+                                        .extracting(SpanData::getName)
+                                        .containsExactly("crash"));
+
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+        assertThat(recordingExporter.spans)
+                .extracting(SpanData::getName)
+                .containsExactly("crash", "bulk");
+    }
+
+    @Test
+    void ignoresNotSampledSpans() {
+        tracerProvider =
+                SdkTracerProvider.builder()
+                        .setSampler(Sampler.alwaysOff())
+                        .addSpanProcessor(RingBufferSpanProcessor.builder(exporter).build())
+                        .build();
+        Tracer tracer = tracerProvider.get("test");
+
+        tracer.spanBuilder("span").startSpan().end();
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+
+        assertThat(exporter.getFinishedSpanItems()).isEmpty();
+    }
+
+    @Test
+    void dropsSpansWhenQueueIsFull() {
+        BlockingExporter blockingExporter = new BlockingExporter();
+        PipelineHealth pipelineHealth = new PipelineHealth();
+        RingBufferSpanProcessor processor =
+                RingBufferSpanProcessor.builder(blockingExporter)
+                        .maxQueueSize(2)
+                        .maxExportBatchSize(1)
+                        .pipelineHealth(pipelineHealth)
+                        .build();
+        Tracer tracer = createTracer(processor);
+
+        // the first span gets stuck in the exporter, the next two fill the queue up
+        tracer.spanBuilder("first").startSpan().end();
+        await().atMost(Duration.ofSeconds(5)).until(() -> blockingExporter.exportCalls > 0);
+        for (int i = 0; i < 5; i++) {
+            tracer.spanBuilder("span" + i).startSpan().end();
+        }
+
+        assertThat(pipelineHealth.snapshot().getSpansDroppedQueueFull()).isEqualTo(3);
+        assertThat(pipelineHealth.snapshot().getQueuedSpans()).isEqualTo(2);
+        blockingExporter.release.succeed();
+    }
+
+    @Test
+    void recordsExportsInPipelineHealth() {
+        PipelineHealth pipelineHealth = new PipelineHealth();
+        Tracer tracer =
+                createTracer(
+                        RingBufferSpanProcessor.builder(exporter)
+                                .pipelineHealth(pipelineHealth)
+                                .build());
+
+        tracer.spanBuilder("span").startSpan().end();
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+
+        PipelineHealthSnapshot snapshot = pipelineHealth.snapshot();
+        assertThat(snapshot.getExportCount()).isEqualTo(1);
+        assertThat(snapshot.getFailedExportCount()).isZero();
+        assertThat(snapshot.getMaxExportTime()).isEqualTo(snapshot.getTotalExportTime());
+        assertThat(snapshot.getQueuedSpans()).isZero();
+    }
+
+    @Test
+    void shutdownExportsRemainingSpansAndShutsDownExporter() {
+        RecordingExporter recordingExporter = new RecordingExporter();
+        RingBufferSpanProcessor processor =
+                RingBufferSpanProcessor.builder(recordingExporter)
+                        .scheduleDelay(Duration.ofHours(1))
+                        .build();
+        Tracer tracer = createTracer(processor);
+
+        tracer.spanBuilder("span").startSpan().end();
+        CompletableResultCode result = processor.shutdown().join(5, TimeUnit.SECONDS);
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(recordingExporter.spans).extracting(SpanData::getName).containsExactly("span");
+        assertThat(recordingExporter.isShutdown).isTrue();
+
+        tracer.spanBuilder("late").startSpan().end();
+        assertThat(processor.forceFlush().isSuccess()).isTrue();
+        assertThat(recordingExporter.spans).hasSize(1);
+    }
+
+    @Test
+    void shutdownFailsWhenTheExporterFailsToShutDown() {
+        RecordingExporter failingExporter =
+                new RecordingExporter() {
+                    @Override
+                    public CompletableResultCode shutdown() {
+                        super.shutdown();
+                        return CompletableResultCode.ofFailure();
+                    }
+                };
+        RingBufferSpanProcessor processor =
+                RingBufferSpanProcessor.builder(failingExporter).build();
+
+        CompletableResultCode result = processor.shutdown().join(5, TimeUnit.SECONDS);
+
+        assertThat(result.isDone()).isTrue();
+        assertThat(result.isSuccess()).isFalse();
+    }
+
+    private Tracer createTracer(RingBufferSpanProcessor processor) {
+        tracerProvider = SdkTracerProvider.builder().addSpanProcessor(processor).build();
+        return tracerProvider.get("test");
+    }
+
+    private static class RecordingExporter implements SpanExporter {
+        final List<SpanData> spans = new CopyOnWriteArrayList<>();
+        volatile int exportCalls = 0;
+        volatile boolean isShutdown = false;
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            exportCalls++;
+            this.spans.addAll(spans);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            isShutdown = true;
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+
+    private static final class BlockingExporter extends RecordingExporter {
+        final CompletableResultCode release = new CompletableResultCode();
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            super.export(spans);
+            return release;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static com.splunk.rum.RuleBasedSampler.SAMPLING_WEIGHT_KEY;
+import static com.splunk.rum.SplunkRum.COMPONENT_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class RuleBasedSamplerTest {
+    private static final String HIGH_ID = "00000000000000008fffffffffffffff";
+    private static final String LOW_ID = "00000000000000000000000000000000";
+
+    private final SamplingRulesBuilder rules = new SamplingRulesBuilder();
+
+    @Test
+    void spansNotMatchingAnyRuleAreKept() {
+        Sampler sampler = rules.sampleSpansByName("Created"::equals, 0.0).build(Sampler.alwaysOn());
+
+        SamplingResult result = sample(sampler, HIGH_ID, "Resumed", Attributes.empty());
+
+        assertThat(result.getDecision()).isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+        assertThat(result.getAttributes()).isEqualTo(Attributes.empty());
+    }
+
+    @Test
+    void ratioIsAppliedToMatchingSpans() {
+        Sampler sampler =
+                rules.sampleSpansByAttributeValue(
+                                SemanticAttributes.HTTP_URL, url -> url.contains("/api/"), 0.5)
+                        .build(Sampler.alwaysOn());
+        Attributes attributes =
+                Attributes.of(SemanticAttributes.HTTP_URL, "https://example.com/api/items");
+
+        SamplingResult kept = sample(sampler, LOW_ID, "HTTP GET", attributes);
+        SamplingResult dropped = sample(sampler, HIGH_ID, "HTTP GET", attributes);
+
+        assertThat(kept.getDecision()).isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+        assertThat(kept.getAttributes()).isEqualTo(Attributes.of(SAMPLING_WEIGHT_KEY, 2.0));
+        assertThat(dropped.getDecision()).isEqualTo(SamplingDecision.DROP);
+    }
+
+    @Test
+    void firstMatchingRuleWins() {
+        Sampler sampler =
+                rules.sampleSpansByComponent("ui", 1.0)
+                        .sampleSpansByName("Resumed"::equals, 0.0)
+                        .build(Sampler.alwaysOn());
+
+        SamplingResult result =
+                sample(sampler, HIGH_ID, "Resumed", Attributes.of(COMPONENT_KEY, "ui"));
+
+        assertThat(result.getDecision()).isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+        assertThat(result.getAttributes()).isEqualTo(Attributes.empty());
+    }
+
+    @Test
+    void crashesAndErrorsAreAlwaysKept() {
+        Sampler sampler = rules.sampleSpansByName(name -> true, 0.0).build(Sampler.alwaysOn());
+
+        assertThat(
+                        sample(sampler, HIGH_ID, "ANR", Attributes.of(COMPONENT_KEY, "error"))
+                                .getDecision())
+                .isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+        assertThat(
+                        sample(
+                                        sampler,
+                                        HIGH_ID,
+                                        "RuntimeException",
+                                        Attributes.of(COMPONENT_KEY, "crash"))
+                                .getDecision())
+                .isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+        assertThat(sample(sampler, HIGH_ID, "Resumed", Attributes.empty()).getDecision())
+                .isEqualTo(SamplingDecision.DROP);
+    }
+
+    @Test
+    void delegateDecisionIsRespected() {
+        Sampler sampler = rules.sampleSpansByName(name -> true, 1.0).build(Sampler.alwaysOff());
+
+        assertThat(sample(sampler, LOW_ID, "Resumed", Attributes.empty()).getDecision())
+                .isEqualTo(SamplingDecision.DROP);
+        // a session that was sampled out stays sampled out, errors included
+        assertThat(
+                        sample(sampler, LOW_ID, "ANR", Attributes.of(COMPONENT_KEY, "error"))
+                                .getDecision())
+                .isEqualTo(SamplingDecision.DROP);
+    }
+
+    @Test
+    void errorsAreKeptWhenTheirParentWasDropped() {
+        Sampler sampler =
+                rules.sampleSpansByComponent("ui", 0.0)
+                        .build(Sampler.parentBased(Sampler.alwaysOn()));
+        Context droppedParent =
+                Context.root()
+                        .with(
+                                Span.wrap(
+                                        SpanContext.create(
+                                                HIGH_ID,
+                                                "0000000000000001",
+                                                TraceFlags.getDefault(),
+                                                TraceState.getDefault())));
+
+        SamplingResult error =
+                sampler.shouldSample(
+                        droppedParent,
+                        HIGH_ID,
+                        "IllegalStateException",
+                        SpanKind.INTERNAL,
+                        Attributes.of(COMPONENT_KEY, "error"),
+                        Collections.emptyList());
+        SamplingResult child =
+                sampler.shouldSample(
+                        droppedParent,
+                        HIGH_ID,
+                        "Resumed",
+                        SpanKind.INTERNAL,
+                        Attributes.empty(),
+                        Collections.emptyList());
+
+        assertThat(error.getDecision()).isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+        assertThat(error.getAttributes()).isEqualTo(Attributes.empty());
+        assertThat(child.getDecision()).isEqualTo(SamplingDecision.DROP);
+    }
+
+    @Test
+    void invalidRatiosAreIgnored() {
+        rules.sampleSpansByName(name -> true, -0.5).sampleSpansByComponent("ui", 1.5);
+
+        assertThat(rules.hasRules()).isFalse();
+    }
+
+    private static SamplingResult sample(
+            Sampler sampler, String traceId, String name, Attributes attributes) {
+        return sampler.shouldSample(
+                Context.root(),
+                traceId,
+                name,
+                SpanKind.INTERNAL,
+                attributes,
+                Collections.emptyList());
+    }
+}
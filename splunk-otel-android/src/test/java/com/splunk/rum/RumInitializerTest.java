@@ -21,11 +21,15 @@ import static io.opentelemetry.api.common.AttributeKey.stringKey;
 import static java.util.Collections.emptyList;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.app.Application;
@@ -46,10 +50,17 @@ import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.data.StatusData;
 import io.opentelemetry.sdk.trace.export.SpanExporter;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -59,6 +70,7 @@ class RumInitializerTest {
     @Mock Looper mainLooper;
     @Mock Application application;
     @Mock Context context;
+    @TempDir File filesDir;
 
     @Test
     void initializationSpan() {
@@ -108,6 +120,59 @@ class RumInitializerTest {
         checkEventExists(events, "networkMonitorInitialized");
     }
 
+    @Test
+    void deferredInstrumentationsAreInstalledAfterTheFirstFrame() {
+        SplunkRumBuilder splunkRumBuilder =
+                new SplunkRumBuilder()
+                        .setRealm("dev")
+                        .setApplicationName("testApp")
+                        .setRumAccessToken("accessToken")
+                        .enableDeferredInstrumentations();
+
+        when(application.getApplicationContext()).thenReturn(context);
+
+        InMemorySpanExporter testExporter = InMemorySpanExporter.create();
+        AppStartupTimer startupTimer = new AppStartupTimer();
+        RumInitializer testInitializer =
+                new RumInitializer(splunkRumBuilder, application, startupTimer) {
+                    @Override
+                    SpanExporter buildFilteringExporter(CurrentNetworkProvider connectionUtil) {
+                        return testExporter;
+                    }
+                };
+        SplunkRum splunkRum =
+                testInitializer.initialize(
+                        app -> mock(CurrentNetworkProvider.class, RETURNS_DEEP_STUBS), mainLooper);
+        startupTimer.runCompletionCallback();
+        splunkRum.flushSpans();
+
+        // the initialization span is kept open until the deferred instrumentations are installed
+        assertThat(testExporter.getFinishedSpanItems()).isEmpty();
+
+        ArgumentCaptor<Application.ActivityLifecycleCallbacks> callbacks =
+                ArgumentCaptor.forClass(Application.ActivityLifecycleCallbacks.class);
+        verify(application, atLeastOnce()).registerActivityLifecycleCallbacks(callbacks.capture());
+        FirstFrameIdleTask firstFrameIdleTask =
+                callbacks.getAllValues().stream()
+                        .filter(FirstFrameIdleTask.class::isInstance)
+                        .map(FirstFrameIdleTask.class::cast)
+                        .findFirst()
+                        .orElseThrow(AssertionError::new);
+        firstFrameIdleTask.queueIdle();
+        splunkRum.flushSpans();
+
+        List<SpanData> spans = testExporter.getFinishedSpanItems();
+        assertEquals(1, spans.size());
+        SpanData initSpan = spans.get(0);
+        assertEquals("SplunkRum.initialize", initSpan.getName());
+        List<EventData> events = initSpan.getEvents();
+        checkEventExists(events, "crashReportingInitialized");
+        checkEventExists(events, "anrMonitorInitialized");
+        checkEventExists(events, "networkMonitorInitialized");
+        checkEventExists(events, "slowRenderingDetectorInitialized");
+        checkEventExists(events, "deferredInstrumentationsInstalled");
+    }
+
     private void checkEventExists(List<EventData> events, String eventName) {
         assertTrue(
                 events.stream().map(EventData::getName).anyMatch(name -> name.equals(eventName)),
@@ -167,6 +232,8 @@ class RumInitializerTest {
                         .setRumAccessToken("accessToken");
         AppStartupTimer startupTimer = new AppStartupTimer();
         InMemorySpanExporter testExporter = InMemorySpanExporter.create();
+        when(application.getApplicationContext()).thenReturn(context);
+        when(context.getFilesDir()).thenReturn(filesDir);
 
         RumInitializer testInitializer =
                 new RumInitializer(splunkRumBuilder, application, startupTimer) {
@@ -224,6 +291,7 @@ class RumInitializerTest {
                         .setApplicationName("test");
 
         when(application.getApplicationContext()).thenReturn(context);
+        when(context.getFilesDir()).thenReturn(filesDir);
 
         CurrentNetworkProvider currentNetworkProvider =
                 mock(CurrentNetworkProvider.class, RETURNS_DEEP_STUBS);
@@ -246,8 +314,9 @@ class RumInitializerTest {
         splunkRum.flushSpans();
 
         List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        // the error span takes the priority lane, so it may get exported first
         assertThat(spans)
-                .satisfiesExactly(
+                .satisfiesExactlyInAnyOrder(
                         span ->
                                 OpenTelemetryAssertions.assertThat(span)
                                         .hasName("SplunkRum.initialize"),
@@ -283,4 +352,181 @@ class RumInitializerTest {
                                                                                 .EXCEPTION_STACKTRACE))
                                         .hasEvents(emptyList()));
     }
+
+    @Test
+    void asyncInitializationReplaysSpansThatEndedBeforeThePipelineWasReady()
+            throws InterruptedException {
+        SplunkRumBuilder splunkRumBuilder =
+                new SplunkRumBuilder()
+                        .setRealm("dev")
+                        .setApplicationName("testApp")
+                        .setRumAccessToken("accessToken")
+                        .enableAsyncInitialization();
+
+        when(application.getApplicationContext()).thenReturn(context);
+        when(context.getFilesDir()).thenReturn(filesDir);
+
+        InMemorySpanExporter testExporter = InMemorySpanExporter.create();
+        CountDownLatch spanEnded = new CountDownLatch(1);
+        CountDownLatch pipelineReady = new CountDownLatch(1);
+        RumInitializer testInitializer =
+                new RumInitializer(splunkRumBuilder, application, new AppStartupTimer()) {
+                    @Override
+                    SpanExporter buildFilteringExporter(CurrentNetworkProvider connectionUtil) {
+                        return testExporter;
+                    }
+
+                    @Override
+                    void runOnMainThread(Looper mainLooper, Runnable task) {
+                        pipelineReady.countDown();
+                    }
+                };
+        SplunkRum splunkRum =
+                testInitializer.initialize(
+                        app -> {
+                            // keeps the pipeline from being built until the span has ended
+                            try {
+                                spanEnded.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            return mock(CurrentNetworkProvider.class, RETURNS_DEEP_STUBS);
+                        },
+                        mainLooper);
+
+        splunkRum.addRumEvent("earlyEvent", Attributes.empty());
+        splunkRum.flushSpans();
+        assertThat(testExporter.getFinishedSpanItems()).isEmpty();
+
+        spanEnded.countDown();
+        assertTrue(pipelineReady.await(10, SECONDS));
+        splunkRum.flushSpans();
+
+        assertThat(testExporter.getFinishedSpanItems())
+                .satisfiesExactly(
+                        span -> OpenTelemetryAssertions.assertThat(span).hasName("earlyEvent"));
+    }
+
+    @Test
+    void asyncInitializationReportsCrashesBeforeThePipelineIsReady() {
+        SplunkRumBuilder splunkRumBuilder =
+                new SplunkRumBuilder()
+                        .setRealm("dev")
+                        .setApplicationName("testApp")
+                        .setRumAccessToken("accessToken")
+                        .enableAsyncInitialization();
+
+        when(application.getApplicationContext()).thenReturn(context);
+        when(context.getFilesDir()).thenReturn(filesDir);
+
+        Thread.UncaughtExceptionHandler existingHandler =
+                Thread.getDefaultUncaughtExceptionHandler();
+        Thread.UncaughtExceptionHandler appHandler = mock(Thread.UncaughtExceptionHandler.class);
+        Thread.setDefaultUncaughtExceptionHandler(appHandler);
+        CountDownLatch crashed = new CountDownLatch(1);
+        try {
+            new RumInitializer(splunkRumBuilder, application, new AppStartupTimer())
+                    .initialize(
+                            app -> {
+                                // keeps the pipeline from being built until the app has crashed
+                                try {
+                                    crashed.await();
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                                return mock(CurrentNetworkProvider.class, RETURNS_DEEP_STUBS);
+                            },
+                            mainLooper);
+
+            Thread.getDefaultUncaughtExceptionHandler()
+                    .uncaughtException(Thread.currentThread(), new IllegalStateException("boom"));
+
+            verify(appHandler).uncaughtException(any(), any());
+            List<byte[]> crashFileSpans =
+                    new CrashFileSender(
+                                    FileUtils.getCrashSpansFile(application),
+                                    CrashFileSender.DEFAULT_MAX_CONTENT_BYTES)
+                            .readSpans();
+            assertThat(crashFileSpans)
+                    .anySatisfy(
+                            span ->
+                                    assertThat(new String(span, StandardCharsets.UTF_8))
+                                            .contains("IllegalStateException"));
+        } finally {
+            crashed.countDown();
+            Thread.setDefaultUncaughtExceptionHandler(existingHandler);
+        }
+    }
+
+    @Test
+    void asyncInitializationInstallsDeferredInstrumentationsAfterTheFirstFrame()
+            throws InterruptedException {
+        SplunkRumBuilder splunkRumBuilder =
+                new SplunkRumBuilder()
+                        .setRealm("dev")
+                        .setApplicationName("testApp")
+                        .setRumAccessToken("accessToken")
+                        .enableAsyncInitialization()
+                        .enableDeferredInstrumentations();
+
+        when(application.getApplicationContext()).thenReturn(context);
+        when(context.getFilesDir()).thenReturn(filesDir);
+
+        InMemorySpanExporter testExporter = InMemorySpanExporter.create();
+        AppStartupTimer startupTimer = new AppStartupTimer();
+        CountDownLatch firstFrameDrawn = new CountDownLatch(1);
+        BlockingQueue<Runnable> mainThreadTasks = new LinkedBlockingQueue<>();
+        RumInitializer testInitializer =
+                new RumInitializer(splunkRumBuilder, application, startupTimer) {
+                    @Override
+                    SpanExporter buildFilteringExporter(CurrentNetworkProvider connectionUtil) {
+                        return testExporter;
+                    }
+
+                    @Override
+                    void runOnMainThread(Looper mainLooper, Runnable task) {
+                        mainThreadTasks.add(task);
+                    }
+                };
+        SplunkRum splunkRum =
+                testInitializer.initialize(
+                        app -> {
+                            // keeps the pipeline from being built until the first frame is drawn
+                            try {
+                                firstFrameDrawn.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            return mock(CurrentNetworkProvider.class, RETURNS_DEEP_STUBS);
+                        },
+                        mainLooper);
+
+        // the launcher activity draws its first frame before the instrumentations are installed
+        ArgumentCaptor<Application.ActivityLifecycleCallbacks> callbacks =
+                ArgumentCaptor.forClass(Application.ActivityLifecycleCallbacks.class);
+        verify(application, atLeastOnce()).registerActivityLifecycleCallbacks(callbacks.capture());
+        FirstFrameIdleTask firstFrameIdleTask =
+                callbacks.getAllValues().stream()
+                        .filter(FirstFrameIdleTask.class::isInstance)
+                        .map(FirstFrameIdleTask.class::cast)
+                        .findFirst()
+                        .orElseThrow(AssertionError::new);
+        firstFrameIdleTask.queueIdle();
+        startupTimer.runCompletionCallback();
+        firstFrameDrawn.countDown();
+
+        Runnable installInstrumentations = mainThreadTasks.poll(10, SECONDS);
+        assertThat(installInstrumentations).isNotNull();
+        installInstrumentations.run();
+        splunkRum.flushSpans();
+
+        List<SpanData> spans = testExporter.getFinishedSpanItems();
+        assertEquals(1, spans.size());
+        SpanData initSpan = spans.get(0);
+        assertEquals("SplunkRum.initialize", initSpan.getName());
+        List<EventData> events = initSpan.getEvents();
+        checkEventExists(events, "crashReportingInitialized");
+        checkEventExists(events, "anrMonitorInitialized");
+        checkEventExists(events, "deferredInstrumentationsInstalled");
+    }
 }
@@ -18,6 +18,10 @@ package com.splunk.rum;
 
 import static io.opentelemetry.context.Context.root;
 import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.content.Context;
@@ -58,4 +62,17 @@ class RuntimeDetailsExtractorTest {
                 .containsKey(SplunkRum.HEAP_FREE_KEY)
                 .containsEntry(SplunkRum.BATTERY_PERCENT_KEY, 69.0);
     }
+
+    @Test
+    void batteryIsOnlyTrackedInTheForeground() {
+        RuntimeDetailsExtractor<?, ?> details = RuntimeDetailsExtractor.create(context);
+        details.onApplicationForegrounded();
+        verify(context).registerReceiver(eq(details), any());
+
+        details.onApplicationBackgrounded();
+        verify(context).unregisterReceiver(details);
+
+        details.onApplicationForegrounded();
+        verify(context, times(2)).registerReceiver(eq(details), any());
+    }
 }
@@ -18,6 +18,7 @@ package com.splunk.rum;
 
 import static io.opentelemetry.rum.internal.RumConstants.LAST_SCREEN_NAME_KEY;
 import static io.opentelemetry.rum.internal.RumConstants.SCREEN_NAME_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -27,6 +28,7 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.rum.internal.instrumentation.activity.VisibleScreenTracker;
 import io.opentelemetry.sdk.trace.ReadWriteSpan;
@@ -77,4 +79,21 @@ class ScreenAttributesAppenderTest {
         verify(span).setAttribute(SCREEN_NAME_KEY, "unknown");
         verify(span, never()).setAttribute(eq(LAST_SCREEN_NAME_KEY), any());
     }
+
+    @Test
+    void suppliesSameAttributesUntilScreenChanges() {
+        when(visibleScreenTracker.getCurrentlyVisibleScreen())
+                .thenReturn("ScreenOne", "ScreenOne", "ScreenTwo");
+
+        ScreenAttributesAppender screenAttributesAppender =
+                new ScreenAttributesAppender(visibleScreenTracker);
+
+        Attributes first = screenAttributesAppender.get();
+        Attributes second = screenAttributesAppender.get();
+        Attributes third = screenAttributesAppender.get();
+
+        assertThat(first).isEqualTo(Attributes.of(SCREEN_NAME_KEY, "ScreenOne"));
+        assertThat(second).isSameAs(first);
+        assertThat(third).isEqualTo(Attributes.of(SCREEN_NAME_KEY, "ScreenTwo"));
+    }
 }
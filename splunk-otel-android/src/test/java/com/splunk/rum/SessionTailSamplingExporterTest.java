@@ -0,0 +1,233 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static com.splunk.rum.SplunkRum.COMPONENT_CRASH;
+import static com.splunk.rum.SplunkRum.COMPONENT_ERROR;
+import static com.splunk.rum.SplunkRum.COMPONENT_KEY;
+import static com.splunk.rum.SplunkRum.COMPONENT_UI;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.rum.internal.RumConstants;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.testing.trace.TestSpanData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SessionTailSamplingExporterTest {
+
+    private static final String SESSION_1 = "00000000000000000000000000000001";
+    private static final String SESSION_2 = "00000000000000000000000000000002";
+    private static final long NOW_NANOS = TimeUnit.MINUTES.toNanos(60);
+
+    @Mock private Clock clock;
+
+    private final RecordingExporter delegate = new RecordingExporter();
+    private final InMemoryPendingSessionSpans pendingSpans = new InMemoryPendingSessionSpans(100);
+    private SessionTailSamplingExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        exporter = createExporter(0.0);
+    }
+
+    private SessionTailSamplingExporter createExporter(double ratio) {
+        return SessionTailSamplingExporter.builder(delegate)
+                .pendingSpans(pendingSpans)
+                .samplingRatio(ratio)
+                .pendingWindow(Duration.ofMinutes(5))
+                .clock(clock)
+                .build();
+    }
+
+    @Test
+    void sessionsSampledByRatioAreExportedRightAway() {
+        exporter = createExporter(1.0);
+        SpanData span = span("click", SESSION_1, COMPONENT_UI);
+
+        exporter.export(Arrays.asList(span));
+
+        assertThat(delegate.exported).containsExactly(span);
+        assertThat(pendingSpans.size()).isZero();
+    }
+
+    @Test
+    void spansOfPendingSessionAreHeldBack() {
+        when(clock.now()).thenReturn(NOW_NANOS);
+
+        exporter.export(Arrays.asList(span("click", SESSION_1, COMPONENT_UI)));
+
+        assertThat(delegate.exported).isEmpty();
+        assertThat(pendingSpans.size()).isEqualTo(1);
+    }
+
+    @Test
+    void spansWithoutSessionIdAreAlwaysExported() {
+        SpanData span =
+                TestSpanData.builder()
+                        .setName("noSession")
+                        .setKind(SpanKind.INTERNAL)
+                        .setStatus(StatusData.unset())
+                        .setHasEnded(true)
+                        .setStartEpochNanos(NOW_NANOS)
+                        .setEndEpochNanos(NOW_NANOS)
+                        .build();
+
+        exporter.export(Arrays.asList(span));
+
+        assertThat(delegate.exported).containsExactly(span);
+    }
+
+    @Test
+    void pendingSessionIsDiscardedWhenNextSessionStarts() {
+        when(clock.now()).thenReturn(NOW_NANOS);
+        exporter.export(Arrays.asList(span("click", SESSION_1, COMPONENT_UI)));
+
+        exporter.export(Arrays.asList(span("click", SESSION_2, COMPONENT_UI)));
+        // the first session was sampled out, a crash doesn't bring its earlier spans back
+        SpanData crash = span("crash", SESSION_1, COMPONENT_CRASH);
+        exporter.export(Arrays.asList(crash));
+
+        assertThat(delegate.exported).containsExactly(crash);
+        assertThat(pendingSpans.size()).isEqualTo(1);
+    }
+
+    @Test
+    void problemKeepsThePendingSession() {
+        when(clock.now()).thenReturn(NOW_NANOS);
+        SpanData click = span("click", SESSION_1, COMPONENT_UI);
+        exporter.export(Arrays.asList(click));
+
+        SpanData error = span("error", SESSION_1, COMPONENT_ERROR);
+        SpanData afterError = span("resumed", SESSION_1, COMPONENT_UI);
+        exporter.export(Arrays.asList(error, afterError));
+        SpanData later = span("later", SESSION_1, COMPONENT_UI);
+        exporter.export(Arrays.asList(later));
+
+        assertThat(delegate.exported).containsExactly(click, error, afterError, later);
+        assertThat(pendingSpans.size()).isZero();
+    }
+
+    @Test
+    void anrAndFrozenRendersAreProblems() {
+        SpanData anr = span(SessionTailSamplingExporter.ANR_SPAN_NAME, SESSION_1, null);
+        SpanData frozen =
+                span(SessionTailSamplingExporter.FROZEN_RENDERS_SPAN_NAME, SESSION_2, null);
+
+        exporter.export(Arrays.asList(anr));
+        exporter.export(Arrays.asList(frozen));
+
+        assertThat(delegate.exported).containsExactly(anr, frozen);
+    }
+
+    @Test
+    void pendingSpansOutsideOfWindowAreDiscarded() {
+        when(clock.now()).thenReturn(NOW_NANOS);
+        SpanData old =
+                span("old", SESSION_1, COMPONENT_UI, NOW_NANOS - TimeUnit.MINUTES.toNanos(6));
+        SpanData recent = span("recent", SESSION_1, COMPONENT_UI);
+        exporter.export(Arrays.asList(old, recent));
+
+        SpanData crash = span("crash", SESSION_1, COMPONENT_CRASH);
+        exporter.export(Arrays.asList(crash));
+
+        assertThat(delegate.exported).containsExactly(recent, crash);
+    }
+
+    @Test
+    void flushDoesNotReleasePendingSpans() {
+        when(clock.now()).thenReturn(NOW_NANOS);
+        SpanExporter mockDelegate = mock(SpanExporter.class);
+        when(mockDelegate.flush()).thenReturn(CompletableResultCode.ofSuccess());
+        exporter =
+                SessionTailSamplingExporter.builder(mockDelegate)
+                        .pendingSpans(pendingSpans)
+                        .samplingRatio(0.0)
+                        .clock(clock)
+                        .build();
+
+        exporter.export(Arrays.asList(span("click", SESSION_1, COMPONENT_UI)));
+        exporter.flush();
+
+        verify(mockDelegate).flush();
+        verify(mockDelegate, never()).export(any());
+        assertThat(pendingSpans.size()).isEqualTo(1);
+    }
+
+    private static SpanData span(String name, String sessionId, String component) {
+        return span(name, sessionId, component, NOW_NANOS);
+    }
+
+    private static SpanData span(
+            String name, String sessionId, String component, long endEpochNanos) {
+        Attributes attributes =
+                component == null
+                        ? Attributes.of(RumConstants.SESSION_ID_KEY, sessionId)
+                        : Attributes.of(
+                                RumConstants.SESSION_ID_KEY, sessionId, COMPONENT_KEY, component);
+        return TestSpanData.builder()
+                .setName(name)
+                .setKind(SpanKind.INTERNAL)
+                .setStatus(StatusData.unset())
+                .setHasEnded(true)
+                .setStartEpochNanos(endEpochNanos)
+                .setEndEpochNanos(endEpochNanos)
+                .setAttributes(attributes)
+                .build();
+    }
+
+    private static class RecordingExporter implements SpanExporter {
+        private final List<SpanData> exported = new ArrayList<>();
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            exported.addAll(spans);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
@@ -45,13 +45,16 @@ import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.rum.internal.GlobalAttributesSpanAppender;
 import io.opentelemetry.rum.internal.OpenTelemetryRum;
+import io.opentelemetry.rum.internal.RumConstants;
 import io.opentelemetry.rum.internal.instrumentation.network.CurrentNetworkProvider;
+import io.opentelemetry.rum.internal.util.StackTraceFormatter;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
 import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
 import io.opentelemetry.sdk.testing.junit5.OpenTelemetryExtension;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
 import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.io.File;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
@@ -163,7 +166,8 @@ public class SplunkRumTest {
     void addEvent() {
         when(openTelemetryRum.getOpenTelemetry()).thenReturn(otelTesting.getOpenTelemetry());
 
-        SplunkRum splunkRum = new SplunkRum(openTelemetryRum, globalAttributes);
+        SplunkRum splunkRum =
+                new SplunkRum(openTelemetryRum, globalAttributes, new PipelineHealth());
 
         Attributes attributes = Attributes.of(stringKey("one"), "1", longKey("two"), 2L);
         splunkRum.addRumEvent("foo", attributes);
@@ -181,7 +185,8 @@ public class SplunkRumTest {
 
         when(openTelemetryRum.getOpenTelemetry()).thenReturn(testSdk);
 
-        SplunkRum splunkRum = new SplunkRum(openTelemetryRum, globalAttributes);
+        SplunkRum splunkRum =
+                new SplunkRum(openTelemetryRum, globalAttributes, new PipelineHealth());
 
         NullPointerException exception = new NullPointerException("oopsie");
         Attributes attributes = Attributes.of(stringKey("one"), "1", longKey("two"), 2L);
@@ -195,8 +200,22 @@ public class SplunkRumTest {
                 .hasAttributes(
                         attributes.toBuilder()
                                 .put(COMPONENT_KEY, SplunkRum.COMPONENT_ERROR)
+                                .put(
+                                        RumConstants.EXCEPTION_FINGERPRINT_KEY,
+                                        new StackTraceFormatter().fingerprint(exception))
                                 .build())
-                .hasException(exception);
+                .hasEventsSatisfyingExactly(
+                        event ->
+                                event.hasName(SemanticAttributes.EXCEPTION_EVENT_NAME)
+                                        .hasAttributes(
+                                                Attributes.of(
+                                                        SemanticAttributes.EXCEPTION_TYPE,
+                                                        "java.lang.NullPointerException",
+                                                        SemanticAttributes.EXCEPTION_MESSAGE,
+                                                        "oopsie",
+                                                        SemanticAttributes.EXCEPTION_STACKTRACE,
+                                                        new StackTraceFormatter()
+                                                                .format(exception))));
     }
 
     private OpenTelemetrySdk buildTestSdk(InMemorySpanExporter testExporter) {
@@ -212,7 +231,8 @@ public class SplunkRumTest {
     void createAndEnd() {
         when(openTelemetryRum.getOpenTelemetry()).thenReturn(otelTesting.getOpenTelemetry());
 
-        SplunkRum splunkRum = new SplunkRum(openTelemetryRum, globalAttributes);
+        SplunkRum splunkRum =
+                new SplunkRum(openTelemetryRum, globalAttributes, new PipelineHealth());
 
         Span span = splunkRum.startWorkflow("workflow");
         Span inner = tracer.spanBuilder("foo").startSpan();
@@ -274,7 +294,8 @@ public class SplunkRumTest {
                 .when(globalAttributes)
                 .update(any());
 
-        SplunkRum splunkRum = new SplunkRum(openTelemetryRum, globalAttributes);
+        SplunkRum splunkRum =
+                new SplunkRum(openTelemetryRum, globalAttributes, new PipelineHealth());
 
         Location location = mock(Location.class);
         when(location.getLatitude()).thenReturn(42d);
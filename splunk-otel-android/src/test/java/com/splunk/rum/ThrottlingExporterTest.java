@@ -18,6 +18,7 @@ package com.splunk.rum;
 
 import static com.splunk.rum.SplunkRum.COMPONENT_KEY;
 import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verify;
 
 import io.opentelemetry.api.common.Attributes;
@@ -69,10 +70,12 @@ class ThrottlingExporterTest {
     @Test
     void shouldThrottleSpansOverLimit() {
         // given
+        PipelineHealth pipelineHealth = new PipelineHealth();
         SpanExporter underTest =
                 ThrottlingExporter.newBuilder(delegate)
                         .maxSpansInWindow(2)
                         .windowSize(Duration.ofSeconds(15))
+                        .pipelineHealth(pipelineHealth)
                         .build();
 
         Instant now = Instant.ofEpochMilli(10_000);
@@ -102,6 +105,7 @@ class ThrottlingExporterTest {
                                 // idx=5 will be skipped because it's the 3rd span in the last 15
                                 // secs
                                 ));
+        assertThat(pipelineHealth.snapshot().getSpansDroppedThrottled()).isEqualTo(2);
     }
 
     @Test
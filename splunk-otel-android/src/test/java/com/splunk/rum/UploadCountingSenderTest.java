@@ -0,0 +1,84 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import zipkin2.Call;
+import zipkin2.Callback;
+import zipkin2.reporter.Sender;
+
+@ExtendWith(MockitoExtension.class)
+class UploadCountingSenderTest {
+
+    private final List<byte[]> spans =
+            asList(
+                    "span1".getBytes(StandardCharsets.UTF_8),
+                    "span22".getBytes(StandardCharsets.UTF_8));
+    private final PipelineHealth pipelineHealth = new PipelineHealth();
+
+    @Mock private Sender delegate;
+
+    @Test
+    void countsUploadedBytes() throws IOException {
+        when(delegate.sendSpans(spans)).thenAnswer(invocation -> Call.create(null));
+        Sender sender = new UploadCountingSender(delegate, pipelineHealth);
+
+        sender.sendSpans(spans).execute();
+        sender.sendSpans(spans).execute();
+
+        assertThat(pipelineHealth.snapshot().getUploadedBytes()).isEqualTo(22);
+    }
+
+    @Test
+    void doesNotCountFailedUploads() {
+        when(delegate.sendSpans(spans)).thenReturn(failingCall());
+        Sender sender = new UploadCountingSender(delegate, pipelineHealth);
+
+        assertThatThrownBy(() -> sender.sendSpans(spans).execute()).isInstanceOf(IOException.class);
+        assertThat(pipelineHealth.snapshot().getUploadedBytes()).isZero();
+    }
+
+    private static Call<Void> failingCall() {
+        return new Call.Base<Void>() {
+            @Override
+            protected Void doExecute() throws IOException {
+                throw new IOException("boom");
+            }
+
+            @Override
+            protected void doEnqueue(Callback<Void> callback) {
+                callback.onError(new IOException("boom"));
+            }
+
+            @Override
+            public Call<Void> clone() {
+                return failingCall();
+            }
+        };
+    }
+}
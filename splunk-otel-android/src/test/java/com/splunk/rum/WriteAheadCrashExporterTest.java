@@ -0,0 +1,172 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static com.splunk.rum.SplunkRum.COMPONENT_CRASH;
+import static com.splunk.rum.SplunkRum.COMPONENT_KEY;
+import static com.splunk.rum.SplunkRum.COMPONENT_UI;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.trace.TestSpanData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class WriteAheadCrashExporterTest {
+
+    @Mock private SpanExporter delegate;
+    @Mock private SpanExporter crashFileExporter;
+    @Mock private CrashFileSender crashFileSender;
+    @Mock private Predicate<List<byte[]>> recoveredSpansHandler;
+
+    private final AtomicLong nanoTime = new AtomicLong(1_000);
+    private WriteAheadCrashExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        exporter =
+                new WriteAheadCrashExporter(
+                        delegate,
+                        crashFileExporter,
+                        crashFileSender,
+                        recoveredSpansHandler,
+                        Duration.ofNanos(200),
+                        nanoTime::get);
+    }
+
+    @Test
+    void exportsToDelegateBeforeCrash() {
+        when(crashFileSender.readSpans()).thenReturn(Collections.emptyList());
+        List<SpanData> spans = Collections.singletonList(span(COMPONENT_UI));
+
+        exporter.export(spans);
+        exporter.export(spans);
+
+        verify(delegate, times(2)).export(spans);
+        verify(crashFileSender).readSpans();
+        verifyNoInteractions(crashFileExporter, recoveredSpansHandler);
+    }
+
+    @Test
+    void writesToCrashFileAfterCrash() {
+        SpanData ui = span(COMPONENT_UI);
+
+        exporter.onCrash();
+        exporter.export(Arrays.asList(span(COMPONENT_CRASH), ui));
+
+        // the crash span has already been written on the crashing thread
+        verify(crashFileExporter).export(Collections.singletonList(ui));
+        verify(delegate, never()).export(any());
+    }
+
+    @Test
+    void exportsToDelegateAgainAfterTheCrashFlush() {
+        when(crashFileSender.readSpans()).thenReturn(Collections.emptyList());
+        List<SpanData> spans = Collections.singletonList(span(COMPONENT_UI));
+
+        exporter.onCrash();
+        exporter.export(spans);
+        nanoTime.addAndGet(200);
+        exporter.export(spans);
+
+        verify(crashFileExporter).export(spans);
+        verify(delegate).export(spans);
+    }
+
+    @Test
+    void recoversCrashFileContentOnce() {
+        List<byte[]> recovered = Collections.singletonList(new byte[] {'{', '}'});
+        when(crashFileSender.readSpans()).thenReturn(recovered);
+        when(recoveredSpansHandler.test(recovered)).thenReturn(true);
+
+        exporter.export(Collections.emptyList());
+        exporter.export(Collections.emptyList());
+
+        verify(recoveredSpansHandler).test(recovered);
+        verify(crashFileSender).clear();
+    }
+
+    @Test
+    void keepsCrashFileContentUntilHandled() {
+        List<byte[]> recovered = Collections.singletonList(new byte[] {'{', '}'});
+        when(crashFileSender.readSpans()).thenReturn(recovered);
+        when(recoveredSpansHandler.test(recovered)).thenReturn(false, true);
+
+        exporter.export(Collections.emptyList());
+        verify(crashFileSender, never()).clear();
+
+        nanoTime.addAndGet(WriteAheadCrashExporter.INITIAL_RECOVERY_BACKOFF_NANOS);
+        exporter.export(Collections.emptyList());
+        verify(crashFileSender).clear();
+    }
+
+    @Test
+    void backsOffBetweenRecoveryAttempts() {
+        List<byte[]> recovered = Collections.singletonList(new byte[] {'{', '}'});
+        when(crashFileSender.readSpans()).thenReturn(recovered);
+        when(recoveredSpansHandler.test(recovered)).thenReturn(false);
+
+        exporter.export(Collections.emptyList());
+        exporter.export(Collections.emptyList());
+        verify(recoveredSpansHandler, times(1)).test(recovered);
+
+        nanoTime.addAndGet(WriteAheadCrashExporter.INITIAL_RECOVERY_BACKOFF_NANOS);
+        exporter.export(Collections.emptyList());
+        verify(recoveredSpansHandler, times(2)).test(recovered);
+
+        // the delay doubles after every failed attempt
+        nanoTime.addAndGet(WriteAheadCrashExporter.INITIAL_RECOVERY_BACKOFF_NANOS);
+        exporter.export(Collections.emptyList());
+        verify(recoveredSpansHandler, times(2)).test(recovered);
+
+        nanoTime.addAndGet(WriteAheadCrashExporter.INITIAL_RECOVERY_BACKOFF_NANOS);
+        exporter.export(Collections.emptyList());
+        verify(recoveredSpansHandler, times(3)).test(recovered);
+        verify(delegate, times(5)).export(Collections.emptyList());
+    }
+
+    private static SpanData span(String component) {
+        return TestSpanData.builder()
+                .setName("span")
+                .setKind(SpanKind.INTERNAL)
+                .setStatus(StatusData.unset())
+                .setHasEnded(true)
+                .setStartEpochNanos(0)
+                .setEndEpochNanos(1)
+                .setAttributes(Attributes.of(COMPONENT_KEY, component))
+                .build();
+    }
+}